@@ -0,0 +1,56 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.benchmark;
+
+import io.dipcoin.sui.crypto.Ed25519KeyPair;
+import io.dipcoin.sui.crypto.SuiKeyPair;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/06 15:02
+ * @Description : benchmark fixtures, recorded api payloads live under src/test/resources/fixtures
+ */
+public interface BenchmarkFixtures {
+
+    /**
+     * ed25519 benchmark wallet
+     */
+    SuiKeyPair ED25519_KEY_PAIR = Ed25519KeyPair.decodeHex("123");
+
+    /**
+     * secp256k1 benchmark wallet (private key 0x789)
+     */
+    SuiKeyPair SECP256K1_KEY_PAIR = SuiKeyPair.decodeSuiPrivateKey("suiprivkey1qyqqqqqqqqqqqqqqqqqqqqqqqqqqqqqqqqqqqqqqqqqqqqqqqqrcjte8g92");
+
+    /**
+     * load a recorded payload
+     * @param name file name under fixtures/
+     * @return
+     */
+    static byte[] load(String name) {
+        try (InputStream in = BenchmarkFixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Unknown fixture: " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.benchmark;
+
+import io.dipcoin.sui.perp.util.DecimalUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/06 15:21
+ * @Description : decimal conversion benchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecimalUtilBenchmark {
+
+    private final String price = "3940.125";
+
+    private final BigDecimal priceDecimal = new BigDecimal("3940.125");
+
+    private final BigInteger baseUnitPrice = DecimalUtil.toBaseUnit(priceDecimal);
+
+    private final BigInteger baseUnitQuantity = DecimalUtil.toBaseUnit(new BigDecimal("1.5"));
+
+    @Benchmark
+    public BigInteger toBaseUnitString() {
+        return DecimalUtil.toBaseUnit(price);
+    }
+
+    @Benchmark
+    public BigInteger toBaseUnitDecimal() {
+        return DecimalUtil.toBaseUnit(priceDecimal);
+    }
+
+    @Benchmark
+    public BigDecimal fromBaseUnit() {
+        return DecimalUtil.fromBaseUnit(baseUnitPrice);
+    }
+
+    @Benchmark
+    public BigInteger baseMul() {
+        return DecimalUtil.baseMul(baseUnitPrice, baseUnitQuantity);
+    }
+
+    @Benchmark
+    public BigInteger baseDiv() {
+        return DecimalUtil.baseDiv(baseUnitPrice, baseUnitQuantity);
+    }
+
+}
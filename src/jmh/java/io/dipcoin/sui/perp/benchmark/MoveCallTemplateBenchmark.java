@@ -0,0 +1,110 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.benchmark;
+
+import io.dipcoin.sui.bcs.PureBcs;
+import io.dipcoin.sui.bcs.TypeTagSerializer;
+import io.dipcoin.sui.bcs.types.arg.call.CallArgObjectArg;
+import io.dipcoin.sui.bcs.types.arg.call.CallArgPure;
+import io.dipcoin.sui.bcs.types.arg.object.ObjectArgImmOrOwnedObject;
+import io.dipcoin.sui.bcs.types.gas.GasData;
+import io.dipcoin.sui.bcs.types.gas.SuiObjectRef;
+import io.dipcoin.sui.bcs.types.transaction.Argument;
+import io.dipcoin.sui.bcs.types.transaction.Command;
+import io.dipcoin.sui.bcs.types.transaction.ProgrammableMoveCall;
+import io.dipcoin.sui.bcs.types.transaction.ProgrammableTransaction;
+import io.dipcoin.sui.client.TransactionBuilder;
+import io.dipcoin.sui.perp.client.chain.MoveCallTemplate;
+import io.dipcoin.sui.perp.enums.PerpFunction;
+import io.dipcoin.sui.perp.enums.PerpNetwork;
+import io.dipcoin.sui.perp.model.PerpConfig;
+import io.dipcoin.sui.perp.util.SaltGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/19 11:00
+ * @Description : withdraw transaction building benchmark, the inline move call is the previous approach
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveCallTemplateBenchmark {
+
+    private static final String SENDER = BenchmarkFixtures.ED25519_KEY_PAIR.address();
+
+    private static final BigInteger AMOUNT = BigInteger.valueOf(1_000_000_000L);
+
+    private PerpConfig perpConfig;
+
+    private CallArgObjectArg sharedObject;
+
+    private GasData gasData;
+
+    @Setup
+    public void setUp() {
+        perpConfig = PerpNetwork.TESTNET.getConfig();
+        SuiObjectRef ref = new SuiObjectRef("0x" + "1".repeat(64), 1L, "11111111111111111111111111111111");
+        sharedObject = new CallArgObjectArg(new ObjectArgImmOrOwnedObject(ref));
+        gasData = new GasData(List.of(ref), SENDER, 1_000L, BigInteger.valueOf(50_000_000L));
+    }
+
+    @Benchmark
+    public ProgrammableTransaction inlineMoveCall() {
+        PerpFunction perpFunction = PerpFunction.WITHDRAW;
+        ProgrammableTransaction programmableTx = new ProgrammableTransaction();
+        ProgrammableMoveCall moveCall = new ProgrammableMoveCall(
+                perpConfig.packageId(),
+                perpFunction.getModule(),
+                perpFunction.getFunction(),
+                TypeTagSerializer.parseStructTypeArgs(perpConfig.coinType(), true),
+                Arrays.asList(
+                        Argument.ofInput(programmableTx.addInput(sharedObject)),
+                        Argument.ofInput(programmableTx.addInput(sharedObject)),
+                        Argument.ofInput(programmableTx.addInput(sharedObject)),
+                        Argument.ofInput(programmableTx.addInput(new CallArgPure(SaltGenerator.nextSalt(), PureBcs.BasePureType.VECTOR_U8))),
+                        Argument.ofInput(programmableTx.addInput(new CallArgPure(SENDER, PureBcs.BasePureType.ADDRESS))),
+                        Argument.ofInput(programmableTx.addInput(new CallArgPure(AMOUNT, PureBcs.BasePureType.U128)))));
+        programmableTx.addCommand(new Command.MoveCall(moveCall));
+        return programmableTx;
+    }
+
+    @Benchmark
+    public ProgrammableTransaction templateMoveCall() {
+        ProgrammableTransaction programmableTx = new ProgrammableTransaction();
+        MoveCallTemplate.of(perpConfig, PerpFunction.WITHDRAW).append(new MoveCallTemplate.Inputs(programmableTx, key -> sharedObject), SENDER, AMOUNT);
+        return programmableTx;
+    }
+
+    @Benchmark
+    public String inlineSerialize() throws IOException {
+        return TransactionBuilder.serializeTransactionBytes(this.inlineMoveCall(), SENDER, gasData);
+    }
+
+    @Benchmark
+    public String templateSerialize() throws IOException {
+        return TransactionBuilder.serializeTransactionBytes(this.templateMoveCall(), SENDER, gasData);
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.benchmark;
+
+import io.dipcoin.sui.crypto.SuiKeyPair;
+import io.dipcoin.sui.perp.enums.OrderSide;
+import io.dipcoin.sui.perp.enums.OrderType;
+import io.dipcoin.sui.perp.model.request.PlaceOrderRequest;
+import io.dipcoin.sui.perp.util.DecimalUtil;
+import io.dipcoin.sui.perp.util.OrderUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/06 15:10
+ * @Description : order serialization and signature benchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderUtilBenchmark {
+
+    @Param({"ED25519", "SECP256K1"})
+    private String scheme;
+
+    private SuiKeyPair keyPair;
+
+    private PlaceOrderRequest request;
+
+    private String serializedOrder;
+
+    @Setup
+    public void setUp() {
+        this.keyPair = "ED25519".equals(scheme) ? BenchmarkFixtures.ED25519_KEY_PAIR : BenchmarkFixtures.SECP256K1_KEY_PAIR;
+        this.request = new PlaceOrderRequest()
+                .setSymbol("ETH-PERP")
+                .setMarket("0x8c65003d5d1a529adc4be78cfceb3855ef529d9807fcd58b06caab0a96caa806")
+                .setPrice(DecimalUtil.toBaseUnit(new BigInteger("3940")))
+                .setQuantity(DecimalUtil.toBaseUnit(BigInteger.ONE))
+                .setSide(OrderSide.BUY.getCode())
+                .setOrderType(OrderType.LIMIT.getCode())
+                .setLeverage(DecimalUtil.toBaseUnit(BigInteger.ONE))
+                .setSalt("1761897600123")
+                .setCreator(keyPair.address());
+        this.serializedOrder = OrderUtil.getSerializedOrder(request);
+    }
+
+    @Benchmark
+    public String serializeOrder() {
+        return OrderUtil.getSerializedOrder(request);
+    }
+
+    @Benchmark
+    public String signOrder() {
+        return OrderUtil.getSignature(serializedOrder, keyPair);
+    }
+
+}
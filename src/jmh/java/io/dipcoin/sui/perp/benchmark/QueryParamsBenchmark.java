@@ -0,0 +1,74 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.benchmark;
+
+import io.dipcoin.sui.perp.client.core.AbstractHttpClient;
+import io.dipcoin.sui.perp.model.request.HistoryOrdersRequest;
+import io.dipcoin.sui.perp.model.request.SymbolRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/06 15:30
+ * @Description : request to query params conversion benchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryParamsBenchmark {
+
+    private final QueryParamsClient client = new QueryParamsClient();
+
+    private final SymbolRequest symbolRequest = new SymbolRequest();
+
+    private final HistoryOrdersRequest historyOrdersRequest = new HistoryOrdersRequest()
+            .setSymbol("ETH-PERP")
+            .setPageNum(1)
+            .setPageSize(100)
+            .setBeginTime(1761292800000L)
+            .setEndTime(1761897600000L);
+
+    @Setup
+    public void setUp() {
+        symbolRequest.setSymbol("ETH-PERP");
+    }
+
+    @Benchmark
+    public Map<String, String> symbolRequest() {
+        return client.queryParams(symbolRequest);
+    }
+
+    @Benchmark
+    public Map<String, String> historyOrdersRequest() {
+        return client.queryParams(historyOrdersRequest);
+    }
+
+    /**
+     * exposes the protected conversion of AbstractHttpClient
+     */
+    private static class QueryParamsClient extends AbstractHttpClient {
+
+        Map<String, String> queryParams(Object request) {
+            return super.toQueryParams(request);
+        }
+
+    }
+
+}
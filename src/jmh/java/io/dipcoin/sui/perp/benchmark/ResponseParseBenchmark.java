@@ -0,0 +1,112 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dipcoin.sui.perp.model.ApiResponse;
+import io.dipcoin.sui.perp.model.PageResponse;
+import io.dipcoin.sui.perp.model.compact.CompactHistoryOrder;
+import io.dipcoin.sui.perp.model.compact.CompactPosition;
+import io.dipcoin.sui.perp.model.response.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/06 15:42
+ * @Description : Jackson deserialization benchmark over recorded api payloads
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseParseBenchmark {
+
+    private static final TypeReference<ApiResponse<OrderBookResponse>> ORDER_BOOK_TYPE = new TypeReference<>() {};
+
+    private static final TypeReference<ApiResponse<TickerResponse>> TICKER_TYPE = new TypeReference<>() {};
+
+    private static final TypeReference<ApiResponse<List<PositionResponse>>> POSITIONS_TYPE = new TypeReference<>() {};
+
+    private static final TypeReference<ApiResponse<PageResponse<HistoryOrdersResponse>>> HISTORY_ORDERS_TYPE = new TypeReference<>() {};
+
+    private static final TypeReference<ApiResponse<List<CompactPosition>>> COMPACT_POSITIONS_TYPE = new TypeReference<>() {};
+
+    private static final TypeReference<ApiResponse<PageResponse<CompactHistoryOrder>>> COMPACT_HISTORY_ORDERS_TYPE = new TypeReference<>() {};
+
+    private static final TypeReference<ApiResponse<PageResponse<FundingSettlementsResponse>>> FUNDING_SETTLEMENTS_TYPE = new TypeReference<>() {};
+
+    private static final TypeReference<ApiResponse<PageResponse<BalanceChangesResponse>>> BALANCE_CHANGES_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final byte[] orderBook = BenchmarkFixtures.load("order-book.json");
+
+    private final byte[] ticker = BenchmarkFixtures.load("ticker.json");
+
+    private final byte[] positions = BenchmarkFixtures.load("positions.json");
+
+    private final byte[] historyOrders = BenchmarkFixtures.load("history-orders.json");
+
+    private final byte[] fundingSettlements = BenchmarkFixtures.load("funding-settlements.json");
+
+    private final byte[] balanceChanges = BenchmarkFixtures.load("balance-changes.json");
+
+    @Benchmark
+    public ApiResponse<OrderBookResponse> orderBook() throws IOException {
+        return objectMapper.readValue(orderBook, ORDER_BOOK_TYPE);
+    }
+
+    @Benchmark
+    public ApiResponse<TickerResponse> ticker() throws IOException {
+        return objectMapper.readValue(ticker, TICKER_TYPE);
+    }
+
+    @Benchmark
+    public ApiResponse<List<PositionResponse>> positions() throws IOException {
+        return objectMapper.readValue(positions, POSITIONS_TYPE);
+    }
+
+    @Benchmark
+    public ApiResponse<PageResponse<HistoryOrdersResponse>> historyOrders() throws IOException {
+        return objectMapper.readValue(historyOrders, HISTORY_ORDERS_TYPE);
+    }
+
+    @Benchmark
+    public ApiResponse<List<CompactPosition>> compactPositions() throws IOException {
+        return objectMapper.readValue(positions, COMPACT_POSITIONS_TYPE);
+    }
+
+    @Benchmark
+    public ApiResponse<PageResponse<CompactHistoryOrder>> compactHistoryOrders() throws IOException {
+        return objectMapper.readValue(historyOrders, COMPACT_HISTORY_ORDERS_TYPE);
+    }
+
+    @Benchmark
+    public ApiResponse<PageResponse<FundingSettlementsResponse>> fundingSettlements() throws IOException {
+        return objectMapper.readValue(fundingSettlements, FUNDING_SETTLEMENTS_TYPE);
+    }
+
+    @Benchmark
+    public ApiResponse<PageResponse<BalanceChangesResponse>> balanceChanges() throws IOException {
+        return objectMapper.readValue(balanceChanges, BALANCE_CHANGES_TYPE);
+    }
+
+}
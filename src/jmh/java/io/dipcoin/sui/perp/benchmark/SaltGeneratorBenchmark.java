@@ -0,0 +1,62 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.benchmark;
+
+import io.dipcoin.sui.crypto.Ed25519KeyPair;
+import io.dipcoin.sui.perp.config.SaltConfig;
+import io.dipcoin.sui.perp.enums.SaltMode;
+import io.dipcoin.sui.perp.util.SaltGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/14 15:00
+ * @Description : on-chain salt generation benchmark, key pair generation is the previous approach
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class SaltGeneratorBenchmark {
+
+    @Param({"SECURE_RANDOM", "COUNTER"})
+    private String mode;
+
+    @Setup
+    public void setUp() {
+        SaltGenerator.setConfig(new SaltConfig().setMode(SaltMode.valueOf(mode)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SaltGenerator.setConfig(new SaltConfig());
+    }
+
+    @Benchmark
+    public byte[] keyPairSalt() {
+        return Ed25519KeyPair.generate().privateKey();
+    }
+
+    @Benchmark
+    public byte[] nextSalt() {
+        return SaltGenerator.nextSalt();
+    }
+
+}
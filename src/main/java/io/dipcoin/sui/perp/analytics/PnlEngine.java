@@ -0,0 +1,323 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.analytics;
+
+import io.dipcoin.sui.perp.enums.OrderSide;
+import io.dipcoin.sui.perp.enums.OrderStatus;
+import io.dipcoin.sui.perp.model.compact.CompactHistoryOrder;
+import io.dipcoin.sui.perp.model.compact.CompactPosition;
+import io.dipcoin.sui.perp.model.response.FundingSettlementsResponse;
+import io.dipcoin.sui.perp.model.response.HistoryOrdersResponse;
+import io.dipcoin.sui.perp.model.response.PositionResponse;
+import io.dipcoin.sui.perp.util.DecimalUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/22 10:00
+ * @Description : keeps pnl and funding aggregates per account and symbol as history and positions arrive. every
+ * event adds to or replaces a few longs of one aggregate, so dashboards query snapshots instead of recomputing from
+ * raw history. orders are tracked by id: each update of an order adds what changed since the update seen last, so
+ * partial fills count as they happen and feeding an update again changes nothing. a filled or cancelled order drops
+ * its state: the most recently closed ids are remembered, and updates no newer than the oldest forgotten close are
+ * ignored, so orders must be fed in update time order (as HistorySync appends them) for a late first update to count.
+ * settlements must be fed once, e.g. from the records HistorySync appends
+ */
+public class PnlEngine {
+
+    private static final int DEFAULT_CLOSED_ORDERS = 1024;
+
+    private final Map<String, Map<String, Aggregate>> accounts = new ConcurrentHashMap<>();
+
+    /**
+     * closed order ids remembered per account and symbol
+     */
+    private final int closedOrders;
+
+    public PnlEngine() {
+        this(DEFAULT_CLOSED_ORDERS);
+    }
+
+    PnlEngine(int closedOrders) {
+        this.closedOrders = closedOrders;
+    }
+
+    /**
+     * add a history order update, whatever its status. an update older than the one seen last for the order is ignored
+     * @param order
+     */
+    public void onOrder(HistoryOrdersResponse order) {
+        boolean closed = OrderStatus.FILLED.getCode().equals(order.getOrderStatus())
+                || OrderStatus.CANCELLED.getCode().equals(order.getOrderStatus());
+        this.fill(order.getCreator(), order.getSymbol(), order.getId(), fixed(order.getFilledQuantity()),
+                fixed(order.getRealizedPnl()), fixed(order.getFilledFee()), time(order.getUpdatedAt()), closed);
+    }
+
+    /**
+     * add a compact history order update, see onOrder(HistoryOrdersResponse)
+     * @param order
+     */
+    public void onOrder(CompactHistoryOrder order) {
+        boolean closed = order.getOrderStatus() == OrderStatus.FILLED || order.getOrderStatus() == OrderStatus.CANCELLED;
+        this.fill(order.getCreator(), order.getSymbol(), order.getId(), orZero(order.getFilledQuantity()),
+                orZero(order.getRealizedPnl()), orZero(order.getFilledFee()), order.getUpdatedAt(), closed);
+    }
+
+    /**
+     * add a funding settlement
+     * @param settlement
+     */
+    public void onFunding(FundingSettlementsResponse settlement) {
+        Aggregate aggregate = this.aggregate(settlement.getAccount(), settlement.getSymbol());
+        long amount = fixed(settlement.getSettlementAmount());
+        synchronized (aggregate) {
+            aggregate.funding += amount;
+            aggregate.fundingSettlements++;
+            aggregate.touch(time(settlement.getCreatedAt()));
+        }
+    }
+
+    /**
+     * replace the open position of the position's account and symbol
+     * @param position
+     */
+    public void onPosition(PositionResponse position) {
+        OrderSide side = position.getSide() == null ? null : OrderSide.fromCode(position.getSide());
+        this.position(position.getUserAddress(), position.getSymbol(), fixed(position.getUnrealizedProfit()),
+                fixed(position.getMargin()), fixed(position.getQuantity()), side, time(position.getUpdatedAt()));
+    }
+
+    public void onPosition(CompactPosition position) {
+        this.position(position.getUserAddress(), position.getSymbol(), orZero(position.getUnrealizedProfit()),
+                orZero(position.getMargin()), orZero(position.getQuantity()), position.getSide(), position.getUpdatedAt());
+    }
+
+    /**
+     * replace all open positions of an account with a positions() result, symbols missing from it are flat
+     * @param account
+     * @param positions
+     */
+    public void onPositions(String account, Collection<PositionResponse> positions) {
+        Set<String> open = new HashSet<>();
+        positions.forEach(position -> open.add(position.getSymbol()));
+        accounts.getOrDefault(account, Map.of()).forEach((symbol, aggregate) -> {
+            if (!open.contains(symbol)) {
+                synchronized (aggregate) {
+                    aggregate.flatten();
+                }
+            }
+        });
+        positions.forEach(this::onPosition);
+    }
+
+    /**
+     * aggregate of an account's symbol
+     * @param account
+     * @param symbol
+     * @return null when nothing was seen for it
+     */
+    public PnlSnapshot snapshot(String account, String symbol) {
+        Aggregate aggregate = accounts.getOrDefault(account, Map.of()).get(symbol);
+        if (aggregate == null) {
+            return null;
+        }
+        synchronized (aggregate) {
+            return aggregate.snapshot(account, symbol);
+        }
+    }
+
+    /**
+     * aggregates of all symbols of an account
+     * @param account
+     * @return
+     */
+    public List<PnlSnapshot> snapshots(String account) {
+        List<PnlSnapshot> snapshots = new ArrayList<>();
+        accounts.getOrDefault(account, Map.of()).forEach((symbol, aggregate) -> {
+            synchronized (aggregate) {
+                snapshots.add(aggregate.snapshot(account, symbol));
+            }
+        });
+        return snapshots;
+    }
+
+    /**
+     * sum over all symbols of an account, without the position quantity and side which only make sense per symbol
+     * @param account
+     * @return
+     */
+    public PnlSnapshot total(String account) {
+        Aggregate total = new Aggregate();
+        for (PnlSnapshot snapshot : this.snapshots(account)) {
+            total.realizedPnl += snapshot.realizedPnl();
+            total.fees += snapshot.fees();
+            total.funding += snapshot.funding();
+            total.unrealizedPnl += snapshot.unrealizedPnl();
+            total.margin += snapshot.margin();
+            total.fills += snapshot.fills();
+            total.fundingSettlements += snapshot.fundingSettlements();
+            total.touch(snapshot.updatedAt());
+        }
+        return total.snapshot(account, null);
+    }
+
+    public Collection<String> accounts() {
+        return List.copyOf(accounts.keySet());
+    }
+
+    /**
+     * apply an order update as the difference to the update seen last for the order
+     * @param orderId null when the order cannot be tracked, the update then counts in full
+     * @param closed whether the order is filled or cancelled, its state is dropped
+     */
+    private void fill(String account, String symbol, Long orderId, long filledQuantity, long realizedPnl, long fee, long time, boolean closed) {
+        Aggregate aggregate = this.aggregate(account, symbol);
+        synchronized (aggregate) {
+            if (orderId != null && !aggregate.orders.containsKey(orderId)
+                    && (aggregate.closed.containsKey(orderId) || time <= aggregate.forgottenUntil)) {
+                return;
+            }
+            OrderState last = orderId == null ? null : aggregate.orders.get(orderId);
+            if (last == null) {
+                last = OrderState.NONE;
+            } else if (time < last.updatedAt()) {
+                return;
+            }
+            if (last.filledQuantity() <= 0L && filledQuantity > 0L) {
+                aggregate.fills++;
+            }
+            aggregate.realizedPnl += realizedPnl - last.realizedPnl();
+            aggregate.fees += fee - last.fee();
+            if (orderId != null && closed) {
+                aggregate.orders.remove(orderId);
+                aggregate.closed.put(orderId, time);
+                if (aggregate.closed.size() > closedOrders) {
+                    Iterator<Long> oldest = aggregate.closed.values().iterator();
+                    aggregate.forgottenUntil = Math.max(aggregate.forgottenUntil, oldest.next());
+                    oldest.remove();
+                }
+            } else if (orderId != null) {
+                aggregate.orders.put(orderId, new OrderState(filledQuantity, realizedPnl, fee, time));
+            }
+            aggregate.touch(time);
+        }
+    }
+
+    private void position(String account, String symbol, long unrealizedPnl, long margin, long quantity, OrderSide side, long time) {
+        Aggregate aggregate = this.aggregate(account, symbol);
+        synchronized (aggregate) {
+            aggregate.unrealizedPnl = unrealizedPnl;
+            aggregate.margin = margin;
+            aggregate.quantity = quantity;
+            aggregate.side = quantity == 0L ? null : side;
+            aggregate.touch(time);
+        }
+    }
+
+    private Aggregate aggregate(String account, String symbol) {
+        Objects.requireNonNull(account, "account");
+        Objects.requireNonNull(symbol, "symbol");
+        return accounts.computeIfAbsent(account, key -> new ConcurrentHashMap<>()).computeIfAbsent(symbol, key -> new Aggregate());
+    }
+
+    private static long fixed(String baseUnit) {
+        return baseUnit == null || baseUnit.isEmpty() ? 0L : DecimalUtil.baseUnitToFixed(baseUnit);
+    }
+
+    private static long orZero(long fixed) {
+        return fixed == DecimalUtil.NULL_FIXED ? 0L : fixed;
+    }
+
+    private static long time(Long time) {
+        return time == null ? 0L : time;
+    }
+
+    /**
+     * what an order had contributed after its last update
+     */
+    private record OrderState(long filledQuantity, long realizedPnl, long fee, long updatedAt) {
+
+        private static final OrderState NONE = new OrderState(0L, 0L, 0L, Long.MIN_VALUE);
+
+    }
+
+    private static final class Aggregate {
+
+        /**
+         * key - id of an order not filled or cancelled yet
+         * value - last update of the order
+         */
+        private final Map<Long, OrderState> orders = new HashMap<>();
+
+        /**
+         * key - id of a recently closed order
+         * value - update time that closed it, in closing order
+         */
+        private final Map<Long, Long> closed = new LinkedHashMap<>();
+
+        /**
+         * latest close time of the orders dropped from closed, older updates of unknown orders are ignored
+         */
+        private long forgottenUntil = Long.MIN_VALUE;
+
+        private long realizedPnl;
+
+        private long fees;
+
+        private long funding;
+
+        private long unrealizedPnl;
+
+        private long margin;
+
+        private long quantity;
+
+        private OrderSide side;
+
+        private long fills;
+
+        private long fundingSettlements;
+
+        private long updatedAt;
+
+        private void touch(long time) {
+            updatedAt = Math.max(updatedAt, time);
+        }
+
+        private void flatten() {
+            unrealizedPnl = 0L;
+            margin = 0L;
+            quantity = 0L;
+            side = null;
+        }
+
+        private PnlSnapshot snapshot(String account, String symbol) {
+            return new PnlSnapshot(account, symbol, realizedPnl, fees, funding, unrealizedPnl, margin, quantity, side,
+                    fills, fundingSettlements, updatedAt);
+        }
+
+    }
+
+}
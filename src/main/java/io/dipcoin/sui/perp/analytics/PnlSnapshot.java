@@ -0,0 +1,60 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.analytics;
+
+import io.dipcoin.sui.perp.enums.OrderSide;
+import io.dipcoin.sui.perp.util.DecimalUtil;
+
+import java.math.RoundingMode;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/22 10:00
+ * @Description : pnl and funding of an account, per symbol or in total. amounts are 9-digit fixed-point longs
+ * @param account
+ * @param symbol null for an account total
+ * @param realizedPnl realized pnl of the filled orders
+ * @param fees fees of the filled orders
+ * @param funding funding settlement amounts, as the api signs them
+ * @param unrealizedPnl unrealized pnl of the open position
+ * @param margin margin of the open position
+ * @param quantity quantity of the open position
+ * @param side side of the open position, null when flat or in a total
+ * @param fills orders with a filled quantity, partially filled ones included
+ * @param fundingSettlements funding settlements seen
+ * @param updatedAt newest event time
+ */
+public record PnlSnapshot(String account, String symbol, long realizedPnl, long fees, long funding, long unrealizedPnl,
+                          long margin, long quantity, OrderSide side, long fills, long fundingSettlements, long updatedAt) {
+
+    /**
+     * realized and unrealized pnl plus funding, less fees
+     * @return
+     */
+    public long netPnl() {
+        return realizedPnl + unrealizedPnl + funding - fees;
+    }
+
+    /**
+     * unrealized pnl over margin, 9-digit fixed-point, DecimalUtil.NULL_FIXED without margin
+     * @return
+     */
+    public long roe() {
+        if (margin <= 0L) {
+            return DecimalUtil.NULL_FIXED;
+        }
+        return DecimalUtil.toFixed(DecimalUtil.fromFixed(unrealizedPnl).divide(DecimalUtil.fromFixed(margin), DecimalUtil.FIXED_UINT, RoundingMode.DOWN));
+    }
+
+}
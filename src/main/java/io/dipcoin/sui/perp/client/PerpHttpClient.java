@@ -20,6 +20,7 @@ import io.dipcoin.sui.perp.client.core.PerpAuthorization;
 import io.dipcoin.sui.perp.client.core.PerpClient;
 import io.dipcoin.sui.perp.enums.PerpNetwork;
 import io.dipcoin.sui.perp.model.PageResponse;
+import io.dipcoin.sui.perp.model.PerpConfig;
 import io.dipcoin.sui.perp.model.request.*;
 import io.dipcoin.sui.perp.model.response.*;
 
@@ -50,13 +51,17 @@ public class PerpHttpClient extends AbstractHttpClient implements PerpClient {
     private final SuiKeyPair subAccount;
 
     public PerpHttpClient(PerpNetwork perpNetwork, SuiKeyPair main, SuiKeyPair sub) {
-        this.perpAuthorization = new PerpAuthorization(perpNetwork);
+        this(perpNetwork.getConfig(), main, sub);
+    }
+
+    public PerpHttpClient(PerpConfig perpConfig, SuiKeyPair main, SuiKeyPair sub) {
+        this.perpAuthorization = new PerpAuthorization(perpConfig);
         AuthSession mainAuth = authorize(main);
         AuthSession subAuth = authorize(sub);
 
-        this.perpMarketClient = new PerpMarketClient(perpNetwork);
-        this.perpUserClient = new PerpUserClient(perpNetwork, mainAuth);
-        this.perpTradeClient = new PerpTradeClient(perpNetwork, subAuth);
+        this.perpMarketClient = new PerpMarketClient(perpConfig);
+        this.perpUserClient = new PerpUserClient(perpConfig, mainAuth);
+        this.perpTradeClient = new PerpTradeClient(perpConfig, subAuth);
         this.mainAddress = main.address();
         this.subAddress = sub.address();
         this.mainAccount = main;
@@ -55,7 +55,11 @@ public class PerpMarketClient extends AbstractHttpClient {
     private final PerpConfig perpConfig;
 
     public PerpMarketClient(PerpNetwork perpNetwork) {
-        this.perpConfig = perpNetwork.getConfig();
+        this(perpNetwork.getConfig());
+    }
+
+    public PerpMarketClient(PerpConfig perpConfig) {
+        this.perpConfig = perpConfig;
     }
 
     /**
@@ -146,9 +150,9 @@ public class PerpMarketClient extends AbstractHttpClient {
         if (null == symbol || symbol.isEmpty()) {
             throw new IllegalArgumentException("symbol is null or empty!");
         }
-        String perpId = FEED_IDS.get(symbol);
-        if (perpId != null && !perpId.isEmpty()) {
-            return perpId;
+        String feedId = FEED_IDS.get(symbol);
+        if (feedId != null && !feedId.isEmpty()) {
+            return feedId;
         }
 
         List<TradingPairResponse> response = this.tradingPair();
@@ -156,9 +160,9 @@ public class PerpMarketClient extends AbstractHttpClient {
             throw new PerpHttpException("remote service internal error!");
         }
         for (TradingPairResponse tradingPairResponse : response) {
-            PERP_IDS.put(tradingPairResponse.getSymbol(), tradingPairResponse.getPriceIdentifierId());
+            FEED_IDS.put(tradingPairResponse.getSymbol(), tradingPairResponse.getPriceIdentifierId());
         }
-        return PERP_IDS.get(symbol);
+        return FEED_IDS.get(symbol);
     }
 
 }
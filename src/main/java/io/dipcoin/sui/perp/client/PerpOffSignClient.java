@@ -13,22 +13,29 @@
 
 package io.dipcoin.sui.perp.client;
 
-import io.dipcoin.sui.bcs.PureBcs;
-import io.dipcoin.sui.bcs.TypeTagSerializer;
-import io.dipcoin.sui.bcs.types.arg.call.CallArgPure;
 import io.dipcoin.sui.bcs.types.transaction.Argument;
-import io.dipcoin.sui.bcs.types.transaction.Command;
-import io.dipcoin.sui.bcs.types.transaction.ProgrammableMoveCall;
 import io.dipcoin.sui.bcs.types.transaction.ProgrammableTransaction;
 import io.dipcoin.sui.client.TransactionBuilder;
-import io.dipcoin.sui.crypto.Ed25519KeyPair;
 import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
 import io.dipcoin.sui.perp.client.chain.AbstractOnChainClient;
+import io.dipcoin.sui.perp.client.chain.BatchSigner;
+import io.dipcoin.sui.perp.client.chain.CoinSelection;
+import io.dipcoin.sui.perp.client.chain.GasCoinPool;
+import io.dipcoin.sui.perp.client.chain.GasLease;
+import io.dipcoin.sui.perp.client.chain.GasOracle;
+import io.dipcoin.sui.perp.client.chain.MoveCallTemplate;
+import io.dipcoin.sui.perp.client.chain.PerpTransactionComposer;
+import io.dipcoin.sui.perp.client.chain.PythUpdateCoordinator;
+import io.dipcoin.sui.perp.client.chain.TransactionPipeline;
 import io.dipcoin.sui.perp.client.chain.WalletService;
+import io.dipcoin.sui.perp.enums.LatencyPhase;
 import io.dipcoin.sui.perp.enums.PerpFunction;
 import io.dipcoin.sui.perp.enums.PerpNetwork;
 import io.dipcoin.sui.perp.exception.PerpOnChainException;
+import io.dipcoin.sui.perp.metrics.PerpMetrics;
+import io.dipcoin.sui.perp.metrics.TransactionEvent;
 import io.dipcoin.sui.perp.model.PerpConfig;
+import io.dipcoin.sui.perp.util.EffectsUtil;
 import io.dipcoin.sui.protocol.SuiClient;
 import io.dipcoin.sui.protocol.exceptions.RpcRequestFailedException;
 import io.dipcoin.sui.protocol.http.HttpService;
@@ -37,10 +44,8 @@ import org.bouncycastle.util.encoders.Base64;
 
 import java.io.IOException;
 import java.math.BigInteger;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author : Same
@@ -49,8 +54,15 @@ import java.util.List;
  */
 public class PerpOffSignClient extends AbstractOnChainClient {
 
+    private static final String COMPOSED_OPERATION = "composed";
+
     private final WalletService walletService;
 
+    /**
+     * signs the transactions of the asynchronous pipeline in WalletService batches
+     */
+    private final BatchSigner batchSigner;
+
     public PerpOffSignClient(PerpNetwork perpNetwork, PerpMarketClient perpMarketClient, WalletService walletService) {
         PerpConfig perpConfig = perpNetwork.getConfig();
         super.suiClient = SuiClient.build(new HttpService(perpConfig.suiRpc()));
@@ -58,6 +70,8 @@ public class PerpOffSignClient extends AbstractOnChainClient {
         super.perpMarketClient = perpMarketClient;
         super.pythClient = new PythClient(suiClient);
         this.walletService = walletService;
+        this.batchSigner = new BatchSigner(walletService, getPipelineConfig().getSignBatchSize());
+        super.initSharedObjects();
     }
 
     public PerpOffSignClient(SuiClient suiClient, PerpNetwork perpNetwork, PerpMarketClient perpMarketClient, WalletService walletService) {
@@ -66,6 +80,8 @@ public class PerpOffSignClient extends AbstractOnChainClient {
         super.perpMarketClient = perpMarketClient;
         super.pythClient = new PythClient(suiClient);
         this.walletService = walletService;
+        this.batchSigner = new BatchSigner(walletService, getPipelineConfig().getSignBatchSize());
+        super.initSharedObjects();
     }
 
     /**
@@ -77,44 +93,23 @@ public class PerpOffSignClient extends AbstractOnChainClient {
      * @return
      */
     public SuiTransactionBlockResponse setSubAccount(String sender, String subAddress, long gasPrice, BigInteger gasBudget) {
+        long startNanos = PerpMetrics.start();
         PerpFunction perpFunction = PerpFunction.SET_SUB_ACCOUNT;
 
         ProgrammableTransaction programmableTx = new ProgrammableTransaction();
-        // ProgrammableMoveCall
-        ProgrammableMoveCall moveCall = new ProgrammableMoveCall(
-                perpConfig.packageId(),
-                perpFunction.getModule(),
-                perpFunction.getFunction(),
-                Collections.emptyList(),
-                Arrays.asList(
-                        Argument.ofInput(programmableTx.addInput(this.getProtocolConfig())),
-                        Argument.ofInput(programmableTx.addInput(this.getSubAccounts())),
-                        Argument.ofInput(programmableTx.addInput(new CallArgPure(subAddress,
-                                PureBcs.BasePureType.ADDRESS))),
-                        Argument.ofInput(programmableTx.addInput(new CallArgPure(Boolean.TRUE,
-                                PureBcs.BasePureType.BOOL))))
-        );
-
-        // Command
-        Command depositMoveCallCommand = new Command.MoveCall(moveCall);
-        List<Command> commands = new ArrayList<>(List.of(
-                depositMoveCallCommand
-        ));
-        programmableTx.addCommands(commands);
-        String txBytes;
-        try {
-            txBytes = TransactionBuilder.serializeTransactionBytes(programmableTx, sender, TransactionBuilder.buildGasData(suiClient, sender, gasPrice, gasBudget));
-        } catch (IOException e) {
-            throw new PerpOnChainException("unsafe moveCall setSubAccount failed!", e);
-        }
-
-        String signature = walletService.sign(sender, Base64.decode(txBytes));
+        MoveCallTemplate.of(perpConfig, perpFunction).append(this.inputs(programmableTx), subAddress);
+        return this.signAndSend(perpFunction, "setSubAccount", programmableTx, sender, List.of(subAddress), gasPrice, gasBudget, startNanos);
+    }
 
-        try {
-            return TransactionBuilder.sendTransaction(suiClient, txBytes, List.of(signature));
-        } catch (IOException e) {
-            throw new RpcRequestFailedException("Failed to send setSubAccount transaction", e);
-        }
+    /**
+     * deposit to bank, paying the cached reference gas price and the learned gas budget
+     * @param sender
+     * @param amount
+     * @return
+     */
+    public SuiTransactionBlockResponse deposit(String sender, BigInteger amount) {
+        GasOracle gasOracle = this.getGasOracle();
+        return this.deposit(sender, amount, gasOracle.getReferenceGasPrice(), gasOracle.estimateGasBudget(PerpFunction.DEPOSIT));
     }
 
     /**
@@ -125,52 +120,33 @@ public class PerpOffSignClient extends AbstractOnChainClient {
      * @return
      */
     public SuiTransactionBlockResponse deposit(String sender, BigInteger amount, long gasPrice, BigInteger gasBudget) {
+        long startNanos = PerpMetrics.start();
         PerpFunction perpFunction = PerpFunction.DEPOSIT;
 
         ProgrammableTransaction programmableTx = new ProgrammableTransaction();
 
         String coinType = perpConfig.coinType();
-        int splitIndex = this.splitCoin(programmableTx, sender, coinType, amount);
-        // ProgrammableMoveCall
-        ProgrammableMoveCall moveCall = new ProgrammableMoveCall(
-                perpConfig.packageId(),
-                perpFunction.getModule(),
-                perpFunction.getFunction(),
-                TypeTagSerializer.parseStructTypeArgs(coinType, true),
-                Arrays.asList(
-                        Argument.ofInput(programmableTx.addInput(this.getProtocolConfig())),
-                        Argument.ofInput(programmableTx.addInput(this.getBank())),
-                        Argument.ofInput(programmableTx.addInput(this.getTxIndexer())),
-//                        Argument.ofInput(programmableTx.addInput(new CallArgPure(OrderUtil.getSalt(),
-                        Argument.ofInput(programmableTx.addInput(new CallArgPure(Ed25519KeyPair.generate().privateKey(),
-                                PureBcs.BasePureType.VECTOR_U8))),
-                        Argument.ofInput(programmableTx.addInput(new CallArgPure(sender,
-                                PureBcs.BasePureType.ADDRESS))),
-                        Argument.ofInput(programmableTx.addInput(new CallArgPure(amount.longValue(),
-                                PureBcs.BasePureType.U64))),
-                        new Argument.NestedResult(splitIndex, 0)
-                ));
-
-        // Command
-        Command depositMoveCallCommand = new Command.MoveCall(moveCall);
-        List<Command> commands = new ArrayList<>(List.of(
-                depositMoveCallCommand
-        ));
-        programmableTx.addCommands(commands);
-        String txBytes;
+        CoinSelection coinSelection = this.selectCoins(sender, coinType, amount);
+        SuiTransactionBlockResponse response = null;
         try {
-            txBytes = TransactionBuilder.serializeTransactionBytes(programmableTx, sender, TransactionBuilder.buildGasData(suiClient, sender, gasPrice, gasBudget));
-        } catch (IOException e) {
-            throw new PerpOnChainException("unsafe moveCall deposit failed!", e);
+            int splitIndex = this.splitCoin(programmableTx, coinSelection, amount);
+            MoveCallTemplate.of(perpConfig, perpFunction).append(this.inputs(programmableTx), sender, amount, new Argument.NestedResult(splitIndex, 0));
+            response = this.signAndSend(perpFunction, "deposit", programmableTx, sender, List.of(amount, coinSelection.coins()), gasPrice, gasBudget, startNanos);
+            return response;
+        } finally {
+            this.settleCoins(coinSelection, amount, response);
         }
+    }
 
-        String signature = walletService.sign(sender, Base64.decode(txBytes));
-
-        try {
-            return TransactionBuilder.sendTransaction(suiClient, txBytes, List.of(signature));
-        } catch (IOException e) {
-            throw new RpcRequestFailedException("Failed to send deposit transaction", e);
-        }
+    /**
+     * withdraw from bank, paying the cached reference gas price and the learned gas budget
+     * @param sender
+     * @param amount
+     * @return
+     */
+    public SuiTransactionBlockResponse withdraw(String sender, BigInteger amount) {
+        GasOracle gasOracle = this.getGasOracle();
+        return this.withdraw(sender, amount, gasOracle.getReferenceGasPrice(), gasOracle.estimateGasBudget(PerpFunction.WITHDRAW));
     }
 
     /**
@@ -181,108 +157,332 @@ public class PerpOffSignClient extends AbstractOnChainClient {
      * @return
      */
     public SuiTransactionBlockResponse withdraw(String sender, BigInteger amount, long gasPrice, BigInteger gasBudget) {
+        long startNanos = PerpMetrics.start();
         PerpFunction perpFunction = PerpFunction.WITHDRAW;
 
         ProgrammableTransaction programmableTx = new ProgrammableTransaction();
+        MoveCallTemplate.of(perpConfig, perpFunction).append(this.inputs(programmableTx), sender, amount);
+        return this.signAndSend(perpFunction, "withdraw", programmableTx, sender, List.of(amount), gasPrice, gasBudget, startNanos);
+    }
 
-        String coinType = perpConfig.coinType();
-        // ProgrammableMoveCall
-        ProgrammableMoveCall moveCall = new ProgrammableMoveCall(
-                perpConfig.packageId(),
-                perpFunction.getModule(),
-                perpFunction.getFunction(),
-                TypeTagSerializer.parseStructTypeArgs(coinType, true),
-                Arrays.asList(
-                        Argument.ofInput(programmableTx.addInput(this.getProtocolConfig())),
-                        Argument.ofInput(programmableTx.addInput(this.getBank())),
-                        Argument.ofInput(programmableTx.addInput(this.getTxIndexer())),
-//                        Argument.ofInput(programmableTx.addInput(new CallArgPure(OrderUtil.getSalt(),
-                        Argument.ofInput(programmableTx.addInput(new CallArgPure(Ed25519KeyPair.generate().privateKey(),
-                                PureBcs.BasePureType.VECTOR_U8))),
-                        Argument.ofInput(programmableTx.addInput(new CallArgPure(sender,
-                                PureBcs.BasePureType.ADDRESS))),
-                        Argument.ofInput(programmableTx.addInput(new CallArgPure(amount,
-                                PureBcs.BasePureType.U128)))
-                ));
-
-        // Command
-        Command depositMoveCallCommand = new Command.MoveCall(moveCall);
-        List<Command> commands = new ArrayList<>(List.of(
-                depositMoveCallCommand
-        ));
-        programmableTx.addCommands(commands);
-        String txBytes;
+    /**
+     * add margin, paying the cached reference gas price and the learned gas budget
+     * @param sender
+     * @param subAddress
+     * @param symbol
+     * @param amount
+     * @return
+     */
+    public SuiTransactionBlockResponse addMargin(String sender, String subAddress, String symbol, BigInteger amount) {
+        GasOracle gasOracle = this.getGasOracle();
+        return this.addMargin(sender, subAddress, symbol, amount, gasOracle.getReferenceGasPrice(), gasOracle.estimateGasBudget(PerpFunction.ADD_MARGIN));
+    }
+
+    /**
+     * add margin
+     * @param sender
+     * @param subAddress
+     * @param gasPrice
+     * @param gasBudget
+     * @return
+     */
+    public SuiTransactionBlockResponse addMargin(String sender, String subAddress, String symbol, BigInteger amount, long gasPrice, BigInteger gasBudget) {
+        long startNanos = PerpMetrics.start();
+        PerpFunction perpFunction = PerpFunction.ADD_MARGIN;
+        String feedId = perpMarketClient.getPythFeedId(symbol);
+
+        PythUpdateCoordinator pythUpdateCoordinator = this.getPythUpdateCoordinator();
+        PythUpdateCoordinator.PriceUpdate priceUpdate = pythUpdateCoordinator.begin(pythClient, perpConfig.pythNetwork(), List.of(feedId));
+
+        ProgrammableTransaction programmableTx = priceUpdate.programmableTx();
+        MoveCallTemplate.of(perpConfig, perpFunction).append(this.inputs(programmableTx), subAddress, symbol, amount);
+        SuiTransactionBlockResponse response = null;
         try {
-            txBytes = TransactionBuilder.serializeTransactionBytes(programmableTx, sender, TransactionBuilder.buildGasData(suiClient, sender, gasPrice, gasBudget));
-        } catch (IOException e) {
-            throw new PerpOnChainException("unsafe moveCall withdraw failed!", e);
+            response = this.signAndSend(perpFunction, "addMargin", programmableTx, sender, List.of(subAddress, symbol, amount), gasPrice, gasBudget, startNanos);
+            return response;
+        } finally {
+            this.settlePriceUpdate(priceUpdate, response);
         }
+    }
 
-        String signature = walletService.sign(sender, Base64.decode(txBytes));
+    /**
+     * send several composed perp actions as one transaction, paying the cached reference gas price and the
+     * learned gas budgets of the composed functions
+     * @param sender
+     * @param composer
+     * @return
+     */
+    public SuiTransactionBlockResponse sendComposed(String sender, PerpTransactionComposer composer) {
+        GasOracle gasOracle = this.getGasOracle();
+        return this.sendComposed(sender, composer, gasOracle.getReferenceGasPrice(), gasOracle.estimateGasBudget(composer.functions()));
+    }
 
+    /**
+     * send several composed perp actions as one transaction
+     * @param sender
+     * @param composer
+     * @param gasPrice
+     * @param gasBudget
+     * @return
+     */
+    public SuiTransactionBlockResponse sendComposed(String sender, PerpTransactionComposer composer, long gasPrice, BigInteger gasBudget) {
+        long startNanos = PerpMetrics.start();
+        PerpTransactionComposer.ComposedTransaction composed = composer.build(sender);
+        SuiTransactionBlockResponse response = null;
         try {
-            return TransactionBuilder.sendTransaction(suiClient, txBytes, List.of(signature));
+            response = this.signAndSend(COMPOSED_OPERATION, null, "sendComposed", composed.programmableTx(), sender, composer.arguments(composed), gasPrice, gasBudget, startNanos);
+            return response;
+        } finally {
+            this.settleComposed(composed, response);
+        }
+    }
+
+    /**
+     * send several composed perp actions through the asynchronous pipeline, paying the cached reference gas price
+     * and the learned gas budgets of the composed functions
+     * @param sender
+     * @param composer
+     * @return
+     */
+    public CompletableFuture<SuiTransactionBlockResponse> sendComposedAsync(String sender, PerpTransactionComposer composer) {
+        GasOracle gasOracle = this.getGasOracle();
+        return this.sendComposedAsync(sender, composer, gasOracle.getReferenceGasPrice(), gasOracle.estimateGasBudget(composer.functions()));
+    }
+
+    /**
+     * send several composed perp actions through the asynchronous pipeline. transactions with deposits are ordered
+     * per sender, the others overlap freely; transactions waiting for a signature are signed together through
+     * WalletService.signBatch while the next ones are built
+     * @param sender
+     * @param composer
+     * @param gasPrice
+     * @param gasBudget
+     * @return
+     */
+    public CompletableFuture<SuiTransactionBlockResponse> sendComposedAsync(String sender, PerpTransactionComposer composer, long gasPrice, BigInteger gasBudget) {
+        long startNanos = PerpMetrics.start();
+        return this.getTransactionPipeline().submit(getPipelineLane(sender, composer), new TransactionPipeline.Stages<PendingComposed, String>() {
+
+            @Override
+            public PendingComposed build() {
+                PerpTransactionComposer.ComposedTransaction composed = composer.build(sender);
+                try {
+                    PreparedTransaction prepared = prepare(COMPOSED_OPERATION, "sendComposedAsync", composed.programmableTx(), sender, gasPrice, gasBudget, startNanos);
+                    try {
+                        preflight(COMPOSED_OPERATION, null, sender, composer.arguments(composed), gasBudget, prepared::txBytes);
+                    } catch (RuntimeException e) {
+                        abandon(prepared);
+                        throw e;
+                    }
+                    return new PendingComposed(composed, prepared);
+                } catch (RuntimeException e) {
+                    settleComposed(composed, null);
+                    throw e;
+                }
+            }
+
+            @Override
+            public CompletableFuture<String> sign(PendingComposed pending) {
+                return signAsync(pending.prepared());
+            }
+
+            @Override
+            public SuiTransactionBlockResponse submit(PendingComposed pending, String signature) {
+                return PerpOffSignClient.this.submit(pending.prepared(), null, signature);
+            }
+
+            @Override
+            public void complete(PendingComposed pending, String signature, SuiTransactionBlockResponse response) {
+                if (signature == null) {
+                    abandon(pending.prepared());
+                }
+                settleComposed(pending.composed(), response);
+            }
+        });
+    }
+
+    /**
+     * resize the sender's gas coin pool: merge dust coins and split new gas coins off the largest one
+     * @param sender
+     * @param gasPrice
+     * @param gasBudget
+     * @return null when the pool is already sized
+     */
+    public SuiTransactionBlockResponse rebalanceGasCoins(String sender, long gasPrice, BigInteger gasBudget) {
+        GasCoinPool gasCoinPool = this.getGasCoinPool(sender);
+        GasCoinPool.GasRebalance rebalance = gasCoinPool.prepareRebalance(gasBudget);
+        if (rebalance == null) {
+            return null;
+        }
+        SuiTransactionBlockResponse response = null;
+        try {
+            String txBytes;
+            try {
+                txBytes = TransactionBuilder.serializeTransactionBytes(rebalance.programmableTx(), sender, rebalance.lease().toGasData(gasPrice, gasBudget));
+            } catch (IOException e) {
+                throw new PerpOnChainException("unsafe gas rebalance failed!", e);
+            }
+            String signature = walletService.sign(sender, Base64.decode(txBytes));
+            response = TransactionBuilder.sendTransaction(suiClient, txBytes, List.of(signature));
+            return response;
         } catch (IOException e) {
-            throw new RpcRequestFailedException("Failed to send withdraw transaction", e);
+            throw new RpcRequestFailedException("Failed to send gas rebalance transaction", e);
+        } finally {
+            this.releaseGas(gasCoinPool, rebalance.lease(), response);
         }
     }
 
     /**
-     * add margin
+     * serialize, sign through the WalletService and send the transaction, recording phase timings
+     * @param perpFunction
+     * @param method client method name used in error messages
+     * @param programmableTx
      * @param sender
-     * @param subAddress
+     * @param arguments call arguments the preflight result depends on
      * @param gasPrice
      * @param gasBudget
+     * @param startNanos
      * @return
      */
-    public SuiTransactionBlockResponse addMargin(String sender, String subAddress, String symbol, BigInteger amount, long gasPrice, BigInteger gasBudget) {
-        PerpFunction perpFunction = PerpFunction.ADD_MARGIN;
-        String feedId = perpMarketClient.getPythFeedId(symbol);
+    private SuiTransactionBlockResponse signAndSend(PerpFunction perpFunction, String method, ProgrammableTransaction programmableTx, String sender, List<Object> arguments, long gasPrice, BigInteger gasBudget, long startNanos) {
+        return this.signAndSend(perpFunction.getFunction(), perpFunction, method, programmableTx, sender, arguments, gasPrice, gasBudget, startNanos);
+    }
 
-        ProgrammableTransaction programmableTx = pythClient.updatePrice(feedId, perpConfig.pythNetwork());
-        // ProgrammableMoveCall
-        ProgrammableMoveCall moveCall = new ProgrammableMoveCall(
-                perpConfig.packageId(),
-                perpFunction.getModule(),
-                perpFunction.getFunction(),
-                TypeTagSerializer.parseStructTypeArgs(perpConfig.coinType(), true),
-                Arrays.asList(
-                        Argument.ofInput(programmableTx.addInput(this.getProtocolConfig())),
-                        Argument.ofInput(programmableTx.addInput(this.getClock())),
-                        Argument.ofInput(programmableTx.addInput(this.getPerpetual(symbol))),
-                        Argument.ofInput(programmableTx.addInput(this.getBank())),
-                        Argument.ofInput(programmableTx.addInput(this.getSubAccounts())),
-                        Argument.ofInput(programmableTx.addInput(this.getTxIndexer())),
-                        Argument.ofInput(programmableTx.addInput(this.getPriceOracleObject(symbol))),
-                        Argument.ofInput(programmableTx.addInput(new CallArgPure(subAddress,
-                                PureBcs.BasePureType.ADDRESS))),
-                        Argument.ofInput(programmableTx.addInput(new CallArgPure(amount,
-                                PureBcs.BasePureType.U128))),
-                        Argument.ofInput(programmableTx.addInput(new CallArgPure(Ed25519KeyPair.generate().privateKey(),
-                                PureBcs.BasePureType.VECTOR_U8)))
-                )
-        );
-
-        // Command
-        Command depositMoveCallCommand = new Command.MoveCall(moveCall);
-        List<Command> commands = new ArrayList<>(List.of(
-                depositMoveCallCommand
-        ));
-        programmableTx.addCommands(commands);
+    /**
+     * serialize, preflight, sign through the WalletService and send the transaction, recording phase timings
+     * @param operation metrics operation name
+     * @param perpFunction function whose gas usage is learned, null for composed transactions
+     * @param method client method name used in error messages
+     * @param programmableTx
+     * @param sender
+     * @param arguments call arguments the preflight result depends on
+     * @param gasPrice
+     * @param gasBudget
+     * @param startNanos
+     * @return
+     */
+    private SuiTransactionBlockResponse signAndSend(String operation, PerpFunction perpFunction, String method, ProgrammableTransaction programmableTx, String sender, List<Object> arguments, long gasPrice, BigInteger gasBudget, long startNanos) {
+        PreparedTransaction prepared = this.prepare(operation, method, programmableTx, sender, gasPrice, gasBudget, startNanos);
+        String signature;
+        try {
+            this.preflight(operation, perpFunction, sender, arguments, gasBudget, prepared::txBytes);
+            signature = this.sign(prepared);
+        } catch (RuntimeException e) {
+            this.abandon(prepared);
+            throw e;
+        }
+        return this.submit(prepared, perpFunction, signature);
+    }
+
+    /**
+     * lease a gas coin and serialize the transaction, the lease is held until submit or abandon
+     * @param operation
+     * @param method
+     * @param programmableTx
+     * @param sender
+     * @param gasPrice
+     * @param gasBudget
+     * @param startNanos
+     * @return
+     */
+    private PreparedTransaction prepare(String operation, String method, ProgrammableTransaction programmableTx, String sender, long gasPrice, BigInteger gasBudget, long startNanos) {
+        PerpMetrics.record(operation, LatencyPhase.BUILD, startNanos);
+        GasCoinPool gasCoinPool = this.getGasCoinPool(sender);
+        GasLease lease;
+        try {
+            lease = gasCoinPool.lease(gasBudget);
+        } catch (RuntimeException e) {
+            PerpMetrics.record(operation, LatencyPhase.TOTAL, startNanos);
+            throw e;
+        }
+        long serializeNanos = PerpMetrics.start();
         String txBytes;
         try {
-            txBytes = TransactionBuilder.serializeTransactionBytes(programmableTx, sender, TransactionBuilder.buildGasData(suiClient, sender, gasPrice, gasBudget));
+            txBytes = TransactionBuilder.serializeTransactionBytes(programmableTx, sender, lease.toGasData(gasPrice, gasBudget));
         } catch (IOException e) {
-            throw new PerpOnChainException("unsafe moveCall addMargin failed!", e);
+            gasCoinPool.abandon(lease);
+            throw new PerpOnChainException("unsafe moveCall " + method + " failed!", e);
         }
+        PerpMetrics.record(operation, LatencyPhase.SERIALIZE, serializeNanos);
+        return new PreparedTransaction(operation, method, sender, gasCoinPool, lease, gasBudget, txBytes, startNanos);
+    }
+
+    /**
+     * sign a prepared transaction through the WalletService
+     * @param prepared
+     * @return
+     */
+    private String sign(PreparedTransaction prepared) {
+        long signNanos = PerpMetrics.start();
+        String signature = walletService.sign(prepared.sender(), Base64.decode(prepared.txBytes()));
+        PerpMetrics.record(prepared.operation(), LatencyPhase.SIGN, signNanos);
+        return signature;
+    }
 
-        String signature = walletService.sign(sender, Base64.decode(txBytes));
+    /**
+     * sign a prepared transaction in the next WalletService batch
+     * @param prepared
+     * @return
+     */
+    private CompletableFuture<String> signAsync(PreparedTransaction prepared) {
+        long signNanos = PerpMetrics.start();
+        return batchSigner.sign(prepared.sender(), Base64.decode(prepared.txBytes()))
+                .whenComplete((signature, error) -> PerpMetrics.record(prepared.operation(), LatencyPhase.SIGN, signNanos));
+    }
 
+    /**
+     * send a signed transaction and release its gas coin
+     * @param prepared
+     * @param perpFunction function whose gas usage is learned, null for composed transactions
+     * @param signature
+     * @return
+     */
+    private SuiTransactionBlockResponse submit(PreparedTransaction prepared, PerpFunction perpFunction, String signature) {
+        String operation = prepared.operation();
+        SuiTransactionBlockResponse response = null;
+        TransactionEvent event = new TransactionEvent();
+        event.begin();
+        long submitNanos = PerpMetrics.start();
         try {
-            return TransactionBuilder.sendTransaction(suiClient, txBytes, List.of(signature));
+            response = TransactionBuilder.sendTransaction(suiClient, prepared.txBytes(), List.of(signature));
+            this.observeGas(perpFunction, prepared.gasBudget(), response);
+            return response;
         } catch (IOException e) {
-            throw new RpcRequestFailedException("Failed to send addMargin transaction", e);
+            throw new RpcRequestFailedException("Failed to send " + prepared.method() + " transaction", e);
+        } finally {
+            PerpMetrics.record(operation, LatencyPhase.SUBMIT, submitNanos);
+            event.end();
+            if (event.shouldCommit()) {
+                event.function = operation;
+                event.sender = prepared.sender();
+                event.digest = response == null ? null : response.getDigest();
+                event.succeeded = EffectsUtil.isSuccess(response);
+                event.pending = response != null && !EffectsUtil.hasEffects(response);
+                event.commit();
+            }
+            this.releaseGas(prepared.gasCoinPool(), prepared.lease(), response);
+            PerpMetrics.record(operation, LatencyPhase.TOTAL, prepared.startNanos());
         }
     }
 
+    /**
+     * give up a prepared transaction that will not be sent
+     * @param prepared
+     */
+    private void abandon(PreparedTransaction prepared) {
+        prepared.gasCoinPool().abandon(prepared.lease());
+        PerpMetrics.record(prepared.operation(), LatencyPhase.TOTAL, prepared.startNanos());
+    }
+
+    /**
+     * a serialized transaction holding a leased gas coin
+     */
+    private record PreparedTransaction(String operation, String method, String sender, GasCoinPool gasCoinPool,
+                                       GasLease lease, BigInteger gasBudget, String txBytes, long startNanos) {}
+
+    /**
+     * a composed transaction prepared for signing
+     */
+    private record PendingComposed(PerpTransactionComposer.ComposedTransaction composed, PreparedTransaction prepared) {}
+
 }
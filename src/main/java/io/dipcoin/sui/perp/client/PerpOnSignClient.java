@@ -13,31 +13,37 @@
 
 package io.dipcoin.sui.perp.client;
 
-import io.dipcoin.sui.bcs.PureBcs;
-import io.dipcoin.sui.bcs.TypeTagSerializer;
-import io.dipcoin.sui.bcs.types.arg.call.CallArgPure;
+import io.dipcoin.sui.bcs.types.gas.GasData;
 import io.dipcoin.sui.bcs.types.transaction.Argument;
-import io.dipcoin.sui.bcs.types.transaction.Command;
-import io.dipcoin.sui.bcs.types.transaction.ProgrammableMoveCall;
 import io.dipcoin.sui.bcs.types.transaction.ProgrammableTransaction;
 import io.dipcoin.sui.client.TransactionBuilder;
-import io.dipcoin.sui.crypto.Ed25519KeyPair;
 import io.dipcoin.sui.crypto.SuiKeyPair;
 import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
 import io.dipcoin.sui.perp.client.chain.AbstractOnChainClient;
+import io.dipcoin.sui.perp.client.chain.CoinSelection;
+import io.dipcoin.sui.perp.client.chain.GasCoinPool;
+import io.dipcoin.sui.perp.client.chain.GasLease;
+import io.dipcoin.sui.perp.client.chain.GasOracle;
+import io.dipcoin.sui.perp.client.chain.MoveCallTemplate;
+import io.dipcoin.sui.perp.client.chain.PerpTransactionComposer;
+import io.dipcoin.sui.perp.client.chain.PythUpdateCoordinator;
+import io.dipcoin.sui.perp.client.chain.TransactionPipeline;
+import io.dipcoin.sui.perp.enums.LatencyPhase;
 import io.dipcoin.sui.perp.enums.PerpFunction;
 import io.dipcoin.sui.perp.enums.PerpNetwork;
+import io.dipcoin.sui.perp.exception.PerpOnChainException;
 import io.dipcoin.sui.perp.exception.PerpRpcFailedException;
+import io.dipcoin.sui.perp.metrics.PerpMetrics;
+import io.dipcoin.sui.perp.metrics.TransactionEvent;
+import io.dipcoin.sui.perp.util.EffectsUtil;
 import io.dipcoin.sui.protocol.SuiClient;
 import io.dipcoin.sui.protocol.http.HttpService;
 import io.dipcoin.sui.pyth.core.PythClient;
 
 import java.io.IOException;
 import java.math.BigInteger;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * @author : Same
@@ -46,11 +52,14 @@ import java.util.List;
  */
 public class PerpOnSignClient extends AbstractOnChainClient {
 
+    private static final String COMPOSED_OPERATION = "composed";
+
     public PerpOnSignClient(PerpNetwork perpNetwork) {
         super.perpConfig = perpNetwork.getConfig();
         super.suiClient = SuiClient.build(new HttpService(perpConfig.suiRpc()));
         super.perpMarketClient = new PerpMarketClient(perpNetwork);
         super.pythClient = new PythClient(suiClient);
+        super.initSharedObjects();
     }
 
     public PerpOnSignClient(SuiClient suiClient, PerpNetwork perpNetwork) {
@@ -58,6 +67,7 @@ public class PerpOnSignClient extends AbstractOnChainClient {
         super.suiClient = suiClient;
         super.perpMarketClient = new PerpMarketClient(perpNetwork);
         super.pythClient = new PythClient(suiClient);
+        super.initSharedObjects();
     }
 
     public PerpOnSignClient(PerpNetwork perpNetwork, PerpMarketClient perpMarketClient) {
@@ -65,6 +75,7 @@ public class PerpOnSignClient extends AbstractOnChainClient {
         super.suiClient = SuiClient.build(new HttpService(perpConfig.suiRpc()));
         super.perpMarketClient = perpMarketClient;
         super.pythClient = new PythClient(suiClient);
+        super.initSharedObjects();
     }
 
     public PerpOnSignClient(SuiClient suiClient, PerpNetwork perpNetwork, PerpMarketClient perpMarketClient) {
@@ -72,6 +83,7 @@ public class PerpOnSignClient extends AbstractOnChainClient {
         super.perpConfig = perpNetwork.getConfig();
         super.perpMarketClient = perpMarketClient;
         super.pythClient = new PythClient(suiClient);
+        super.initSharedObjects();
     }
 
     /**
@@ -83,37 +95,24 @@ public class PerpOnSignClient extends AbstractOnChainClient {
      * @return
      */
     public SuiTransactionBlockResponse setSubAccount(SuiKeyPair suiKeyPair, String subAddress, long gasPrice, BigInteger gasBudget) {
+        long startNanos = PerpMetrics.start();
         PerpFunction perpFunction = PerpFunction.SET_SUB_ACCOUNT;
-        String address = suiKeyPair.address();
 
         ProgrammableTransaction programmableTx = new ProgrammableTransaction();
-        // ProgrammableMoveCall
-        ProgrammableMoveCall moveCall = new ProgrammableMoveCall(
-                perpConfig.packageId(),
-                perpFunction.getModule(),
-                perpFunction.getFunction(),
-                Collections.emptyList(),
-                Arrays.asList(
-                        Argument.ofInput(programmableTx.addInput(this.getProtocolConfig())),
-                        Argument.ofInput(programmableTx.addInput(this.getSubAccounts())),
-                        Argument.ofInput(programmableTx.addInput(new CallArgPure(subAddress,
-                                PureBcs.BasePureType.ADDRESS))),
-                        Argument.ofInput(programmableTx.addInput(new CallArgPure(Boolean.TRUE,
-                                PureBcs.BasePureType.BOOL))))
-        );
-
-        // Command
-        Command depositMoveCallCommand = new Command.MoveCall(moveCall);
-        List<Command> commands = new ArrayList<>(List.of(
-                depositMoveCallCommand
-        ));
-        programmableTx.addCommands(commands);
+        MoveCallTemplate.of(perpConfig, perpFunction).append(this.inputs(programmableTx), subAddress);
 
-        try {
-            return TransactionBuilder.sendTransaction(suiClient, programmableTx, suiKeyPair, TransactionBuilder.buildGasData(suiClient, address, gasPrice, gasBudget));
-        } catch (IOException e) {
-            throw new PerpRpcFailedException("Failed to send transaction", e);
-        }
+        return this.sendTransaction(perpFunction, programmableTx, suiKeyPair, List.of(subAddress), gasPrice, gasBudget, startNanos);
+    }
+
+    /**
+     * deposit to bank, paying the cached reference gas price and the learned gas budget
+     * @param suiKeyPair
+     * @param amount
+     * @return
+     */
+    public SuiTransactionBlockResponse deposit(SuiKeyPair suiKeyPair, BigInteger amount) {
+        GasOracle gasOracle = this.getGasOracle();
+        return this.deposit(suiKeyPair, amount, gasOracle.getReferenceGasPrice(), gasOracle.estimateGasBudget(PerpFunction.DEPOSIT));
     }
 
     /**
@@ -124,47 +123,37 @@ public class PerpOnSignClient extends AbstractOnChainClient {
      * @return
      */
     public SuiTransactionBlockResponse deposit(SuiKeyPair suiKeyPair, BigInteger amount, long gasPrice, BigInteger gasBudget) {
+        long startNanos = PerpMetrics.start();
         PerpFunction perpFunction = PerpFunction.DEPOSIT;
         String address = suiKeyPair.address();
 
         ProgrammableTransaction programmableTx = new ProgrammableTransaction();
 
         String coinType = perpConfig.coinType();
-        int splitIndex = this.splitCoin(programmableTx, address, coinType, amount);
-        // ProgrammableMoveCall
-        ProgrammableMoveCall moveCall = new ProgrammableMoveCall(
-                perpConfig.packageId(),
-                perpFunction.getModule(),
-                perpFunction.getFunction(),
-                TypeTagSerializer.parseStructTypeArgs(coinType, true),
-                Arrays.asList(
-                        Argument.ofInput(programmableTx.addInput(this.getProtocolConfig())),
-                        Argument.ofInput(programmableTx.addInput(this.getBank())),
-                        Argument.ofInput(programmableTx.addInput(this.getTxIndexer())),
-//                        Argument.ofInput(programmableTx.addInput(new CallArgPure(OrderUtil.getSalt(),
-                        Argument.ofInput(programmableTx.addInput(new CallArgPure(Ed25519KeyPair.generate().privateKey(),
-                                PureBcs.BasePureType.VECTOR_U8))),
-                        Argument.ofInput(programmableTx.addInput(new CallArgPure(address,
-                                PureBcs.BasePureType.ADDRESS))),
-                        Argument.ofInput(programmableTx.addInput(new CallArgPure(amount.longValue(),
-                                PureBcs.BasePureType.U64))),
-                        new Argument.NestedResult(splitIndex, 0)
-                ));
-
-        // Command
-        Command depositMoveCallCommand = new Command.MoveCall(moveCall);
-        List<Command> commands = new ArrayList<>(List.of(
-                depositMoveCallCommand
-        ));
-        programmableTx.addCommands(commands);
-
+        CoinSelection coinSelection = this.selectCoins(address, coinType, amount);
+        SuiTransactionBlockResponse response = null;
         try {
-            return TransactionBuilder.sendTransaction(suiClient, programmableTx, suiKeyPair, TransactionBuilder.buildGasData(suiClient, address, gasPrice, gasBudget));
-        } catch (IOException e) {
-            throw new PerpRpcFailedException("Failed to send transaction", e);
+            int splitIndex = this.splitCoin(programmableTx, coinSelection, amount);
+            MoveCallTemplate.of(perpConfig, perpFunction).append(this.inputs(programmableTx), address, amount, new Argument.NestedResult(splitIndex, 0));
+
+            response = this.sendTransaction(perpFunction, programmableTx, suiKeyPair, List.of(amount, coinSelection.coins()), gasPrice, gasBudget, startNanos);
+            return response;
+        } finally {
+            this.settleCoins(coinSelection, amount, response);
         }
     }
 
+    /**
+     * withdraw from bank, paying the cached reference gas price and the learned gas budget
+     * @param suiKeyPair
+     * @param amount
+     * @return
+     */
+    public SuiTransactionBlockResponse withdraw(SuiKeyPair suiKeyPair, BigInteger amount) {
+        GasOracle gasOracle = this.getGasOracle();
+        return this.withdraw(suiKeyPair, amount, gasOracle.getReferenceGasPrice(), gasOracle.estimateGasBudget(PerpFunction.WITHDRAW));
+    }
+
     /**
      * withdraw from bank
      * @param suiKeyPair
@@ -173,43 +162,27 @@ public class PerpOnSignClient extends AbstractOnChainClient {
      * @return
      */
     public SuiTransactionBlockResponse withdraw(SuiKeyPair suiKeyPair, BigInteger amount, long gasPrice, BigInteger gasBudget) {
+        long startNanos = PerpMetrics.start();
         PerpFunction perpFunction = PerpFunction.WITHDRAW;
         String address = suiKeyPair.address();
 
         ProgrammableTransaction programmableTx = new ProgrammableTransaction();
+        MoveCallTemplate.of(perpConfig, perpFunction).append(this.inputs(programmableTx), address, amount);
 
-        String coinType = perpConfig.coinType();
-        // ProgrammableMoveCall
-        ProgrammableMoveCall moveCall = new ProgrammableMoveCall(
-                perpConfig.packageId(),
-                perpFunction.getModule(),
-                perpFunction.getFunction(),
-                TypeTagSerializer.parseStructTypeArgs(coinType, true),
-                Arrays.asList(
-                        Argument.ofInput(programmableTx.addInput(this.getProtocolConfig())),
-                        Argument.ofInput(programmableTx.addInput(this.getBank())),
-                        Argument.ofInput(programmableTx.addInput(this.getTxIndexer())),
-//                        Argument.ofInput(programmableTx.addInput(new CallArgPure(OrderUtil.getSalt(),
-                        Argument.ofInput(programmableTx.addInput(new CallArgPure(Ed25519KeyPair.generate().privateKey(),
-                                PureBcs.BasePureType.VECTOR_U8))),
-                        Argument.ofInput(programmableTx.addInput(new CallArgPure(address,
-                                PureBcs.BasePureType.ADDRESS))),
-                        Argument.ofInput(programmableTx.addInput(new CallArgPure(amount,
-                                PureBcs.BasePureType.U128)))
-                ));
-
-        // Command
-        Command depositMoveCallCommand = new Command.MoveCall(moveCall);
-        List<Command> commands = new ArrayList<>(List.of(
-                depositMoveCallCommand
-        ));
-        programmableTx.addCommands(commands);
+        return this.sendTransaction(perpFunction, programmableTx, suiKeyPair, List.of(amount), gasPrice, gasBudget, startNanos);
+    }
 
-        try {
-            return TransactionBuilder.sendTransaction(suiClient, programmableTx, suiKeyPair, TransactionBuilder.buildGasData(suiClient, address, gasPrice, gasBudget));
-        } catch (IOException e) {
-            throw new PerpRpcFailedException("Failed to send transaction", e);
-        }
+    /**
+     * add margin, paying the cached reference gas price and the learned gas budget
+     * @param suiKeyPair
+     * @param subAddress
+     * @param symbol
+     * @param amount
+     * @return
+     */
+    public SuiTransactionBlockResponse addMargin(SuiKeyPair suiKeyPair, String subAddress, String symbol, BigInteger amount) {
+        GasOracle gasOracle = this.getGasOracle();
+        return this.addMargin(suiKeyPair, subAddress, symbol, amount, gasOracle.getReferenceGasPrice(), gasOracle.estimateGasBudget(PerpFunction.ADD_MARGIN));
     }
 
     /**
@@ -221,45 +194,201 @@ public class PerpOnSignClient extends AbstractOnChainClient {
      * @return
      */
     public SuiTransactionBlockResponse addMargin(SuiKeyPair suiKeyPair, String subAddress, String symbol, BigInteger amount, long gasPrice, BigInteger gasBudget) {
+        long startNanos = PerpMetrics.start();
         PerpFunction perpFunction = PerpFunction.ADD_MARGIN;
-        String address = suiKeyPair.address();
         String feedId = perpMarketClient.getPythFeedId(symbol);
 
-        ProgrammableTransaction programmableTx = pythClient.updatePrice(feedId, perpConfig.pythNetwork());
-        // ProgrammableMoveCall
-        ProgrammableMoveCall moveCall = new ProgrammableMoveCall(
-                perpConfig.packageId(),
-                perpFunction.getModule(),
-                perpFunction.getFunction(),
-                TypeTagSerializer.parseStructTypeArgs(perpConfig.coinType(), true),
-                Arrays.asList(
-                        Argument.ofInput(programmableTx.addInput(this.getProtocolConfig())),
-                        Argument.ofInput(programmableTx.addInput(this.getClock())),
-                        Argument.ofInput(programmableTx.addInput(this.getPerpetual(symbol))),
-                        Argument.ofInput(programmableTx.addInput(this.getBank())),
-                        Argument.ofInput(programmableTx.addInput(this.getSubAccounts())),
-                        Argument.ofInput(programmableTx.addInput(this.getTxIndexer())),
-                        Argument.ofInput(programmableTx.addInput(this.getPriceOracleObject(symbol))),
-                        Argument.ofInput(programmableTx.addInput(new CallArgPure(subAddress,
-                                PureBcs.BasePureType.ADDRESS))),
-                        Argument.ofInput(programmableTx.addInput(new CallArgPure(amount,
-                                PureBcs.BasePureType.U128))),
-                        Argument.ofInput(programmableTx.addInput(new CallArgPure(Ed25519KeyPair.generate().privateKey(),
-                                PureBcs.BasePureType.VECTOR_U8)))
-                )
-        );
-
-        // Command
-        Command depositMoveCallCommand = new Command.MoveCall(moveCall);
-        List<Command> commands = new ArrayList<>(List.of(
-                depositMoveCallCommand
-        ));
-        programmableTx.addCommands(commands);
+        PythUpdateCoordinator pythUpdateCoordinator = this.getPythUpdateCoordinator();
+        PythUpdateCoordinator.PriceUpdate priceUpdate = pythUpdateCoordinator.begin(pythClient, perpConfig.pythNetwork(), List.of(feedId));
+
+        ProgrammableTransaction programmableTx = priceUpdate.programmableTx();
+        MoveCallTemplate.of(perpConfig, perpFunction).append(this.inputs(programmableTx), subAddress, symbol, amount);
+
+        SuiTransactionBlockResponse response = null;
+        try {
+            response = this.sendTransaction(perpFunction, programmableTx, suiKeyPair, List.of(subAddress, symbol, amount), gasPrice, gasBudget, startNanos);
+            return response;
+        } finally {
+            this.settlePriceUpdate(priceUpdate, response);
+        }
+    }
+
+    /**
+     * send several composed perp actions as one transaction, paying the cached reference gas price and the
+     * learned gas budgets of the composed functions
+     * @param suiKeyPair
+     * @param composer
+     * @return
+     */
+    public SuiTransactionBlockResponse sendComposed(SuiKeyPair suiKeyPair, PerpTransactionComposer composer) {
+        GasOracle gasOracle = this.getGasOracle();
+        return this.sendComposed(suiKeyPair, composer, gasOracle.getReferenceGasPrice(), gasOracle.estimateGasBudget(composer.functions()));
+    }
+
+    /**
+     * send several composed perp actions as one transaction
+     * @param suiKeyPair
+     * @param composer
+     * @param gasPrice
+     * @param gasBudget
+     * @return
+     */
+    public SuiTransactionBlockResponse sendComposed(SuiKeyPair suiKeyPair, PerpTransactionComposer composer, long gasPrice, BigInteger gasBudget) {
+        long startNanos = PerpMetrics.start();
+        PerpTransactionComposer.ComposedTransaction composed = composer.build(suiKeyPair.address());
+        SuiTransactionBlockResponse response = null;
+        try {
+            response = this.sendTransaction(COMPOSED_OPERATION, null, composed.programmableTx(), suiKeyPair, composer.arguments(composed), gasPrice, gasBudget, startNanos);
+            return response;
+        } finally {
+            this.settleComposed(composed, response);
+        }
+    }
+
+    /**
+     * send several composed perp actions through the asynchronous pipeline, paying the cached reference gas price
+     * and the learned gas budgets of the composed functions
+     * @param suiKeyPair
+     * @param composer
+     * @return
+     */
+    public CompletableFuture<SuiTransactionBlockResponse> sendComposedAsync(SuiKeyPair suiKeyPair, PerpTransactionComposer composer) {
+        GasOracle gasOracle = this.getGasOracle();
+        return this.sendComposedAsync(suiKeyPair, composer, gasOracle.getReferenceGasPrice(), gasOracle.estimateGasBudget(composer.functions()));
+    }
 
+    /**
+     * send several composed perp actions through the asynchronous pipeline. transactions with deposits are ordered
+     * per sender, the others overlap freely; the key pair signs in the submit stage
+     * @param suiKeyPair
+     * @param composer
+     * @param gasPrice
+     * @param gasBudget
+     * @return
+     */
+    public CompletableFuture<SuiTransactionBlockResponse> sendComposedAsync(SuiKeyPair suiKeyPair, PerpTransactionComposer composer, long gasPrice, BigInteger gasBudget) {
+        long startNanos = PerpMetrics.start();
+        String sender = suiKeyPair.address();
+        return this.getTransactionPipeline().submit(getPipelineLane(sender, composer), new TransactionPipeline.Stages<PerpTransactionComposer.ComposedTransaction, PerpTransactionComposer.ComposedTransaction>() {
+
+            @Override
+            public PerpTransactionComposer.ComposedTransaction build() {
+                return composer.build(sender);
+            }
+
+            @Override
+            public CompletableFuture<PerpTransactionComposer.ComposedTransaction> sign(PerpTransactionComposer.ComposedTransaction composed) {
+                return CompletableFuture.completedFuture(composed);
+            }
+
+            @Override
+            public SuiTransactionBlockResponse submit(PerpTransactionComposer.ComposedTransaction composed, PerpTransactionComposer.ComposedTransaction signed) {
+                return sendTransaction(COMPOSED_OPERATION, null, composed.programmableTx(), suiKeyPair, composer.arguments(composed), gasPrice, gasBudget, startNanos);
+            }
+
+            @Override
+            public void complete(PerpTransactionComposer.ComposedTransaction composed, PerpTransactionComposer.ComposedTransaction signed, SuiTransactionBlockResponse response) {
+                settleComposed(composed, response);
+            }
+        });
+    }
+
+    /**
+     * resize the sender's gas coin pool: merge dust coins and split new gas coins off the largest one
+     * @param suiKeyPair
+     * @param gasPrice
+     * @param gasBudget
+     * @return null when the pool is already sized
+     */
+    public SuiTransactionBlockResponse rebalanceGasCoins(SuiKeyPair suiKeyPair, long gasPrice, BigInteger gasBudget) {
+        GasCoinPool gasCoinPool = this.getGasCoinPool(suiKeyPair.address());
+        GasCoinPool.GasRebalance rebalance = gasCoinPool.prepareRebalance(gasBudget);
+        if (rebalance == null) {
+            return null;
+        }
+        SuiTransactionBlockResponse response = null;
+        try {
+            response = TransactionBuilder.sendTransaction(suiClient, rebalance.programmableTx(), suiKeyPair, rebalance.lease().toGasData(gasPrice, gasBudget));
+            return response;
+        } catch (IOException e) {
+            throw new PerpRpcFailedException("Failed to send gas rebalance transaction", e);
+        } finally {
+            this.releaseGas(gasCoinPool, rebalance.lease(), response);
+        }
+    }
+
+    /**
+     * sign and send the transaction, recording build / submit / total timings
+     * @param perpFunction
+     * @param programmableTx
+     * @param suiKeyPair
+     * @param arguments call arguments the preflight result depends on
+     * @param gasPrice
+     * @param gasBudget
+     * @param startNanos
+     * @return
+     */
+    private SuiTransactionBlockResponse sendTransaction(PerpFunction perpFunction, ProgrammableTransaction programmableTx, SuiKeyPair suiKeyPair, List<Object> arguments, long gasPrice, BigInteger gasBudget, long startNanos) {
+        return this.sendTransaction(perpFunction.getFunction(), perpFunction, programmableTx, suiKeyPair, arguments, gasPrice, gasBudget, startNanos);
+    }
+
+    /**
+     * preflight, sign and send the transaction, recording build / submit / total timings
+     * @param operation metrics operation name
+     * @param perpFunction function whose gas usage is learned, null for composed transactions
+     * @param programmableTx
+     * @param suiKeyPair
+     * @param arguments call arguments the preflight result depends on
+     * @param gasPrice
+     * @param gasBudget
+     * @param startNanos
+     * @return
+     */
+    private SuiTransactionBlockResponse sendTransaction(String operation, PerpFunction perpFunction, ProgrammableTransaction programmableTx, SuiKeyPair suiKeyPair, List<Object> arguments, long gasPrice, BigInteger gasBudget, long startNanos) {
+        PerpMetrics.record(operation, LatencyPhase.BUILD, startNanos);
+        TransactionEvent event = new TransactionEvent();
+        event.begin();
+        long submitNanos = PerpMetrics.start();
+        SuiTransactionBlockResponse response = null;
+        GasCoinPool gasCoinPool = this.getGasCoinPool(suiKeyPair.address());
+        GasLease lease = null;
         try {
-            return TransactionBuilder.sendTransaction(suiClient, programmableTx, suiKeyPair, TransactionBuilder.buildGasData(suiClient, address, gasPrice, gasBudget));
+            lease = gasCoinPool.lease(gasBudget);
+            GasData gasData = lease.toGasData(gasPrice, gasBudget);
+            try {
+                this.preflight(operation, perpFunction, suiKeyPair.address(), arguments, gasBudget, () -> {
+                    try {
+                        return TransactionBuilder.serializeTransactionBytes(programmableTx, suiKeyPair.address(), gasData);
+                    } catch (IOException e) {
+                        throw new PerpOnChainException("unsafe moveCall " + operation + " failed!", e);
+                    }
+                });
+            } catch (RuntimeException e) {
+                // not submitted, the gas coin goes straight back to the pool
+                gasCoinPool.abandon(lease);
+                lease = null;
+                throw e;
+            }
+            response = TransactionBuilder.sendTransaction(suiClient, programmableTx, suiKeyPair, gasData);
+            this.observeGas(perpFunction, gasBudget, response);
+            return response;
         } catch (IOException e) {
             throw new PerpRpcFailedException("Failed to send transaction", e);
+        } finally {
+            if (lease != null) {
+                this.releaseGas(gasCoinPool, lease, response);
+            }
+            PerpMetrics.record(operation, LatencyPhase.SUBMIT, submitNanos);
+            PerpMetrics.record(operation, LatencyPhase.TOTAL, startNanos);
+            event.end();
+            if (event.shouldCommit()) {
+                event.function = operation;
+                event.sender = suiKeyPair.address();
+                event.digest = response == null ? null : response.getDigest();
+                event.succeeded = EffectsUtil.isSuccess(response);
+                event.pending = response != null && !EffectsUtil.hasEffects(response);
+                event.commit();
+            }
         }
     }
 
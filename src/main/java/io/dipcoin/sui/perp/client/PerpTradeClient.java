@@ -38,7 +38,11 @@ public class PerpTradeClient extends AbstractHttpClient {
     private final AuthSession subAuth;
 
     public PerpTradeClient(PerpNetwork perpNetwork, AuthSession subAuth) {
-        this.perpConfig = perpNetwork.getConfig();
+        this(perpNetwork.getConfig(), subAuth);
+    }
+
+    public PerpTradeClient(PerpConfig perpConfig, AuthSession subAuth) {
+        this.perpConfig = perpConfig;
         this.subAuth = subAuth;
     }
 
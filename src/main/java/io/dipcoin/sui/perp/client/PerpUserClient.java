@@ -16,6 +16,9 @@ package io.dipcoin.sui.perp.client;
 import com.fasterxml.jackson.core.type.TypeReference;
 import io.dipcoin.sui.perp.client.auth.AuthSession;
 import io.dipcoin.sui.perp.client.core.AbstractHttpClient;
+import io.dipcoin.sui.perp.client.history.HistoryPager;
+import io.dipcoin.sui.perp.client.history.PageCheckpoint;
+import io.dipcoin.sui.perp.config.HistoryConfig;
 import io.dipcoin.sui.perp.constant.PerpPath;
 import io.dipcoin.sui.perp.enums.PerpNetwork;
 import io.dipcoin.sui.perp.exception.ErrorCode;
@@ -23,6 +26,9 @@ import io.dipcoin.sui.perp.exception.PerpHttpException;
 import io.dipcoin.sui.perp.model.ApiResponse;
 import io.dipcoin.sui.perp.model.PageResponse;
 import io.dipcoin.sui.perp.model.PerpConfig;
+import io.dipcoin.sui.perp.model.compact.CompactHistoryOrder;
+import io.dipcoin.sui.perp.model.compact.CompactOrder;
+import io.dipcoin.sui.perp.model.compact.CompactPosition;
 import io.dipcoin.sui.perp.model.request.HistoryOrdersRequest;
 import io.dipcoin.sui.perp.model.request.OrdersRequest;
 import io.dipcoin.sui.perp.model.request.PageRequest;
@@ -37,15 +43,29 @@ import java.util.List;
  */
 public class PerpUserClient extends AbstractHttpClient {
 
+    private static volatile HistoryConfig historyConfig = new HistoryConfig();
+
     private final PerpConfig perpConfig;
 
     private final AuthSession mainAuth;
 
     public PerpUserClient(PerpNetwork perpNetwork, AuthSession mainAuth) {
-        this.perpConfig = perpNetwork.getConfig();
+        this(perpNetwork.getConfig(), mainAuth);
+    }
+
+    public PerpUserClient(PerpConfig perpConfig, AuthSession mainAuth) {
+        this.perpConfig = perpConfig;
         this.mainAuth = mainAuth;
     }
 
+    /**
+     * paging options of the history pagers
+     * @param config
+     */
+    public static void setHistoryConfig(HistoryConfig config) {
+        historyConfig = config;
+    }
+
     /**
      * positions
      * @return
@@ -59,6 +79,19 @@ public class PerpUserClient extends AbstractHttpClient {
         }
     }
 
+    /**
+     * positions with fixed-point amounts, parsed without intermediate strings
+     * @return
+     */
+    public List<CompactPosition> compactPositions() {
+        ApiResponse<List<CompactPosition>> response = get(perpConfig.perpEndpoint() + PerpPath.POSITIONS, null, mainAuth, new TypeReference<>() {});
+        if (response.getCode() == ErrorCode.SUCCESS.getCode()) {
+            return response.getData();
+        } else {
+            throw new PerpHttpException("Failed to positions, cause : " + response.getMessage());
+        }
+    }
+
     /**
      * current orders
      * @param request
@@ -73,6 +106,20 @@ public class PerpUserClient extends AbstractHttpClient {
         }
     }
 
+    /**
+     * current orders with fixed-point amounts, parsed without intermediate strings
+     * @param request
+     * @return
+     */
+    public PageResponse<CompactOrder> compactOrders(OrdersRequest request) {
+        ApiResponse<PageResponse<CompactOrder>> response = get(perpConfig.perpEndpoint() + PerpPath.ORDERS, super.toQueryParams(request), mainAuth, new TypeReference<>() {});
+        if (response.getCode() == ErrorCode.SUCCESS.getCode()) {
+            return response.getData();
+        } else {
+            throw new PerpHttpException("Failed to orders, cause : " + response.getMessage());
+        }
+    }
+
     /**
      * account info
      * @return
@@ -100,6 +147,20 @@ public class PerpUserClient extends AbstractHttpClient {
         }
     }
 
+    /**
+     * history orders with fixed-point amounts, parsed without intermediate strings
+     * @param request
+     * @return
+     */
+    public PageResponse<CompactHistoryOrder> compactHistoryOrders(HistoryOrdersRequest request) {
+        ApiResponse<PageResponse<CompactHistoryOrder>> response = get(perpConfig.perpEndpoint() + PerpPath.HISTORY_ORDERS, super.toQueryParams(request), mainAuth, new TypeReference<>() {});
+        if (response.getCode() == ErrorCode.SUCCESS.getCode()) {
+            return response.getData();
+        } else {
+            throw new PerpHttpException("Failed to historyOrders, cause : " + response.getMessage());
+        }
+    }
+
     /**
      * history funding settlements
      * @param request
@@ -128,4 +189,51 @@ public class PerpUserClient extends AbstractHttpClient {
         }
     }
 
+    /**
+     * stream all history orders of the request's window from its page on. an unset end time is pinned to now, so
+     * orders created during the export do not shift the pages
+     * @param request
+     * @return
+     */
+    public HistoryPager<HistoryOrdersResponse> historyOrdersPager(HistoryOrdersRequest request) {
+        long endTime = request.getEndTime() > 0 ? request.getEndTime() : System.currentTimeMillis();
+        PageCheckpoint window = window(request.getPageNum(), request.getPageSize(), request.getBeginTime(), endTime);
+        return new HistoryPager<>((pageNum, pageSize, beginTime, end) -> this.historyOrders(new HistoryOrdersRequest()
+                .setSymbol(request.getSymbol())
+                .setPageNum(pageNum)
+                .setPageSize(pageSize)
+                .setBeginTime(beginTime)
+                .setEndTime(end)), window, historyConfig);
+    }
+
+    /**
+     * stream all funding settlements of the request's window from its page on
+     * @param request
+     * @return
+     */
+    public HistoryPager<FundingSettlementsResponse> fundingSettlementsPager(PageRequest request) {
+        PageCheckpoint window = window(request.getPageNum(), request.getPageSize(), request.getBeginTime(), 0L);
+        return new HistoryPager<>((pageNum, pageSize, beginTime, end) -> this.fundingSettlements(new PageRequest()
+                .setPageNum(pageNum)
+                .setPageSize(pageSize)
+                .setBeginTime(beginTime)), window, historyConfig);
+    }
+
+    /**
+     * stream all balance changes of the request's window from its page on
+     * @param request
+     * @return
+     */
+    public HistoryPager<BalanceChangesResponse> balanceChangesPager(PageRequest request) {
+        PageCheckpoint window = window(request.getPageNum(), request.getPageSize(), request.getBeginTime(), 0L);
+        return new HistoryPager<>((pageNum, pageSize, beginTime, end) -> this.balanceChanges(new PageRequest()
+                .setPageNum(pageNum)
+                .setPageSize(pageSize)
+                .setBeginTime(beginTime)), window, historyConfig);
+    }
+
+    private static PageCheckpoint window(int pageNum, int pageSize, long beginTime, long endTime) {
+        return new PageCheckpoint(Math.max(pageNum, 1), pageSize > 0 ? pageSize : historyConfig.getPageSize(), beginTime, endTime);
+    }
+
 }
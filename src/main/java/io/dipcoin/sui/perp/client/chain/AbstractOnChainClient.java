@@ -23,33 +23,51 @@ import io.dipcoin.sui.bcs.types.transaction.Command;
 import io.dipcoin.sui.bcs.types.transaction.ProgrammableTransaction;
 import io.dipcoin.sui.client.CommandBuilder;
 import io.dipcoin.sui.client.QueryBuilder;
-import io.dipcoin.sui.client.TransactionBuilder;
 import io.dipcoin.sui.model.coin.Coin;
+import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
 import io.dipcoin.sui.perp.client.PerpMarketClient;
+import io.dipcoin.sui.perp.config.ConfirmationConfig;
+import io.dipcoin.sui.perp.config.GasPoolConfig;
+import io.dipcoin.sui.perp.config.PipelineConfig;
+import io.dipcoin.sui.perp.config.PreflightConfig;
 import io.dipcoin.sui.perp.constant.PerpPythTestnet;
+import io.dipcoin.sui.perp.enums.PerpFunction;
 import io.dipcoin.sui.perp.exception.PerpOnChainException;
-import io.dipcoin.sui.perp.exception.PerpRpcFailedException;
 import io.dipcoin.sui.perp.model.PerpConfig;
+import io.dipcoin.sui.perp.model.response.TradingPairResponse;
+import io.dipcoin.sui.perp.util.EffectsUtil;
 import io.dipcoin.sui.protocol.SuiClient;
 import io.dipcoin.sui.protocol.constant.SuiSystem;
 import io.dipcoin.sui.pyth.core.PythClient;
 import io.dipcoin.sui.pyth.model.PythNetwork;
+import lombok.extern.slf4j.Slf4j;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * @author : Same
  * @datetime : 2025/10/28 14:01
  * @Description :
  */
+@Slf4j
 public abstract class AbstractOnChainClient {
 
-    private final static Map<String, CallArgObjectArg> PERP_SHARED = new ConcurrentHashMap<>();
+    private static volatile GasPoolConfig gasPoolConfig = new GasPoolConfig();
+
+    private static volatile PipelineConfig pipelineConfig = new PipelineConfig();
+
+    private static volatile ConfirmationConfig confirmationConfig = new ConfirmationConfig();
+
+    private static volatile PreflightConfig preflightConfig = new PreflightConfig();
 
     protected SuiClient suiClient;
 
@@ -59,6 +77,8 @@ public abstract class AbstractOnChainClient {
 
     protected PythClient pythClient;
 
+    private volatile TransactionPipeline transactionPipeline;
+
     public CallArgObjectArg getClock() {
         return this.getSharedObject(SuiSystem.SUI_CLOCK_OBJECT_ID, false);
     }
@@ -85,16 +105,220 @@ public abstract class AbstractOnChainClient {
     }
 
     public CallArgObjectArg getPriceOracleObject(String symbol) {
-        PythNetwork pythNetwork = perpConfig.pythNetwork();
-        if (pythNetwork.equals(PythNetwork.MAINNET)) {
-            String feedId = perpMarketClient.getPythFeedId(symbol);
-            String feedObjectId = pythClient.getFeedObjectId(feedId, pythNetwork.getConfig().pythStateId());
-            return this.getSharedObject(feedObjectId, true);
-        } else if (pythNetwork.equals(PythNetwork.TESTNET)) {
-            return this.getSharedObject(PerpPythTestnet.FEED_OBJECTS.get(symbol), true);
-        } else {
-            throw new IllegalArgumentException("Unknown pyth network");
+        return this.getSharedObject(this.getFeedObjectId(symbol, perpMarketClient.getPythFeedId(symbol)), true);
+    }
+
+    /**
+     * shared object by its ChainSnapshot key, as resolved by MoveCallTemplate inputs
+     * @param key
+     * @return
+     */
+    public CallArgObjectArg getSharedInput(String key) {
+        return switch (key) {
+            case ChainSnapshot.CLOCK -> this.getClock();
+            case ChainSnapshot.PROTOCOL_CONFIG -> this.getProtocolConfig();
+            case ChainSnapshot.SUB_ACCOUNTS -> this.getSubAccounts();
+            case ChainSnapshot.BANK -> this.getBank();
+            case ChainSnapshot.TX_INDEXER -> this.getTxIndexer();
+            default -> {
+                if (key.startsWith(ChainSnapshot.PERPETUAL_PREFIX)) {
+                    yield this.getPerpetual(key.substring(ChainSnapshot.PERPETUAL_PREFIX.length()));
+                }
+                if (key.startsWith(ChainSnapshot.ORACLE_PREFIX)) {
+                    yield this.getPriceOracleObject(key.substring(ChainSnapshot.ORACLE_PREFIX.length()));
+                }
+                throw new PerpOnChainException("Unknown shared object " + key);
+            }
+        };
+    }
+
+    /**
+     * transaction inputs resolving shared objects through this client
+     * @param programmableTx
+     * @return
+     */
+    public MoveCallTemplate.Inputs inputs(ProgrammableTransaction programmableTx) {
+        return new MoveCallTemplate.Inputs(programmableTx, this::getSharedInput);
+    }
+
+    /**
+     * resolve every shared object of the network in the background: the PerpConfig objects first,
+     * then the perpetual and price feed objects of all trading pairs
+     * @return completes when all lookups have finished, failed lookups are retried on first use
+     */
+    public CompletableFuture<Void> preloadSharedObjects() {
+        SharedObjectResolver resolver = this.getSharedObjectResolver();
+        CompletableFuture<Void> configObjects = CompletableFuture.allOf(
+                resolver.preload(suiClient, SuiSystem.SUI_CLOCK_OBJECT_ID, false),
+                resolver.preload(suiClient, perpConfig.protocolConfig(), false),
+                resolver.preload(suiClient, perpConfig.subAccounts(), false),
+                resolver.preload(suiClient, perpConfig.bank(), true),
+                resolver.preload(suiClient, perpConfig.txIndexer(), true));
+        CompletableFuture<Void> marketObjects = CompletableFuture.supplyAsync(perpMarketClient::tradingPair, SharedObjectResolver.preloadExecutor())
+                .thenCompose(tradingPairs -> {
+                    List<CompletableFuture<?>> futures = new ArrayList<>(tradingPairs.size() * 2);
+                    for (TradingPairResponse tradingPair : tradingPairs) {
+                        futures.add(resolver.preload(suiClient, tradingPair.getPerpId(), true));
+                        futures.add(CompletableFuture
+                                .supplyAsync(() -> this.getFeedObjectId(tradingPair.getSymbol(), tradingPair.getPriceIdentifierId()), SharedObjectResolver.preloadExecutor())
+                                .thenCompose(feedObjectId -> resolver.preload(suiClient, feedObjectId, true)));
+                    }
+                    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+                });
+        return CompletableFuture.allOf(configObjects, marketObjects)
+                .whenComplete((ignored, e) -> {
+                    if (e != null) {
+                        log.warn("Failed to preload shared objects, they will be resolved on first use", e);
+                    }
+                });
+    }
+
+    /**
+     * eagerly preload the shared objects of this network, called once the client is constructed
+     */
+    protected void initSharedObjects() {
+        this.getSharedObjectResolver().preloadOnce(this::preloadSharedObjects);
+    }
+
+    /**
+     * set gas coin pool options, applies to pools created afterwards
+     * @param config
+     */
+    public static synchronized void setGasPoolConfig(GasPoolConfig config) {
+        gasPoolConfig = config;
+    }
+
+    /**
+     * set asynchronous pipeline options, applies to clients submitting their first asynchronous transaction afterwards
+     * @param config
+     */
+    public static synchronized void setPipelineConfig(PipelineConfig config) {
+        pipelineConfig = config;
+    }
+
+    /**
+     * set confirmation tracker options, applies to trackers created afterwards
+     * @param config
+     */
+    public static synchronized void setConfirmationConfig(ConfirmationConfig config) {
+        confirmationConfig = config;
+    }
+
+    /**
+     * set dry-run preflight options, applies to simulators created afterwards except for enabled, which applies at once
+     * @param config
+     */
+    public static synchronized void setPreflightConfig(PreflightConfig config) {
+        preflightConfig = config;
+    }
+
+    /**
+     * gas coin pool of a sender on this network
+     * @param owner
+     * @return
+     */
+    public GasCoinPool getGasCoinPool(String owner) {
+        return GasCoinPool.of(perpConfig, suiClient, owner, gasPoolConfig);
+    }
+
+    /**
+     * gas oracle of this network: cached reference gas price and learned gas budgets
+     * @return
+     */
+    public GasOracle getGasOracle() {
+        return GasOracle.of(perpConfig, suiClient);
+    }
+
+    /**
+     * confirmation tracker of this network: batched polling for transactions whose effects are not known yet
+     * @return
+     */
+    public ConfirmationTracker getConfirmationTracker() {
+        return ConfirmationTracker.of(perpConfig, suiClient, confirmationConfig);
+    }
+
+    /**
+     * dry-run simulator of this network
+     * @return
+     */
+    public PreflightSimulator getPreflightSimulator() {
+        return PreflightSimulator.of(perpConfig, suiClient, preflightConfig);
+    }
+
+    /**
+     * pyth price update coordinator of this network
+     * @return
+     */
+    public PythUpdateCoordinator getPythUpdateCoordinator() {
+        return PythUpdateCoordinator.of(perpConfig);
+    }
+
+    /**
+     * start composing several perp actions into one transaction
+     * @return
+     */
+    public PerpTransactionComposer compose() {
+        return new PerpTransactionComposer(this);
+    }
+
+    /**
+     * capture what OfflineTransactionBuilder needs for an owner: the shared objects of the symbols' markets,
+     * the owner's gas coins and perp coins and the reference gas price
+     * @param owner
+     * @param symbols markets to add margin to, may be empty
+     * @return
+     */
+    public ChainSnapshot snapshot(String owner, Collection<String> symbols) {
+        Map<String, CallArgObjectArg> sharedObjects = new HashMap<>();
+        sharedObjects.put(ChainSnapshot.CLOCK, this.getClock());
+        sharedObjects.put(ChainSnapshot.PROTOCOL_CONFIG, this.getProtocolConfig());
+        sharedObjects.put(ChainSnapshot.SUB_ACCOUNTS, this.getSubAccounts());
+        sharedObjects.put(ChainSnapshot.BANK, this.getBank());
+        sharedObjects.put(ChainSnapshot.TX_INDEXER, this.getTxIndexer());
+        for (String symbol : symbols) {
+            sharedObjects.put(ChainSnapshot.perpetualKey(symbol), this.getPerpetual(symbol));
+            sharedObjects.put(ChainSnapshot.oracleKey(symbol), this.getPriceOracleObject(symbol));
         }
+        long referenceGasPrice = this.getGasOracle().getReferenceGasPrice();
+        return new ChainSnapshot(owner, referenceGasPrice, System.currentTimeMillis(), sharedObjects,
+                toSnapshotCoins(QueryBuilder.getCoins(suiClient, owner, SuiSystem.SUI_COIN_TYPE)),
+                toSnapshotCoins(QueryBuilder.getCoins(suiClient, owner, perpConfig.coinType())));
+    }
+
+    protected static PipelineConfig getPipelineConfig() {
+        return pipelineConfig;
+    }
+
+    /**
+     * asynchronous pipeline of this client, created on first use
+     * @return
+     */
+    protected TransactionPipeline getTransactionPipeline() {
+        TransactionPipeline pipeline = transactionPipeline;
+        if (pipeline == null) {
+            synchronized (this) {
+                pipeline = transactionPipeline;
+                if (pipeline == null) {
+                    pipeline = new TransactionPipeline(pipelineConfig);
+                    transactionPipeline = pipeline;
+                }
+            }
+        }
+        return pipeline;
+    }
+
+    /**
+     * pipeline lane of a composed transaction: deposits spend the sender's own coins, so they are ordered per sender
+     * @param sender
+     * @param composer
+     * @return null when the transaction can run in parallel with any other
+     */
+    protected static String getPipelineLane(String sender, PerpTransactionComposer composer) {
+        return composer.functions().contains(PerpFunction.DEPOSIT) ? sender : null;
+    }
+
+    protected SharedObjectResolver getSharedObjectResolver() {
+        return SharedObjectResolver.of(perpConfig);
     }
 
     /**
@@ -111,51 +335,182 @@ public abstract class AbstractOnChainClient {
             throw new PerpOnChainException("No " + type + " coins available");
         }
 
-        // Select and accumulate coins until target amount is reached
-        AtomicReference<BigInteger> balanceOf = new AtomicReference<>(BigInteger.ZERO);
-        List<Coin> selected = new ArrayList<>(coinList.size());
-        for (Coin coin : coinList) {
-            BigInteger balance = coin.getBalance();
-            BigInteger tmpAmount = balanceOf.get().multiply(balance);
-            balanceOf.set(tmpAmount);
-            selected.add(coin);
-            if (tmpAmount.compareTo(amount) >= 0) {
-                break;
+        // Select the fewest coins reaching the target amount
+        TreeSet<CoinInventory.OwnedCoin> coins = CoinInventory.toOwnedCoins(coinList);
+        List<CoinInventory.OwnedCoin> selected = CoinInventory.selectCoins(coins, amount);
+        if (selected == null) {
+            BigInteger totalAmount = coins.stream().map(CoinInventory.OwnedCoin::balance).reduce(BigInteger.ZERO, BigInteger::add);
+            throw new PerpOnChainException(type + " balance is not enough, current total balance: " + totalAmount);
+        }
+        return splitCoin(programmableTx, selected.stream().map(CoinInventory.OwnedCoin::ref).toList(), List.of(amount));
+    }
+
+    /**
+     * Split a specified amount off coins reserved from the owner's coin inventory
+     * @param programmableTx
+     * @param coinSelection
+     * @param amount
+     * @returns ProgrammableTransaction index
+     */
+    public int splitCoin(ProgrammableTransaction programmableTx, CoinSelection coinSelection, BigInteger amount) {
+        return splitCoin(programmableTx, coinSelection.coins(), List.of(amount));
+    }
+
+    /**
+     * Split several amounts off coins reserved from the owner's coin inventory in one SplitCoins command,
+     * the i-th coin is NestedResult(index, i)
+     * @param programmableTx
+     * @param coinSelection
+     * @param amounts
+     * @returns ProgrammableTransaction index
+     */
+    public int splitCoins(ProgrammableTransaction programmableTx, CoinSelection coinSelection, List<BigInteger> amounts) {
+        return splitCoin(programmableTx, coinSelection.coins(), amounts);
+    }
+
+    /**
+     * reserve coins of the owner covering the amount from the local inventory, without a coin query in most cases.
+     * the selection must be settled with settleCoins once the transaction is done
+     * @param owner
+     * @param type
+     * @param amount
+     * @return
+     */
+    public CoinSelection selectCoins(String owner, String type, BigInteger amount) {
+        return CoinInventory.of(perpConfig, suiClient, owner, type).select(amount);
+    }
+
+    /**
+     * settle the price updates and coins of a composed transaction
+     * @param composed
+     * @param response null when the transaction was not sent or its outcome is unknown
+     */
+    public void settleComposed(PerpTransactionComposer.ComposedTransaction composed, SuiTransactionBlockResponse response) {
+        this.whenConfirmed(response, confirmed -> {
+            this.getPythUpdateCoordinator().settle(composed.priceUpdate(), confirmed);
+            if (composed.coinSelection() != null) {
+                CoinInventory.of(perpConfig, suiClient, composed.coinSelection().owner(), composed.coinSelection().coinType())
+                        .commit(composed.coinSelection(), composed.spent(), confirmed);
             }
+        });
+    }
+
+    /**
+     * advance the owner's coin inventory from the transaction effects
+     * @param coinSelection
+     * @param spent
+     * @param response null when the transaction was not sent or its outcome is unknown
+     */
+    public void settleCoins(CoinSelection coinSelection, BigInteger spent, SuiTransactionBlockResponse response) {
+        this.whenConfirmed(response, confirmed -> CoinInventory.of(perpConfig, suiClient, coinSelection.owner(), coinSelection.coinType())
+                .commit(coinSelection, spent, confirmed));
+    }
+
+    /**
+     * dry-run a transaction before signing it when preflight is enabled, a transaction that would fail is aborted
+     * with PerpOnChainException
+     * @param operation
+     * @param perpFunction function whose gas usage is learned, null for composed transactions
+     * @param sender
+     * @param arguments call arguments the result depends on, including the owned coins spent
+     * @param gasBudget
+     * @param txBytes serializes the transaction, not called when a cached result is reused
+     */
+    protected void preflight(String operation, PerpFunction perpFunction, String sender, List<Object> arguments,
+                             BigInteger gasBudget, Supplier<String> txBytes) {
+        if (preflightConfig.isEnabled()) {
+            this.getPreflightSimulator().check(new PreflightSimulator.SimulationKey(operation, perpFunction, sender, arguments, gasBudget), txBytes);
         }
+    }
 
-        int size = selected.size();
-        BigInteger totalAmount = balanceOf.get();
-        if (balanceOf.get().compareTo(totalAmount) < 0) {
-            throw new PerpOnChainException(type + " balance is not enough, current total balance: " + totalAmount);
+    /**
+     * hand a gas coin back to its pool once the effects of the transaction paying with it are known.
+     * the sender's preflight results are dropped on submit and again once the effects are known, a dry run in
+     * between may still have seen the old state
+     * @param gasCoinPool
+     * @param lease
+     * @param response null when the transaction was not sent or its outcome is unknown
+     */
+    protected void releaseGas(GasCoinPool gasCoinPool, GasLease lease, SuiTransactionBlockResponse response) {
+        PreflightSimulator preflightSimulator = this.getPreflightSimulator();
+        preflightSimulator.invalidate(lease.owner());
+        this.whenConfirmed(response, confirmed -> {
+            gasCoinPool.release(lease, confirmed);
+            preflightSimulator.invalidate(lease.owner());
+        });
+    }
+
+    /**
+     * settle a pyth price update once the effects of the transaction carrying it are known
+     * @param priceUpdate
+     * @param response null when the transaction was not sent or its outcome is unknown
+     */
+    protected void settlePriceUpdate(PythUpdateCoordinator.PriceUpdate priceUpdate, SuiTransactionBlockResponse response) {
+        this.whenConfirmed(response, confirmed -> this.getPythUpdateCoordinator().settle(priceUpdate, confirmed));
+    }
+
+    /**
+     * learn the gas usage of a function once the effects of its transaction are known
+     * @param perpFunction null for composed transactions, nothing is learned
+     * @param gasBudget
+     * @param response null when the transaction was not sent or its outcome is unknown
+     */
+    protected void observeGas(PerpFunction perpFunction, BigInteger gasBudget, SuiTransactionBlockResponse response) {
+        if (perpFunction == null) {
+            return;
         }
+        this.whenConfirmed(response, confirmed -> {
+            if (confirmed != null) {
+                this.getGasOracle().observe(perpFunction, gasBudget, confirmed);
+            }
+        });
+    }
 
+    /**
+     * apply the effects of a sent transaction to a cache: at once when the response carries them, once the
+     * confirmation tracker finds them when only the digest is known, so the cache is not re-queried
+     * @param response null when the transaction was not sent or its outcome is unknown
+     * @param update gets the response with effects, or null
+     */
+    protected void whenConfirmed(SuiTransactionBlockResponse response, Consumer<SuiTransactionBlockResponse> update) {
+        if (response == null || response.getDigest() == null || EffectsUtil.hasEffects(response)) {
+            update.accept(response);
+        } else {
+            this.getConfirmationTracker().track(response.getDigest(), update);
+        }
+    }
+
+    /**
+     * merge the selected coins into the first one and split the amounts off it
+     * @param programmableTx
+     * @param coins
+     * @param amounts
+     * @return
+     */
+    static int splitCoin(ProgrammableTransaction programmableTx, List<SuiObjectRef> coins, List<BigInteger> amounts) {
+        Argument primary = Argument.ofInput(programmableTx.addInput(new CallArgObjectArg(new ObjectArgImmOrOwnedObject(coins.getFirst()))));
         // Merge multiple coins if necessary
-        Coin first = coinList.getFirst();
-        String objectId = first.getCoinObjectId();
-        long version = first.getVersion();
-        String digest = first.getDigest();
-        if (size > 1) {
-            List<Argument> sources = new ArrayList<>(size - 1);
-            coinList.removeFirst();
-            for (Coin coin : coinList) {
-                String dataObjectId = coin.getCoinObjectId();
-                sources.add(Argument.ofInput(programmableTx.addInput(new CallArgObjectArg(new ObjectArgImmOrOwnedObject(new SuiObjectRef(
-                        dataObjectId, coin.getVersion(), coin.getDigest()))))));
+        if (coins.size() > 1) {
+            List<Argument> sources = new ArrayList<>(coins.size() - 1);
+            for (SuiObjectRef coin : coins.subList(1, coins.size())) {
+                sources.add(Argument.ofInput(programmableTx.addInput(new CallArgObjectArg(new ObjectArgImmOrOwnedObject(coin)))));
             }
-            Command.MergeCoins mergeCoins = new Command.MergeCoins(Argument.ofInput(programmableTx.addInput(new CallArgObjectArg(new ObjectArgImmOrOwnedObject(new SuiObjectRef(
-                    objectId, version, digest))))), sources);
-            programmableTx.addCommand(mergeCoins);
+            programmableTx.addCommand(new Command.MergeCoins(primary, sources));
         }
-        programmableTx.addCommand(
-                CommandBuilder.splitCoins(
-                        Argument.ofInput(programmableTx.addInput(new CallArgObjectArg(new ObjectArgImmOrOwnedObject(new SuiObjectRef(
-                                objectId, version, digest))))),
-                        List.of(Argument.ofInput(programmableTx.addInput(
-                                new CallArgPure(amount.longValue(), PureBcs.BasePureType.U64))))));
+        List<Argument> splits = new ArrayList<>(amounts.size());
+        for (BigInteger amount : amounts) {
+            splits.add(Argument.ofInput(programmableTx.addInput(new CallArgPure(amount.longValue(), PureBcs.BasePureType.U64))));
+        }
+        programmableTx.addCommand(CommandBuilder.splitCoins(primary, splits));
         return programmableTx.getCommandsSize() - 1;
     }
 
+    private static List<ChainSnapshot.Coin> toSnapshotCoins(List<Coin> coins) {
+        return CoinInventory.toOwnedCoins(coins).stream()
+                .map(coin -> new ChainSnapshot.Coin(coin.ref(), coin.balance()))
+                .toList();
+    }
+
     /**
      * get Shared Object
      * @param objectId
@@ -163,16 +518,24 @@ public abstract class AbstractOnChainClient {
      * @return
      */
     private CallArgObjectArg getSharedObject(String objectId, boolean mutable) {
-        if (null == objectId || objectId.isEmpty()) {
-            throw new PerpRpcFailedException("objectId is null or empty!");
-        }
-        CallArgObjectArg objectArg = PERP_SHARED.get(objectId);
-        if (objectArg != null) {
-            return objectArg;
-        }
+        return this.getSharedObjectResolver().resolve(suiClient, objectId, mutable);
+    }
 
-        CallArgObjectArg sharedObject = TransactionBuilder.buildSharedObject(suiClient, objectId, mutable);
-        PERP_SHARED.put(objectId, sharedObject);
-        return sharedObject;
+    /**
+     * get the pyth price info object id of a symbol
+     * @param symbol
+     * @param feedId
+     * @return
+     */
+    private String getFeedObjectId(String symbol, String feedId) {
+        PythNetwork pythNetwork = perpConfig.pythNetwork();
+        if (pythNetwork.equals(PythNetwork.MAINNET)) {
+            return this.getSharedObjectResolver().resolveFeedObjectId(feedId,
+                    () -> pythClient.getFeedObjectId(feedId, pythNetwork.getConfig().pythStateId()));
+        } else if (pythNetwork.equals(PythNetwork.TESTNET)) {
+            return PerpPythTestnet.FEED_OBJECTS.get(symbol);
+        } else {
+            throw new IllegalArgumentException("Unknown pyth network");
+        }
     }
 }
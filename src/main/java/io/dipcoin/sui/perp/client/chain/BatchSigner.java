@@ -0,0 +1,99 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.client.chain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/17 14:10
+ * @Description : coalesces signature requests into WalletService.signBatch calls. one batch is in flight at a time,
+ * requests arriving meanwhile form the next batch, so batches grow with the signing latency and the load
+ */
+public class BatchSigner {
+
+    private final WalletService walletService;
+
+    private final int maxBatchSize;
+
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    public BatchSigner(WalletService walletService, int maxBatchSize) {
+        this.walletService = walletService;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * queue a transaction for the next batch
+     * @param address
+     * @param txData
+     * @return signature
+     */
+    public CompletableFuture<String> sign(String address, byte[] txData) {
+        Pending pending = new Pending(new SignRequest(address, txData), new CompletableFuture<>());
+        queue.add(pending);
+        this.drain();
+        return pending.signature();
+    }
+
+    private void drain() {
+        if (queue.isEmpty() || !draining.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.startVirtualThread(() -> {
+            try {
+                List<Pending> batch = new ArrayList<>(maxBatchSize);
+                Pending pending;
+                while (batch.size() < maxBatchSize && (pending = queue.poll()) != null) {
+                    batch.add(pending);
+                }
+                if (!batch.isEmpty()) {
+                    this.signBatch(batch);
+                }
+            } finally {
+                draining.set(false);
+                // requests queued while this batch was signed
+                this.drain();
+            }
+        });
+    }
+
+    private void signBatch(List<Pending> batch) {
+        try {
+            List<String> signatures = walletService.signBatch(batch.stream().map(Pending::request).toList());
+            if (signatures.size() != batch.size()) {
+                throw new IllegalStateException("WalletService returned " + signatures.size() + " signatures for " + batch.size() + " transactions");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).signature().complete(signatures.get(i));
+            }
+        } catch (Throwable e) {
+            // whatever the wallet throws, no request of the batch may be left waiting
+            batch.forEach(pending -> pending.signature().completeExceptionally(e));
+            if (e instanceof Error error) {
+                throw error;
+            }
+        }
+    }
+
+    private record Pending(SignRequest request, CompletableFuture<String> signature) {}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.bcs.types.arg.call.CallArgObjectArg;
+import io.dipcoin.sui.bcs.types.gas.SuiObjectRef;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/14 16:20
+ * @Description : chain state captured once, from which transactions are built without any network access:
+ * resolved shared objects, owned coin and gas coin references and the reference gas price
+ * @param owner owner of the coins
+ * @param referenceGasPrice
+ * @param takenAt capture time in millis
+ * @param sharedObjects resolved shared objects by key, see the key constants
+ * @param gasCoins SUI coins usable as gas
+ * @param coins coins of the perp coin type
+ */
+public record ChainSnapshot(
+
+        String owner,
+        long referenceGasPrice,
+        long takenAt,
+        Map<String, CallArgObjectArg> sharedObjects,
+        List<Coin> gasCoins,
+        List<Coin> coins
+
+) {
+
+    public static final String CLOCK = "clock";
+
+    public static final String PROTOCOL_CONFIG = "protocolConfig";
+
+    public static final String SUB_ACCOUNTS = "subAccounts";
+
+    public static final String BANK = "bank";
+
+    public static final String TX_INDEXER = "txIndexer";
+
+    public static final String PERPETUAL_PREFIX = "perpetual:";
+
+    public static final String ORACLE_PREFIX = "oracle:";
+
+    public ChainSnapshot {
+        sharedObjects = Map.copyOf(sharedObjects);
+        gasCoins = List.copyOf(gasCoins);
+        coins = List.copyOf(coins);
+    }
+
+    public static String perpetualKey(String symbol) {
+        return PERPETUAL_PREFIX + symbol;
+    }
+
+    public static String oracleKey(String symbol) {
+        return ORACLE_PREFIX + symbol;
+    }
+
+    /**
+     * an owned coin at its version when the snapshot was taken
+     * @param ref
+     * @param balance
+     */
+    public record Coin(SuiObjectRef ref, BigInteger balance) {}
+
+}
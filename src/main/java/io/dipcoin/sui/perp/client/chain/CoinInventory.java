@@ -0,0 +1,291 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.bcs.types.gas.SuiObjectRef;
+import io.dipcoin.sui.client.QueryBuilder;
+import io.dipcoin.sui.model.coin.Coin;
+import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
+import io.dipcoin.sui.perp.exception.PerpOnChainException;
+import io.dipcoin.sui.perp.model.PerpConfig;
+import io.dipcoin.sui.perp.util.EffectsUtil;
+import io.dipcoin.sui.protocol.SuiClient;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/12 10:30
+ * @Description : local inventory of the coins one owner holds of one coin type. coin versions and balances are
+ * advanced from transaction effects, so most splits need no coin query; the inventory is re-queried on a miss,
+ * an unknown outcome or a version conflict
+ */
+public class CoinInventory {
+
+    /**
+     * key - (network, owner, coin type)
+     * value - coin inventory
+     */
+    private static final Map<InventoryKey, CoinInventory> INVENTORIES = new ConcurrentHashMap<>();
+
+    static final Comparator<OwnedCoin> BY_BALANCE = Comparator.comparing(OwnedCoin::balance).thenComparing(OwnedCoin::objectId);
+
+    private final SuiClient suiClient;
+
+    private final String owner;
+
+    private final String coinType;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition refreshed = lock.newCondition();
+
+    private final TreeSet<OwnedCoin> available = new TreeSet<>(BY_BALANCE);
+
+    /**
+     * key - object id
+     * value - coin used by a transaction in flight
+     */
+    private final Map<String, OwnedCoin> reserved = new HashMap<>();
+
+    private boolean stale = true;
+
+    /**
+     * a coin query is in flight, selections wait for it instead of querying again
+     */
+    private boolean refreshing;
+
+    /**
+     * coins committed while a coin query is in flight, their tracked state is newer than the query's
+     */
+    private final Set<String> settled = new HashSet<>();
+
+    private CoinInventory(SuiClient suiClient, String owner, String coinType) {
+        this.suiClient = suiClient;
+        this.owner = owner;
+        this.coinType = coinType;
+    }
+
+    /**
+     * get the inventory of an owner and coin type, created on first use
+     * @param perpConfig
+     * @param suiClient
+     * @param owner
+     * @param coinType
+     * @return
+     */
+    public static CoinInventory of(PerpConfig perpConfig, SuiClient suiClient, String owner, String coinType) {
+        return INVENTORIES.computeIfAbsent(new InventoryKey(perpConfig, owner, coinType), key -> new CoinInventory(suiClient, owner, coinType));
+    }
+
+    /**
+     * reserve coins covering the amount until the transaction spending them is committed.
+     * the cached coins are tried first and re-queried once when they do not cover the amount
+     * @param amount
+     * @return
+     */
+    public CoinSelection select(BigInteger amount) {
+        lock.lock();
+        try {
+            this.awaitRefresh();
+            boolean queried = false;
+            if (stale) {
+                this.refresh();
+                queried = true;
+            }
+            List<OwnedCoin> selected = selectCoins(available, amount);
+            if (selected == null && !queried) {
+                // coins received since the last query are only known to the chain
+                this.refresh();
+                selected = selectCoins(available, amount);
+            }
+            if (selected == null) {
+                BigInteger totalBalance = available.stream().map(OwnedCoin::balance).reduce(BigInteger.ZERO, BigInteger::add);
+                throw new PerpOnChainException(coinType + " balance is not enough, current total balance: " + totalBalance);
+            }
+            List<SuiObjectRef> coins = new ArrayList<>(selected.size());
+            List<BigInteger> balances = new ArrayList<>(selected.size());
+            BigInteger total = BigInteger.ZERO;
+            for (OwnedCoin coin : selected) {
+                available.remove(coin);
+                reserved.put(coin.objectId(), coin);
+                coins.add(coin.ref());
+                balances.add(coin.balance());
+                total = total.add(coin.balance());
+            }
+            return new CoinSelection(owner, coinType, coins, balances, total);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * settle a selection once its transaction is done. on success the merged coins are gone and the primary coin keeps
+     * the remainder at its new version; on failed execution every coin keeps its balance at its new version; without
+     * effects (submit failed or version conflict) the inventory is re-queried before the next selection
+     * @param selection
+     * @param spent amount split off the primary coin
+     * @param response may be null
+     */
+    public void commit(CoinSelection selection, BigInteger spent, SuiTransactionBlockResponse response) {
+        Map<String, SuiObjectRef> mutated = EffectsUtil.getMutated(response);
+        boolean success = EffectsUtil.isSuccess(response);
+        lock.lock();
+        try {
+            if (refreshing) {
+                selection.coins().forEach(coin -> settled.add(coin.getObjectId()));
+            }
+            boolean tracked = true;
+            for (SuiObjectRef coin : selection.coins()) {
+                tracked &= reserved.remove(coin.getObjectId()) != null;
+            }
+            if (!tracked || mutated == null) {
+                stale = true;
+                return;
+            }
+            if (success) {
+                SuiObjectRef primary = mutated.get(selection.primary().getObjectId());
+                BigInteger remaining = selection.total().subtract(spent);
+                if (primary == null) {
+                    stale = true;
+                } else if (remaining.signum() > 0) {
+                    available.add(new OwnedCoin(primary.getObjectId(), primary, remaining));
+                }
+                return;
+            }
+            for (int i = 0; i < selection.coins().size(); i++) {
+                SuiObjectRef coin = mutated.get(selection.coins().get(i).getObjectId());
+                if (coin == null) {
+                    stale = true;
+                    return;
+                }
+                available.add(new OwnedCoin(coin.getObjectId(), coin, selection.balances().get(i)));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * forget every tracked version, the next selection re-queries the owner's coins
+     */
+    public void invalidate() {
+        lock.lock();
+        try {
+            stale = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * minimal-input coin selection: the smallest single coin covering the amount, otherwise the largest coins first
+     * @param coins candidate coins ordered by balance
+     * @param amount
+     * @return null when all coins together do not cover the amount
+     */
+    static List<OwnedCoin> selectCoins(TreeSet<OwnedCoin> coins, BigInteger amount) {
+        OwnedCoin single = coins.ceiling(new OwnedCoin("", null, amount));
+        if (single != null) {
+            return List.of(single);
+        }
+        List<OwnedCoin> selected = new ArrayList<>();
+        BigInteger total = BigInteger.ZERO;
+        Iterator<OwnedCoin> iterator = coins.descendingIterator();
+        while (iterator.hasNext() && total.compareTo(amount) < 0) {
+            OwnedCoin coin = iterator.next();
+            selected.add(coin);
+            total = total.add(coin.balance());
+        }
+        return total.compareTo(amount) >= 0 ? selected : null;
+    }
+
+    /**
+     * order coins by balance for selectCoins
+     * @param coins
+     * @return
+     */
+    static TreeSet<OwnedCoin> toOwnedCoins(List<Coin> coins) {
+        TreeSet<OwnedCoin> ownedCoins = new TreeSet<>(BY_BALANCE);
+        if (coins != null) {
+            for (Coin coin : coins) {
+                ownedCoins.add(new OwnedCoin(coin.getCoinObjectId(),
+                        new SuiObjectRef(coin.getCoinObjectId(), coin.getVersion(), coin.getDigest()),
+                        coin.getBalance()));
+            }
+        }
+        return ownedCoins;
+    }
+
+    /**
+     * rebuild the available set from the owner's coins, leaving reserved coins out.
+     * called with the lock held, the lock is released during the coin query so commits are not blocked behind it;
+     * coins committed meanwhile keep their tracked state
+     */
+    private void refresh() {
+        refreshing = true;
+        stale = false;
+        available.clear();
+        settled.clear();
+        lock.unlock();
+        List<Coin> coins = null;
+        boolean queried = false;
+        try {
+            coins = QueryBuilder.getCoins(suiClient, owner, coinType);
+            queried = true;
+        } finally {
+            lock.lock();
+            refreshing = false;
+            if (!queried) {
+                stale = true;
+            }
+            refreshed.signalAll();
+        }
+        for (OwnedCoin coin : toOwnedCoins(coins)) {
+            if (!reserved.containsKey(coin.objectId()) && !settled.contains(coin.objectId())) {
+                available.add(coin);
+            }
+        }
+        settled.clear();
+    }
+
+    private void awaitRefresh() {
+        while (refreshing) {
+            try {
+                refreshed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PerpOnChainException("Interrupted waiting for the coins of " + owner, e);
+            }
+        }
+    }
+
+    record OwnedCoin(String objectId, SuiObjectRef ref, BigInteger balance) {}
+
+    private record InventoryKey(PerpConfig perpConfig, String owner, String coinType) {}
+
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.client.QueryBuilder;
+import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
+import io.dipcoin.sui.perp.config.ConfirmationConfig;
+import io.dipcoin.sui.perp.exception.PerpRpcFailedException;
+import io.dipcoin.sui.perp.model.PerpConfig;
+import io.dipcoin.sui.protocol.SuiClient;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/18 10:00
+ * @Description : confirms submitted transactions whose effects are not known yet. pending digests are looked up
+ * together by multi-get on one polling thread; the interval drops to the minimum while transactions confirm and
+ * backs off while nothing does. listeners (gas coin pool, coin inventory, price updates) get the effects before
+ * the digest's future completes
+ */
+@Slf4j
+public class ConfirmationTracker {
+
+    /**
+     * key - perp network configuration
+     * value - confirmation tracker of that network
+     */
+    private static final Map<PerpConfig, ConfirmationTracker> TRACKERS = new ConcurrentHashMap<>();
+
+    private final SuiClient suiClient;
+
+    private final ConfirmationConfig config;
+
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * key - digest
+     * value - pending confirmation, in tracking order
+     */
+    private final Map<String, Pending> pending = new LinkedHashMap<>();
+
+    private long intervalMillis;
+
+    private boolean scheduled;
+
+    ConfirmationTracker(SuiClient suiClient, ConfirmationConfig config, ScheduledExecutorService scheduler) {
+        this.suiClient = suiClient;
+        this.config = config;
+        this.scheduler = scheduler;
+        this.intervalMillis = config.getMinIntervalMillis();
+    }
+
+    /**
+     * get the tracker of a network, created on first use
+     * @param perpConfig
+     * @param suiClient
+     * @param config
+     * @return
+     */
+    public static ConfirmationTracker of(PerpConfig perpConfig, SuiClient suiClient, ConfirmationConfig config) {
+        return TRACKERS.computeIfAbsent(perpConfig, key -> new ConfirmationTracker(suiClient, config,
+                Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "perp-confirmation");
+                    thread.setDaemon(true);
+                    return thread;
+                })));
+    }
+
+    /**
+     * wait for the effects of a digest
+     * @param digest
+     * @return completes with the executed transaction, fails when it is not found within the timeout
+     */
+    public CompletableFuture<SuiTransactionBlockResponse> track(String digest) {
+        return this.track(digest, null);
+    }
+
+    /**
+     * wait for the effects of a digest, the listener is called before the future completes
+     * @param digest
+     * @param listener gets the executed transaction, or null when it was not found within the timeout
+     * @return
+     */
+    public synchronized CompletableFuture<SuiTransactionBlockResponse> track(String digest, Consumer<SuiTransactionBlockResponse> listener) {
+        Pending entry = pending.computeIfAbsent(digest, key -> new Pending(new CompletableFuture<>(), new ArrayList<>(), System.currentTimeMillis()));
+        if (listener != null) {
+            entry.listeners().add(listener);
+        }
+        // a new digest is worth an early look even when polling had backed off
+        intervalMillis = config.getMinIntervalMillis();
+        if (!scheduled) {
+            scheduled = true;
+            scheduler.schedule(this::pollAndReschedule, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+        return entry.future();
+    }
+
+    /**
+     * digests waiting for their effects
+     * @return
+     */
+    public synchronized int pendingCount() {
+        return pending.size();
+    }
+
+    private void pollAndReschedule() {
+        long delay;
+        try {
+            delay = this.poll();
+        } catch (RuntimeException e) {
+            log.warn("Failed to poll transaction confirmations", e);
+            delay = config.getMaxIntervalMillis();
+        }
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                scheduled = false;
+                return;
+            }
+            scheduler.schedule(this::pollAndReschedule, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * look up the pending digests in batches and complete the executed and timed out ones
+     * @return delay until the next poll
+     */
+    long poll() {
+        List<String> digests;
+        synchronized (this) {
+            digests = new ArrayList<>(pending.keySet());
+        }
+        boolean confirmedAny = false;
+        for (int from = 0; from < digests.size(); from += config.getBatchSize()) {
+            List<String> batch = digests.subList(from, Math.min(from + config.getBatchSize(), digests.size()));
+            List<SuiTransactionBlockResponse> responses;
+            try {
+                responses = QueryBuilder.multiGetTransactionBlocks(suiClient, batch);
+            } catch (RuntimeException e) {
+                log.warn("Failed to get {} transaction blocks", batch.size(), e);
+                continue;
+            }
+            if (responses == null) {
+                continue;
+            }
+            for (SuiTransactionBlockResponse response : responses) {
+                if (response == null || response.getEffects() == null) {
+                    continue;
+                }
+                Pending entry;
+                synchronized (this) {
+                    entry = pending.remove(response.getDigest());
+                }
+                if (entry != null) {
+                    confirmedAny = true;
+                    complete(entry, response);
+                }
+            }
+        }
+        this.expire();
+        synchronized (this) {
+            intervalMillis = confirmedAny
+                    ? config.getMinIntervalMillis()
+                    : Math.min(intervalMillis * 2, config.getMaxIntervalMillis());
+            return intervalMillis;
+        }
+    }
+
+    private void expire() {
+        long deadline = System.currentTimeMillis() - config.getTimeoutMillis();
+        Map<String, Pending> expired = new LinkedHashMap<>();
+        synchronized (this) {
+            pending.entrySet().removeIf(entry -> {
+                if (entry.getValue().trackedAt() < deadline) {
+                    expired.put(entry.getKey(), entry.getValue());
+                    return true;
+                }
+                return false;
+            });
+        }
+        expired.forEach((digest, entry) -> {
+            notify(entry, null);
+            entry.future().completeExceptionally(new PerpRpcFailedException("Transaction " + digest + " not confirmed within " + config.getTimeoutMillis() + "ms"));
+        });
+    }
+
+    private static void complete(Pending entry, SuiTransactionBlockResponse response) {
+        notify(entry, response);
+        entry.future().complete(response);
+    }
+
+    private static void notify(Pending entry, SuiTransactionBlockResponse response) {
+        for (Consumer<SuiTransactionBlockResponse> listener : entry.listeners()) {
+            try {
+                listener.accept(response);
+            } catch (RuntimeException e) {
+                log.warn("Confirmation listener failed", e);
+            }
+        }
+    }
+
+    private record Pending(CompletableFuture<SuiTransactionBlockResponse> future,
+                           List<Consumer<SuiTransactionBlockResponse>> listeners, long trackedAt) {}
+
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.bcs.PureBcs;
+import io.dipcoin.sui.bcs.types.arg.call.CallArgObjectArg;
+import io.dipcoin.sui.bcs.types.arg.call.CallArgPure;
+import io.dipcoin.sui.bcs.types.arg.object.ObjectArgImmOrOwnedObject;
+import io.dipcoin.sui.bcs.types.gas.SuiObjectRef;
+import io.dipcoin.sui.bcs.types.transaction.Argument;
+import io.dipcoin.sui.bcs.types.transaction.Command;
+import io.dipcoin.sui.bcs.types.transaction.ProgrammableTransaction;
+import io.dipcoin.sui.client.CommandBuilder;
+import io.dipcoin.sui.client.QueryBuilder;
+import io.dipcoin.sui.model.coin.Coin;
+import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
+import io.dipcoin.sui.perp.config.GasPoolConfig;
+import io.dipcoin.sui.perp.exception.PerpOnChainException;
+import io.dipcoin.sui.perp.model.PerpConfig;
+import io.dipcoin.sui.perp.util.EffectsUtil;
+import io.dipcoin.sui.protocol.SuiClient;
+import io.dipcoin.sui.protocol.constant.SuiSystem;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/11 11:20
+ * @Description : per sender pool of SUI gas coins. each in-flight transaction leases a distinct coin so concurrent
+ * transactions never race for the same gas object; coin versions are advanced from transaction effects and the pool
+ * falls back to a coin query only when it has lost track of a coin
+ */
+public class GasCoinPool {
+
+    /**
+     * key - (network, owner)
+     * value - gas coin pool
+     */
+    private static final Map<PoolKey, GasCoinPool> POOLS = new ConcurrentHashMap<>();
+
+    private static final int MAX_MERGE_SOURCES = 256;
+
+    private final SuiClient suiClient;
+
+    private final String owner;
+
+    private final GasPoolConfig gasPoolConfig;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition released = lock.newCondition();
+
+    /**
+     * free coins ordered by balance, so a lease takes the smallest coin that covers the budget
+     */
+    private final TreeSet<PooledCoin> free = new TreeSet<>(Comparator.comparing(PooledCoin::balance).thenComparing(PooledCoin::objectId));
+
+    /**
+     * key - object id
+     * value - leased coin
+     */
+    private final Map<String, PooledCoin> leased = new HashMap<>();
+
+    /**
+     * the pool is rebuilt from a coin query before the next lease
+     */
+    private boolean stale = true;
+
+    /**
+     * a coin query is in flight, other leases wait for it instead of querying again
+     */
+    private boolean refreshing;
+
+    /**
+     * coins released with effects while a coin query is in flight, their tracked version is newer than the query's
+     */
+    private final Set<String> settled = new HashSet<>();
+
+    /**
+     * gas coin of the rebalance in flight, merged dust coins stay out of the pool until it is released
+     */
+    private String rebalancing;
+
+    private GasCoinPool(SuiClient suiClient, String owner, GasPoolConfig gasPoolConfig) {
+        this.suiClient = suiClient;
+        this.owner = owner;
+        this.gasPoolConfig = gasPoolConfig;
+    }
+
+    /**
+     * get the pool of a sender, created on first use
+     * @param perpConfig
+     * @param suiClient
+     * @param owner
+     * @param gasPoolConfig
+     * @return
+     */
+    public static GasCoinPool of(PerpConfig perpConfig, SuiClient suiClient, String owner, GasPoolConfig gasPoolConfig) {
+        return POOLS.computeIfAbsent(new PoolKey(perpConfig, owner), key -> new GasCoinPool(suiClient, owner, gasPoolConfig));
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * lease the smallest free coin whose balance covers the budget, waiting while all such coins are in flight
+     * @param gasBudget
+     * @return
+     */
+    public GasLease lease(BigInteger gasBudget) {
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(gasPoolConfig.getLeaseTimeoutMillis());
+        lock.lock();
+        try {
+            while (true) {
+                if (stale && rebalancing == null && !refreshing) {
+                    this.refresh();
+                    continue;
+                }
+                PooledCoin coin = free.ceiling(new PooledCoin("", null, gasBudget));
+                if (coin != null) {
+                    free.remove(coin);
+                    leased.put(coin.objectId(), coin);
+                    return new GasLease(owner, coin.ref(), coin.balance());
+                }
+                if (leased.isEmpty() && !refreshing) {
+                    throw new PerpOnChainException("No SUI gas coin of " + owner + " covers gas budget " + gasBudget);
+                }
+                if (remainingNanos <= 0L) {
+                    throw new PerpOnChainException("Timed out waiting for a free gas coin of " + owner);
+                }
+                remainingNanos = released.awaitNanos(remainingNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PerpOnChainException("Interrupted waiting for a free gas coin of " + owner, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * hand a coin back, advancing it to the version reported in the effects.
+     * without effects (submit failed, or effects not returned) the coin version is unknown and the pool is re-queried
+     * @param lease
+     * @param response may be null
+     */
+    public void release(GasLease lease, SuiTransactionBlockResponse response) {
+        SuiObjectRef gasObject = EffectsUtil.getGasObject(response);
+        BigInteger gasUsed = EffectsUtil.getGasUsed(response);
+        lock.lock();
+        try {
+            PooledCoin coin = leased.remove(lease.gasCoin().getObjectId());
+            if (coin == null) {
+                // the pool was rebuilt while the coin was out
+                return;
+            }
+            if (coin.objectId().equals(rebalancing)) {
+                rebalancing = null;
+                stale = true;
+            } else if (gasObject == null || gasUsed == null || !coin.objectId().equals(gasObject.getObjectId())) {
+                stale = true;
+            } else {
+                BigInteger balance = coin.balance().subtract(gasUsed);
+                if (refreshing) {
+                    settled.add(coin.objectId());
+                }
+                if (balance.compareTo(gasPoolConfig.getMinCoinBalance()) >= 0) {
+                    free.add(new PooledCoin(coin.objectId(), gasObject, balance));
+                }
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * hand back a coin whose transaction was never submitted (e.g. rejected by preflight), its version is unchanged
+     * @param lease
+     */
+    public void abandon(GasLease lease) {
+        lock.lock();
+        try {
+            PooledCoin coin = leased.remove(lease.gasCoin().getObjectId());
+            if (coin == null) {
+                return;
+            }
+            if (coin.objectId().equals(rebalancing)) {
+                rebalancing = null;
+                stale = true;
+            } else {
+                free.add(coin);
+            }
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * forget every tracked version, the next lease re-queries the owner's coins
+     */
+    public void invalidate() {
+        lock.lock();
+        try {
+            stale = true;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * number of free coins that can currently be leased
+     * @return
+     */
+    public int available() {
+        lock.lock();
+        try {
+            return free.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * build a transaction that resizes the pool: dust coins are merged into the gas coin and the gas coin is split
+     * into poolSize coins of coinBalance. the largest free coin is leased as gas, send the transaction with the
+     * returned lease, then release it (the pool re-queries its coins afterwards)
+     * @param gasBudget
+     * @return null when the pool is already sized
+     */
+    public GasRebalance prepareRebalance(BigInteger gasBudget) {
+        lock.lock();
+        try {
+            if (rebalancing != null || refreshing) {
+                return null;
+            }
+            if (stale) {
+                this.refresh();
+                if (rebalancing != null || stale) {
+                    return null;
+                }
+            }
+            List<PooledCoin> dust = new ArrayList<>();
+            for (PooledCoin coin : free) {
+                if (coin.balance().compareTo(gasPoolConfig.getMinCoinBalance()) < 0 && dust.size() < MAX_MERGE_SOURCES) {
+                    dust.add(coin);
+                }
+            }
+            PooledCoin largest = free.isEmpty() ? null : free.last();
+            if (largest == null || largest.balance().compareTo(gasBudget) < 0) {
+                return null;
+            }
+            dust.remove(largest);
+            int usable = free.size() - dust.size() + leased.size();
+            BigInteger coinBalance = gasPoolConfig.getCoinBalance();
+            // the gas coin itself stays in the pool and has to keep the budget
+            long affordable = largest.balance().subtract(gasBudget).subtract(coinBalance).max(BigInteger.ZERO)
+                    .divide(coinBalance).longValue();
+            int splits = (int) Math.min(gasPoolConfig.getPoolSize() - usable, affordable);
+            if (splits <= 0 && dust.isEmpty()) {
+                return null;
+            }
+
+            ProgrammableTransaction programmableTx = new ProgrammableTransaction();
+            if (!dust.isEmpty()) {
+                List<Argument> sources = new ArrayList<>(dust.size());
+                for (PooledCoin coin : dust) {
+                    free.remove(coin);
+                    sources.add(Argument.ofInput(programmableTx.addInput(new CallArgObjectArg(new ObjectArgImmOrOwnedObject(coin.ref())))));
+                }
+                programmableTx.addCommand(new Command.MergeCoins(new Argument.GasCoin(), sources));
+            }
+            if (splits > 0) {
+                List<Argument> amounts = new ArrayList<>(splits);
+                for (int i = 0; i < splits; i++) {
+                    amounts.add(Argument.ofInput(programmableTx.addInput(new CallArgPure(coinBalance.longValue(), PureBcs.BasePureType.U64))));
+                }
+                programmableTx.addCommand(CommandBuilder.splitCoins(new Argument.GasCoin(), amounts));
+                int splitIndex = programmableTx.getCommandsSize() - 1;
+                List<Argument> coins = new ArrayList<>(splits);
+                for (int i = 0; i < splits; i++) {
+                    coins.add(new Argument.NestedResult(splitIndex, i));
+                }
+                programmableTx.addCommand(new Command.TransferObjects(coins,
+                        Argument.ofInput(programmableTx.addInput(new CallArgPure(owner, PureBcs.BasePureType.ADDRESS)))));
+            }
+
+            free.remove(largest);
+            leased.put(largest.objectId(), largest);
+            // new coins are only known after execution, the pool is re-queried when the lease comes back
+            rebalancing = largest.objectId();
+            return new GasRebalance(new GasLease(owner, largest.ref(), largest.balance()), programmableTx);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * rebuild the free set from the owner's coins, leaving coins that are in flight out.
+     * called with the lock held, the lock is released during the coin query so releases are not blocked behind it;
+     * coins released with effects meanwhile keep their tracked version
+     */
+    private void refresh() {
+        refreshing = true;
+        stale = false;
+        free.clear();
+        settled.clear();
+        lock.unlock();
+        List<Coin> coins = null;
+        boolean queried = false;
+        try {
+            coins = QueryBuilder.getCoins(suiClient, owner, SuiSystem.SUI_COIN_TYPE);
+            queried = true;
+        } finally {
+            lock.lock();
+            refreshing = false;
+            if (!queried) {
+                stale = true;
+            }
+            released.signalAll();
+        }
+        if (coins != null) {
+            for (Coin coin : coins) {
+                if (leased.containsKey(coin.getCoinObjectId()) || settled.contains(coin.getCoinObjectId())) {
+                    continue;
+                }
+                free.add(new PooledCoin(coin.getCoinObjectId(),
+                        new SuiObjectRef(coin.getCoinObjectId(), coin.getVersion(), coin.getDigest()),
+                        coin.getBalance()));
+            }
+        }
+        settled.clear();
+    }
+
+    /**
+     * a rebalance transaction and the gas coin leased to pay for it
+     * @param lease
+     * @param programmableTx
+     */
+    public record GasRebalance(GasLease lease, ProgrammableTransaction programmableTx) {}
+
+    private record PooledCoin(String objectId, SuiObjectRef ref, BigInteger balance) {}
+
+    private record PoolKey(PerpConfig perpConfig, String owner) {}
+
+}
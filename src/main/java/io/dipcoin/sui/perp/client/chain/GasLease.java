@@ -0,0 +1,46 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.bcs.types.gas.GasData;
+import io.dipcoin.sui.bcs.types.gas.SuiObjectRef;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/11 11:02
+ * @Description : a gas coin reserved for one in-flight transaction, hand it back with GasCoinPool.release
+ */
+public record GasLease(
+
+        String owner,
+        SuiObjectRef gasCoin,
+        BigInteger balance
+
+) {
+
+    /**
+     * gas data paying with the leased coin only
+     * @param gasPrice
+     * @param gasBudget
+     * @return
+     */
+    public GasData toGasData(long gasPrice, BigInteger gasBudget) {
+        return new GasData(List.of(gasCoin), owner, gasPrice, gasBudget);
+    }
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
+import io.dipcoin.sui.perp.enums.PerpFunction;
+import io.dipcoin.sui.perp.exception.PerpRpcFailedException;
+import io.dipcoin.sui.perp.model.PerpConfig;
+import io.dipcoin.sui.perp.util.EffectsUtil;
+import io.dipcoin.sui.protocol.SuiClient;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/13 10:40
+ * @Description : gas oracle per network. the reference gas price is cached until a transaction reports a newer epoch
+ * (or the refresh interval passes), and gas budgets are learned per PerpFunction from the effects of past
+ * transactions; amounts in MIST
+ */
+public class GasOracle {
+
+    /**
+     * key - perp network configuration
+     * value - gas oracle of that network
+     */
+    private static final Map<PerpConfig, GasOracle> ORACLES = new ConcurrentHashMap<>();
+
+    /**
+     * budget of a function that has not been observed yet (0.1 SUI)
+     */
+    private static final BigInteger DEFAULT_GAS_BUDGET = BigInteger.valueOf(100_000_000L);
+
+    private static final BigInteger MIN_GAS_BUDGET = BigInteger.valueOf(2_000_000L);
+
+    private static final BigInteger MAX_GAS_BUDGET = BigInteger.valueOf(5_000_000_000L);
+
+    /**
+     * budget = learned gas x 1.3
+     */
+    private static final BigDecimal SAFETY_FACTOR = new BigDecimal("1.3");
+
+    /**
+     * each observation lets the learned peak decay by 2%, so one expensive outlier fades out
+     */
+    private static final BigDecimal DECAY = new BigDecimal("0.98");
+
+    private static final long REFRESH_INTERVAL_MILLIS = 3_600_000L;
+
+    private static final String INSUFFICIENT_GAS = "InsufficientGas";
+
+    private final SuiClient suiClient;
+
+    /**
+     * learned gas per PerpFunction ordinal
+     */
+    private final AtomicReferenceArray<BigInteger> learned = new AtomicReferenceArray<>(PerpFunction.values().length);
+
+    private volatile GasPrice gasPrice;
+
+    private volatile long latestEpoch = -1L;
+
+    GasOracle(SuiClient suiClient) {
+        this.suiClient = suiClient;
+    }
+
+    /**
+     * get the oracle of a network
+     * @param perpConfig
+     * @param suiClient
+     * @return
+     */
+    public static GasOracle of(PerpConfig perpConfig, SuiClient suiClient) {
+        return ORACLES.computeIfAbsent(perpConfig, key -> new GasOracle(suiClient));
+    }
+
+    /**
+     * reference gas price of the current epoch
+     * @return
+     */
+    public long getReferenceGasPrice() {
+        GasPrice current = gasPrice;
+        if (current != null && current.epoch() >= latestEpoch
+                && System.currentTimeMillis() - current.fetchedAt() < REFRESH_INTERVAL_MILLIS) {
+            return current.price();
+        }
+        synchronized (this) {
+            current = gasPrice;
+            if (current != null && current.epoch() >= latestEpoch
+                    && System.currentTimeMillis() - current.fetchedAt() < REFRESH_INTERVAL_MILLIS) {
+                return current.price();
+            }
+            long epoch = latestEpoch;
+            Long price;
+            try {
+                price = suiClient.getReferenceGasPrice();
+            } catch (Exception e) {
+                throw new PerpRpcFailedException("Failed to get reference gas price", e);
+            }
+            if (price == null) {
+                throw new PerpRpcFailedException("Failed to get reference gas price");
+            }
+            gasPrice = new GasPrice(price, epoch, System.currentTimeMillis());
+            return price;
+        }
+    }
+
+    /**
+     * gas budget for a function: the learned gas with a safety margin, or the default before the first observation
+     * @param perpFunction
+     * @return
+     */
+    public BigInteger estimateGasBudget(PerpFunction perpFunction) {
+        BigInteger gas = learned.get(perpFunction.ordinal());
+        if (gas == null) {
+            return DEFAULT_GAS_BUDGET;
+        }
+        BigInteger budget = new BigDecimal(gas).multiply(SAFETY_FACTOR).setScale(0, RoundingMode.CEILING).toBigInteger();
+        return budget.max(MIN_GAS_BUDGET).min(MAX_GAS_BUDGET);
+    }
+
+    /**
+     * gas budget for a transaction composing several functions
+     * @param perpFunctions
+     * @return
+     */
+    public BigInteger estimateGasBudget(List<PerpFunction> perpFunctions) {
+        BigInteger budget = BigInteger.ZERO;
+        for (PerpFunction perpFunction : perpFunctions) {
+            budget = budget.add(this.estimateGasBudget(perpFunction));
+        }
+        return budget.min(MAX_GAS_BUDGET);
+    }
+
+    /**
+     * learn from an executed transaction: its gas, its epoch, and a budget that turned out too small
+     * @param perpFunction
+     * @param gasBudget budget the transaction was sent with
+     * @param response
+     */
+    public void observe(PerpFunction perpFunction, BigInteger gasBudget, SuiTransactionBlockResponse response) {
+        Long epoch = EffectsUtil.getExecutedEpoch(response);
+        if (epoch != null && epoch > latestEpoch) {
+            latestEpoch = epoch;
+        }
+        String error = EffectsUtil.getError(response);
+        if (error != null && error.contains(INSUFFICIENT_GAS)) {
+            this.observe(perpFunction, gasBudget.shiftLeft(1));
+            return;
+        }
+        BigInteger gasCharged = EffectsUtil.getGasCharged(response);
+        if (gasCharged != null) {
+            this.observe(perpFunction, gasCharged);
+        }
+    }
+
+    /**
+     * learn the gas a function needs, e.g. from a dry run
+     * @param perpFunction
+     * @param gas computation + storage cost
+     */
+    public void observe(PerpFunction perpFunction, BigInteger gas) {
+        int index = perpFunction.ordinal();
+        while (true) {
+            BigInteger current = learned.get(index);
+            BigInteger next = current == null
+                    ? gas
+                    : gas.max(new BigDecimal(current).multiply(DECAY).setScale(0, RoundingMode.CEILING).toBigInteger());
+            if (learned.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    private record GasPrice(long price, long epoch, long fetchedAt) {}
+
+}
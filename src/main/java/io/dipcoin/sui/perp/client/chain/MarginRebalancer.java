@@ -0,0 +1,295 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
+import io.dipcoin.sui.perp.client.PerpUserClient;
+import io.dipcoin.sui.perp.config.RebalanceConfig;
+import io.dipcoin.sui.perp.exception.PerpOnChainException;
+import io.dipcoin.sui.perp.model.response.PositionResponse;
+import io.dipcoin.sui.perp.util.EffectsUtil;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/19 15:00
+ * @Description : tops the margin of many positions up to their targets. the plan holds one add margin transfer per
+ * position short of its target, the transfers are composed into a few transactions and sent with bounded concurrency.
+ * margin above a target is reported but left in place, there is no move call taking margin out of a position.
+ * targets and transfers are in 1e18 base units, the add margin calls carry the coin's own base unit
+ */
+public class MarginRebalancer {
+
+    /**
+     * decimals of position margins and targets
+     */
+    private static final int BASE_DECIMALS = 18;
+
+    private final RebalanceConfig config;
+
+    private final Supplier<PerpTransactionComposer> composers;
+
+    private final Function<PerpTransactionComposer, CompletableFuture<SuiTransactionBlockResponse>> sender;
+
+    MarginRebalancer(RebalanceConfig config, Supplier<PerpTransactionComposer> composers,
+                     Function<PerpTransactionComposer, CompletableFuture<SuiTransactionBlockResponse>> sender) {
+        if (config.getMaxCallsPerTransaction() < 1 || config.getMaxConcurrency() < 1) {
+            throw new IllegalArgumentException("maxCallsPerTransaction and maxConcurrency must be positive");
+        }
+        if (config.getCoinDecimals() < 0 || config.getCoinDecimals() > BASE_DECIMALS) {
+            throw new IllegalArgumentException("coinDecimals must be between 0 and " + BASE_DECIMALS);
+        }
+        this.config = config;
+        this.composers = composers;
+        this.sender = sender;
+    }
+
+    /**
+     * rebalancer sending through a client, e.g. composer -> offSignClient.sendComposedAsync(sender, composer).
+     * margin is taken from the bank balance of whoever signs the transactions. a response without effects is
+     * confirmed through the client's confirmation tracker before its batch is classified
+     * @param client
+     * @param config
+     * @param sender
+     * @return
+     */
+    public static MarginRebalancer of(AbstractOnChainClient client, RebalanceConfig config,
+                                      Function<PerpTransactionComposer, CompletableFuture<SuiTransactionBlockResponse>> sender) {
+        return new MarginRebalancer(config, client::compose,
+                composer -> sender.apply(composer).thenCompose(response -> confirmed(client, response)));
+    }
+
+    /**
+     * plan against the positions of each sub account, read with the sub account's user client
+     * @param targets
+     * @param userClients user client of a sub address
+     * @param available free collateral of the signer, null to skip the check
+     * @return
+     */
+    public Plan plan(Collection<MarginTarget> targets, Function<String, PerpUserClient> userClients, BigInteger available) {
+        Set<String> subAddresses = new LinkedHashSet<>();
+        targets.forEach(target -> subAddresses.add(target.subAddress()));
+        Map<String, List<PositionResponse>> positions = new HashMap<>();
+        for (String subAddress : subAddresses) {
+            positions.put(subAddress, userClients.apply(subAddress).positions());
+        }
+        return this.plan(targets, positions, available);
+    }
+
+    /**
+     * plan against known positions
+     * @param targets
+     * @param positions positions by sub address
+     * @param available free collateral of the signer, null to skip the check
+     * @return
+     */
+    public Plan plan(Collection<MarginTarget> targets, Map<String, List<PositionResponse>> positions, BigInteger available) {
+        List<Transfer> transfers = new ArrayList<>();
+        List<Transfer> surpluses = new ArrayList<>();
+        List<MarginTarget> missing = new ArrayList<>();
+        BigInteger total = BigInteger.ZERO;
+        for (MarginTarget target : targets) {
+            BigInteger current = currentMargin(positions.getOrDefault(target.subAddress(), List.of()), target.symbol());
+            if (current == null) {
+                missing.add(target);
+                continue;
+            }
+            BigInteger delta = target.margin().subtract(current);
+            if (delta.signum() < 0) {
+                surpluses.add(new Transfer(target.subAddress(), target.symbol(), current, target.margin(), delta.negate()));
+            } else if (delta.signum() > 0 && delta.compareTo(config.getMinTransfer()) >= 0) {
+                transfers.add(new Transfer(target.subAddress(), target.symbol(), current, target.margin(), delta));
+                total = total.add(delta);
+            }
+        }
+        if (available != null && total.compareTo(available) > 0) {
+            throw new PerpOnChainException("Rebalance needs " + total + " margin but only " + available + " is available");
+        }
+        // the largest top-ups go first, a failing last batch then leaves the smallest shortfalls
+        transfers.sort(Comparator.comparing(Transfer::amount).reversed());
+        return new Plan(transfers, surpluses, missing, total);
+    }
+
+    /**
+     * send the plan's transfers, at most maxCallsPerTransaction per transaction and maxConcurrency transactions at once.
+     * a transaction only carries transfers of one symbol, it can push a single pyth price update.
+     * the future completes once every batch is sent or failed, it does not fail itself
+     * @param plan
+     * @return
+     */
+    public CompletableFuture<Result> execute(Plan plan) {
+        Map<String, List<Transfer>> bySymbol = new LinkedHashMap<>();
+        for (Transfer transfer : plan.transfers()) {
+            bySymbol.computeIfAbsent(transfer.symbol(), key -> new ArrayList<>()).add(transfer);
+        }
+        List<List<Transfer>> chunks = new ArrayList<>();
+        for (List<Transfer> transfers : bySymbol.values()) {
+            for (int i = 0; i < transfers.size(); i += config.getMaxCallsPerTransaction()) {
+                chunks.add(transfers.subList(i, Math.min(i + config.getMaxCallsPerTransaction(), transfers.size())));
+            }
+        }
+        Batch[] batches = new Batch[chunks.size()];
+        CompletableFuture<Result> result = new CompletableFuture<>();
+        if (chunks.isEmpty()) {
+            result.complete(new Result(List.of()));
+            return result;
+        }
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger done = new AtomicInteger();
+        Runnable[] lane = new Runnable[1];
+        lane[0] = () -> {
+            int index = next.getAndIncrement();
+            if (index >= chunks.size()) {
+                return;
+            }
+            List<Transfer> chunk = chunks.get(index);
+            this.send(chunk).whenComplete((response, error) -> {
+                batches[index] = new Batch(chunk, response, error);
+                if (done.incrementAndGet() == chunks.size()) {
+                    result.complete(new Result(List.of(batches)));
+                } else {
+                    lane[0].run();
+                }
+            });
+        };
+        for (int i = 0; i < config.getMaxConcurrency(); i++) {
+            lane[0].run();
+        }
+        return result;
+    }
+
+    private CompletableFuture<SuiTransactionBlockResponse> send(List<Transfer> chunk) {
+        try {
+            PerpTransactionComposer composer = composers.get();
+            chunk.forEach(transfer -> composer.addMargin(transfer.subAddress(), transfer.symbol(), this.coinAmount(transfer.amount())));
+            return sender.apply(composer);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * a 1e18 amount in the coin's base unit, rounded up so that the target is reached
+     * @param amount
+     * @return
+     */
+    BigInteger coinAmount(BigInteger amount) {
+        BigInteger scale = BigInteger.TEN.pow(BASE_DECIMALS - config.getCoinDecimals());
+        BigInteger[] quotient = amount.divideAndRemainder(scale);
+        return quotient[1].signum() > 0 ? quotient[0].add(BigInteger.ONE) : quotient[0];
+    }
+
+    private static CompletableFuture<SuiTransactionBlockResponse> confirmed(AbstractOnChainClient client, SuiTransactionBlockResponse response) {
+        if (response == null || response.getDigest() == null || EffectsUtil.hasEffects(response)) {
+            return CompletableFuture.completedFuture(response);
+        }
+        return client.getConfirmationTracker().track(response.getDigest());
+    }
+
+    private static BigInteger currentMargin(List<PositionResponse> positions, String symbol) {
+        BigInteger margin = null;
+        for (PositionResponse position : positions) {
+            if (symbol.equals(position.getSymbol()) && position.getMargin() != null) {
+                BigInteger value = new BigInteger(position.getMargin());
+                margin = margin == null ? value : margin.add(value);
+            }
+        }
+        return margin;
+    }
+
+    /**
+     * desired margin of a position, in 1e18 base units
+     * @param subAddress
+     * @param symbol
+     * @param margin
+     */
+    public record MarginTarget(String subAddress, String symbol, BigInteger margin) {}
+
+    /**
+     * margin moved for a position, always positive
+     * @param subAddress
+     * @param symbol
+     * @param current
+     * @param target
+     * @param amount
+     */
+    public record Transfer(String subAddress, String symbol, BigInteger current, BigInteger target, BigInteger amount) {}
+
+    /**
+     * @param transfers add margin transfers, largest first
+     * @param surpluses positions above their target, not acted on
+     * @param missing targets without an open position
+     * @param total margin the transfers need
+     */
+    public record Plan(List<Transfer> transfers, List<Transfer> surpluses, List<MarginTarget> missing, BigInteger total) {
+
+        public Plan {
+            transfers = List.copyOf(transfers);
+            surpluses = List.copyOf(surpluses);
+            missing = List.copyOf(missing);
+        }
+
+        public boolean isEmpty() {
+            return transfers.isEmpty();
+        }
+    }
+
+    /**
+     * one transaction of the rebalance, error set when it could not be sent or confirmed
+     * @param transfers
+     * @param response executed transaction, null when error is set
+     * @param error
+     */
+    public record Batch(List<Transfer> transfers, SuiTransactionBlockResponse response, Throwable error) {
+
+        public boolean isSent() {
+            return error == null;
+        }
+
+        /**
+         * whether the transaction executed successfully, an abort or an unknown outcome is not
+         * @return
+         */
+        public boolean isSucceeded() {
+            return error == null && EffectsUtil.isSuccess(response);
+        }
+    }
+
+    public record Result(List<Batch> batches) {
+
+        /**
+         * transfers of the batches that did not succeed, a batch whose confirmation timed out may still have
+         * executed, check its digest before retrying
+         * @return
+         */
+        public List<Transfer> failed() {
+            return batches.stream().filter(batch -> !batch.isSucceeded()).flatMap(batch -> batch.transfers().stream()).toList();
+        }
+    }
+
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.bcs.PureBcs;
+import io.dipcoin.sui.bcs.TypeTagSerializer;
+import io.dipcoin.sui.bcs.types.arg.call.CallArg;
+import io.dipcoin.sui.bcs.types.arg.call.CallArgObjectArg;
+import io.dipcoin.sui.bcs.types.arg.call.CallArgPure;
+import io.dipcoin.sui.bcs.types.transaction.Argument;
+import io.dipcoin.sui.bcs.types.transaction.Command;
+import io.dipcoin.sui.bcs.types.transaction.ProgrammableMoveCall;
+import io.dipcoin.sui.bcs.types.transaction.ProgrammableTransaction;
+import io.dipcoin.sui.perp.enums.PerpFunction;
+import io.dipcoin.sui.perp.model.PerpConfig;
+import io.dipcoin.sui.perp.util.SaltGenerator;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/19 10:00
+ * @Description : precompiled move call of a PerpFunction. the package, type arguments and argument layout are resolved
+ * once per PerpConfig; a call only adds its shared objects (once per transaction), its salt and its variable pure
+ * arguments. used by the on-chain clients, the composer and the offline builder alike
+ */
+public final class MoveCallTemplate {
+
+    /**
+     * key - perp network configuration
+     * value - templates by PerpFunction ordinal
+     */
+    private static final Map<PerpConfig, MoveCallTemplate[]> TEMPLATES = new ConcurrentHashMap<>();
+
+    private static final CallArgPure ENABLED = new CallArgPure(Boolean.TRUE, PureBcs.BasePureType.BOOL);
+
+    private static final String SENDER = "sender";
+
+    private final PerpFunction perpFunction;
+
+    private final Function<List<Argument>, ProgrammableMoveCall> moveCall;
+
+    private final List<Slot> slots;
+
+    private MoveCallTemplate(PerpConfig perpConfig, PerpFunction perpFunction) {
+        this.perpFunction = perpFunction;
+        String packageId = perpConfig.packageId();
+        String module = perpFunction.getModule();
+        String function = perpFunction.getFunction();
+        if (perpFunction == PerpFunction.SET_SUB_ACCOUNT) {
+            this.moveCall = arguments -> new ProgrammableMoveCall(packageId, module, function, Collections.emptyList(), arguments);
+        } else {
+            var typeArguments = TypeTagSerializer.parseStructTypeArgs(perpConfig.coinType(), true);
+            this.moveCall = arguments -> new ProgrammableMoveCall(packageId, module, function, typeArguments, arguments);
+        }
+        this.slots = slots(perpFunction);
+    }
+
+    /**
+     * get the template of a function on a network, compiled on first use
+     * @param perpConfig
+     * @param perpFunction
+     * @return
+     */
+    public static MoveCallTemplate of(PerpConfig perpConfig, PerpFunction perpFunction) {
+        return TEMPLATES.computeIfAbsent(perpConfig, MoveCallTemplate::compile)[perpFunction.ordinal()];
+    }
+
+    /**
+     * add the move call to a transaction
+     * @param inputs inputs of the transaction
+     * @param values variable arguments in order:
+     *               SET_SUB_ACCOUNT (subAddress),
+     *               DEPOSIT (sender, amount, coin argument),
+     *               WITHDRAW (sender, amount),
+     *               ADD_MARGIN (subAddress, symbol, amount)
+     * @return command index
+     */
+    public int append(Inputs inputs, Object... values) {
+        List<Argument> arguments = new ArrayList<>(slots.size());
+        for (Slot slot : slots) {
+            arguments.add(slot.argument(inputs, values));
+        }
+        ProgrammableTransaction programmableTx = inputs.programmableTx();
+        programmableTx.addCommand(new Command.MoveCall(moveCall.apply(arguments)));
+        return programmableTx.getCommandsSize() - 1;
+    }
+
+    public PerpFunction getPerpFunction() {
+        return perpFunction;
+    }
+
+    private static MoveCallTemplate[] compile(PerpConfig perpConfig) {
+        PerpFunction[] perpFunctions = PerpFunction.values();
+        MoveCallTemplate[] templates = new MoveCallTemplate[perpFunctions.length];
+        for (PerpFunction perpFunction : perpFunctions) {
+            templates[perpFunction.ordinal()] = new MoveCallTemplate(perpConfig, perpFunction);
+        }
+        return templates;
+    }
+
+    /**
+     * argument layout of each function, matching the move signatures
+     * @param perpFunction
+     * @return
+     */
+    private static List<Slot> slots(PerpFunction perpFunction) {
+        return switch (perpFunction) {
+            case SET_SUB_ACCOUNT -> List.of(
+                    shared(ChainSnapshot.PROTOCOL_CONFIG),
+                    shared(ChainSnapshot.SUB_ACCOUNTS),
+                    pure(0, PureBcs.BasePureType.ADDRESS),
+                    (inputs, values) -> inputs.add(ENABLED));
+            case DEPOSIT -> List.of(
+                    shared(ChainSnapshot.PROTOCOL_CONFIG),
+                    shared(ChainSnapshot.BANK),
+                    shared(ChainSnapshot.TX_INDEXER),
+                    salt(),
+                    sender(0),
+                    (inputs, values) -> inputs.add(new CallArgPure(((BigInteger) values[1]).longValue(), PureBcs.BasePureType.U64)),
+                    (inputs, values) -> (Argument) values[2]);
+            case WITHDRAW -> List.of(
+                    shared(ChainSnapshot.PROTOCOL_CONFIG),
+                    shared(ChainSnapshot.BANK),
+                    shared(ChainSnapshot.TX_INDEXER),
+                    salt(),
+                    sender(0),
+                    pure(1, PureBcs.BasePureType.U128));
+            case ADD_MARGIN -> List.of(
+                    shared(ChainSnapshot.PROTOCOL_CONFIG),
+                    shared(ChainSnapshot.CLOCK),
+                    market(ChainSnapshot::perpetualKey, 1),
+                    shared(ChainSnapshot.BANK),
+                    shared(ChainSnapshot.SUB_ACCOUNTS),
+                    shared(ChainSnapshot.TX_INDEXER),
+                    market(ChainSnapshot::oracleKey, 1),
+                    pure(0, PureBcs.BasePureType.ADDRESS),
+                    pure(2, PureBcs.BasePureType.U128),
+                    salt());
+        };
+    }
+
+    private static Slot shared(String key) {
+        return (inputs, values) -> inputs.shared(key);
+    }
+
+    private static Slot market(UnaryOperator<String> key, int symbolIndex) {
+        return (inputs, values) -> inputs.shared(key.apply((String) values[symbolIndex]));
+    }
+
+    private static Slot pure(int index, PureBcs.BasePureType type) {
+        return (inputs, values) -> inputs.add(new CallArgPure(values[index], type));
+    }
+
+    private static Slot sender(int index) {
+        return (inputs, values) -> inputs.keyed(SENDER, () -> new CallArgPure(values[index], PureBcs.BasePureType.ADDRESS));
+    }
+
+    private static Slot salt() {
+        return (inputs, values) -> inputs.add(new CallArgPure(SaltGenerator.nextSalt(), PureBcs.BasePureType.VECTOR_U8));
+    }
+
+    @FunctionalInterface
+    private interface Slot {
+
+        Argument argument(Inputs inputs, Object[] values);
+
+    }
+
+    /**
+     * inputs of one transaction, shared objects and the sender are added once however many calls use them
+     */
+    public static final class Inputs {
+
+        private final ProgrammableTransaction programmableTx;
+
+        private final Function<String, CallArgObjectArg> sharedObjects;
+
+        private final Map<String, Argument> arguments = new HashMap<>();
+
+        /**
+         * @param programmableTx
+         * @param sharedObjects resolves shared objects by ChainSnapshot key
+         */
+        public Inputs(ProgrammableTransaction programmableTx, Function<String, CallArgObjectArg> sharedObjects) {
+            this.programmableTx = programmableTx;
+            this.sharedObjects = sharedObjects;
+        }
+
+        public ProgrammableTransaction programmableTx() {
+            return programmableTx;
+        }
+
+        public Argument shared(String key) {
+            return this.keyed(key, () -> sharedObjects.apply(key));
+        }
+
+        public Argument keyed(String key, Supplier<? extends CallArg> input) {
+            Argument argument = arguments.get(key);
+            if (argument == null) {
+                argument = this.add(input.get());
+                arguments.put(key, argument);
+            }
+            return argument;
+        }
+
+        public Argument add(CallArg input) {
+            return Argument.ofInput(programmableTx.addInput(input));
+        }
+
+    }
+
+}
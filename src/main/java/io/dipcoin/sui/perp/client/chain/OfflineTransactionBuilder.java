@@ -0,0 +1,226 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.bcs.types.arg.call.CallArgObjectArg;
+import io.dipcoin.sui.bcs.types.gas.GasData;
+import io.dipcoin.sui.bcs.types.gas.SuiObjectRef;
+import io.dipcoin.sui.bcs.types.transaction.Argument;
+import io.dipcoin.sui.bcs.types.transaction.ProgrammableTransaction;
+import io.dipcoin.sui.client.TransactionBuilder;
+import io.dipcoin.sui.perp.enums.PerpFunction;
+import io.dipcoin.sui.perp.enums.StaleInputKind;
+import io.dipcoin.sui.perp.exception.PerpOnChainException;
+import io.dipcoin.sui.perp.model.PerpConfig;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/14 16:20
+ * @Description : builds signed-ready transaction bytes from a ChainSnapshot without any network access. every
+ * transaction consumes its own snapshot coins and gas coin, since their versions after the transaction are unknown
+ * offline; the inputs that may have moved on chain since the snapshot are reported with the bytes.
+ * not thread safe
+ */
+public class OfflineTransactionBuilder {
+
+    private static final long DEFAULT_MAX_AGE_MILLIS = 60_000L;
+
+    private final PerpConfig perpConfig;
+
+    private final ChainSnapshot snapshot;
+
+    private final TreeSet<CoinInventory.OwnedCoin> coins;
+
+    private final Deque<ChainSnapshot.Coin> gasCoins;
+
+    private long maxAgeMillis = DEFAULT_MAX_AGE_MILLIS;
+
+    public OfflineTransactionBuilder(PerpConfig perpConfig, ChainSnapshot snapshot) {
+        this.perpConfig = perpConfig;
+        this.snapshot = snapshot;
+        this.coins = new TreeSet<>(CoinInventory.BY_BALANCE);
+        for (ChainSnapshot.Coin coin : snapshot.coins()) {
+            coins.add(new CoinInventory.OwnedCoin(coin.ref().getObjectId(), coin.ref(), coin.balance()));
+        }
+        // largest gas coins first
+        List<ChainSnapshot.Coin> sortedGasCoins = new ArrayList<>(snapshot.gasCoins());
+        sortedGasCoins.sort((a, b) -> b.balance().compareTo(a.balance()));
+        this.gasCoins = new ArrayDeque<>(sortedGasCoins);
+    }
+
+    /**
+     * snapshot age after which the gas price and owned coins are reported as possibly stale, default 60s
+     * @param maxAgeMillis
+     * @return
+     */
+    public OfflineTransactionBuilder setMaxAgeMillis(long maxAgeMillis) {
+        this.maxAgeMillis = maxAgeMillis;
+        return this;
+    }
+
+    /**
+     * set sub account
+     * @param subAddress
+     * @param gasBudget
+     * @return
+     */
+    public OfflineTransaction setSubAccount(String subAddress, BigInteger gasBudget) {
+        MoveCallTemplate.Inputs inputs = this.inputs(new ProgrammableTransaction());
+        MoveCallTemplate.of(perpConfig, PerpFunction.SET_SUB_ACCOUNT).append(inputs, subAddress);
+        return this.build(inputs, PerpFunction.SET_SUB_ACCOUNT, gasBudget, new ArrayList<>());
+    }
+
+    /**
+     * deposit to bank, funded by the snapshot coins
+     * @param amount
+     * @param gasBudget
+     * @return
+     */
+    public OfflineTransaction deposit(BigInteger amount, BigInteger gasBudget) {
+        List<CoinInventory.OwnedCoin> selected = CoinInventory.selectCoins(coins, amount);
+        if (selected == null) {
+            BigInteger totalBalance = coins.stream().map(CoinInventory.OwnedCoin::balance).reduce(BigInteger.ZERO, BigInteger::add);
+            throw new PerpOnChainException(perpConfig.coinType() + " snapshot balance is not enough, current total balance: " + totalBalance);
+        }
+        List<StaleInput> staleInputs = new ArrayList<>();
+        for (CoinInventory.OwnedCoin coin : selected) {
+            this.checkAge(staleInputs, StaleInputKind.OWNED_COIN, coin.objectId());
+        }
+        ProgrammableTransaction programmableTx = new ProgrammableTransaction();
+        int splitIndex = AbstractOnChainClient.splitCoin(programmableTx,
+                selected.stream().map(CoinInventory.OwnedCoin::ref).toList(), List.of(amount));
+        MoveCallTemplate.Inputs inputs = this.inputs(programmableTx);
+        MoveCallTemplate.of(perpConfig, PerpFunction.DEPOSIT).append(inputs, snapshot.owner(), amount, new Argument.NestedResult(splitIndex, 0));
+        OfflineTransaction transaction = this.build(inputs, PerpFunction.DEPOSIT, gasBudget, staleInputs);
+        selected.forEach(coins::remove);
+        return transaction;
+    }
+
+    /**
+     * withdraw from bank
+     * @param amount
+     * @param gasBudget
+     * @return
+     */
+    public OfflineTransaction withdraw(BigInteger amount, BigInteger gasBudget) {
+        MoveCallTemplate.Inputs inputs = this.inputs(new ProgrammableTransaction());
+        MoveCallTemplate.of(perpConfig, PerpFunction.WITHDRAW).append(inputs, snapshot.owner(), amount);
+        return this.build(inputs, PerpFunction.WITHDRAW, gasBudget, new ArrayList<>());
+    }
+
+    /**
+     * add margin against the price last pushed on chain, the pyth update needs a fresh price from hermes
+     * and is left out, so the price feed is always reported
+     * @param subAddress
+     * @param symbol
+     * @param amount
+     * @param gasBudget
+     * @return
+     */
+    public OfflineTransaction addMargin(String subAddress, String symbol, BigInteger amount, BigInteger gasBudget) {
+        MoveCallTemplate.Inputs inputs = this.inputs(new ProgrammableTransaction());
+        MoveCallTemplate.of(perpConfig, PerpFunction.ADD_MARGIN).append(inputs, subAddress, symbol, amount);
+        List<StaleInput> staleInputs = new ArrayList<>();
+        staleInputs.add(new StaleInput(StaleInputKind.PRICE_FEED, ChainSnapshot.oracleKey(symbol), "pyth price is not updated offline"));
+        return this.build(inputs, PerpFunction.ADD_MARGIN, gasBudget, staleInputs);
+    }
+
+    /**
+     * number of snapshot gas coins not consumed yet
+     * @return
+     */
+    public int remainingGasCoins() {
+        return gasCoins.size();
+    }
+
+    private OfflineTransaction build(MoveCallTemplate.Inputs inputs, PerpFunction perpFunction, BigInteger gasBudget, List<StaleInput> staleInputs) {
+        ChainSnapshot.Coin gasCoin = gasCoins.peekFirst();
+        if (gasCoin == null) {
+            throw new PerpOnChainException("No snapshot gas coin left");
+        }
+        if (gasCoin.balance().compareTo(gasBudget) < 0) {
+            throw new PerpOnChainException("Snapshot gas coin balance " + gasCoin.balance() + " is below the gas budget " + gasBudget);
+        }
+        this.checkAge(staleInputs, StaleInputKind.GAS_COIN, gasCoin.ref().getObjectId());
+        this.checkAge(staleInputs, StaleInputKind.GAS_PRICE, null);
+        String sender = snapshot.owner();
+        String txBytes;
+        try {
+            txBytes = TransactionBuilder.serializeTransactionBytes(inputs.programmableTx(), sender,
+                    new GasData(List.of(gasCoin.ref()), sender, snapshot.referenceGasPrice(), gasBudget));
+        } catch (IOException e) {
+            throw new PerpOnChainException("offline moveCall " + perpFunction.getFunction() + " failed!", e);
+        }
+        gasCoins.pollFirst();
+        return new OfflineTransaction(txBytes, perpFunction, gasCoin.ref(), List.copyOf(staleInputs));
+    }
+
+    private CallArgObjectArg shared(String key) {
+        CallArgObjectArg sharedObject = snapshot.sharedObjects().get(key);
+        if (sharedObject == null) {
+            throw new PerpOnChainException("Shared object " + key + " is not in the snapshot");
+        }
+        return sharedObject;
+    }
+
+    private void checkAge(List<StaleInput> staleInputs, StaleInputKind kind, String objectId) {
+        long age = System.currentTimeMillis() - snapshot.takenAt();
+        if (age > maxAgeMillis) {
+            staleInputs.add(new StaleInput(kind, objectId, "snapshot taken " + age + "ms ago"));
+        }
+    }
+
+    private MoveCallTemplate.Inputs inputs(ProgrammableTransaction programmableTx) {
+        return new MoveCallTemplate.Inputs(programmableTx, this::shared);
+    }
+
+    /**
+     * transaction bytes built offline
+     * @param txBytes base64 transaction data, ready to sign
+     * @param perpFunction
+     * @param gasCoin
+     * @param staleInputs inputs that may have changed on chain since the snapshot, empty when none
+     */
+    public record OfflineTransaction(
+
+            String txBytes,
+            PerpFunction perpFunction,
+            SuiObjectRef gasCoin,
+            List<StaleInput> staleInputs
+
+    ) {
+
+        public boolean mayBeStale() {
+            return !staleInputs.isEmpty();
+        }
+
+    }
+
+    /**
+     * an input that may be stale
+     * @param kind
+     * @param objectId object id or snapshot key, null for the gas price
+     * @param reason
+     */
+    public record StaleInput(StaleInputKind kind, String objectId, String reason) {}
+
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.bcs.types.transaction.Argument;
+import io.dipcoin.sui.bcs.types.transaction.ProgrammableTransaction;
+import io.dipcoin.sui.perp.enums.PerpFunction;
+import io.dipcoin.sui.perp.exception.PerpOnChainException;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/13 15:10
+ * @Description : composes several perp move calls into one programmable transaction. shared objects enter the
+ * transaction once, each price feed is updated at most once, and all deposits are funded by a single coin split,
+ * e.g. topping up the margin of ten positions is one transaction and one signature
+ */
+public class PerpTransactionComposer {
+
+    private final AbstractOnChainClient client;
+
+    private final List<Action> actions = new ArrayList<>();
+
+    PerpTransactionComposer(AbstractOnChainClient client) {
+        this.client = client;
+    }
+
+    /**
+     * set sub account
+     * @param subAddress
+     * @return
+     */
+    public PerpTransactionComposer setSubAccount(String subAddress) {
+        actions.add(new Action(PerpFunction.SET_SUB_ACCOUNT, subAddress, null, null));
+        return this;
+    }
+
+    /**
+     * deposit to bank
+     * @param amount
+     * @return
+     */
+    public PerpTransactionComposer deposit(BigInteger amount) {
+        actions.add(new Action(PerpFunction.DEPOSIT, null, null, amount));
+        return this;
+    }
+
+    /**
+     * withdraw from bank
+     * @param amount
+     * @return
+     */
+    public PerpTransactionComposer withdraw(BigInteger amount) {
+        actions.add(new Action(PerpFunction.WITHDRAW, null, null, amount));
+        return this;
+    }
+
+    /**
+     * add margin
+     * @param subAddress
+     * @param symbol
+     * @param amount
+     * @return
+     */
+    public PerpTransactionComposer addMargin(String subAddress, String symbol, BigInteger amount) {
+        actions.add(new Action(PerpFunction.ADD_MARGIN, subAddress, symbol, amount));
+        return this;
+    }
+
+    /**
+     * functions of the composed actions, in order
+     * @return
+     */
+    public List<PerpFunction> functions() {
+        return actions.stream().map(Action::perpFunction).toList();
+    }
+
+    public boolean isEmpty() {
+        return actions.isEmpty();
+    }
+
+    /**
+     * what the outcome of a built transaction depends on besides chain state: the composed actions and the coins
+     * funding its deposits
+     * @param composed
+     * @return
+     */
+    public List<Object> arguments(ComposedTransaction composed) {
+        return List.of(List.copyOf(actions), composed.coinSelection() == null ? List.of() : composed.coinSelection().coins());
+    }
+
+    /**
+     * build the transaction for a sender. deposits reserve coins from the sender's coin inventory, the returned
+     * transaction must be settled with AbstractOnChainClient.settleCoins once sent
+     * @param sender
+     * @return
+     */
+    public ComposedTransaction build(String sender) {
+        if (actions.isEmpty()) {
+            throw new PerpOnChainException("Nothing to compose");
+        }
+        PythUpdateCoordinator.PriceUpdate priceUpdate = this.updatePrices();
+        ProgrammableTransaction programmableTx = priceUpdate.programmableTx();
+        MoveCallTemplate.Inputs inputs = client.inputs(programmableTx);
+
+        List<BigInteger> deposits = actions.stream()
+                .filter(action -> action.perpFunction() == PerpFunction.DEPOSIT)
+                .map(Action::amount)
+                .toList();
+        BigInteger depositTotal = deposits.stream().reduce(BigInteger.ZERO, BigInteger::add);
+        CoinSelection coinSelection = deposits.isEmpty()
+                ? null
+                : client.selectCoins(sender, client.perpConfig.coinType(), depositTotal);
+        try {
+            int splitIndex = coinSelection == null ? -1 : client.splitCoins(programmableTx, coinSelection, deposits);
+            int depositIndex = 0;
+            for (Action action : actions) {
+                MoveCallTemplate template = MoveCallTemplate.of(client.perpConfig, action.perpFunction());
+                switch (action.perpFunction()) {
+                    case SET_SUB_ACCOUNT -> template.append(inputs, action.subAddress());
+                    case DEPOSIT -> template.append(inputs, sender, action.amount(), new Argument.NestedResult(splitIndex, depositIndex++));
+                    case WITHDRAW -> template.append(inputs, sender, action.amount());
+                    case ADD_MARGIN -> template.append(inputs, action.subAddress(), action.symbol(), action.amount());
+                }
+            }
+        } catch (RuntimeException e) {
+            if (coinSelection != null) {
+                client.settleCoins(coinSelection, depositTotal, null);
+            }
+            throw e;
+        }
+        return new ComposedTransaction(programmableTx, this.functions(), priceUpdate, coinSelection, depositTotal);
+    }
+
+    /**
+     * start the transaction with the pyth price updates of the margin markets, each feed once and only when the
+     * price pushed last is no longer fresh
+     * @return
+     */
+    private PythUpdateCoordinator.PriceUpdate updatePrices() {
+        List<String> feedIds = new ArrayList<>();
+        for (Action action : actions) {
+            if (action.perpFunction() == PerpFunction.ADD_MARGIN) {
+                feedIds.add(client.perpMarketClient.getPythFeedId(action.symbol()));
+            }
+        }
+        return client.getPythUpdateCoordinator().begin(client.pythClient, client.perpConfig.pythNetwork(), feedIds);
+    }
+
+    private record Action(PerpFunction perpFunction, String subAddress, String symbol, BigInteger amount) {}
+
+    /**
+     * a composed transaction with the coins reserved for its deposits
+     * @param programmableTx
+     * @param functions
+     * @param priceUpdate
+     * @param coinSelection null without deposits
+     * @param spent deposit total
+     */
+    public record ComposedTransaction(
+
+            ProgrammableTransaction programmableTx,
+            List<PerpFunction> functions,
+            PythUpdateCoordinator.PriceUpdate priceUpdate,
+            CoinSelection coinSelection,
+            BigInteger spent
+
+    ) {}
+
+}
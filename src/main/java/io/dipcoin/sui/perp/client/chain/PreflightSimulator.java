@@ -0,0 +1,171 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.client.TransactionBuilder;
+import io.dipcoin.sui.model.transaction.DryRunTransactionBlockResponse;
+import io.dipcoin.sui.perp.config.PreflightConfig;
+import io.dipcoin.sui.perp.enums.PerpFunction;
+import io.dipcoin.sui.perp.exception.PerpOnChainException;
+import io.dipcoin.sui.perp.exception.PerpRpcFailedException;
+import io.dipcoin.sui.perp.model.PerpConfig;
+import io.dipcoin.sui.perp.util.EffectsUtil;
+import io.dipcoin.sui.protocol.SuiClient;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/18 14:00
+ * @Description : dry-runs transactions before they are signed. results are cached per operation, sender, arguments
+ * and owned input versions for a short ttl, so a retried transaction that cannot succeed is rejected without another
+ * dry run; the gas of successful dry runs is fed to the GasOracle. shared object state is not part of the key, the
+ * results of a sender are dropped whenever a transaction of that sender is sent
+ */
+public class PreflightSimulator {
+
+    /**
+     * key - perp network configuration
+     * value - preflight simulator of that network
+     */
+    private static final Map<PerpConfig, PreflightSimulator> SIMULATORS = new ConcurrentHashMap<>();
+
+    private final SuiClient suiClient;
+
+    private final GasOracle gasOracle;
+
+    private final PreflightConfig config;
+
+    private final Map<SimulationKey, Simulation> simulations = new ConcurrentHashMap<>();
+
+    PreflightSimulator(SuiClient suiClient, GasOracle gasOracle, PreflightConfig config) {
+        this.suiClient = suiClient;
+        this.gasOracle = gasOracle;
+        this.config = config;
+    }
+
+    /**
+     * get the simulator of a network, created on first use
+     * @param perpConfig
+     * @param suiClient
+     * @param config
+     * @return
+     */
+    public static PreflightSimulator of(PerpConfig perpConfig, SuiClient suiClient, PreflightConfig config) {
+        return SIMULATORS.computeIfAbsent(perpConfig, key -> new PreflightSimulator(suiClient, GasOracle.of(perpConfig, suiClient), config));
+    }
+
+    /**
+     * dry-run a transaction, or reuse the result of the same transaction within the ttl
+     * @param key
+     * @param txBytes serializes the transaction, only called on a cache miss
+     * @return
+     */
+    public Simulation simulate(SimulationKey key, Supplier<String> txBytes) {
+        long now = System.currentTimeMillis();
+        Simulation cached = simulations.get(key);
+        if (cached != null && now - cached.simulatedAt() < config.getTtlMillis()) {
+            return cached;
+        }
+        DryRunTransactionBlockResponse response;
+        try {
+            response = TransactionBuilder.dryRunTransaction(suiClient, txBytes.get());
+        } catch (IOException e) {
+            throw new PerpRpcFailedException("Failed to dry run " + key.operation(), e);
+        }
+        if (response == null || response.getEffects() == null) {
+            throw new PerpRpcFailedException("Failed to dry run " + key.operation());
+        }
+        Simulation simulation = new Simulation(EffectsUtil.isSuccess(response.getEffects()), EffectsUtil.getError(response.getEffects()),
+                EffectsUtil.getGasCharged(response.getEffects()), now);
+        if (simulation.success() && simulation.gasUsed() != null && key.perpFunction() != null) {
+            gasOracle.observe(key.perpFunction(), simulation.gasUsed());
+        }
+        this.evict(now);
+        simulations.put(key, simulation);
+        return simulation;
+    }
+
+    /**
+     * dry-run a transaction and abort when it would fail
+     * @param key
+     * @param txBytes
+     * @return the successful simulation
+     */
+    public Simulation check(SimulationKey key, Supplier<String> txBytes) {
+        Simulation simulation = this.simulate(key, txBytes);
+        if (!simulation.success()) {
+            throw new PerpOnChainException("Preflight of " + key.operation() + " failed: " + simulation.error());
+        }
+        return simulation;
+    }
+
+    /**
+     * forget every simulation result, e.g. after changing the account state outside this client
+     */
+    public void invalidate() {
+        simulations.clear();
+    }
+
+    /**
+     * forget the simulation results of a sender, its account state moves with every transaction it sends
+     * @param sender
+     */
+    public void invalidate(String sender) {
+        simulations.keySet().removeIf(key -> key.sender().equals(sender));
+    }
+
+    private void evict(long now) {
+        if (simulations.size() < config.getMaxEntries()) {
+            return;
+        }
+        simulations.values().removeIf(simulation -> now - simulation.simulatedAt() >= config.getTtlMillis());
+        if (simulations.size() >= config.getMaxEntries()) {
+            simulations.clear();
+        }
+    }
+
+    /**
+     * what a dry run result depends on. the salt and the gas coin are left out, they do not change the outcome
+     * @param operation metrics operation name
+     * @param perpFunction function whose gas usage is learned, null for composed transactions
+     * @param sender
+     * @param arguments call arguments, including the references of owned coins spent
+     * @param gasBudget
+     */
+    public record SimulationKey(
+
+            String operation,
+            PerpFunction perpFunction,
+            String sender,
+            List<Object> arguments,
+            BigInteger gasBudget
+
+    ) {}
+
+    /**
+     * outcome of a dry run
+     * @param success
+     * @param error execution error, null on success
+     * @param gasUsed computation + storage gas, null when not reported
+     * @param simulatedAt
+     */
+    public record Simulation(boolean success, String error, BigInteger gasUsed, long simulatedAt) {}
+
+}
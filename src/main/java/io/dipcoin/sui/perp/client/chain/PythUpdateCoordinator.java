@@ -0,0 +1,144 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.bcs.types.transaction.ProgrammableTransaction;
+import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
+import io.dipcoin.sui.perp.exception.PerpOnChainException;
+import io.dipcoin.sui.perp.model.PerpConfig;
+import io.dipcoin.sui.perp.util.EffectsUtil;
+import io.dipcoin.sui.pyth.core.PythClient;
+import io.dipcoin.sui.pyth.model.PythNetwork;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/14 10:30
+ * @Description : coordinates pyth price updates per network. a feed is updated at most once per transaction, and a
+ * feed this client updated on chain within the freshness window is not fetched and updated again, saving the price
+ * service round trip and the update gas when several margin operations touch the same market
+ */
+public class PythUpdateCoordinator {
+
+    /**
+     * key - perp network configuration
+     * value - coordinator of that network
+     */
+    private static final Map<PerpConfig, PythUpdateCoordinator> COORDINATORS = new ConcurrentHashMap<>();
+
+    private static final long DEFAULT_FRESHNESS_MILLIS = 2_000L;
+
+    /**
+     * key - pyth price feed id
+     * value - time the update request of the last successful update was made, millis
+     */
+    private final Map<String, Long> updatedAt = new ConcurrentHashMap<>();
+
+    private volatile long freshnessMillis = DEFAULT_FRESHNESS_MILLIS;
+
+    PythUpdateCoordinator() {
+    }
+
+    /**
+     * get the coordinator of a network
+     * @param perpConfig
+     * @return
+     */
+    public static PythUpdateCoordinator of(PerpConfig perpConfig) {
+        return COORDINATORS.computeIfAbsent(perpConfig, key -> new PythUpdateCoordinator());
+    }
+
+    /**
+     * how long a price this client pushed on chain is reused without a new update, 0 updates every time.
+     * keep it well below the staleness threshold of the perp contracts
+     * @param freshnessMillis
+     */
+    public void setFreshnessMillis(long freshnessMillis) {
+        this.freshnessMillis = freshnessMillis;
+    }
+
+    /**
+     * start a transaction with the price updates its feeds need, each feed once
+     * @param pythClient
+     * @param pythNetwork
+     * @param feedIds
+     * @return
+     */
+    public PriceUpdate begin(PythClient pythClient, PythNetwork pythNetwork, Collection<String> feedIds) {
+        long now = System.currentTimeMillis();
+        Set<String> distinct = new LinkedHashSet<>(feedIds);
+        List<String> stale = new ArrayList<>(distinct.size());
+        for (String feedId : distinct) {
+            Long last = updatedAt.get(feedId);
+            if (last == null || now - last >= freshnessMillis) {
+                stale.add(feedId);
+            }
+        }
+        if (stale.size() > 1) {
+            throw new PerpOnChainException("A transaction can update one pyth price feed, " + stale.size() + " feeds are stale");
+        }
+        ProgrammableTransaction programmableTx = stale.isEmpty()
+                ? new ProgrammableTransaction()
+                : pythClient.updatePrice(stale.getFirst(), pythNetwork);
+        return new PriceUpdate(programmableTx, List.copyOf(distinct), List.copyOf(stale), now);
+    }
+
+    /**
+     * record the outcome of a transaction started with begin. a success makes its updated feeds fresh, a failure
+     * drops all its feeds so the next transaction updates them
+     * @param priceUpdate
+     * @param response null when the transaction was not sent or its outcome is unknown
+     */
+    public void settle(PriceUpdate priceUpdate, SuiTransactionBlockResponse response) {
+        if (EffectsUtil.isSuccess(response)) {
+            for (String feedId : priceUpdate.updated()) {
+                updatedAt.merge(feedId, priceUpdate.requestedAt(), Math::max);
+            }
+        } else {
+            priceUpdate.feedIds().forEach(updatedAt::remove);
+        }
+    }
+
+    /**
+     * forget all updates, the next transaction of every feed updates it
+     */
+    public void invalidate() {
+        updatedAt.clear();
+    }
+
+    /**
+     * a transaction started with the price updates of its stale feeds
+     * @param programmableTx
+     * @param feedIds all feeds the transaction reads
+     * @param updated feeds updated by the transaction
+     * @param requestedAt millis
+     */
+    public record PriceUpdate(
+
+            ProgrammableTransaction programmableTx,
+            List<String> feedIds,
+            List<String> updated,
+            long requestedAt
+
+    ) {}
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.bcs.types.arg.call.CallArgObjectArg;
+import io.dipcoin.sui.client.TransactionBuilder;
+import io.dipcoin.sui.perp.exception.PerpRpcFailedException;
+import io.dipcoin.sui.perp.model.PerpConfig;
+import io.dipcoin.sui.protocol.SuiClient;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/10 10:20
+ * @Description : network scoped shared object resolver, one instance per PerpConfig.
+ * entries are keyed by (objectId, mutable) and loaded once, concurrent callers of the same key wait on the same lookup
+ */
+public class SharedObjectResolver {
+
+    /**
+     * key - perp network configuration
+     * value - resolver of that network
+     */
+    private static final Map<PerpConfig, SharedObjectResolver> RESOLVERS = new ConcurrentHashMap<>();
+
+    private static final ExecutorService PRELOAD_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Map<SharedObjectKey, CompletableFuture<CallArgObjectArg>> sharedObjects = new ConcurrentHashMap<>();
+
+    /**
+     * key - pyth price feed id
+     * value - price info object id
+     */
+    private final Map<String, CompletableFuture<String>> feedObjectIds = new ConcurrentHashMap<>();
+
+    private final AtomicReference<CompletableFuture<Void>> preloaded = new AtomicReference<>();
+
+    private final PerpConfig perpConfig;
+
+    private SharedObjectResolver(PerpConfig perpConfig) {
+        this.perpConfig = perpConfig;
+    }
+
+    /**
+     * get the resolver of a network
+     * @param perpConfig
+     * @return
+     */
+    public static SharedObjectResolver of(PerpConfig perpConfig) {
+        return RESOLVERS.computeIfAbsent(perpConfig, SharedObjectResolver::new);
+    }
+
+    public PerpConfig getPerpConfig() {
+        return perpConfig;
+    }
+
+    /**
+     * resolve a shared object, blocking on the first lookup only
+     * @param suiClient
+     * @param objectId
+     * @param mutable
+     * @return
+     */
+    public CallArgObjectArg resolve(SuiClient suiClient, String objectId, boolean mutable) {
+        return join(load(suiClient, objectId, mutable, null), objectId);
+    }
+
+    /**
+     * start resolving a shared object in the background
+     * @param suiClient
+     * @param objectId
+     * @param mutable
+     * @return
+     */
+    public CompletableFuture<CallArgObjectArg> preload(SuiClient suiClient, String objectId, boolean mutable) {
+        return load(suiClient, objectId, mutable, PRELOAD_EXECUTOR);
+    }
+
+    /**
+     * resolve the pyth price info object id of a feed
+     * @param feedId
+     * @param loader
+     * @return
+     */
+    public String resolveFeedObjectId(String feedId, Supplier<String> loader) {
+        return join(singleFlight(feedObjectIds, feedId, loader, null), feedId);
+    }
+
+    /**
+     * start resolving the pyth price info object id of a feed in the background
+     * @param feedId
+     * @param loader
+     * @return
+     */
+    public CompletableFuture<String> preloadFeedObjectId(String feedId, Supplier<String> loader) {
+        return singleFlight(feedObjectIds, feedId, loader, PRELOAD_EXECUTOR);
+    }
+
+    /**
+     * run the network wide preload once per resolver, a failed preload may be started again
+     * @param preload
+     * @return
+     */
+    public CompletableFuture<Void> preloadOnce(Supplier<CompletableFuture<Void>> preload) {
+        CompletableFuture<Void> current = preloaded.get();
+        if (current != null && !current.isCompletedExceptionally()) {
+            return current;
+        }
+        CompletableFuture<Void> started = new CompletableFuture<>();
+        if (!preloaded.compareAndSet(current, started)) {
+            return preloaded.get();
+        }
+        CompletableFuture<Void> running;
+        try {
+            running = preload.get();
+        } catch (RuntimeException e) {
+            preloaded.compareAndSet(started, null);
+            started.completeExceptionally(e);
+            return started;
+        }
+        running.whenComplete((ignored, e) -> {
+            if (e != null) {
+                started.completeExceptionally(e);
+            } else {
+                started.complete(null);
+            }
+        });
+        return started;
+    }
+
+    /**
+     * whether a shared object has already been resolved
+     * @param objectId
+     * @param mutable
+     * @return
+     */
+    public boolean isResolved(String objectId, boolean mutable) {
+        CompletableFuture<CallArgObjectArg> future = sharedObjects.get(new SharedObjectKey(objectId, mutable));
+        return future != null && future.isDone() && !future.isCompletedExceptionally();
+    }
+
+    /**
+     * executor used for background lookups
+     * @return
+     */
+    static Executor preloadExecutor() {
+        return PRELOAD_EXECUTOR;
+    }
+
+    private CompletableFuture<CallArgObjectArg> load(SuiClient suiClient, String objectId, boolean mutable, Executor executor) {
+        if (null == objectId || objectId.isEmpty()) {
+            throw new PerpRpcFailedException("objectId is null or empty!");
+        }
+        return singleFlight(sharedObjects, new SharedObjectKey(objectId, mutable),
+                () -> TransactionBuilder.buildSharedObject(suiClient, objectId, mutable), executor);
+    }
+
+    /**
+     * the first caller of a key installs a future and runs the loader (inline, or on the executor),
+     * a failed lookup is removed before it completes so that the next caller retries
+     */
+    private static <K, V> CompletableFuture<V> singleFlight(Map<K, CompletableFuture<V>> cache, K key, Supplier<V> loader, Executor executor) {
+        CompletableFuture<V> future = cache.get(key);
+        if (future != null) {
+            return future;
+        }
+        CompletableFuture<V> created = new CompletableFuture<>();
+        future = cache.putIfAbsent(key, created);
+        if (future != null) {
+            return future;
+        }
+        Runnable task = () -> {
+            try {
+                V value = loader.get();
+                if (value == null) {
+                    throw new PerpRpcFailedException("Failed to resolve " + key);
+                }
+                created.complete(value);
+            } catch (Throwable e) {
+                cache.remove(key, created);
+                created.completeExceptionally(e);
+            }
+        };
+        if (executor == null) {
+            task.run();
+        } else {
+            executor.execute(task);
+        }
+        return created;
+    }
+
+    private static <V> V join(CompletableFuture<V> future, String id) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof PerpRpcFailedException perpRpcFailedException) {
+                throw perpRpcFailedException;
+            }
+            throw new PerpRpcFailedException("Failed to resolve shared object " + id, cause);
+        }
+    }
+
+    private record SharedObjectKey(String objectId, boolean mutable) {}
+
+}
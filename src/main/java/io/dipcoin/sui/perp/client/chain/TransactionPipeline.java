@@ -0,0 +1,177 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
+import io.dipcoin.sui.perp.config.PipelineConfig;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/17 10:10
+ * @Description : asynchronous transaction pipeline. build, sign and submit run on separate bounded thread pools,
+ * so the next transaction is built and signed while earlier ones execute. transactions of the same lane
+ * (e.g. a sender spending its own coins) run one after another, other transactions run in parallel
+ */
+public class TransactionPipeline implements AutoCloseable {
+
+    private static final CompletableFuture<Void> NO_TURN = CompletableFuture.completedFuture(null);
+
+    private final ThreadPoolExecutor buildExecutor;
+
+    private final ThreadPoolExecutor signExecutor;
+
+    private final ThreadPoolExecutor submitExecutor;
+
+    private final int maxInFlight;
+
+    private final Semaphore inFlight;
+
+    /**
+     * key - lane
+     * value - completion of the last transaction submitted to the lane
+     */
+    private final Map<String, CompletableFuture<Void>> lanes = new ConcurrentHashMap<>();
+
+    public TransactionPipeline(PipelineConfig config) {
+        this.maxInFlight = config.getMaxInFlight();
+        this.inFlight = new Semaphore(maxInFlight);
+        this.buildExecutor = executor("build", config.getBuildThreads(), maxInFlight);
+        this.signExecutor = executor("sign", config.getSignThreads(), maxInFlight);
+        this.submitExecutor = executor("submit", config.getSubmitThreads(), maxInFlight);
+    }
+
+    /**
+     * submit a transaction, blocking while the pipeline is full
+     * @param lane transactions of the same lane are built only after the previous one completed, null for none
+     * @param stages
+     * @return execution response
+     */
+    public <P, S> CompletableFuture<SuiTransactionBlockResponse> submit(String lane, Stages<P, S> stages) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<Void> turn = new CompletableFuture<>();
+        CompletableFuture<Void> previous = lane == null ? NO_TURN : lanes.put(lane, turn);
+        if (previous == null) {
+            previous = NO_TURN;
+        }
+        AtomicReference<P> prepared = new AtomicReference<>();
+        AtomicReference<S> signed = new AtomicReference<>();
+        return previous
+                .thenApplyAsync(ignored -> {
+                    P value = stages.build();
+                    prepared.set(value);
+                    return value;
+                }, buildExecutor)
+                .thenComposeAsync(value -> stages.sign(value).thenApply(signature -> {
+                    signed.set(signature);
+                    return signature;
+                }), signExecutor)
+                .thenApplyAsync(signature -> stages.submit(prepared.get(), signature), submitExecutor)
+                .whenComplete((response, error) -> {
+                    try {
+                        if (prepared.get() != null) {
+                            stages.complete(prepared.get(), signed.get(), response);
+                        }
+                    } finally {
+                        if (lane != null) {
+                            lanes.remove(lane, turn);
+                        }
+                        turn.complete(null);
+                        inFlight.release();
+                    }
+                });
+    }
+
+    /**
+     * transactions accepted and not yet completed
+     * @return
+     */
+    public int inFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    @Override
+    public void close() {
+        buildExecutor.shutdown();
+        signExecutor.shutdown();
+        submitExecutor.shutdown();
+    }
+
+    private static ThreadPoolExecutor executor(String stage, int threads, int capacity) {
+        AtomicInteger index = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(capacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "perp-pipeline-" + stage + "-" + index.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * stages of one transaction
+     * @param <P> built transaction
+     * @param <S> signed transaction
+     */
+    public interface Stages<P, S> {
+
+        /**
+         * build the transaction, runs once the lane's previous transaction completed
+         * @return
+         */
+        P build();
+
+        /**
+         * sign the built transaction, the returned future may complete on another thread (e.g. a batch signer)
+         * @param prepared
+         * @return
+         */
+        CompletableFuture<S> sign(P prepared);
+
+        /**
+         * submit the signed transaction and wait for its execution
+         * @param prepared
+         * @param signed
+         * @return
+         */
+        SuiTransactionBlockResponse submit(P prepared, S signed);
+
+        /**
+         * release what the built transaction holds, called once it completed or failed after building
+         * @param prepared
+         * @param signed null when signing failed
+         * @param response null when the transaction was not sent or its outcome is unknown
+         */
+        void complete(P prepared, S signed, SuiTransactionBlockResponse response);
+
+    }
+
+}
@@ -13,6 +13,9 @@
 
 package io.dipcoin.sui.perp.client.chain;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * @author : Same
  * @datetime : 2025/10/28 13:56
@@ -28,4 +31,27 @@ public interface WalletService {
      */
     String sign(String address, byte[] txData);
 
+    /**
+     * asynchronous transaction signature, by default sign on a virtual thread
+     * @param address sender
+     * @param txData transaction bytes of bcs type
+     * @return signature
+     */
+    default CompletableFuture<String> signAsync(String address, byte[] txData) {
+        return CompletableFuture.supplyAsync(() -> this.sign(address, txData), Thread::startVirtualThread);
+    }
+
+    /**
+     * sign several transactions in one call, override when the wallet supports batch signing.
+     * by default the transactions are signed concurrently through signAsync
+     * @param requests
+     * @return signatures in request order
+     */
+    default List<String> signBatch(List<SignRequest> requests) {
+        List<CompletableFuture<String>> futures = requests.stream()
+                .map(request -> this.signAsync(request.address(), request.txData()))
+                .toList();
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
 }
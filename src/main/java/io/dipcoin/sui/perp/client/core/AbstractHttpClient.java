@@ -17,10 +17,13 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.dipcoin.sui.perp.client.auth.AuthSession;
+import io.dipcoin.sui.perp.config.HttpLoggingConfig;
+import io.dipcoin.sui.perp.enums.LatencyPhase;
 import io.dipcoin.sui.perp.exception.PerpJsonParseException;
 import io.dipcoin.sui.perp.exception.PerpRpcFailedException;
+import io.dipcoin.sui.perp.metrics.HttpRequestEvent;
+import io.dipcoin.sui.perp.metrics.PerpMetrics;
 import okhttp3.*;
-import okhttp3.logging.HttpLoggingInterceptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,6 +47,8 @@ public abstract class AbstractHttpClient implements HttpClient {
     private final static String HEADER_ADDR = "X-Wallet-Address";
     private final static String HEADER_PREFIX = "Bearer ";
 
+    private static SampledLoggingInterceptor loggingInterceptor;
+
     private final ObjectMapper objectMapper;
 
     private OkHttpClient okHttpClient;
@@ -66,16 +71,32 @@ public abstract class AbstractHttpClient implements HttpClient {
         return getOkHttpClientBuilder().build();
     }
 
+    /**
+     * set debug logging options (sampling, endpoints, body size), applies to clients created afterwards
+     * @param config
+     */
+    public static synchronized void setLoggingConfig(HttpLoggingConfig config) {
+        loggingInterceptor = new SampledLoggingInterceptor(config);
+    }
+
+    private static synchronized SampledLoggingInterceptor getLoggingInterceptor() {
+        if (loggingInterceptor == null) {
+            loggingInterceptor = new SampledLoggingInterceptor(new HttpLoggingConfig());
+        }
+        return loggingInterceptor;
+    }
+
     private static void configureLogging(OkHttpClient.Builder builder) {
         if (log.isDebugEnabled()) {
-            HttpLoggingInterceptor logging = new HttpLoggingInterceptor(log::debug);
-            logging.setLevel(HttpLoggingInterceptor.Level.BODY);
-            builder.addInterceptor(logging);
+            builder.addInterceptor(getLoggingInterceptor());
         }
     }
 
     @Override
     public <T> T post(Object request, String url, AuthSession auth, TypeReference<T> typeReference) {
+        HttpRequestEvent event = new HttpRequestEvent();
+        event.begin();
+        long startNanos = PerpMetrics.start();
         String requestBody = null;
         try {
             requestBody = objectMapper.writeValueAsString(request);
@@ -87,16 +108,11 @@ public abstract class AbstractHttpClient implements HttpClient {
                 .post(RequestBody.create(requestBody, JSON));
         this.buildUrlWithAuth(builder, auth);
         Request httpRequest = builder.build();
+        String operation = startNanos == 0L ? null : "POST " + httpRequest.url().encodedPath();
+        PerpMetrics.record(operation, LatencyPhase.SERIALIZE, startNanos);
 
-        try (Response response = okHttpClient.newCall(httpRequest).execute()) {
-            if (response.isSuccessful()) {
-                ResponseBody body = response.body();
-                if (body != null) {
-                    String responseBody = body.string();
-                    return objectMapper.readValue(responseBody, typeReference);
-                }
-            }
-            return null;
+        try {
+            return this.execute(httpRequest, operation, startNanos, event, typeReference);
         } catch (IOException e) {
             throw new PerpRpcFailedException("Unable to send POST request", e);
         }
@@ -104,24 +120,66 @@ public abstract class AbstractHttpClient implements HttpClient {
 
     @Override
     public <T> T get(String url, Map<String, String> queryParams, AuthSession auth, TypeReference<T> typeReference) {
+        HttpRequestEvent event = new HttpRequestEvent();
+        event.begin();
+        long startNanos = PerpMetrics.start();
         String finalUrl = this.buildUrlWithParams(url, queryParams);
         Request.Builder builder = new Request.Builder()
                 .url(finalUrl)
                 .get();
         this.buildUrlWithAuth(builder, auth);
         Request httpRequest = builder.build();
+        String operation = startNanos == 0L ? null : "GET " + httpRequest.url().encodedPath();
+        PerpMetrics.record(operation, LatencyPhase.SERIALIZE, startNanos);
+
+        try {
+            return this.execute(httpRequest, operation, startNanos, event, typeReference);
+        } catch (IOException e) {
+            throw new PerpRpcFailedException("Unable to send GET request", e);
+        }
+    }
 
+    /**
+     * execute the request and parse the body, recording network / parse / total timings and the JFR event
+     * @param httpRequest
+     * @param operation metrics operation, null when instrumentation is disabled
+     * @param startNanos
+     * @param event
+     * @param typeReference
+     * @return
+     * @throws IOException
+     */
+    private <T> T execute(Request httpRequest, String operation, long startNanos, HttpRequestEvent event, TypeReference<T> typeReference) throws IOException {
+        int status = 0;
+        long responseBytes = 0L;
+        long networkNanos = PerpMetrics.start();
         try (Response response = okHttpClient.newCall(httpRequest).execute()) {
+            status = response.code();
             if (response.isSuccessful()) {
                 ResponseBody body = response.body();
                 if (body != null) {
-                    String responseBody = body.string();
-                    return objectMapper.readValue(responseBody, typeReference);
+                    byte[] responseBody = body.bytes();
+                    responseBytes = responseBody.length;
+                    PerpMetrics.record(operation, LatencyPhase.NETWORK, networkNanos);
+                    long parseNanos = PerpMetrics.start();
+                    T result = objectMapper.readValue(responseBody, typeReference);
+                    PerpMetrics.record(operation, LatencyPhase.PARSE, parseNanos);
+                    return result;
                 }
             }
             return null;
-        } catch (IOException e) {
-            throw new PerpRpcFailedException("Unable to send GET request", e);
+        } finally {
+            PerpMetrics.record(operation, LatencyPhase.TOTAL, startNanos);
+            event.end();
+            if (event.shouldCommit()) {
+                RequestBody requestBody = httpRequest.body();
+                event.method = httpRequest.method();
+                event.endpoint = httpRequest.url().encodedPath();
+                event.status = status;
+                event.requestBytes = requestBody == null ? 0L : requestBody.contentLength();
+                event.responseBytes = responseBytes;
+                event.commit();
+            }
         }
     }
 
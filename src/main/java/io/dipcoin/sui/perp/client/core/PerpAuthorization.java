@@ -37,7 +37,11 @@ public class PerpAuthorization extends AbstractHttpClient {
     private final PerpConfig perpConfig;
 
     public PerpAuthorization(PerpNetwork perpNetwork) {
-        this.perpConfig = perpNetwork.getConfig();
+        this(perpNetwork.getConfig());
+    }
+
+    public PerpAuthorization(PerpConfig perpConfig) {
+        this.perpConfig = perpConfig;
     }
 
     /**
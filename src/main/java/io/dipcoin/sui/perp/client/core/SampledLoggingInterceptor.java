@@ -0,0 +1,133 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.core;
+
+import io.dipcoin.sui.perp.config.HttpLoggingConfig;
+import okhttp3.*;
+import okio.Buffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/05 10:02
+ * @Description : sampled, size-capped HTTP logging, lines are formatted and written on a background thread
+ */
+public class SampledLoggingInterceptor implements Interceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(SampledLoggingInterceptor.class);
+
+    private final double sampleRate;
+
+    private final Set<String> endpoints;
+
+    private final long maxBodyBytes;
+
+    private final ThreadPoolExecutor emitter;
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    public SampledLoggingInterceptor(HttpLoggingConfig config) {
+        this.sampleRate = config.getSampleRate();
+        this.endpoints = Set.copyOf(config.getEndpoints());
+        this.maxBodyBytes = config.getMaxBodyBytes();
+        this.emitter = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "perp-http-logger");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> dropped.incrementAndGet());
+        this.emitter.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!this.isSampled(request.url().encodedPath())) {
+            return chain.proceed(request);
+        }
+
+        String requestBody = this.requestBody(request);
+        long startNanos = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            String failure = e.toString();
+            this.emit(() -> log.debug("--> {} {} {}\n<-- HTTP FAILED: {}", request.method(), request.url(), requestBody, failure));
+            throw e;
+        }
+        long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        String responseBody = this.responseBody(response);
+        int code = response.code();
+        this.emit(() -> log.debug("--> {} {} {}\n<-- {} ({}ms) {}", request.method(), request.url(), requestBody, code, tookMs, responseBody));
+        return response;
+    }
+
+    /**
+     * number of log lines dropped because the background queue was full
+     * @return
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private boolean isSampled(String path) {
+        if (!endpoints.isEmpty() && endpoints.stream().noneMatch(path::endsWith)) {
+            return false;
+        }
+        return sampleRate >= 1.0D || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    private String requestBody(Request request) throws IOException {
+        RequestBody body = request.body();
+        if (body == null || maxBodyBytes <= 0L) {
+            return "";
+        }
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+        long size = buffer.size();
+        String text = buffer.readUtf8(Math.min(size, maxBodyBytes));
+        return size > maxBodyBytes ? text + "... (" + size + " bytes)" : text;
+    }
+
+    private String responseBody(Response response) throws IOException {
+        if (maxBodyBytes <= 0L) {
+            return "";
+        }
+        // peekBody buffers at most maxBodyBytes and leaves the original body untouched
+        ResponseBody peek = response.peekBody(maxBodyBytes);
+        String text = peek.string();
+        if (peek.contentLength() < maxBodyBytes) {
+            return text;
+        }
+        long size = response.body() == null ? -1L : response.body().contentLength();
+        return text + (size > maxBodyBytes ? "... (" + size + " bytes)" : "... (truncated)");
+    }
+
+    private void emit(Runnable line) {
+        emitter.execute(line);
+    }
+
+}
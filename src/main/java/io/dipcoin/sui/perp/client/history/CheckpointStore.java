@@ -0,0 +1,43 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.history;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/20 10:00
+ * @Description : where history exports keep their checkpoints
+ */
+public interface CheckpointStore {
+
+    /**
+     * checkpoint of an export
+     * @param key
+     * @return null when the export has none
+     */
+    PageCheckpoint load(String key);
+
+    /**
+     * record progress of an export
+     * @param key
+     * @param checkpoint
+     */
+    void save(String key, PageCheckpoint checkpoint);
+
+    /**
+     * forget a finished export
+     * @param key
+     */
+    void remove(String key);
+
+}
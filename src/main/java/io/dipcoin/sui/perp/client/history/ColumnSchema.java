@@ -0,0 +1,103 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.history;
+
+import io.dipcoin.sui.perp.enums.ColumnType;
+import io.dipcoin.sui.perp.util.DecimalUtil;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/21 10:00
+ * @Description : columns of a columnar history table. the first column is the record time rows are ordered by
+ * @param name
+ * @param columns
+ * @param symbolColumn dictionary column scanned by symbol, null when the records have no symbol
+ */
+public record ColumnSchema<T>(String name, List<Column<T>> columns, String symbolColumn) {
+
+    /**
+     * value of an absent long
+     */
+    public static final long NULL = DecimalUtil.NULL_FIXED;
+
+    public ColumnSchema {
+        columns = List.copyOf(columns);
+        if (columns.isEmpty() || columns.getFirst().type() != ColumnType.LONG) {
+            throw new IllegalArgumentException("The first column must be the long time column");
+        }
+    }
+
+    /**
+     * long column
+     * @param name
+     * @param value
+     * @return
+     */
+    public static <T> Column<T> longColumn(String name, Function<T, ? extends Number> value) {
+        return new Column<>(name, ColumnType.LONG, record -> {
+            Number number = value.apply(record);
+            return number == null ? NULL : number.longValue();
+        }, null);
+    }
+
+    /**
+     * 9-digit fixed-point column of an 18-digit precision integer string
+     * @param name
+     * @param value
+     * @return
+     */
+    public static <T> Column<T> baseUnitColumn(String name, Function<T, String> value) {
+        return new Column<>(name, ColumnType.LONG, record -> {
+            String baseUnit = value.apply(record);
+            return baseUnit == null || baseUnit.isEmpty() ? NULL : DecimalUtil.baseUnitToFixed(baseUnit);
+        }, null);
+    }
+
+    /**
+     * 9-digit fixed-point column of an ordinary numerical value
+     * @param name
+     * @param value
+     * @return
+     */
+    public static <T> Column<T> decimalColumn(String name, Function<T, BigDecimal> value) {
+        return new Column<>(name, ColumnType.LONG, record -> {
+            BigDecimal decimal = value.apply(record);
+            return decimal == null ? NULL : DecimalUtil.toFixed(decimal);
+        }, null);
+    }
+
+    /**
+     * dictionary-encoded column
+     * @param name
+     * @param value
+     * @return
+     */
+    public static <T> Column<T> dictColumn(String name, Function<T, String> value) {
+        return new Column<>(name, ColumnType.DICT, null, value);
+    }
+
+    /**
+     * @param name
+     * @param type
+     * @param longValue value of a LONG column
+     * @param dictValue value of a DICT column
+     */
+    public record Column<T>(String name, ColumnType type, ToLongFunction<T> longValue, Function<T, String> dictValue) {}
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.history;
+
+import io.dipcoin.sui.perp.model.response.BalanceChangesResponse;
+import io.dipcoin.sui.perp.model.response.FundingSettlementsResponse;
+import io.dipcoin.sui.perp.model.response.HistoryOrdersResponse;
+
+import java.util.List;
+
+import static io.dipcoin.sui.perp.client.history.ColumnSchema.baseUnitColumn;
+import static io.dipcoin.sui.perp.client.history.ColumnSchema.decimalColumn;
+import static io.dipcoin.sui.perp.client.history.ColumnSchema.dictColumn;
+import static io.dipcoin.sui.perp.client.history.ColumnSchema.longColumn;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/21 10:00
+ * @Description : columnar schemas of the history responses. amounts, prices and rates are 9-digit fixed-point,
+ * truncated from the 18 digits the api returns
+ */
+public final class ColumnSchemas {
+
+    /**
+     * one row per order update, in update time order as HistorySync appends them
+     */
+    public static final ColumnSchema<HistoryOrdersResponse> HISTORY_ORDERS = new ColumnSchema<>("historyOrders", List.of(
+            longColumn("updatedAt", order -> order.getUpdatedAt() == null ? order.getCreatedAt() : order.getUpdatedAt()),
+            longColumn("id", HistoryOrdersResponse::getId),
+            dictColumn("symbol", HistoryOrdersResponse::getSymbol),
+            dictColumn("side", HistoryOrdersResponse::getSide),
+            dictColumn("orderStatus", HistoryOrdersResponse::getOrderStatus),
+            dictColumn("orderType", HistoryOrdersResponse::getOrderType),
+            dictColumn("creator", HistoryOrdersResponse::getCreator),
+            baseUnitColumn("price", HistoryOrdersResponse::getPrice),
+            baseUnitColumn("quantity", HistoryOrdersResponse::getQuantity),
+            baseUnitColumn("leverage", HistoryOrdersResponse::getLeverage),
+            baseUnitColumn("avgPrice", HistoryOrdersResponse::getAvgPrice),
+            baseUnitColumn("filledQuantity", HistoryOrdersResponse::getFilledQuantity),
+            baseUnitColumn("filledFee", HistoryOrdersResponse::getFilledFee),
+            baseUnitColumn("realizedPnl", HistoryOrdersResponse::getRealizedPnl),
+            longColumn("createdAt", HistoryOrdersResponse::getCreatedAt)
+    ), "symbol");
+
+    public static final ColumnSchema<FundingSettlementsResponse> FUNDING_SETTLEMENTS = new ColumnSchema<>("fundingSettlements", List.of(
+            longColumn("createdAt", FundingSettlementsResponse::getCreatedAt),
+            longColumn("id", FundingSettlementsResponse::getId),
+            dictColumn("account", FundingSettlementsResponse::getAccount),
+            dictColumn("symbol", FundingSettlementsResponse::getSymbol),
+            baseUnitColumn("settlementAmount", FundingSettlementsResponse::getSettlementAmount),
+            baseUnitColumn("size", FundingSettlementsResponse::getSize),
+            longColumn("positionIsLong", FundingSettlementsResponse::getPositionIsLong),
+            baseUnitColumn("oraclePrice", FundingSettlementsResponse::getOraclePrice),
+            baseUnitColumn("fundingRate", FundingSettlementsResponse::getFundingRate),
+            dictColumn("txDigest", FundingSettlementsResponse::getTxDigest)
+    ), "symbol");
+
+    /**
+     * balance changes carry no symbol and their amount is an ordinary value, not an 18-digit integer.
+     * the digest dictionary grows with the number of transactions, the rows of one transaction share a code
+     */
+    public static final ColumnSchema<BalanceChangesResponse> BALANCE_CHANGES = new ColumnSchema<>("balanceChanges", List.of(
+            longColumn("createdTime", BalanceChangesResponse::getCreatedTime),
+            longColumn("txIndex", BalanceChangesResponse::getTxIndex),
+            dictColumn("account", BalanceChangesResponse::getAccount),
+            longColumn("bizType", BalanceChangesResponse::getBizType),
+            dictColumn("bizTypeDesc", BalanceChangesResponse::getBizTypeDesc),
+            decimalColumn("settlementAmount", BalanceChangesResponse::getSettlementAmount),
+            dictColumn("txDigest", BalanceChangesResponse::getTxDigest)
+    ), null);
+
+    private ColumnSchemas() {
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.history;
+
+import io.dipcoin.sui.perp.enums.ColumnType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/21 10:00
+ * @Description : file layout of a columnar table: one little-endian file per column, one line per value in the
+ * dictionary file of a dict column, and a meta file with the schema and the committed row count
+ */
+final class ColumnarFiles {
+
+    private static final String META = "table.meta";
+
+    private ColumnarFiles() {
+    }
+
+    static Path columnFile(Path directory, String column) {
+        return directory.resolve(column + ".col");
+    }
+
+    static Path dictionaryFile(Path directory, String column) {
+        return directory.resolve(column + ".dict");
+    }
+
+    static boolean exists(Path directory) {
+        return Files.exists(directory.resolve(META));
+    }
+
+    static Meta readMeta(Path directory) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(directory.resolve(META))) {
+            properties.load(in);
+        }
+        List<String> columns = new ArrayList<>();
+        List<ColumnType> types = new ArrayList<>();
+        for (String column : properties.getProperty("columns").split(",")) {
+            String[] parts = column.split(":");
+            columns.add(parts[0]);
+            types.add(ColumnType.fromCode(parts[1]));
+        }
+        return new Meta(properties.getProperty("schema"), Integer.parseInt(properties.getProperty("rows")), columns, types,
+                properties.getProperty("symbolColumn"));
+    }
+
+    static void writeMeta(Path directory, Meta meta) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("schema", meta.schema());
+        properties.setProperty("rows", String.valueOf(meta.rows()));
+        List<String> columns = new ArrayList<>();
+        for (int i = 0; i < meta.columns().size(); i++) {
+            columns.add(meta.columns().get(i) + ":" + meta.types().get(i).getCode());
+        }
+        properties.setProperty("columns", String.join(",", columns));
+        if (meta.symbolColumn() != null) {
+            properties.setProperty("symbolColumn", meta.symbolColumn());
+        }
+        Path temp = Files.createTempFile(directory, META, ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            properties.store(out, null);
+        }
+        Files.move(temp, directory.resolve(META), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static List<String> readDictionary(Path directory, String column) throws IOException {
+        Path file = dictionaryFile(directory, column);
+        return Files.exists(file) ? Files.readAllLines(file, StandardCharsets.UTF_8) : new ArrayList<>();
+    }
+
+    static void writeDictionary(Path directory, String column, List<String> values) throws IOException {
+        Path temp = Files.createTempFile(directory, column, ".tmp");
+        Files.write(temp, values, StandardCharsets.UTF_8);
+        Files.move(temp, dictionaryFile(directory, column), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    record Meta(String schema, int rows, List<String> columns, List<ColumnType> types, String symbolColumn) {}
+
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.history;
+
+import io.dipcoin.sui.perp.enums.ColumnType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/21 10:00
+ * @Description : reads a columnar table off-heap through read-only memory maps. the reader sees the rows committed
+ * when it was opened. rows are in time order, so a time range is found by binary search and a symbol scan compares
+ * dictionary codes instead of strings
+ */
+public class ColumnarReader {
+
+    /**
+     * dictionary code of an absent value
+     */
+    public static final int NULL_CODE = -1;
+
+    private final Path directory;
+
+    private final ColumnarFiles.Meta meta;
+
+    private final LongBuffer[] longs;
+
+    private final IntBuffer[] ints;
+
+    private final List<List<String>> dictionaries = new ArrayList<>();
+
+    public ColumnarReader(Path directory) {
+        this.directory = directory;
+        try {
+            this.meta = ColumnarFiles.readMeta(directory);
+            int columns = meta.columns().size();
+            this.longs = new LongBuffer[columns];
+            this.ints = new IntBuffer[columns];
+            for (int i = 0; i < columns; i++) {
+                String name = meta.columns().get(i);
+                ColumnType type = meta.types().get(i);
+                try (FileChannel channel = FileChannel.open(ColumnarFiles.columnFile(directory, name), StandardOpenOption.READ)) {
+                    ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, (long) meta.rows() * type.getWidth())
+                            .order(ByteOrder.LITTLE_ENDIAN);
+                    if (type == ColumnType.LONG) {
+                        longs[i] = buffer.asLongBuffer();
+                    } else {
+                        ints[i] = buffer.asIntBuffer();
+                    }
+                }
+                dictionaries.add(type == ColumnType.DICT ? ColumnarFiles.readDictionary(directory, name) : null);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open columnar table " + directory, e);
+        }
+    }
+
+    public String schema() {
+        return meta.schema();
+    }
+
+    public int rows() {
+        return meta.rows();
+    }
+
+    /**
+     * index of a column
+     * @param name
+     * @return
+     */
+    public int column(String name) {
+        int index = meta.columns().indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("No column " + name + " in " + directory);
+        }
+        return index;
+    }
+
+    /**
+     * long value, ColumnSchema.NULL when absent
+     * @param column
+     * @param row
+     * @return
+     */
+    public long getLong(int column, int row) {
+        return longs[column].get(row);
+    }
+
+    /**
+     * dictionary code, NULL_CODE when absent
+     * @param column
+     * @param row
+     * @return
+     */
+    public int getCode(int column, int row) {
+        return ints[column].get(row);
+    }
+
+    public String getString(int column, int row) {
+        int code = ints[column].get(row);
+        return code == NULL_CODE ? null : dictionaries.get(column).get(code);
+    }
+
+    /**
+     * dictionary code of a value
+     * @param column
+     * @param value
+     * @return NULL_CODE for null, -2 when no row holds the value
+     */
+    public int code(int column, String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        int code = dictionaries.get(column).indexOf(value);
+        return code < 0 ? -2 : code;
+    }
+
+    /**
+     * read-only view of a long column, e.g. for summing a range without per row calls
+     * @param column
+     * @return
+     */
+    public LongBuffer longs(int column) {
+        return longs[column].asReadOnlyBuffer();
+    }
+
+    /**
+     * first row at or after a time
+     * @param time
+     * @return
+     */
+    public int lowerBound(long time) {
+        LongBuffer times = longs[0];
+        int low = 0;
+        int high = meta.rows();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times.get(mid) < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * rows with fromTime <= time < toTime, in order
+     * @param fromTime
+     * @param toTime
+     * @param consumer
+     */
+    public void scan(long fromTime, long toTime, RowConsumer consumer) {
+        int end = this.lowerBound(toTime);
+        for (int row = this.lowerBound(fromTime); row < end; row++) {
+            consumer.accept(row);
+        }
+    }
+
+    /**
+     * rows of a symbol with fromTime <= time < toTime, in order
+     * @param fromTime
+     * @param toTime
+     * @param symbol
+     * @param consumer
+     */
+    public void scan(long fromTime, long toTime, String symbol, RowConsumer consumer) {
+        if (meta.symbolColumn() == null) {
+            throw new IllegalStateException("Table " + meta.schema() + " has no symbol column");
+        }
+        int column = this.column(meta.symbolColumn());
+        int code = this.code(column, symbol);
+        IntBuffer symbols = ints[column];
+        int end = this.lowerBound(toTime);
+        for (int row = this.lowerBound(fromTime); row < end; row++) {
+            if (symbols.get(row) == code) {
+                consumer.accept(row);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface RowConsumer {
+
+        void accept(int row);
+
+    }
+
+}
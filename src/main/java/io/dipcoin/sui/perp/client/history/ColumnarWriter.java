@@ -0,0 +1,227 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.history;
+
+import io.dipcoin.sui.perp.enums.ColumnType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/21 10:00
+ * @Description : appends records to a columnar table through memory-mapped column files. rows must come in time
+ * order, e.g. replayed from a HistoryLog. appended rows become visible to readers opened after the next flush, the
+ * row count in the meta file is the commit point and rows past it are overwritten when the table is reopened.
+ * a long column is mapped as one buffer, which caps a table at 2^27 rows (about 134 million)
+ */
+public class ColumnarWriter<T> implements AutoCloseable {
+
+    private static final int INITIAL_ROWS = 1 << 16;
+
+    /**
+     * most rows of a table, the largest power of two whose long column fits one mapped buffer
+     */
+    static final int MAX_ROWS = 1 << 27;
+
+    private final Path directory;
+
+    private final ColumnSchema<T> schema;
+
+    private final ColumnSchema.Column<T>[] columns;
+
+    private final FileChannel[] channels;
+
+    private final MappedByteBuffer[] buffers;
+
+    private final List<List<String>> dictionaries = new ArrayList<>();
+
+    private final List<Map<String, Integer>> codes = new ArrayList<>();
+
+    private final boolean[] dirty;
+
+    private int rows;
+
+    private int capacity;
+
+    private long lastTime = Long.MIN_VALUE;
+
+    /**
+     * open a table, creating it when the directory holds none
+     * @param directory
+     * @param schema
+     */
+    @SuppressWarnings("unchecked")
+    public ColumnarWriter(Path directory, ColumnSchema<T> schema) {
+        this.directory = directory;
+        this.schema = schema;
+        this.columns = schema.columns().toArray(new ColumnSchema.Column[0]);
+        this.channels = new FileChannel[columns.length];
+        this.buffers = new MappedByteBuffer[columns.length];
+        this.dirty = new boolean[columns.length];
+        try {
+            Files.createDirectories(directory);
+            if (ColumnarFiles.exists(directory)) {
+                ColumnarFiles.Meta meta = ColumnarFiles.readMeta(directory);
+                List<String> names = schema.columns().stream().map(ColumnSchema.Column::name).toList();
+                if (!meta.schema().equals(schema.name()) || !meta.columns().equals(names)) {
+                    throw new IllegalArgumentException("Table " + directory + " holds " + meta.schema() + " " + meta.columns());
+                }
+                this.rows = meta.rows();
+            }
+            for (int i = 0; i < columns.length; i++) {
+                channels[i] = FileChannel.open(ColumnarFiles.columnFile(directory, columns[i].name()),
+                        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                List<String> dictionary = columns[i].type() == ColumnType.DICT ? ColumnarFiles.readDictionary(directory, columns[i].name()) : null;
+                Map<String, Integer> code = null;
+                if (dictionary != null) {
+                    code = new HashMap<>();
+                    for (int c = 0; c < dictionary.size(); c++) {
+                        code.put(dictionary.get(c), c);
+                    }
+                }
+                dictionaries.add(dictionary);
+                codes.add(code);
+            }
+            this.map(Math.max(INITIAL_ROWS, rows));
+            if (rows > 0) {
+                this.lastTime = buffers[0].getLong((rows - 1) * Long.BYTES);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open columnar table " + directory, e);
+        }
+    }
+
+    public synchronized int rows() {
+        return rows;
+    }
+
+    /**
+     * append a record
+     * @param record
+     * @throws IllegalArgumentException if the record is older than the last row
+     */
+    public synchronized void append(T record) {
+        long time = columns[0].longValue().applyAsLong(record);
+        if (time < lastTime) {
+            throw new IllegalArgumentException("Rows must be appended in time order, " + time + " after " + lastTime);
+        }
+        if (rows == capacity) {
+            this.grow();
+        }
+        for (int i = 0; i < columns.length; i++) {
+            ColumnSchema.Column<T> column = columns[i];
+            if (column.type() == ColumnType.LONG) {
+                buffers[i].putLong(rows * Long.BYTES, i == 0 ? time : column.longValue().applyAsLong(record));
+            } else {
+                buffers[i].putInt(rows * Integer.BYTES, this.code(i, column.dictValue().apply(record)));
+            }
+        }
+        rows++;
+        lastTime = time;
+    }
+
+    /**
+     * append a batch in time order, as pagers return the newest records first
+     * @param records
+     */
+    public synchronized void appendAll(Collection<? extends T> records) {
+        List<T> sorted = new ArrayList<>(records);
+        sorted.sort(Comparator.comparingLong(columns[0].longValue()));
+        sorted.forEach(this::append);
+    }
+
+    /**
+     * make the appended rows durable and visible to new readers
+     */
+    public synchronized void flush() {
+        try {
+            for (int i = 0; i < columns.length; i++) {
+                buffers[i].force();
+                if (dirty[i]) {
+                    ColumnarFiles.writeDictionary(directory, columns[i].name(), dictionaries.get(i));
+                    dirty[i] = false;
+                }
+            }
+            List<String> names = schema.columns().stream().map(ColumnSchema.Column::name).toList();
+            List<ColumnType> types = schema.columns().stream().map(ColumnSchema.Column::type).toList();
+            ColumnarFiles.writeMeta(directory, new ColumnarFiles.Meta(schema.name(), rows, names, types, schema.symbolColumn()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to flush columnar table " + directory, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        this.flush();
+        try {
+            for (FileChannel channel : channels) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close columnar table " + directory, e);
+        }
+    }
+
+    private int code(int column, String value) {
+        if (value == null) {
+            return ColumnarReader.NULL_CODE;
+        }
+        Integer code = codes.get(column).get(value);
+        if (code == null) {
+            if (value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                throw new IllegalArgumentException("Dictionary values cannot span lines: " + value);
+            }
+            List<String> dictionary = dictionaries.get(column);
+            code = dictionary.size();
+            dictionary.add(value);
+            codes.get(column).put(value, code);
+            dirty[column] = true;
+        }
+        return code;
+    }
+
+    private void grow() {
+        if (capacity >= MAX_ROWS) {
+            throw new IllegalStateException("Columnar table " + directory + " is full at " + rows + " rows");
+        }
+        try {
+            this.map((int) Math.min((long) capacity * 2, MAX_ROWS));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to grow columnar table " + directory, e);
+        }
+    }
+
+    private void map(int capacity) throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            long bytes = (long) capacity * columns[i].type().getWidth();
+            buffers[i] = channels[i].map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            buffers[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+        this.capacity = capacity;
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.history;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/20 10:00
+ * @Description : checkpoints in a properties file. every change rewrites the file through a temporary file and an
+ * atomic move, so a crash leaves either the previous or the new checkpoint
+ */
+public class FileCheckpointStore implements CheckpointStore {
+
+    private final Path file;
+
+    private final Properties properties = new Properties();
+
+    public FileCheckpointStore(Path file) {
+        this.file = file;
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                properties.load(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read checkpoints " + file, e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized PageCheckpoint load(String key) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return null;
+        }
+        String[] parts = value.split(",");
+        return new PageCheckpoint(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), Long.parseLong(parts[2]), Long.parseLong(parts[3]));
+    }
+
+    @Override
+    public synchronized void save(String key, PageCheckpoint checkpoint) {
+        properties.setProperty(key, checkpoint.nextPage() + "," + checkpoint.pageSize() + ","
+                + checkpoint.beginTime() + "," + checkpoint.endTime());
+        this.store();
+    }
+
+    @Override
+    public synchronized void remove(String key) {
+        if (properties.remove(key) != null) {
+            this.store();
+        }
+    }
+
+    private void store() {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, null);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write checkpoints " + file, e);
+        }
+    }
+
+}
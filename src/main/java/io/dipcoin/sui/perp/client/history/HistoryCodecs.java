@@ -0,0 +1,251 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.history;
+
+import io.dipcoin.sui.perp.model.response.BalanceChangesResponse;
+import io.dipcoin.sui.perp.model.response.FundingSettlementsResponse;
+import io.dipcoin.sui.perp.model.response.HistoryOrdersResponse;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/20 15:00
+ * @Description : codecs of the history responses. decimal strings are kept as scale and unscaled bytes, an 18 decimal
+ * amount takes about 10 bytes instead of 22 characters, and read back as the same string
+ */
+public final class HistoryCodecs {
+
+    private static final int ABSENT = 0;
+
+    private static final int DECIMAL = 1;
+
+    private static final int TEXT = 2;
+
+    public static final HistoryCodec<HistoryOrdersResponse> HISTORY_ORDERS = new HistoryCodec<>() {
+
+        @Override
+        public void write(DataOutput out, HistoryOrdersResponse record) throws IOException {
+            writeLong(out, record.getId());
+            writeString(out, record.getClientId());
+            writeString(out, record.getOrderStatus());
+            writeString(out, record.getOrderHash());
+            writeString(out, record.getSymbol());
+            writeString(out, record.getOrderType());
+            writeString(out, record.getCreator());
+            writeString(out, record.getSide());
+            writeDecimal(out, record.getPrice());
+            writeDecimal(out, record.getQuantity());
+            writeDecimal(out, record.getLeverage());
+            writeDecimal(out, record.getAvgPrice());
+            writeDecimal(out, record.getFilledQuantity());
+            writeDecimal(out, record.getFilledFee());
+            writeDecimal(out, record.getRealizedPnl());
+            writeLong(out, record.getCreatedAt());
+            writeLong(out, record.getUpdatedAt());
+            writeDecimal(out, record.getEntryPrice());
+            writeDecimal(out, record.getCloseQuantity());
+            writeString(out, record.getTriggerConditionType());
+            writeDecimal(out, record.getTriggerPrice());
+            writeInt(out, record.getTriggerDirection());
+            writeBoolean(out, record.getReduceOnly());
+            writeString(out, record.getPlanOrderType());
+        }
+
+        @Override
+        public HistoryOrdersResponse read(DataInput in) throws IOException {
+            HistoryOrdersResponse record = new HistoryOrdersResponse();
+            record.setId(readLong(in));
+            record.setClientId(readString(in));
+            record.setOrderStatus(readString(in));
+            record.setOrderHash(readString(in));
+            record.setSymbol(readString(in));
+            record.setOrderType(readString(in));
+            record.setCreator(readString(in));
+            record.setSide(readString(in));
+            record.setPrice(readDecimal(in));
+            record.setQuantity(readDecimal(in));
+            record.setLeverage(readDecimal(in));
+            record.setAvgPrice(readDecimal(in));
+            record.setFilledQuantity(readDecimal(in));
+            record.setFilledFee(readDecimal(in));
+            record.setRealizedPnl(readDecimal(in));
+            record.setCreatedAt(readLong(in));
+            record.setUpdatedAt(readLong(in));
+            record.setEntryPrice(readDecimal(in));
+            record.setCloseQuantity(readDecimal(in));
+            record.setTriggerConditionType(readString(in));
+            record.setTriggerPrice(readDecimal(in));
+            record.setTriggerDirection(readInt(in));
+            record.setReduceOnly(readBoolean(in));
+            record.setPlanOrderType(readString(in));
+            return record;
+        }
+    };
+
+    public static final HistoryCodec<FundingSettlementsResponse> FUNDING_SETTLEMENTS = new HistoryCodec<>() {
+
+        @Override
+        public void write(DataOutput out, FundingSettlementsResponse record) throws IOException {
+            writeLong(out, record.getId());
+            writeString(out, record.getTxDigest());
+            writeString(out, record.getAccount());
+            writeDecimal(out, record.getSettlementAmount());
+            writeString(out, record.getSymbol());
+            writeDecimal(out, record.getSize());
+            writeInt(out, record.getPositionIsLong());
+            writeDecimal(out, record.getOraclePrice());
+            writeDecimal(out, record.getFundingRate());
+            writeLong(out, record.getCreatedAt());
+        }
+
+        @Override
+        public FundingSettlementsResponse read(DataInput in) throws IOException {
+            FundingSettlementsResponse record = new FundingSettlementsResponse();
+            record.setId(readLong(in));
+            record.setTxDigest(readString(in));
+            record.setAccount(readString(in));
+            record.setSettlementAmount(readDecimal(in));
+            record.setSymbol(readString(in));
+            record.setSize(readDecimal(in));
+            record.setPositionIsLong(readInt(in));
+            record.setOraclePrice(readDecimal(in));
+            record.setFundingRate(readDecimal(in));
+            record.setCreatedAt(readLong(in));
+            return record;
+        }
+    };
+
+    public static final HistoryCodec<BalanceChangesResponse> BALANCE_CHANGES = new HistoryCodec<>() {
+
+        @Override
+        public void write(DataOutput out, BalanceChangesResponse record) throws IOException {
+            writeString(out, record.getAccount());
+            writeString(out, record.getTxDigest());
+            writeLong(out, record.getTxIndex());
+            writeInt(out, record.getBizType());
+            writeString(out, record.getBizTypeDesc());
+            writeDecimal(out, record.getSettlementAmount() == null ? null : record.getSettlementAmount().toString());
+            out.writeLong(record.getCreatedTime());
+        }
+
+        @Override
+        public BalanceChangesResponse read(DataInput in) throws IOException {
+            BalanceChangesResponse record = new BalanceChangesResponse();
+            record.setAccount(readString(in));
+            record.setTxDigest(readString(in));
+            record.setTxIndex(readLong(in));
+            record.setBizType(readInt(in));
+            record.setBizTypeDesc(readString(in));
+            String settlementAmount = readDecimal(in);
+            record.setSettlementAmount(settlementAmount == null ? null : new BigDecimal(settlementAmount));
+            record.setCreatedTime(in.readLong());
+            return record;
+        }
+    };
+
+    private HistoryCodecs() {
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeDecimal(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeByte(ABSENT);
+            return;
+        }
+        BigDecimal decimal = parse(value);
+        if (decimal == null || decimal.scale() < Byte.MIN_VALUE || decimal.scale() > Byte.MAX_VALUE) {
+            out.writeByte(TEXT);
+            out.writeUTF(value);
+            return;
+        }
+        byte[] unscaled = decimal.unscaledValue().toByteArray();
+        out.writeByte(DECIMAL);
+        out.writeByte(decimal.scale());
+        out.writeByte(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static String readDecimal(DataInput in) throws IOException {
+        int kind = in.readByte();
+        if (kind == ABSENT) {
+            return null;
+        }
+        if (kind == TEXT) {
+            return in.readUTF();
+        }
+        int scale = in.readByte();
+        byte[] unscaled = new byte[in.readUnsignedByte()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale).toPlainString();
+    }
+
+    /**
+     * the decimal of a string that prints back as the same string, null otherwise
+     */
+    private static BigDecimal parse(String value) {
+        try {
+            BigDecimal decimal = new BigDecimal(value);
+            return decimal.toPlainString().equals(value) && decimal.unscaledValue().bitLength() < 2000 ? decimal : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void writeLong(DataOutput out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeInt(DataOutput out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static Integer readInt(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    private static void writeBoolean(DataOutput out, Boolean value) throws IOException {
+        out.writeByte(value == null ? -1 : value ? 1 : 0);
+    }
+
+    private static Boolean readBoolean(DataInput in) throws IOException {
+        int value = in.readByte();
+        return value < 0 ? null : value == 1;
+    }
+
+}
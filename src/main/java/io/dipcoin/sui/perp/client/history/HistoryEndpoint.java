@@ -0,0 +1,107 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.history;
+
+import io.dipcoin.sui.perp.client.PerpUserClient;
+import io.dipcoin.sui.perp.enums.OrderStatus;
+import io.dipcoin.sui.perp.model.request.HistoryOrdersRequest;
+import io.dipcoin.sui.perp.model.request.PageRequest;
+import io.dipcoin.sui.perp.model.response.BalanceChangesResponse;
+import io.dipcoin.sui.perp.model.response.FundingSettlementsResponse;
+import io.dipcoin.sui.perp.model.response.HistoryOrdersResponse;
+
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/20 15:00
+ * @Description : a history endpoint as HistorySync sees it
+ * @param name file name of the endpoint's log
+ * @param codec
+ * @param time record time the watermark follows
+ * @param key identity of a record among those of the same time
+ * @param mutable how records that still change are found again, null when a record never changes
+ * @param pager pager of all records from a begin time on
+ */
+public record HistoryEndpoint<T>(String name, HistoryCodec<T> codec, ToLongFunction<T> time, Function<T, String> key,
+                                 Mutable<T> mutable, LongFunction<HistoryPager<T>> pager) {
+
+    /**
+     * records that change after they are created while the server filters them by creation time: a sync reaches
+     * back to the creation time of the oldest record the log still holds open
+     * @param id identity of a record across its updates
+     * @param createdAt time the server filters by
+     * @param open whether the record can still change
+     */
+    public record Mutable<T>(Function<T, String> id, ToLongFunction<T> createdAt, Predicate<T> open) {}
+
+    /**
+     * history orders, of one symbol or of all when symbol is null. an order changes while it fills, so the watermark
+     * follows the update time and the key holds id and update time: every update is appended as a new frame and
+     * readers keep the latest frame of an id. the server filters orders by creation time, a sync asks from the
+     * creation of the oldest order not yet filled or cancelled
+     * @param client
+     * @param symbol
+     * @return
+     */
+    public static HistoryEndpoint<HistoryOrdersResponse> historyOrders(PerpUserClient client, String symbol) {
+        return new HistoryEndpoint<>(symbol == null ? "historyOrders" : "historyOrders-" + symbol,
+                HistoryCodecs.HISTORY_ORDERS,
+                HistoryEndpoint::updatedAt,
+                record -> record.getId() + ":" + updatedAt(record),
+                new Mutable<>(record -> String.valueOf(record.getId()),
+                        record -> record.getCreatedAt() == null ? 0L : record.getCreatedAt(),
+                        HistoryEndpoint::isOpen),
+                beginTime -> client.historyOrdersPager(new HistoryOrdersRequest().setSymbol(symbol).setBeginTime(beginTime)));
+    }
+
+    public static HistoryEndpoint<FundingSettlementsResponse> fundingSettlements(PerpUserClient client) {
+        return new HistoryEndpoint<>("fundingSettlements",
+                HistoryCodecs.FUNDING_SETTLEMENTS,
+                record -> record.getCreatedAt() == null ? 0L : record.getCreatedAt(),
+                record -> String.valueOf(record.getId()),
+                null,
+                beginTime -> client.fundingSettlementsPager(new PageRequest().setBeginTime(beginTime)));
+    }
+
+    /**
+     * balance changes, which carry no id: a record is told apart by digest, index and business type
+     * @param client
+     * @return
+     */
+    public static HistoryEndpoint<BalanceChangesResponse> balanceChanges(PerpUserClient client) {
+        return new HistoryEndpoint<>("balanceChanges",
+                HistoryCodecs.BALANCE_CHANGES,
+                BalanceChangesResponse::getCreatedTime,
+                record -> record.getTxDigest() + ":" + record.getTxIndex() + ":" + record.getBizType(),
+                null,
+                beginTime -> client.balanceChangesPager(new PageRequest().setBeginTime(beginTime)));
+    }
+
+    private static boolean isOpen(HistoryOrdersResponse record) {
+        return !OrderStatus.FILLED.getCode().equals(record.getOrderStatus())
+                && !OrderStatus.CANCELLED.getCode().equals(record.getOrderStatus());
+    }
+
+    private static long updatedAt(HistoryOrdersResponse record) {
+        if (record.getUpdatedAt() != null) {
+            return record.getUpdatedAt();
+        }
+        return record.getCreatedAt() == null ? 0L : record.getCreatedAt();
+    }
+
+}
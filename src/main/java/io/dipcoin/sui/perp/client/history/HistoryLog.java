@@ -0,0 +1,242 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.history;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.zip.CRC32;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/20 15:00
+ * @Description : append-only file of history records. each record is a frame of length, crc32 and codec bytes.
+ * appends are forced to disk before the watermark file next to the log records the new length, on open the frames
+ * past that length are checked again and a torn last frame is cut off
+ */
+public class HistoryLog<T> implements AutoCloseable {
+
+    private static final int FRAME_HEADER = 8;
+
+    private final Path file;
+
+    private final Path watermarkFile;
+
+    private final HistoryCodec<T> codec;
+
+    private final ToLongFunction<T> time;
+
+    private final Function<T, String> key;
+
+    private final FileChannel channel;
+
+    private long length;
+
+    private Watermark watermark;
+
+    /**
+     * open or create a log
+     * @param file
+     * @param codec
+     * @param time record time the watermark follows
+     * @param key identity of a record among those of the same time
+     */
+    public HistoryLog(Path file, HistoryCodec<T> codec, ToLongFunction<T> time, Function<T, String> key) {
+        this.file = file;
+        this.watermarkFile = file.resolveSibling(file.getFileName() + ".wm");
+        this.codec = codec;
+        this.time = time;
+        this.key = key;
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open history log " + file, e);
+        }
+    }
+
+    public synchronized Watermark watermark() {
+        return watermark;
+    }
+
+    /**
+     * bytes of records in the log
+     * @return
+     */
+    public synchronized long length() {
+        return length;
+    }
+
+    /**
+     * append records in the given order
+     * @param records
+     */
+    public synchronized void append(Collection<T> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream frames = new ByteArrayOutputStream(records.size() * 128);
+            DataOutputStream out = new DataOutputStream(frames);
+            ByteArrayOutputStream payload = new ByteArrayOutputStream(256);
+            Watermark advanced = watermark;
+            for (T record : records) {
+                payload.reset();
+                codec.write(new DataOutputStream(payload), record);
+                CRC32 crc = new CRC32();
+                crc.update(payload.toByteArray());
+                out.writeInt(payload.size());
+                out.writeInt((int) crc.getValue());
+                payload.writeTo(out);
+                advanced = advanced.advance(time.applyAsLong(record), key.apply(record));
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(frames.toByteArray());
+            long position = length;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            channel.force(false);
+            this.length = position;
+            this.watermark = advanced;
+            this.writeWatermark();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to history log " + file, e);
+        }
+    }
+
+    /**
+     * read every record from the oldest on
+     * @param consumer
+     */
+    public void replay(Consumer<T> consumer) {
+        long end = this.length();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            this.scan(new DataInputStream(in), end, consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read history log " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to close history log " + file, e);
+        }
+    }
+
+    private void recover() throws IOException {
+        long committed = 0L;
+        Watermark recorded = Watermark.EMPTY;
+        if (Files.exists(watermarkFile)) {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(watermarkFile))) {
+                committed = in.readLong();
+                long wmTime = in.readLong();
+                int count = in.readInt();
+                Set<String> keys = new HashSet<>(count);
+                for (int i = 0; i < count; i++) {
+                    keys.add(in.readUTF());
+                }
+                recorded = count == 0 ? Watermark.EMPTY : new Watermark(wmTime, keys);
+            }
+        }
+        long size = channel.size();
+        if (committed > size) {
+            // the log lost bytes behind the watermark file's back, rebuild the watermark from all of it
+            committed = 0L;
+            recorded = Watermark.EMPTY;
+        }
+        Watermark[] recovered = {recorded};
+        InputStream tail = new BufferedInputStream(Channels.newInputStream(channel.position(committed)), 1 << 16);
+        long end = committed + this.scan(new DataInputStream(tail), size - committed,
+                record -> recovered[0] = recovered[0].advance(time.applyAsLong(record), key.apply(record)));
+        if (end < size) {
+            channel.truncate(end);
+            channel.force(false);
+        }
+        this.length = end;
+        this.watermark = recovered[0];
+        if (end != committed) {
+            this.writeWatermark();
+        }
+    }
+
+    /**
+     * decode frames up to limit bytes, stopping at the first incomplete or corrupt frame
+     * @return bytes of the complete frames
+     */
+    private long scan(DataInputStream in, long limit, Consumer<T> consumer) throws IOException {
+        long read = 0L;
+        while (limit - read >= FRAME_HEADER) {
+            int size;
+            int crcValue;
+            byte[] payload;
+            try {
+                size = in.readInt();
+                crcValue = in.readInt();
+                if (size < 0 || size > limit - read - FRAME_HEADER) {
+                    break;
+                }
+                payload = new byte[size];
+                in.readFully(payload);
+            } catch (EOFException e) {
+                break;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != crcValue) {
+                break;
+            }
+            consumer.accept(codec.read(new DataInputStream(new ByteArrayInputStream(payload))));
+            read += FRAME_HEADER + size;
+        }
+        return read;
+    }
+
+    private void writeWatermark() throws IOException {
+        Path temp = Files.createTempFile(watermarkFile.toAbsolutePath().getParent(), watermarkFile.getFileName().toString(), ".tmp");
+        try (OutputStream stream = Files.newOutputStream(temp); DataOutputStream out = new DataOutputStream(stream)) {
+            out.writeLong(length);
+            out.writeLong(watermark.time());
+            out.writeInt(watermark.keys().size());
+            for (String k : watermark.keys()) {
+                out.writeUTF(k);
+            }
+        }
+        Files.move(temp, watermarkFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.history;
+
+import io.dipcoin.sui.perp.config.HistoryConfig;
+import io.dipcoin.sui.perp.model.PageResponse;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/20 10:00
+ * @Description : streams every record of a paged history endpoint. the first page tells the number of pages, the
+ * following pages are requested up to concurrency at a time and emitted in page order. with a checkpoint store the
+ * next page is recorded once a page has been consumed, so an interrupted export resumes at that page
+ */
+public class HistoryPager<T> {
+
+    private static final ExecutorService FETCH_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final PageFetcher<T> fetcher;
+
+    private final PageCheckpoint window;
+
+    private final HistoryConfig config;
+
+    private final Executor executor;
+
+    private CheckpointStore checkpointStore;
+
+    private String checkpointKey;
+
+    /**
+     * @param fetcher requests one page
+     * @param window first page, page size and time window of the export
+     * @param config
+     */
+    public HistoryPager(PageFetcher<T> fetcher, PageCheckpoint window, HistoryConfig config) {
+        this(fetcher, window, config, FETCH_EXECUTOR);
+    }
+
+    HistoryPager(PageFetcher<T> fetcher, PageCheckpoint window, HistoryConfig config, Executor executor) {
+        if (config.getConcurrency() < 1 || window.pageSize() < 1) {
+            throw new IllegalArgumentException("concurrency and pageSize must be positive");
+        }
+        this.fetcher = fetcher;
+        this.window = window;
+        this.config = config;
+        this.executor = executor;
+    }
+
+    /**
+     * resume from and record progress in a store. the key names the export, e.g. account and endpoint; a stored
+     * checkpoint replaces the pager's own window
+     * @param store
+     * @param key
+     * @return
+     */
+    public HistoryPager<T> checkpoint(CheckpointStore store, String key) {
+        this.checkpointStore = store;
+        this.checkpointKey = key;
+        return this;
+    }
+
+    /**
+     * records in page order, closing the stream drops the pages requested ahead
+     * @return
+     */
+    public Stream<T> stream() {
+        Cursor cursor = new Cursor();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(cursor::close);
+    }
+
+    public Iterator<T> iterator() {
+        return new Cursor();
+    }
+
+    @FunctionalInterface
+    public interface PageFetcher<T> {
+
+        PageResponse<T> fetch(int pageNum, int pageSize, long beginTime, long endTime);
+
+    }
+
+    private class Cursor implements Iterator<T> {
+
+        private final ArrayDeque<CompletableFuture<PageResponse<T>>> ahead = new ArrayDeque<>();
+
+        private PageCheckpoint start;
+
+        private Iterator<T> records;
+
+        private int page;
+
+        private int nextRequest;
+
+        private int lastPage;
+
+        private boolean finished;
+
+        /**
+         * a page that could not be fetched, rethrown on every later call so the export neither ends silently nor
+         * drops its checkpoint
+         */
+        private RuntimeException failure;
+
+        @Override
+        public boolean hasNext() {
+            if (failure != null) {
+                throw failure;
+            }
+            while (!finished) {
+                if (records != null && records.hasNext()) {
+                    return true;
+                }
+                if (records == null) {
+                    this.open();
+                } else {
+                    this.advance();
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public T next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return records.next();
+        }
+
+        private void open() {
+            PageCheckpoint stored = checkpointStore == null ? null : checkpointStore.load(checkpointKey);
+            this.start = stored == null ? window : stored;
+            this.page = start.nextPage();
+            PageResponse<T> first = fetcher.fetch(page, start.pageSize(), start.beginTime(), start.endTime());
+            this.lastPage = lastPage(first);
+            this.nextRequest = page + 1;
+            this.accept(first);
+        }
+
+        private void advance() {
+            if (checkpointStore != null) {
+                checkpointStore.save(checkpointKey, start.withNextPage(page + 1));
+            }
+            if (ahead.isEmpty()) {
+                this.finish();
+                return;
+            }
+            PageResponse<T> response;
+            try {
+                response = ahead.poll().join();
+            } catch (CompletionException e) {
+                this.close();
+                this.failure = e.getCause() instanceof RuntimeException cause ? cause : e;
+                throw failure;
+            }
+            page++;
+            this.accept(response);
+        }
+
+        private void accept(PageResponse<T> response) {
+            List<T> data = response == null || response.getData() == null ? Collections.emptyList() : response.getData();
+            // a short page is the last one whatever the totals said, records may have moved since the first page
+            if (data.size() < start.pageSize()) {
+                this.lastPage = page;
+                this.close();
+            }
+            this.fill();
+            this.records = data.iterator();
+        }
+
+        private void fill() {
+            while (ahead.size() < config.getConcurrency() && nextRequest <= lastPage) {
+                int pageNum = nextRequest++;
+                ahead.add(CompletableFuture.supplyAsync(() -> fetcher.fetch(pageNum, start.pageSize(), start.beginTime(), start.endTime()), executor));
+            }
+        }
+
+        private int lastPage(PageResponse<T> response) {
+            if (response == null) {
+                return page;
+            }
+            if (response.getTotalPages() != null) {
+                return response.getTotalPages();
+            }
+            if (response.getTotal() != null) {
+                return (int) ((response.getTotal() + start.pageSize() - 1) / start.pageSize());
+            }
+            return Integer.MAX_VALUE;
+        }
+
+        private void finish() {
+            this.finished = true;
+            if (checkpointStore != null) {
+                checkpointStore.remove(checkpointKey);
+            }
+        }
+
+        private void close() {
+            ahead.forEach(future -> future.cancel(false));
+            ahead.clear();
+        }
+
+    }
+
+}
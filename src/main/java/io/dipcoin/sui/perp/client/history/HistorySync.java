@@ -0,0 +1,155 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.history;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/20 15:00
+ * @Description : keeps local history logs up to date. each account and endpoint has its own log under the directory,
+ * a sync asks only for records from the log's watermark on and appends those the log does not hold yet, oldest first.
+ * a record is stored once per key: endpoints whose key carries the update time (history orders) append every
+ * update as a new frame, the others keep a record as first seen. for an endpoint whose records change the sync
+ * reaches back to the oldest record still open, found by replaying the log on its first sync
+ */
+public class HistorySync implements AutoCloseable {
+
+    private static final long DEFAULT_LOOKBACK_MILLIS = 90 * 24 * 60 * 60 * 1000L;
+
+    private final Path directory;
+
+    private final Map<Path, HistoryLog<?>> logs = new ConcurrentHashMap<>();
+
+    /**
+     * key - log of a mutable endpoint
+     * value - creation time of the log's open records by id
+     */
+    private final Map<HistoryLog<?>, Map<String, Long>> openRecords = new ConcurrentHashMap<>();
+
+    private long lookbackMillis = DEFAULT_LOOKBACK_MILLIS;
+
+    public HistorySync(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * how far back the first sync of a log reaches, 90 days by default
+     * @param lookbackMillis
+     * @return
+     */
+    public HistorySync setLookbackMillis(long lookbackMillis) {
+        this.lookbackMillis = lookbackMillis;
+        return this;
+    }
+
+    /**
+     * log of an account's endpoint
+     * @param account
+     * @param endpoint
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public <T> HistoryLog<T> log(String account, HistoryEndpoint<T> endpoint) {
+        Path file = directory.resolve(account).resolve(endpoint.name() + ".log");
+        return (HistoryLog<T>) logs.computeIfAbsent(file, path -> new HistoryLog<>(path, endpoint.codec(), endpoint.time(), endpoint.key()));
+    }
+
+    /**
+     * fetch and append the records newer than the log's watermark
+     * @param account
+     * @param endpoint
+     * @return records appended
+     */
+    public <T> int sync(String account, HistoryEndpoint<T> endpoint) {
+        return this.sync(account, endpoint, record -> {});
+    }
+
+    /**
+     * fetch and append the records newer than the log's watermark, handing each appended record on in log order,
+     * e.g. to a ColumnarWriter
+     * @param account
+     * @param endpoint
+     * @param appended
+     * @return records appended
+     */
+    public <T> int sync(String account, HistoryEndpoint<T> endpoint, Consumer<? super T> appended) {
+        HistoryLog<T> log = this.log(account, endpoint);
+        synchronized (log) {
+            Watermark watermark = log.watermark();
+            long beginTime = watermark.isEmpty() ? System.currentTimeMillis() - lookbackMillis : watermark.time();
+            Map<String, Long> open = endpoint.mutable() == null ? null : this.openRecords(log, endpoint.mutable());
+            if (open != null) {
+                for (long createdAt : open.values()) {
+                    beginTime = Math.min(beginTime, createdAt);
+                }
+            }
+            List<T> fresh = new ArrayList<>();
+            // records repeat across pages when newer ones arrive during the sync
+            Set<String> seen = new HashSet<>();
+            try (Stream<T> records = endpoint.pager().apply(beginTime).stream()) {
+                records.forEach(record -> {
+                    String key = endpoint.key().apply(record);
+                    if (watermark.admits(endpoint.time().applyAsLong(record), key) && seen.add(key)) {
+                        fresh.add(record);
+                    }
+                });
+            }
+            fresh.sort(Comparator.comparingLong(endpoint.time()).thenComparing(endpoint.key()));
+            log.append(fresh);
+            if (open != null) {
+                fresh.forEach(record -> track(open, endpoint.mutable(), record));
+            }
+            fresh.forEach(appended);
+            return fresh.size();
+        }
+    }
+
+    private <T> Map<String, Long> openRecords(HistoryLog<T> log, HistoryEndpoint.Mutable<T> mutable) {
+        Map<String, Long> open = openRecords.get(log);
+        if (open == null) {
+            Map<String, Long> replayed = new HashMap<>();
+            log.replay(record -> track(replayed, mutable, record));
+            open = replayed;
+            openRecords.put(log, open);
+        }
+        return open;
+    }
+
+    private static <T> void track(Map<String, Long> open, HistoryEndpoint.Mutable<T> mutable, T record) {
+        if (mutable.open().test(record)) {
+            open.put(mutable.id().apply(record), mutable.createdAt().applyAsLong(record));
+        } else {
+            open.remove(mutable.id().apply(record));
+        }
+    }
+
+    @Override
+    public void close() {
+        logs.values().forEach(HistoryLog::close);
+        logs.clear();
+        openRecords.clear();
+    }
+
+}
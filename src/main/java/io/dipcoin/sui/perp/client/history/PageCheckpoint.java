@@ -0,0 +1,32 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.history;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/20 10:00
+ * @Description : progress of an interrupted history export. the window is kept with the page so a resumed export
+ * asks for the same pages, not for a window recomputed from the current time
+ * @param nextPage first page not yet fully emitted
+ * @param pageSize
+ * @param beginTime
+ * @param endTime 0 when the endpoint takes no end time
+ */
+public record PageCheckpoint(int nextPage, int pageSize, long beginTime, long endTime) {
+
+    public PageCheckpoint withNextPage(int nextPage) {
+        return new PageCheckpoint(nextPage, pageSize, beginTime, endTime);
+    }
+
+}
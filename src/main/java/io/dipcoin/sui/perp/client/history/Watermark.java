@@ -0,0 +1,67 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.history;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/20 15:00
+ * @Description : newest record time of a history log and the keys of the records at exactly that time. the next sync
+ * asks from that time on, inclusive, and the keys drop the records it already holds
+ * @param time
+ * @param keys
+ */
+public record Watermark(long time, Set<String> keys) {
+
+    public static final Watermark EMPTY = new Watermark(Long.MIN_VALUE, Set.of());
+
+    public Watermark {
+        keys = Set.copyOf(keys);
+    }
+
+    public boolean isEmpty() {
+        return time == Long.MIN_VALUE;
+    }
+
+    /**
+     * whether a record is newer than the watermark
+     * @param time
+     * @param key
+     * @return
+     */
+    public boolean admits(long time, String key) {
+        return time > this.time || (time == this.time && !keys.contains(key));
+    }
+
+    /**
+     * watermark after a record
+     * @param time
+     * @param key
+     * @return
+     */
+    public Watermark advance(long time, String key) {
+        if (time > this.time) {
+            return new Watermark(time, Set.of(key));
+        }
+        if (time < this.time || keys.contains(key)) {
+            return this;
+        }
+        Set<String> advanced = new HashSet<>(keys);
+        advanced.add(key);
+        return new Watermark(time, advanced);
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.config;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/18 10:00
+ * @Description : transaction confirmation tracker options
+ */
+@Accessors(chain = true)
+@Data
+public class ConfirmationConfig {
+
+    /**
+     * polling interval while transactions are being confirmed
+     */
+    private long minIntervalMillis = 50L;
+
+    /**
+     * polling interval is doubled after each poll confirming nothing, up to this
+     */
+    private long maxIntervalMillis = 2_000L;
+
+    /**
+     * most digests looked up by one multi-get
+     */
+    private int batchSize = 50;
+
+    /**
+     * a digest not found within this time fails, its caches are re-queried
+     */
+    private long timeoutMillis = 60_000L;
+
+}
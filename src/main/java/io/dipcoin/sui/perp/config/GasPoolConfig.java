@@ -0,0 +1,51 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.config;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.math.BigInteger;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/11 10:30
+ * @Description : gas coin pool options, balances in MIST
+ */
+@Accessors(chain = true)
+@Data
+public class GasPoolConfig {
+
+    /**
+     * number of gas coins kept per sender, i.e. the number of transactions that can be in flight at once
+     */
+    private int poolSize = 8;
+
+    /**
+     * balance of each coin split off by a rebalance (0.5 SUI)
+     */
+    private BigInteger coinBalance = BigInteger.valueOf(500_000_000L);
+
+    /**
+     * coins below this balance are not leased and are merged back by a rebalance (0.01 SUI)
+     */
+    private BigInteger minCoinBalance = BigInteger.valueOf(10_000_000L);
+
+    /**
+     * maximum time to wait for a free gas coin
+     */
+    private long leaseTimeoutMillis = 30_000L;
+
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.config;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/20 10:00
+ * @Description : history paging options
+ */
+@Accessors(chain = true)
+@Data
+public class HistoryConfig {
+
+    /**
+     * pages requested at once while streaming, also the most pages held ahead of the consumer
+     */
+    private int concurrency = 4;
+
+    /**
+     * page size used when a request leaves it unset
+     */
+    private int pageSize = 100;
+
+}
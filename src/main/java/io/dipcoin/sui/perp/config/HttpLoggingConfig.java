@@ -0,0 +1,51 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.config;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/05 09:40
+ * @Description : debug logging options of the perp HTTP clients, only used when the client logger is at DEBUG
+ */
+@Accessors(chain = true)
+@Data
+public class HttpLoggingConfig {
+
+    /**
+     * fraction of requests to log, from 0.0 (none) to 1.0 (all)
+     */
+    private double sampleRate = 1.0D;
+
+    /**
+     * endpoint paths to log (see PerpPath), empty means every endpoint
+     */
+    private Set<String> endpoints = new HashSet<>();
+
+    /**
+     * request / response bodies are truncated to this many bytes, 0 disables body logging
+     */
+    private long maxBodyBytes = 2048L;
+
+    /**
+     * log lines waiting for the background writer, further lines are dropped
+     */
+    private int queueCapacity = 1024;
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.config;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/17 10:00
+ * @Description : asynchronous transaction pipeline options
+ */
+@Accessors(chain = true)
+@Data
+public class PipelineConfig {
+
+    /**
+     * threads building transactions (coin selection, price updates, shared objects)
+     */
+    private int buildThreads = 2;
+
+    /**
+     * threads serializing and signing transactions
+     */
+    private int signThreads = 2;
+
+    /**
+     * threads waiting on transaction execution
+     */
+    private int submitThreads = 8;
+
+    /**
+     * most transactions signed by one WalletService.signBatch call
+     */
+    private int signBatchSize = 32;
+
+    /**
+     * transactions accepted and not yet completed, further submissions block the caller
+     */
+    private int maxInFlight = 64;
+
+}
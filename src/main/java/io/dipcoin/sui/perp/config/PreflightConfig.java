@@ -0,0 +1,44 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.config;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/18 14:00
+ * @Description : dry-run preflight options
+ */
+@Accessors(chain = true)
+@Data
+public class PreflightConfig {
+
+    /**
+     * dry-run every on-chain transaction before signing it and abort when the dry run fails
+     */
+    private boolean enabled = false;
+
+    /**
+     * how long a simulation result is reused for the same operation and inputs
+     */
+    private long ttlMillis = 2_000L;
+
+    /**
+     * most cached simulation results, expired ones are dropped first
+     */
+    private int maxEntries = 4_096;
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.config;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.math.BigInteger;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/19 15:00
+ * @Description : margin rebalancer options
+ */
+@Accessors(chain = true)
+@Data
+public class RebalanceConfig {
+
+    /**
+     * most add margin calls composed into one transaction
+     */
+    private int maxCallsPerTransaction = 16;
+
+    /**
+     * rebalance transactions in flight at once
+     */
+    private int maxConcurrency = 4;
+
+    /**
+     * deficits below this amount (1e18 base units) are left alone
+     */
+    private BigInteger minTransfer = BigInteger.ZERO;
+
+    /**
+     * decimals of the margin coin, transfers are rounded up to its base unit (USDC: 6)
+     */
+    private int coinDecimals = 6;
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.config;
+
+import io.dipcoin.sui.perp.enums.SaltMode;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/14 14:05
+ * @Description : salt generator options
+ */
+@Accessors(chain = true)
+@Data
+public class SaltConfig {
+
+    private SaltMode mode = SaltMode.SECURE_RANDOM;
+
+    /**
+     * SecureRandom instances shared by the generating threads
+     */
+    private int poolSize = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * node id of order salts and of the COUNTER mode (0 - 65535), null picks a random one at startup.
+     * processes that must never collide need distinct ids: random ids of a few hundred processes already share
+     * an id with even odds (about 300 for 50%)
+     */
+    private Integer nodeId;
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.enums;
+
+import lombok.Getter;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/21 10:00
+ * @Description : column type of the columnar history store enum
+ */
+@Getter
+public enum ColumnType {
+
+    /**
+     * long per row: times, ids and 9-digit fixed-point amounts
+     */
+    LONG("long", Long.BYTES),
+
+    /**
+     * dictionary code per row: symbols, sides, statuses
+     */
+    DICT("dict", Integer.BYTES),
+
+    ;
+
+    ColumnType(String code, int width) {
+        this.code = code;
+        this.width = width;
+    }
+
+    private final String code;
+
+    private final int width;
+
+    public static ColumnType fromCode(String code) {
+        for (ColumnType type : ColumnType.values()) {
+            if (type.getCode().equals(code)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Invalid ColumnType code: " + code);
+    }
+
+}
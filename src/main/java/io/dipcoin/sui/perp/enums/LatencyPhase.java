@@ -0,0 +1,49 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.enums;
+
+import lombok.Getter;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/03 10:12
+ * @Description : latency phase enum
+ */
+@Getter
+public enum LatencyPhase {
+
+    SERIALIZE("serialize"),
+
+    SIGN("sign"),
+
+    BUILD("build"),
+
+    QUEUE("queue"),
+
+    NETWORK("network"),
+
+    PARSE("parse"),
+
+    SUBMIT("submit"),
+
+    TOTAL("total"),
+
+    ;
+
+    LatencyPhase(String code) {
+        this.code = code;
+    }
+
+    private final String code;
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.enums;
+
+import lombok.Getter;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/21 15:00
+ * @Description : position margin type enum
+ */
+@Getter
+public enum MarginType {
+
+    ISOLATED("ISOLATED", 1),
+    CROSS("CROSS", 2);
+
+    private final String code;
+    private final Integer value;
+
+    MarginType(String code, Integer value) {
+        this.code = code;
+        this.value = value;
+    }
+
+    public static MarginType fromValue(Integer value) {
+        for (MarginType type : MarginType.values()) {
+            if (type.getValue().equals(value)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Invalid MarginType value: " + value);
+    }
+
+    public static MarginType fromCode(String code) {
+        for (MarginType type : MarginType.values()) {
+            if (type.getCode().equals(code)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Invalid MarginType code: " + code);
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.enums;
+
+import lombok.Getter;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/21 15:00
+ * @Description : order status enum
+ */
+@Getter
+public enum OrderStatus {
+
+    OPEN("OPEN", 1),
+    PARTIALLY_FILLED("PARTIALLY_FILLED", 2),
+    FILLED("FILLED", 3),
+    CANCELLED("CANCELLED", 4);
+
+    private final String code;
+    private final Integer value;
+
+    OrderStatus(String code, Integer value) {
+        this.code = code;
+        this.value = value;
+    }
+
+    public static OrderStatus fromValue(Integer value) {
+        for (OrderStatus status : OrderStatus.values()) {
+            if (status.getValue().equals(value)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Invalid OrderStatus value: " + value);
+    }
+
+    public static OrderStatus fromCode(String code) {
+        for (OrderStatus status : OrderStatus.values()) {
+            if (status.getCode().equals(code)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Invalid OrderStatus code: " + code);
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.enums;
+
+import lombok.Getter;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/14 14:00
+ * @Description : salt generation mode enum
+ */
+@Getter
+public enum SaltMode {
+
+    /**
+     * random bytes from a pool of SecureRandom instances
+     */
+    SECURE_RANDOM("secureRandom"),
+
+    /**
+     * node id + process instance bytes + monotonic sequence, unique as long as node ids are
+     */
+    COUNTER("counter"),
+
+    ;
+
+    SaltMode(String code) {
+        this.code = code;
+    }
+
+    private final String code;
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.enums;
+
+import lombok.Getter;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/14 16:20
+ * @Description : kind of a transaction input that may be stale enum
+ */
+@Getter
+public enum StaleInputKind {
+
+    /**
+     * a coin of the perp coin type, its version may have moved since the snapshot
+     */
+    OWNED_COIN("ownedCoin"),
+
+    /**
+     * a gas coin, its version may have moved since the snapshot
+     */
+    GAS_COIN("gasCoin"),
+
+    /**
+     * the reference gas price, it changes with the epoch
+     */
+    GAS_PRICE("gasPrice"),
+
+    /**
+     * a pyth price feed, not updated by offline transactions
+     */
+    PRICE_FEED("priceFeed"),
+
+    ;
+
+    StaleInputKind(String code) {
+        this.code = code;
+    }
+
+    private final String code;
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.metrics;
+
+import io.dipcoin.sui.perp.enums.LatencyPhase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/03 10:48
+ * @Description : recorder keeping one {@link LatencyHistogram} per (operation, phase)
+ */
+public class HistogramMetricsRecorder implements MetricsRecorder {
+
+    private static final LatencyPhase[] PHASES = LatencyPhase.values();
+
+    /**
+     * key - operation
+     * value - histograms indexed by LatencyPhase ordinal, created on first sample
+     */
+    private final Map<String, AtomicReferenceArray<LatencyHistogram>> histograms = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void record(String operation, LatencyPhase phase, long nanos) {
+        AtomicReferenceArray<LatencyHistogram> phases = histograms.get(operation);
+        if (phases == null) {
+            phases = histograms.computeIfAbsent(operation, key -> new AtomicReferenceArray<>(PHASES.length));
+        }
+        int index = phase.ordinal();
+        LatencyHistogram histogram = phases.get(index);
+        if (histogram == null) {
+            phases.compareAndSet(index, null, new LatencyHistogram());
+            histogram = phases.get(index);
+        }
+        histogram.record(nanos);
+    }
+
+    /**
+     * snapshot of every histogram
+     * @return
+     */
+    public List<LatencySnapshot> snapshot() {
+        return this.collect(false);
+    }
+
+    /**
+     * snapshot of every histogram, clearing them for the next interval
+     * @return
+     */
+    public List<LatencySnapshot> snapshotAndReset() {
+        return this.collect(true);
+    }
+
+    /**
+     * export the current interval to a sink (log, metrics registry...) and start a new one
+     * @param exporter
+     */
+    public void export(Consumer<LatencySnapshot> exporter) {
+        this.collect(true).forEach(exporter);
+    }
+
+    private List<LatencySnapshot> collect(boolean reset) {
+        List<LatencySnapshot> snapshots = new ArrayList<>();
+        for (Map.Entry<String, AtomicReferenceArray<LatencyHistogram>> entry : histograms.entrySet()) {
+            AtomicReferenceArray<LatencyHistogram> phases = entry.getValue();
+            for (LatencyPhase phase : PHASES) {
+                LatencyHistogram histogram = phases.get(phase.ordinal());
+                if (histogram != null) {
+                    snapshots.add(histogram.snapshot(entry.getKey(), phase.getCode(), reset));
+                }
+            }
+        }
+        return snapshots;
+    }
+
+}
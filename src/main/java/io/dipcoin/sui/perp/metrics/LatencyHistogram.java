@@ -0,0 +1,117 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/03 10:35
+ * @Description : lock-free log-linear latency histogram (HDR style, 64 sub-buckets per power of two, ~1.6% relative error)
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private static final int SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+
+    // values below this bound are counted exactly
+    private static final long LINEAR_BOUND = SUB_BUCKET_COUNT << 1;
+
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    private final LongAdder sum = new LongAdder();
+
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * record a value, negative values are counted as 0
+     * @param value
+     */
+    public void record(long value) {
+        long v = Math.max(value, 0L);
+        counts.incrementAndGet(indexOf(v));
+        sum.add(v);
+        long current = max.get();
+        while (v > current && !max.compareAndSet(current, v)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * take a snapshot of the histogram
+     * @param operation
+     * @param phase
+     * @param reset whether to clear the buckets while copying them
+     * @return
+     */
+    public LatencySnapshot snapshot(String operation, String phase, boolean reset) {
+        long[] copy = new long[BUCKET_COUNT];
+        long total = 0L;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = reset ? counts.getAndSet(i, 0L) : counts.get(i);
+            copy[i] = count;
+            total += count;
+        }
+        long totalNanos = reset ? sum.sumThenReset() : sum.sum();
+        long maxNanos = reset ? max.getAndSet(0L) : max.get();
+        if (total == 0L) {
+            return new LatencySnapshot(operation, phase, 0L, 0L, 0L, 0L, 0L, maxNanos);
+        }
+        return new LatencySnapshot(operation,
+                phase,
+                total,
+                totalNanos / total,
+                valueAtPercentile(copy, total, 50.0D, maxNanos),
+                valueAtPercentile(copy, total, 99.0D, maxNanos),
+                valueAtPercentile(copy, total, 99.9D, maxNanos),
+                maxNanos);
+    }
+
+    private static long valueAtPercentile(long[] copy, long total, double percentile, long maxNanos) {
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0D * total));
+        long seen = 0L;
+        for (int i = 0; i < copy.length; i++) {
+            seen += copy[i];
+            if (seen >= rank) {
+                return Math.min(highestEquivalentValue(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    private static int indexOf(long value) {
+        if (value < LINEAR_BOUND) {
+            return (int) value;
+        }
+        int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    private static long highestEquivalentValue(int index) {
+        if (index < LINEAR_BOUND) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = (index & SUB_BUCKET_MASK) + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+}
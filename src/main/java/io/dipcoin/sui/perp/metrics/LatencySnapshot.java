@@ -0,0 +1,32 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.metrics;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/03 10:41
+ * @Description : point-in-time view of one (operation, phase) histogram, all timings in nanoseconds
+ */
+public record LatencySnapshot(
+
+        String operation,
+        String phase,
+        long count,
+        long mean,
+        long p50,
+        long p99,
+        long p999,
+        long max
+
+) {}
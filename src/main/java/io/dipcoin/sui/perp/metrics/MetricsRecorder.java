@@ -0,0 +1,54 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.metrics;
+
+import io.dipcoin.sui.perp.enums.LatencyPhase;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/03 10:20
+ * @Description : latency recorder SPI, install an implementation through {@link PerpMetrics#install(MetricsRecorder)}
+ */
+public interface MetricsRecorder {
+
+    /**
+     * default recorder, drops every sample
+     */
+    MetricsRecorder NOOP = new MetricsRecorder() {
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void record(String operation, LatencyPhase phase, long nanos) {
+        }
+    };
+
+    /**
+     * whether samples should be taken at all, callers skip System.nanoTime() when false
+     * @return
+     */
+    boolean isEnabled();
+
+    /**
+     * record one phase timing
+     * @param operation endpoint path, move function or utility name
+     * @param phase
+     * @param nanos elapsed nanoseconds
+     */
+    void record(String operation, LatencyPhase phase, long nanos);
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.metrics;
+
+import io.dipcoin.sui.perp.enums.LatencyPhase;
+
+import java.util.Objects;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/03 10:26
+ * @Description : global entry of the hot-path instrumentation, backed by {@link MetricsRecorder#NOOP} until a recorder is installed
+ */
+public class PerpMetrics {
+
+    private static volatile MetricsRecorder recorder = MetricsRecorder.NOOP;
+
+    private PerpMetrics() {}
+
+    /**
+     * install a recorder for all clients of this JVM
+     * @param metricsRecorder
+     */
+    public static void install(MetricsRecorder metricsRecorder) {
+        recorder = Objects.requireNonNull(metricsRecorder, "metricsRecorder");
+    }
+
+    /**
+     * restore the no-op recorder
+     */
+    public static void uninstall() {
+        recorder = MetricsRecorder.NOOP;
+    }
+
+    /**
+     * get current recorder
+     * @return
+     */
+    public static MetricsRecorder recorder() {
+        return recorder;
+    }
+
+    /**
+     * start a timing
+     * @return System.nanoTime(), or 0 when instrumentation is disabled
+     */
+    public static long start() {
+        return recorder.isEnabled() ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * record the time elapsed since {@link #start()}
+     * @param operation
+     * @param phase
+     * @param startNanos value returned by {@link #start()}
+     */
+    public static void record(String operation, LatencyPhase phase, long startNanos) {
+        if (startNanos == 0L) {
+            return;
+        }
+        MetricsRecorder current = recorder;
+        if (current.isEnabled()) {
+            current.record(operation, phase, System.nanoTime() - startNanos);
+        }
+    }
+
+}
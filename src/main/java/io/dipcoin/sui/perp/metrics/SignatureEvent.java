@@ -0,0 +1,36 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/04 14:12
+ * @Description : JFR event emitted for each OrderUtil message signature
+ */
+@Name("io.dipcoin.perp.Signature")
+@Label("Perp Message Signature")
+@Category({"Dipcoin", "Perp"})
+@StackTrace(false)
+public class SignatureEvent extends Event {
+
+    @Label("Signature Scheme")
+    public String scheme;
+
+    @Label("Message Bytes")
+    @DataAmount
+    public long messageBytes;
+
+}
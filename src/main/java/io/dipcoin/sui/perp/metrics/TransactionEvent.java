@@ -0,0 +1,50 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/04 14:18
+ * @Description : JFR event emitted for each on-chain transaction submission
+ */
+@Name("io.dipcoin.perp.Transaction")
+@Label("Perp On-Chain Transaction")
+@Category({"Dipcoin", "Perp"})
+@StackTrace(false)
+public class TransactionEvent extends Event {
+
+    @Label("Move Function")
+    public String function;
+
+    @Label("Sender")
+    public String sender;
+
+    @Label("Digest")
+    public String digest;
+
+    /**
+     * executed successfully, false for transactions aborted on chain, not sent, or still pending
+     */
+    @Label("Succeeded")
+    public boolean succeeded;
+
+    /**
+     * submitted but the response carried no effects, the outcome is only known once confirmed
+     */
+    @Label("Outcome Pending")
+    public boolean pending;
+
+}
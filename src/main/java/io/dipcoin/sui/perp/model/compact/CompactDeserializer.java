@@ -0,0 +1,121 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.model.compact;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import io.dipcoin.sui.perp.util.DecimalUtil;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.function.Function;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/21 15:00
+ * @Description : deserializes a compact model field by field from the parser's tokens. amounts are parsed from the
+ * parser's text buffer into 9-digit fixed-point longs and enum codes are matched against it, so no intermediate
+ * strings or trees are built. fields the model does not keep are skipped
+ */
+public abstract class CompactDeserializer<T> extends StdDeserializer<T> {
+
+    protected CompactDeserializer(Class<T> type) {
+        super(type);
+    }
+
+    protected abstract T create();
+
+    /**
+     * read the current value into a field of the target
+     * @param p parser at the field's value, never a null value
+     * @param field
+     * @param target
+     * @return false when the model does not keep the field
+     * @throws IOException
+     */
+    protected abstract boolean read(JsonParser p, String field, T target) throws IOException;
+
+    @Override
+    public T deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        }
+        T target = this.create();
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if (value == JsonToken.VALUE_NULL || !this.read(p, field, target)) {
+                p.skipChildren();
+            }
+        }
+        return target;
+    }
+
+    /**
+     * 9-digit fixed-point value of an 18-digit precision amount, DecimalUtil.NULL_FIXED when empty
+     */
+    protected static long fixed(JsonParser p) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_STRING) {
+            int length = p.getTextLength();
+            return length == 0 ? DecimalUtil.NULL_FIXED
+                    : DecimalUtil.baseUnitToFixed(CharBuffer.wrap(p.getTextCharacters(), p.getTextOffset(), length));
+        }
+        return DecimalUtil.baseUnitToFixed(p.getText());
+    }
+
+    protected static long longValue(JsonParser p) throws IOException {
+        return p.currentToken() == JsonToken.VALUE_NUMBER_INT ? p.getLongValue() : Long.parseLong(p.getText());
+    }
+
+    protected static int intValue(JsonParser p) throws IOException {
+        return p.currentToken() == JsonToken.VALUE_NUMBER_INT ? p.getIntValue() : Integer.parseInt(p.getText());
+    }
+
+    protected static boolean booleanValue(JsonParser p) throws IOException {
+        return p.getValueAsBoolean();
+    }
+
+    protected static String text(JsonParser p) throws IOException {
+        return p.getText();
+    }
+
+    /**
+     * enum whose code equals the current text, null for codes this client does not know
+     */
+    protected static <E extends Enum<E>> E code(JsonParser p, E[] values, Function<E, String> code) throws IOException {
+        char[] chars = p.getTextCharacters();
+        int offset = p.getTextOffset();
+        int length = p.getTextLength();
+        for (E value : values) {
+            String candidate = code.apply(value);
+            if (candidate.length() == length && matches(candidate, chars, offset)) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(String candidate, char[] chars, int offset) {
+        for (int i = 0; i < candidate.length(); i++) {
+            if (candidate.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.model.compact;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import io.dipcoin.sui.perp.enums.OrderSide;
+import io.dipcoin.sui.perp.enums.OrderStatus;
+import io.dipcoin.sui.perp.enums.OrderType;
+import io.dipcoin.sui.perp.util.DecimalUtil;
+import lombok.Data;
+
+import java.io.IOException;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/21 15:00
+ * @Description : open order with 9-digit fixed-point amounts and enum-coded status, type and side, see OrdersResponse
+ */
+@Data
+@JsonDeserialize(using = CompactOrder.Deserializer.class)
+public class CompactOrder {
+
+    /**
+     * ID
+     */
+    private long id;
+
+    /**
+     * client ID
+     */
+    private String clientId;
+
+    /**
+     * order status
+     */
+    private OrderStatus orderStatus;
+
+    /**
+     * order hash
+     */
+    private String hash;
+
+    /**
+     * trading pair
+     */
+    private String symbol;
+
+    /**
+     * order type
+     */
+    private OrderType orderType;
+
+    /**
+     * user address
+     */
+    private String creator;
+
+    /**
+     * trade direction
+     */
+    private OrderSide side;
+
+    /**
+     * price
+     */
+    private long price = DecimalUtil.NULL_FIXED;
+
+    /**
+     * quantity
+     */
+    private long quantity = DecimalUtil.NULL_FIXED;
+
+    /**
+     * leverage
+     */
+    private long leverage = DecimalUtil.NULL_FIXED;
+
+    /**
+     * salt
+     */
+    private long salt;
+
+    /**
+     * fee
+     */
+    private long fee = DecimalUtil.NULL_FIXED;
+
+    /**
+     * filled transaction fees
+     */
+    private long filledFee = DecimalUtil.NULL_FIXED;
+
+    /**
+     * create time
+     */
+    private long createdAt;
+
+    /**
+     * update time
+     */
+    private long updatedAt;
+
+    /**
+     * filled quantity
+     */
+    private long filledQty = DecimalUtil.NULL_FIXED;
+
+    /**
+     * average filled price
+     */
+    private long avgFillPrice = DecimalUtil.NULL_FIXED;
+
+    /**
+     * open quantity
+     */
+    private long openQty = DecimalUtil.NULL_FIXED;
+
+    /**
+     * order value
+     */
+    private long orderValue = DecimalUtil.NULL_FIXED;
+
+    /**
+     * trigger condition type
+     */
+    private String triggerConditionType;
+
+    /**
+     * trigger price
+     */
+    private long triggerPrice = DecimalUtil.NULL_FIXED;
+
+    /**
+     * trigger direction
+     */
+    private int triggerDirection;
+
+    /**
+     * reduce only
+     */
+    private boolean reduceOnly;
+
+    /**
+     * planned type
+     */
+    private String planOrderType;
+
+    /**
+     * plan batch ID
+     */
+    private long planBatchId;
+
+    public static class Deserializer extends CompactDeserializer<CompactOrder> {
+
+        private static final OrderSide[] SIDES = OrderSide.values();
+
+        private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+        private static final OrderType[] TYPES = OrderType.values();
+
+        public Deserializer() {
+            super(CompactOrder.class);
+        }
+
+        @Override
+        protected CompactOrder create() {
+            return new CompactOrder();
+        }
+
+        @Override
+        protected boolean read(JsonParser p, String field, CompactOrder order) throws IOException {
+            switch (field) {
+                case "id" -> order.setId(longValue(p));
+                case "clientId" -> order.setClientId(text(p));
+                case "orderStatus" -> order.setOrderStatus(code(p, STATUSES, OrderStatus::getCode));
+                case "hash" -> order.setHash(text(p));
+                case "symbol" -> order.setSymbol(text(p));
+                case "orderType" -> order.setOrderType(code(p, TYPES, OrderType::getCode));
+                case "creator" -> order.setCreator(text(p));
+                case "side" -> order.setSide(code(p, SIDES, OrderSide::getCode));
+                case "price" -> order.setPrice(fixed(p));
+                case "quantity" -> order.setQuantity(fixed(p));
+                case "leverage" -> order.setLeverage(fixed(p));
+                case "salt" -> order.setSalt(longValue(p));
+                case "fee" -> order.setFee(fixed(p));
+                case "filledFee" -> order.setFilledFee(fixed(p));
+                case "createdAt" -> order.setCreatedAt(longValue(p));
+                case "updatedAt" -> order.setUpdatedAt(longValue(p));
+                case "filledQty" -> order.setFilledQty(fixed(p));
+                case "avgFillPrice" -> order.setAvgFillPrice(fixed(p));
+                case "openQty" -> order.setOpenQty(fixed(p));
+                case "orderValue" -> order.setOrderValue(fixed(p));
+                case "triggerConditionType" -> order.setTriggerConditionType(text(p));
+                case "triggerPrice" -> order.setTriggerPrice(fixed(p));
+                case "triggerDirection" -> order.setTriggerDirection(intValue(p));
+                case "reduceOnly" -> order.setReduceOnly(booleanValue(p));
+                case "planOrderType" -> order.setPlanOrderType(text(p));
+                case "planBatchId" -> order.setPlanBatchId(longValue(p));
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.model.compact;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import io.dipcoin.sui.perp.enums.MarginType;
+import io.dipcoin.sui.perp.enums.OrderSide;
+import io.dipcoin.sui.perp.util.DecimalUtil;
+import lombok.Data;
+
+import java.io.IOException;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/21 15:00
+ * @Description : position with 9-digit fixed-point amounts and enum-coded side and margin type, see PositionResponse
+ */
+@Data
+@JsonDeserialize(using = CompactPosition.Deserializer.class)
+public class CompactPosition {
+
+    /**
+     * ID
+     */
+    private long id;
+
+    /**
+     * user address
+     */
+    private String userAddress;
+
+    /**
+     * trading pair
+     */
+    private String symbol;
+
+    /**
+     * average entry price
+     */
+    private long avgEntryPrice = DecimalUtil.NULL_FIXED;
+
+    /**
+     * margin
+     */
+    private long margin = DecimalUtil.NULL_FIXED;
+
+    /**
+     * leverage
+     */
+    private long leverage = DecimalUtil.NULL_FIXED;
+
+    /**
+     * quantity
+     */
+    private long quantity = DecimalUtil.NULL_FIXED;
+
+    /**
+     * create time
+     */
+    private long createdAt;
+
+    /**
+     * update time
+     */
+    private long updatedAt;
+
+    /**
+     * selected leverage
+     */
+    private long positionSelectedLeverage = DecimalUtil.NULL_FIXED;
+
+    /**
+     * margin type
+     */
+    private MarginType marginType;
+
+    /**
+     * oracle price
+     */
+    private long oraclePrice = DecimalUtil.NULL_FIXED;
+
+    /**
+     * mid market price
+     */
+    private long midMarketPrice = DecimalUtil.NULL_FIXED;
+
+    /**
+     * liquidation price
+     */
+    private long liquidationPrice = DecimalUtil.NULL_FIXED;
+
+    /**
+     * position side
+     */
+    private OrderSide side;
+
+    /**
+     * position value
+     */
+    private long positionValue = DecimalUtil.NULL_FIXED;
+
+    /**
+     * unrealized profit
+     */
+    private long unrealizedProfit = DecimalUtil.NULL_FIXED;
+
+    /**
+     * return on equity
+     */
+    private long roe = DecimalUtil.NULL_FIXED;
+
+    /**
+     * funding due
+     */
+    private long fundingDue = DecimalUtil.NULL_FIXED;
+
+    /**
+     * net margin
+     */
+    private long netMargin = DecimalUtil.NULL_FIXED;
+
+    /**
+     * reducible quantity
+     */
+    private long positionQtyReducible = DecimalUtil.NULL_FIXED;
+
+    public static class Deserializer extends CompactDeserializer<CompactPosition> {
+
+        private static final MarginType[] MARGIN_TYPES = MarginType.values();
+
+        private static final OrderSide[] SIDES = OrderSide.values();
+
+        public Deserializer() {
+            super(CompactPosition.class);
+        }
+
+        @Override
+        protected CompactPosition create() {
+            return new CompactPosition();
+        }
+
+        @Override
+        protected boolean read(JsonParser p, String field, CompactPosition position) throws IOException {
+            switch (field) {
+                case "id" -> position.setId(longValue(p));
+                case "userAddress" -> position.setUserAddress(text(p));
+                case "symbol" -> position.setSymbol(text(p));
+                case "avgEntryPrice" -> position.setAvgEntryPrice(fixed(p));
+                case "margin" -> position.setMargin(fixed(p));
+                case "leverage" -> position.setLeverage(fixed(p));
+                case "quantity" -> position.setQuantity(fixed(p));
+                case "createdAt" -> position.setCreatedAt(longValue(p));
+                case "updatedAt" -> position.setUpdatedAt(longValue(p));
+                case "positionSelectedLeverage" -> position.setPositionSelectedLeverage(fixed(p));
+                case "marginType" -> position.setMarginType(code(p, MARGIN_TYPES, MarginType::getCode));
+                case "oraclePrice" -> position.setOraclePrice(fixed(p));
+                case "midMarketPrice" -> position.setMidMarketPrice(fixed(p));
+                case "liquidationPrice" -> position.setLiquidationPrice(fixed(p));
+                case "side" -> position.setSide(code(p, SIDES, OrderSide::getCode));
+                case "positionValue" -> position.setPositionValue(fixed(p));
+                case "unrealizedProfit" -> position.setUnrealizedProfit(fixed(p));
+                case "roe" -> position.setRoe(fixed(p));
+                case "fundingDue" -> position.setFundingDue(fixed(p));
+                case "netMargin" -> position.setNetMargin(fixed(p));
+                case "positionQtyReducible" -> position.setPositionQtyReducible(fixed(p));
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
@@ -38,6 +38,10 @@ public class DecimalUtil {
     private static final BigDecimal SUI_UINT_DECIMAL = BigDecimal.TEN.pow(SUI_UINT);
     // half of base unit 0.5e18
     private static final BigInteger HALF_BASE_UINT = BASE_UINT_INTEGER.divide(BigInteger.valueOf(2));
+    // 9 power, precision of long fixed-point values
+    public static final int FIXED_UINT = 9;
+    // long fixed-point value standing for an absent value
+    public static final long NULL_FIXED = Long.MIN_VALUE;
 
     /**
      * retrieve base unit constants
@@ -177,4 +181,51 @@ public class DecimalUtil {
         return new BigDecimal(value).divide(BASE_UINT_DECIMAL, UINT, RoundingMode.DOWN);
     }
 
+    /**
+     * convert an 18-digit precision integer string to a long with 9-digit precision, rounding toward zero.
+     * plain integer strings are parsed without allocating, e.g. straight from a json parser's text buffer
+     * @param value integer string with 18-digit precision
+     * @return long with 9-digit precision
+     * @throws ArithmeticException if the value does not fit a long
+     */
+    public static long baseUnitToFixed(CharSequence value) {
+        int length = value.length();
+        boolean negative = length > 0 && value.charAt(0) == '-';
+        int start = negative || (length > 0 && value.charAt(0) == '+') ? 1 : 0;
+        int end = length - (UINT - FIXED_UINT);
+        if (start == length) {
+            throw new NumberFormatException("Not a number: " + value);
+        }
+        long result = 0L;
+        for (int i = start; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return toFixed(new BigDecimal(value.toString()).movePointLeft(UINT));
+            }
+            if (i < end) {
+                result = Math.addExact(Math.multiplyExact(result, 10L), c - '0');
+            }
+        }
+        return negative ? -result : result;
+    }
+
+    /**
+     * convert an ordinary numerical value to a long with 9-digit precision, rounding toward zero
+     * @param value value to be converted
+     * @return long with 9-digit precision
+     * @throws ArithmeticException if the value does not fit a long
+     */
+    public static long toFixed(BigDecimal value) {
+        return value.movePointRight(FIXED_UINT).setScale(0, RoundingMode.DOWN).longValueExact();
+    }
+
+    /**
+     * convert a long with 9-digit precision to an ordinary numerical value
+     * @param value long with 9-digit precision
+     * @return ordinary numerical value
+     */
+    public static BigDecimal fromFixed(long value) {
+        return BigDecimal.valueOf(value, FIXED_UINT);
+    }
+
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.util;
+
+import io.dipcoin.sui.bcs.types.gas.SuiObjectRef;
+import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
+import io.dipcoin.sui.model.transaction.TransactionBlockEffects;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/11 10:05
+ * @Description : transaction effects util, all reads of SuiTransactionBlockResponse effects go through here
+ */
+public class EffectsUtil {
+
+    private static final String STATUS_SUCCESS = "success";
+
+    /**
+     * whether the response carries the transaction effects, responses to a submit that did not wait for execution
+     * only carry the digest
+     * @param response
+     * @return
+     */
+    public static boolean hasEffects(SuiTransactionBlockResponse response) {
+        return response != null && response.getEffects() != null;
+    }
+
+    /**
+     * whether the transaction executed successfully
+     * @param response
+     * @return
+     */
+    public static boolean isSuccess(SuiTransactionBlockResponse response) {
+        return response != null && isSuccess(response.getEffects());
+    }
+
+    /**
+     * whether the effects report a successful execution, e.g. of a dry run
+     * @param effects
+     * @return
+     */
+    public static boolean isSuccess(TransactionBlockEffects effects) {
+        if (effects == null || effects.getStatus() == null) {
+            return false;
+        }
+        return STATUS_SUCCESS.equals(effects.getStatus().getStatus());
+    }
+
+    /**
+     * the gas coin reference after execution
+     * @param response
+     * @return null when the response carries no effects
+     */
+    public static SuiObjectRef getGasObject(SuiTransactionBlockResponse response) {
+        if (response == null || response.getEffects() == null || response.getEffects().getGasObject() == null) {
+            return null;
+        }
+        var reference = response.getEffects().getGasObject().getReference();
+        return reference == null ? null : new SuiObjectRef(reference.getObjectId(), reference.getVersion(), reference.getDigest());
+    }
+
+    /**
+     * references of the objects mutated by the transaction (owned inputs are mutated even when execution fails)
+     * @param response
+     * @return key - object id, value - new reference; null when the response carries no effects
+     */
+    public static Map<String, SuiObjectRef> getMutated(SuiTransactionBlockResponse response) {
+        if (response == null || response.getEffects() == null || response.getEffects().getMutated() == null) {
+            return null;
+        }
+        Map<String, SuiObjectRef> mutated = new HashMap<>();
+        for (var owned : response.getEffects().getMutated()) {
+            var reference = owned.getReference();
+            mutated.put(reference.getObjectId(), new SuiObjectRef(reference.getObjectId(), reference.getVersion(), reference.getDigest()));
+        }
+        return mutated;
+    }
+
+    /**
+     * gas the budget has to cover: computation + storage, before the storage rebate
+     * @param response
+     * @return null when the response carries no effects
+     */
+    public static BigInteger getGasCharged(SuiTransactionBlockResponse response) {
+        return response == null ? null : getGasCharged(response.getEffects());
+    }
+
+    /**
+     * gas the budget has to cover according to the effects, e.g. of a dry run
+     * @param effects
+     * @return null without gas usage
+     */
+    public static BigInteger getGasCharged(TransactionBlockEffects effects) {
+        if (effects == null || effects.getGasUsed() == null) {
+            return null;
+        }
+        var gasUsed = effects.getGasUsed();
+        return gasUsed.getComputationCost().add(gasUsed.getStorageCost());
+    }
+
+    /**
+     * epoch the transaction executed in
+     * @param response
+     * @return null when the response carries no effects
+     */
+    public static Long getExecutedEpoch(SuiTransactionBlockResponse response) {
+        if (response == null || response.getEffects() == null || response.getEffects().getExecutedEpoch() == null) {
+            return null;
+        }
+        return Long.parseLong(response.getEffects().getExecutedEpoch());
+    }
+
+    /**
+     * execution error of a failed transaction
+     * @param response
+     * @return null when the transaction succeeded or carries no effects
+     */
+    public static String getError(SuiTransactionBlockResponse response) {
+        return response == null ? null : getError(response.getEffects());
+    }
+
+    /**
+     * execution error reported by the effects, e.g. of a dry run
+     * @param effects
+     * @return null when execution succeeded or there are no effects
+     */
+    public static String getError(TransactionBlockEffects effects) {
+        if (effects == null || effects.getStatus() == null) {
+            return null;
+        }
+        return effects.getStatus().getError();
+    }
+
+    /**
+     * net gas charged to the gas coin: computation + storage - storage rebate
+     * @param response
+     * @return null when the response carries no effects
+     */
+    public static BigInteger getGasUsed(SuiTransactionBlockResponse response) {
+        if (response == null || response.getEffects() == null || response.getEffects().getGasUsed() == null) {
+            return null;
+        }
+        var gasUsed = response.getEffects().getGasUsed();
+        return gasUsed.getComputationCost()
+                .add(gasUsed.getStorageCost())
+                .subtract(gasUsed.getStorageRebate());
+    }
+
+}
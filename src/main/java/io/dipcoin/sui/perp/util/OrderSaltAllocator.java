@@ -0,0 +1,88 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/14 16:20
+ * @Description : order salt allocator partitioning the positive 63 bit salt space (the api keeps salts as a long)
+ * by node and thread: [32 bit seconds since 2025-01-01][16 bit node id][5 bit thread slot][10 bit sequence].
+ * each thread slot owns a lock-free (seconds, sequence) counter that only moves forward, a slot issuing more than
+ * 1024 salts in a second borrows the next second, so salts of one allocator are unique whatever the clock does,
+ * and unique across nodes with distinct node ids. counters start at the second after construction, so a process
+ * restarted with the same node id does not repeat the salts of its predecessor unless that one started less than a
+ * second before, had borrowed more than a second ahead (over 1024 salts per second and slot sustained), or the clock
+ * stepped back across the restart
+ */
+public class OrderSaltAllocator {
+
+    /**
+     * 2025-01-01T00:00:00Z
+     */
+    private static final long EPOCH_SECONDS = 1_735_689_600L;
+
+    private static final int SEQUENCE_BITS = 10;
+
+    private static final int SLOT_BITS = 5;
+
+    private static final int NODE_BITS = 16;
+
+    private static final int SLOTS = 1 << SLOT_BITS;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final int nodeId;
+
+    /**
+     * per slot (seconds << SEQUENCE_BITS | sequence) of the last salt
+     */
+    private final AtomicLongArray counters = new AtomicLongArray(SLOTS);
+
+    /**
+     * @param nodeId 0 - 65535
+     */
+    public OrderSaltAllocator(int nodeId) {
+        if (nodeId < 0 || nodeId > 0xFFFF) {
+            throw new IllegalArgumentException("Order salt node id must be within 0 - 65535");
+        }
+        this.nodeId = nodeId;
+        long start = ((System.currentTimeMillis() / 1000L - EPOCH_SECONDS + 1) << SEQUENCE_BITS) - 1;
+        for (int i = 0; i < SLOTS; i++) {
+            counters.set(i, start);
+        }
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * allocate the next salt of the calling thread
+     * @return positive salt
+     */
+    public long next() {
+        int slot = (int) (Thread.currentThread().threadId() & (SLOTS - 1));
+        long now = (System.currentTimeMillis() / 1000L - EPOCH_SECONDS) << SEQUENCE_BITS;
+        long counter = counters.accumulateAndGet(slot, now, (last, floor) -> Math.max(last + 1, floor));
+        long seconds = counter >>> SEQUENCE_BITS;
+        return (seconds << (NODE_BITS + SLOT_BITS + SEQUENCE_BITS))
+                | ((long) nodeId << (SLOT_BITS + SEQUENCE_BITS))
+                | ((long) slot << SEQUENCE_BITS)
+                | (counter & SEQUENCE_MASK);
+    }
+
+}
@@ -17,8 +17,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.dipcoin.sui.crypto.SuiKeyPair;
 import io.dipcoin.sui.crypto.exceptions.SigningException;
 import io.dipcoin.sui.crypto.signature.SignatureScheme;
+import io.dipcoin.sui.perp.enums.LatencyPhase;
 import io.dipcoin.sui.perp.enums.OrderScheme;
 import io.dipcoin.sui.perp.enums.OrderSide;
+import io.dipcoin.sui.perp.metrics.PerpMetrics;
+import io.dipcoin.sui.perp.metrics.SignatureEvent;
 import io.dipcoin.sui.perp.model.request.PlaceOrderRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.bouncycastle.util.encoders.Base64;
@@ -30,7 +33,6 @@ import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.random.RandomGenerator;
 
 /**
  * @author : Same
@@ -40,9 +42,9 @@ import java.util.random.RandomGenerator;
 @Slf4j
 public class OrderUtil {
 
-    private static final RandomGenerator random = RandomGenerator.getDefault();
     private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final String CANCEL_KEY = "orderHashes";
+    private static final String METRICS_OPERATION = "OrderUtil";
 
     /**
      * serialize Maker or Taker orders into hex strings
@@ -98,6 +100,7 @@ public class OrderUtil {
                                             BigInteger expiration,
                                             String creator,
                                             int orderFlags) {
+        long startNanos = PerpMetrics.start();
         StringBuilder sb = new StringBuilder();
         sb.append("{\n");
         sb.append("\"market\":\"").append(symbol).append("\",\n");
@@ -116,7 +119,9 @@ public class OrderUtil {
         sb.append("\"domain\":\"dipcoin.io\"\n");
         sb.append("}");
 
-        return sb.toString();
+        String serialized = sb.toString();
+        PerpMetrics.record(METRICS_OPERATION, LatencyPhase.SERIALIZE, startNanos);
+        return serialized;
     }
 
     /**
@@ -159,23 +164,39 @@ public class OrderUtil {
      * @return
      */
     public static String getSignature(String msg, SuiKeyPair suiKeyPair) {
+        SignatureEvent event = new SignatureEvent();
+        event.begin();
+        long startNanos = PerpMetrics.start();
+        byte[] msgBytes = msg.getBytes(StandardCharsets.UTF_8);
         try {
-            return OrderUtil.getMessageSignature(msg.getBytes(StandardCharsets.UTF_8), suiKeyPair) + Base64.toBase64String(suiKeyPair.publicKeyBytes());
+            return OrderUtil.getMessageSignature(msgBytes, suiKeyPair) + Base64.toBase64String(suiKeyPair.publicKeyBytes());
         } catch (IOException e) {
             throw new SigningException("Failed to generate signature", e);
+        } finally {
+            PerpMetrics.record(METRICS_OPERATION, LatencyPhase.SIGN, startNanos);
+            event.end();
+            if (event.shouldCommit()) {
+                event.scheme = suiKeyPair.signatureScheme().name();
+                event.messageBytes = msgBytes.length;
+                event.commit();
+            }
         }
     }
 
     /**
-     * get random salt
+     * get random salt, 8 bytes from the SaltGenerator
      * @return
      */
     public static byte[] getSalt() {
-        long salt = System.currentTimeMillis() +
-                getRandomInt(0, 1_000_000) +
-                getRandomInt(0, 1_000_000) +
-                getRandomInt(0, 1_000_000);
-        return longToBytes(salt);
+        return SaltGenerator.nextSalt(Long.BYTES);
+    }
+
+    /**
+     * next order salt, unique across threads and across nodes with distinct SaltConfig node ids
+     * @return decimal salt for PlaceOrderRequest.setSalt
+     */
+    public static String nextOrderSalt() {
+        return Long.toString(SaltGenerator.nextOrderSalt());
     }
 
     /**
@@ -196,17 +217,4 @@ public class OrderUtil {
         }
         throw new IllegalArgumentException("Unsupported signature scheme: " + signatureScheme);
     }
-
-    private static byte[] longToBytes(long value) {
-        byte[] result = new byte[8];
-        for (int i = 7; i >= 0; i--) {
-            result[i] = (byte) (value & 0xFF);
-            value >>= 8;
-        }
-        return result;
-    }
-
-    private static int getRandomInt(int min, int max) {
-        return random.nextInt(min, max + 1);
-    }
 }
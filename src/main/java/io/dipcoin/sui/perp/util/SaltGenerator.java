@@ -0,0 +1,143 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.util;
+
+import io.dipcoin.sui.perp.config.SaltConfig;
+import io.dipcoin.sui.perp.enums.SaltMode;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/14 14:10
+ * @Description : salt / nonce generator shared by the on-chain clients and OrderUtil.
+ * SECURE_RANDOM draws from a striped pool of SecureRandom instances, COUNTER lays out
+ * [instance bytes][16 bit node id][48 bit sequence] and never repeats within a node.
+ * order salts come from an OrderSaltAllocator of the same node id
+ */
+public class SaltGenerator {
+
+    /**
+     * salt length of the on-chain calls
+     */
+    public static final int SALT_LENGTH = 32;
+
+    private static final int SEQUENCE_BITS = 48;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final int MAX_NODE_ID = 0xFFFF;
+
+    private static volatile Generator generator = new Generator(new SaltConfig(), null);
+
+    /**
+     * set salt generation options, applies to salts generated afterwards
+     * @param config
+     */
+    public static synchronized void setConfig(SaltConfig config) {
+        generator = new Generator(config, generator.allocator);
+    }
+
+    /**
+     * 32 byte salt for on-chain calls
+     * @return
+     */
+    public static byte[] nextSalt() {
+        return generator.next(SALT_LENGTH);
+    }
+
+    /**
+     * salt of the given length, at least 8 bytes
+     * @param length
+     * @return
+     */
+    public static byte[] nextSalt(int length) {
+        if (length < Long.BYTES) {
+            throw new IllegalArgumentException("Salt length must be at least " + Long.BYTES + " bytes");
+        }
+        return generator.next(length);
+    }
+
+    /**
+     * order salt from the OrderSaltAllocator of the configured node id
+     * @return
+     */
+    public static long nextOrderSalt() {
+        return generator.allocator.next();
+    }
+
+    private static final class Generator {
+
+        private final SaltMode mode;
+
+        private final SecureRandom[] pool;
+
+        /**
+         * random bytes of this process, filling the COUNTER salt ahead of node id and sequence
+         */
+        private final byte[] instance = new byte[SALT_LENGTH];
+
+        private final long nodeBits;
+
+        private final OrderSaltAllocator allocator;
+
+        /**
+         * starts at the current microsecond so a restarted process keeps moving forward
+         */
+        private final AtomicLong sequence = new AtomicLong(TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis()));
+
+        /**
+         * @param config
+         * @param allocator allocator of the previous config, kept while the node id stays the same so its
+         *                  sequences carry on
+         */
+        private Generator(SaltConfig config, OrderSaltAllocator allocator) {
+            this.mode = config.getMode();
+            this.pool = new SecureRandom[Math.max(1, config.getPoolSize())];
+            for (int i = 0; i < pool.length; i++) {
+                pool[i] = new SecureRandom();
+            }
+            pool[0].nextBytes(instance);
+            int nodeId = config.getNodeId() == null ? pool[0].nextInt(MAX_NODE_ID + 1) : config.getNodeId();
+            if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+                throw new IllegalArgumentException("Salt node id must be within 0 - " + MAX_NODE_ID);
+            }
+            this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+            this.allocator = allocator != null && allocator.getNodeId() == nodeId ? allocator : new OrderSaltAllocator(nodeId);
+        }
+
+        private byte[] next(int length) {
+            byte[] salt = new byte[length];
+            if (mode == SaltMode.COUNTER) {
+                int prefix = length - Long.BYTES;
+                for (int i = 0; i < prefix; i++) {
+                    salt[i] = instance[i % instance.length];
+                }
+                long value = nodeBits | (sequence.getAndIncrement() & SEQUENCE_MASK);
+                for (int i = length - 1; i >= prefix; i--) {
+                    salt[i] = (byte) value;
+                    value >>>= 8;
+                }
+            } else {
+                pool[(int) (Thread.currentThread().threadId() % pool.length)].nextBytes(salt);
+            }
+            return salt;
+        }
+
+    }
+
+}
@@ -79,7 +79,7 @@ public class PerpHttpClientTest {
                 .setOrderType(OrderType.LIMIT.getCode())
                 // leverage 1x (18 decimals)
                 .setLeverage(DecimalUtil.toBaseUnit(BigInteger.ONE))
-                .setSalt(String.valueOf(System.currentTimeMillis()))
+                .setSalt(OrderUtil.nextOrderSalt())
                 .setCreator(perpClient.getMainAddress())
                 .setOrderSignature(OrderUtil.getSignature(OrderUtil.getSerializedOrder(request), perpClient.getSubAccount()));
 
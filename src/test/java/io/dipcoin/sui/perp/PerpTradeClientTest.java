@@ -83,7 +83,7 @@ public class PerpTradeClientTest {
                 .setOrderType(OrderType.LIMIT.getCode())
                 // leverage 1x (18 decimals)
                 .setLeverage(DecimalUtil.toBaseUnit(BigInteger.ONE))
-                .setSalt(String.valueOf(System.currentTimeMillis()))
+                .setSalt(OrderUtil.nextOrderSalt())
                 .setCreator(mainAddress)
                 .setOrderSignature(OrderUtil.getSignature(OrderUtil.getSerializedOrder(request), subAccountKeyPair));
 
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.analytics;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dipcoin.sui.perp.enums.OrderSide;
+import io.dipcoin.sui.perp.model.ApiResponse;
+import io.dipcoin.sui.perp.model.PageResponse;
+import io.dipcoin.sui.perp.model.compact.CompactHistoryOrder;
+import io.dipcoin.sui.perp.model.response.FundingSettlementsResponse;
+import io.dipcoin.sui.perp.model.response.HistoryOrdersResponse;
+import io.dipcoin.sui.perp.model.response.PositionResponse;
+import io.dipcoin.sui.perp.util.DecimalUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/22 10:00
+ * @Description : pnl engine test
+ */
+public class PnlEngineTest {
+
+    private static final String ACCOUNT = "0xabababababababababababababababababababababababababababababababab";
+
+    private ObjectMapper objectMapper;
+
+    private PnlEngine engine;
+
+    @BeforeEach
+    protected void setUp() {
+        this.objectMapper = new ObjectMapper();
+        this.engine = new PnlEngine();
+    }
+
+    @Test
+    void testAggregatesMatchHistory() throws IOException {
+        List<HistoryOrdersResponse> orders = this.read("history-orders.json", new TypeReference<ApiResponse<PageResponse<HistoryOrdersResponse>>>() {}).getData().getData();
+        List<FundingSettlementsResponse> settlements = this.read("funding-settlements.json", new TypeReference<ApiResponse<PageResponse<FundingSettlementsResponse>>>() {}).getData().getData();
+        orders.forEach(engine::onOrder);
+        settlements.forEach(engine::onFunding);
+
+        // every order of the fixture counts, partially filled ones included
+        PnlSnapshot eth = engine.snapshot(ACCOUNT, "ETH-PERP");
+        assertThat(eth.fills()).isEqualTo(orders.stream().filter(order -> new BigInteger(order.getFilledQuantity()).signum() > 0).count());
+        assertThat(DecimalUtil.fromFixed(eth.realizedPnl())).isEqualByComparingTo(sum(orders.stream().map(HistoryOrdersResponse::getRealizedPnl)));
+        assertThat(DecimalUtil.fromFixed(eth.fees())).isEqualByComparingTo(sum(orders.stream().map(HistoryOrdersResponse::getFilledFee)));
+        assertThat(DecimalUtil.fromFixed(eth.funding())).isEqualByComparingTo(sum(settlements.stream()
+                .filter(settlement -> "ETH-PERP".equals(settlement.getSymbol()))
+                .map(FundingSettlementsResponse::getSettlementAmount)));
+
+        PnlSnapshot total = engine.total(ACCOUNT);
+        assertThat(total.fundingSettlements()).isEqualTo(settlements.size());
+        assertThat(total.netPnl()).isEqualTo(engine.snapshots(ACCOUNT).stream().mapToLong(PnlSnapshot::netPnl).sum());
+
+        // orders fed again change nothing
+        orders.forEach(engine::onOrder);
+        assertThat(engine.snapshot(ACCOUNT, "ETH-PERP")).isEqualTo(eth);
+    }
+
+    @Test
+    void testOrderUpdatesAddTheirDifference() {
+        engine.onOrder(order(1L, "PARTIALLY_FILLED", "100000000000000000", "2000000000000000000", "10000000000000000", 100L));
+        engine.onOrder(order(1L, "FILLED", "300000000000000000", "5000000000000000000", "30000000000000000", 200L));
+        // an update arriving late does not roll the order back
+        engine.onOrder(order(1L, "PARTIALLY_FILLED", "100000000000000000", "2000000000000000000", "10000000000000000", 100L));
+        engine.onOrder(order(2L, "OPEN", "0", "0", "0", 150L));
+
+        PnlSnapshot snapshot = engine.snapshot(ACCOUNT, "BTC-PERP");
+        assertThat(snapshot.fills()).isEqualTo(1L);
+        assertThat(DecimalUtil.fromFixed(snapshot.realizedPnl())).isEqualByComparingTo("5");
+        assertThat(DecimalUtil.fromFixed(snapshot.fees())).isEqualByComparingTo("0.03");
+        assertThat(snapshot.updatedAt()).isEqualTo(200L);
+    }
+
+    @Test
+    void testClosedOrdersDropTheirState() {
+        PnlEngine compacting = new PnlEngine(2);
+        compacting.onOrder(order(1L, "PARTIALLY_FILLED", "100000000000000000", "1000000000000000000", "0", 100L));
+        compacting.onOrder(order(1L, "FILLED", "200000000000000000", "2000000000000000000", "0", 150L));
+        compacting.onOrder(order(2L, "CANCELLED", "0", "0", "0", 200L));
+        compacting.onOrder(order(3L, "FILLED", "100000000000000000", "3000000000000000000", "0", 300L));
+        PnlSnapshot snapshot = compacting.snapshot(ACCOUNT, "BTC-PERP");
+        assertThat(snapshot.fills()).isEqualTo(2L);
+        assertThat(DecimalUtil.fromFixed(snapshot.realizedPnl())).isEqualByComparingTo("5");
+
+        // order 1 is forgotten, its updates are no newer than its close; 2 and 3 are remembered
+        compacting.onOrder(order(1L, "PARTIALLY_FILLED", "100000000000000000", "1000000000000000000", "0", 100L));
+        compacting.onOrder(order(1L, "FILLED", "200000000000000000", "2000000000000000000", "0", 150L));
+        compacting.onOrder(order(3L, "FILLED", "100000000000000000", "3000000000000000000", "0", 300L));
+        assertThat(compacting.snapshot(ACCOUNT, "BTC-PERP")).isEqualTo(snapshot);
+
+        compacting.onOrder(order(4L, "OPEN", "0", "0", "0", 400L));
+        compacting.onOrder(order(4L, "FILLED", "100000000000000000", "1000000000000000000", "0", 500L));
+        assertThat(compacting.snapshot(ACCOUNT, "BTC-PERP").fills()).isEqualTo(3L);
+    }
+
+    @Test
+    void testCompactOrdersCountLikeStringOrders() throws IOException {
+        List<CompactHistoryOrder> orders = this.read("history-orders.json", new TypeReference<ApiResponse<PageResponse<CompactHistoryOrder>>>() {}).getData().getData();
+        PnlEngine stringEngine = new PnlEngine();
+        this.read("history-orders.json", new TypeReference<ApiResponse<PageResponse<HistoryOrdersResponse>>>() {}).getData().getData()
+                .forEach(stringEngine::onOrder);
+        orders.forEach(engine::onOrder);
+
+        assertThat(engine.snapshots(ACCOUNT)).containsExactlyInAnyOrderElementsOf(stringEngine.snapshots(ACCOUNT));
+    }
+
+    @Test
+    void testPositionsReplacedAndClosedOnesFlattened() throws IOException {
+        List<PositionResponse> positions = this.read("positions.json", new TypeReference<ApiResponse<List<PositionResponse>>>() {}).getData();
+        engine.onPositions(ACCOUNT, positions);
+
+        PositionResponse first = positions.getFirst();
+        PnlSnapshot snapshot = engine.snapshot(ACCOUNT, first.getSymbol());
+        assertThat(snapshot.margin()).isEqualTo(DecimalUtil.baseUnitToFixed(first.getMargin()));
+        assertThat(snapshot.unrealizedPnl()).isEqualTo(DecimalUtil.baseUnitToFixed(first.getUnrealizedProfit()));
+        assertThat(snapshot.side()).isEqualTo(OrderSide.fromCode(first.getSide()));
+        assertThat(snapshot.roe()).isEqualTo(DecimalUtil.toFixed(DecimalUtil.fromFixed(snapshot.unrealizedPnl())
+                .divide(DecimalUtil.fromFixed(snapshot.margin()), 9, RoundingMode.DOWN)));
+
+        // quantities of different symbols do not add up
+        assertThat(engine.total(ACCOUNT).quantity()).isZero();
+        assertThat(engine.total(ACCOUNT).margin()).isEqualTo(engine.snapshots(ACCOUNT).stream().mapToLong(PnlSnapshot::margin).sum());
+
+        engine.onPositions(ACCOUNT, positions.subList(1, positions.size()));
+        PnlSnapshot closed = engine.snapshot(ACCOUNT, first.getSymbol());
+        assertThat(closed.margin()).isZero();
+        assertThat(closed.side()).isNull();
+        assertThat(closed.roe()).isEqualTo(DecimalUtil.NULL_FIXED);
+    }
+
+    /**
+     * sum of 18-digit base unit strings, each truncated to the 9 digits the engine keeps
+     */
+    private static BigDecimal sum(Stream<String> baseUnits) {
+        return baseUnits.map(value -> new BigDecimal(value).movePointLeft(18).setScale(9, RoundingMode.DOWN))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static HistoryOrdersResponse order(long id, String status, String filledQuantity, String realizedPnl, String filledFee, long updatedAt) {
+        HistoryOrdersResponse order = new HistoryOrdersResponse();
+        order.setId(id);
+        order.setCreator(ACCOUNT);
+        order.setSymbol("BTC-PERP");
+        order.setOrderStatus(status);
+        order.setFilledQuantity(filledQuantity);
+        order.setRealizedPnl(realizedPnl);
+        order.setFilledFee(filledFee);
+        order.setUpdatedAt(updatedAt);
+        return order;
+    }
+
+    private <T> T read(String fixture, TypeReference<T> type) throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/fixtures/" + fixture)) {
+            return objectMapper.readValue(in, type);
+        }
+    }
+
+}
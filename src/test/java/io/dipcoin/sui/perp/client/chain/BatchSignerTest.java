@@ -0,0 +1,87 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.perp.wallet.InMemoryWalletService;
+import io.dipcoin.sui.perp.wallet.WalletKey;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/17 15:30
+ * @Description : batch signer test
+ */
+public class BatchSignerTest {
+
+    @Test
+    void testRequestsCoalesced() {
+        InMemoryWalletService wallet = new InMemoryWalletService(Duration.ofMillis(30), WalletKey.mainKeyPair, WalletKey.subKeyPair);
+        BatchSigner batchSigner = new BatchSigner(wallet, 16);
+
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            String address = i % 2 == 0 ? WalletKey.mainKeyPair.address() : WalletKey.subKeyPair.address();
+            futures.add(batchSigner.sign(address, ("tx" + i).getBytes(StandardCharsets.UTF_8)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        assertThat(wallet.signatures()).isEqualTo(40);
+        // at least ceil(40 / 16) batches, far fewer than one call per transaction
+        assertThat(wallet.calls()).isBetween(3, 10);
+        assertThat(futures.get(0).join()).isNotEqualTo(futures.get(2).join());
+    }
+
+    @Test
+    void testBatchFailure() {
+        BatchSigner batchSigner = new BatchSigner(new InMemoryWalletService(Duration.ZERO), 16);
+
+        assertThatThrownBy(() -> batchSigner.sign("0x789", new byte[]{1}).join())
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testWalletErrorFailsWholeBatch() {
+        WalletService wallet = new WalletService() {
+
+            @Override
+            public String sign(String address, byte[] txData) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public List<String> signBatch(List<SignRequest> requests) {
+                throw new AssertionError("wallet offline");
+            }
+
+        };
+        BatchSigner batchSigner = new BatchSigner(wallet, 16);
+
+        CompletableFuture<String> first = batchSigner.sign("0x1", new byte[]{1});
+        CompletableFuture<String> second = batchSigner.sign("0x2", new byte[]{2});
+        assertThatThrownBy(() -> first.orTimeout(5, TimeUnit.SECONDS).join()).hasCauseInstanceOf(AssertionError.class);
+        assertThatThrownBy(() -> second.orTimeout(5, TimeUnit.SECONDS).join()).hasCauseInstanceOf(AssertionError.class);
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.client.QueryBuilder;
+import io.dipcoin.sui.model.coin.Coin;
+import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
+import io.dipcoin.sui.perp.enums.PerpNetwork;
+import io.dipcoin.sui.perp.exception.PerpOnChainException;
+import io.dipcoin.sui.protocol.SuiClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/12 15:10
+ * @Description : coin inventory test
+ */
+public class CoinInventoryTest {
+
+    private static final String COIN_TYPE = "0x2::coin::COIN";
+
+    private MockedStatic<QueryBuilder> queryBuilder;
+
+    private CoinInventory coinInventory;
+
+    private String owner;
+
+    @BeforeEach
+    protected void setUp() {
+        this.owner = "0x" + UUID.randomUUID().toString().replace("-", "");
+        this.queryBuilder = mockStatic(QueryBuilder.class);
+        List<Coin> coins = List.of(coin("0xa", 100L), coin("0xb", 40L), coin("0xc", 30L), coin("0xd", 5L));
+        queryBuilder.when(() -> QueryBuilder.getCoins(any(), eq(owner), eq(COIN_TYPE))).thenReturn(coins);
+        this.coinInventory = CoinInventory.of(PerpNetwork.TESTNET.getConfig(), mock(SuiClient.class), owner, COIN_TYPE);
+    }
+
+    @AfterEach
+    protected void tearDown() {
+        queryBuilder.close();
+    }
+
+    @Test
+    void testMinimalInputSelection() {
+        // smallest single coin covering the amount
+        CoinSelection single = coinInventory.select(BigInteger.valueOf(35L));
+        assertThat(single.coins()).extracting(ref -> ref.getObjectId()).containsExactly("0xb");
+
+        // otherwise the largest coins first, 0xb is still reserved by the first selection
+        CoinSelection merged = coinInventory.select(BigInteger.valueOf(120L));
+        assertThat(merged.coins()).extracting(ref -> ref.getObjectId()).containsExactly("0xa", "0xc");
+        assertThat(merged.total()).isEqualTo(BigInteger.valueOf(130L));
+
+        assertThatThrownBy(() -> coinInventory.select(BigInteger.valueOf(10L)))
+                .isInstanceOf(PerpOnChainException.class);
+    }
+
+    @Test
+    void testCommitKeepsRemainder() {
+        // 0xa + 0xb merged, 20 left on 0xa
+        CoinSelection selection = coinInventory.select(BigInteger.valueOf(120L));
+        coinInventory.commit(selection, BigInteger.valueOf(120L), response("0xa", 7L));
+
+        CoinSelection next = coinInventory.select(BigInteger.valueOf(10L));
+        assertThat(next.primary().getObjectId()).isEqualTo("0xa");
+        assertThat(next.primary().getVersion()).isEqualTo(7L);
+        assertThat(next.total()).isEqualTo(BigInteger.valueOf(20L));
+        queryBuilder.verify(() -> QueryBuilder.getCoins(any(), eq(owner), eq(COIN_TYPE)), times(1));
+    }
+
+    @Test
+    void testCommitNotBlockedByCoinQuery() {
+        CoinSelection selection = coinInventory.select(BigInteger.valueOf(120L));
+        coinInventory.invalidate();
+
+        SuiTransactionBlockResponse committed = response("0xa", 7L);
+        AtomicBoolean committedDuringQuery = new AtomicBoolean();
+        queryBuilder.when(() -> QueryBuilder.getCoins(any(), eq(owner), eq(COIN_TYPE))).thenAnswer(invocation -> {
+            Thread commit = Thread.ofVirtual().start(() -> coinInventory.commit(selection, BigInteger.valueOf(120L), committed));
+            commit.join(1_000L);
+            committedDuringQuery.set(!commit.isAlive());
+            // the query still reports the coins as they were before the transaction
+            return List.of(coin("0xa", 100L), coin("0xb", 40L), coin("0xc", 30L));
+        });
+
+        CoinSelection next = coinInventory.select(BigInteger.valueOf(15L));
+        assertThat(committedDuringQuery).isTrue();
+        assertThat(next.primary().getObjectId()).isEqualTo("0xa");
+        assertThat(next.primary().getVersion()).isEqualTo(7L);
+        assertThat(next.total()).isEqualTo(BigInteger.valueOf(20L));
+    }
+
+    private static Coin coin(String objectId, long balance) {
+        Coin coin = mock(Coin.class);
+        when(coin.getCoinObjectId()).thenReturn(objectId);
+        when(coin.getVersion()).thenReturn(1L);
+        when(coin.getDigest()).thenReturn("digest");
+        when(coin.getBalance()).thenReturn(BigInteger.valueOf(balance));
+        return coin;
+    }
+
+    private static SuiTransactionBlockResponse response(String objectId, long version) {
+        SuiTransactionBlockResponse response = mock(SuiTransactionBlockResponse.class, RETURNS_DEEP_STUBS);
+        // the gas object stub doubles as the mutated coin reference
+        var owned = response.getEffects().getGasObject();
+        when(owned.getReference().getObjectId()).thenReturn(objectId);
+        when(owned.getReference().getVersion()).thenReturn(version);
+        when(owned.getReference().getDigest()).thenReturn("digest" + version);
+        when(response.getEffects().getMutated()).thenReturn(List.of(owned));
+        when(response.getEffects().getStatus().getStatus()).thenReturn("success");
+        return response;
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.client.QueryBuilder;
+import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
+import io.dipcoin.sui.model.transaction.TransactionBlockEffects;
+import io.dipcoin.sui.perp.config.ConfirmationConfig;
+import io.dipcoin.sui.perp.exception.PerpRpcFailedException;
+import io.dipcoin.sui.protocol.SuiClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/18 11:00
+ * @Description : confirmation tracker test
+ */
+public class ConfirmationTrackerTest {
+
+    private MockedStatic<QueryBuilder> queryBuilder;
+
+    private ScheduledExecutorService scheduler;
+
+    private List<String> executed;
+
+    @BeforeEach
+    protected void setUp() {
+        executed = new ArrayList<>();
+        scheduler = mock(ScheduledExecutorService.class);
+        queryBuilder = mockStatic(QueryBuilder.class);
+        queryBuilder.when(() -> QueryBuilder.multiGetTransactionBlocks(any(), anyList())).thenAnswer(invocation -> {
+            List<String> digests = invocation.getArgument(1);
+            List<SuiTransactionBlockResponse> responses = new ArrayList<>();
+            for (String digest : digests) {
+                responses.add(executed.contains(digest) ? executedResponse(digest) : null);
+            }
+            return responses;
+        });
+    }
+
+    @AfterEach
+    protected void tearDown() {
+        queryBuilder.close();
+    }
+
+    @Test
+    public void testConfirmsInBatchesAndNotifiesListeners() {
+        ConfirmationTracker tracker = new ConfirmationTracker(mock(SuiClient.class), new ConfirmationConfig().setBatchSize(2), scheduler);
+        List<String> notified = new ArrayList<>();
+        CompletableFuture<SuiTransactionBlockResponse> first = tracker.track("d1", response -> notified.add(response.getDigest()));
+        CompletableFuture<SuiTransactionBlockResponse> second = tracker.track("d2");
+        CompletableFuture<SuiTransactionBlockResponse> third = tracker.track("d3");
+        // one poll scheduled for all digests tracked meanwhile
+        verify(scheduler).schedule(any(Runnable.class), eq(50L), any());
+
+        executed.addAll(List.of("d1", "d3"));
+        assertThat(tracker.poll()).isEqualTo(50L);
+
+        assertThat(notified).containsExactly("d1");
+        assertThat(first).isCompleted();
+        assertThat(second).isNotDone();
+        assertThat(third.join().getDigest()).isEqualTo("d3");
+        assertThat(tracker.pendingCount()).isEqualTo(1);
+        queryBuilder.verify(() -> QueryBuilder.multiGetTransactionBlocks(any(), anyList()), times(2));
+    }
+
+    @Test
+    public void testBacksOffWhileNothingConfirms() {
+        ConfirmationTracker tracker = new ConfirmationTracker(mock(SuiClient.class),
+                new ConfirmationConfig().setMinIntervalMillis(100L).setMaxIntervalMillis(300L), scheduler);
+        tracker.track("d1");
+
+        assertThat(tracker.poll()).isEqualTo(200L);
+        assertThat(tracker.poll()).isEqualTo(300L);
+        assertThat(tracker.poll()).isEqualTo(300L);
+
+        executed.add("d1");
+        assertThat(tracker.poll()).isEqualTo(100L);
+        assertThat(tracker.pendingCount()).isZero();
+    }
+
+    @Test
+    public void testTimedOutDigestNotifiesWithoutEffects() {
+        ConfirmationTracker tracker = new ConfirmationTracker(mock(SuiClient.class),
+                new ConfirmationConfig().setTimeoutMillis(-1L), scheduler);
+        List<SuiTransactionBlockResponse> notified = new ArrayList<>();
+        CompletableFuture<SuiTransactionBlockResponse> future = tracker.track("d1", notified::add);
+
+        tracker.poll();
+
+        assertThat(notified).containsExactly((SuiTransactionBlockResponse) null);
+        assertThat(future).isCompletedExceptionally();
+        assertThatThrownBy(future::join).hasCauseInstanceOf(PerpRpcFailedException.class);
+        verify(scheduler).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    private static SuiTransactionBlockResponse executedResponse(String digest) {
+        SuiTransactionBlockResponse response = mock(SuiTransactionBlockResponse.class);
+        when(response.getDigest()).thenReturn(digest);
+        when(response.getEffects()).thenReturn(mock(TransactionBlockEffects.class));
+        return response;
+    }
+
+}
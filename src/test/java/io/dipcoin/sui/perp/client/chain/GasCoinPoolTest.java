@@ -0,0 +1,164 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.client.QueryBuilder;
+import io.dipcoin.sui.model.coin.Coin;
+import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
+import io.dipcoin.sui.perp.config.GasPoolConfig;
+import io.dipcoin.sui.perp.enums.PerpNetwork;
+import io.dipcoin.sui.protocol.SuiClient;
+import io.dipcoin.sui.protocol.constant.SuiSystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/11 15:30
+ * @Description : gas coin pool test
+ */
+public class GasCoinPoolTest {
+
+    private static final BigInteger BUDGET = BigInteger.valueOf(50_000_000L);
+
+    private MockedStatic<QueryBuilder> queryBuilder;
+
+    private GasCoinPool gasCoinPool;
+
+    private String owner;
+
+    @BeforeEach
+    protected void setUp() {
+        this.owner = "0x" + UUID.randomUUID().toString().replace("-", "");
+        this.queryBuilder = mockStatic(QueryBuilder.class);
+        List<Coin> coins = new ArrayList<>(List.of(
+                coin("0xa", 1_000_000_000L),
+                coin("0xb", 60_000_000L),
+                coin("0xc", 5_000_000L)));
+        queryBuilder.when(() -> QueryBuilder.getCoins(any(), eq(owner), eq(SuiSystem.SUI_COIN_TYPE))).thenReturn(coins);
+        this.gasCoinPool = GasCoinPool.of(PerpNetwork.TESTNET.getConfig(), mock(SuiClient.class), owner,
+                new GasPoolConfig().setLeaseTimeoutMillis(100L));
+    }
+
+    @AfterEach
+    protected void tearDown() {
+        queryBuilder.close();
+    }
+
+    @Test
+    void testLeaseDistinctCoins() {
+        GasLease first = gasCoinPool.lease(BUDGET);
+        GasLease second = gasCoinPool.lease(BUDGET);
+
+        // smallest coin covering the budget goes first
+        assertThat(first.gasCoin().getObjectId()).isEqualTo("0xb");
+        assertThat(second.gasCoin().getObjectId()).isEqualTo("0xa");
+        assertThatThrownBy(() -> gasCoinPool.lease(BUDGET))
+                .hasMessageContaining("Timed out");
+    }
+
+    @Test
+    void testReleaseAdvancesVersion() {
+        GasLease lease = gasCoinPool.lease(BUDGET);
+        gasCoinPool.release(lease, response(lease.gasCoin().getObjectId(), 2L, 1_000_000L));
+
+        GasLease next = gasCoinPool.lease(BUDGET);
+        assertThat(next.gasCoin().getObjectId()).isEqualTo("0xb");
+        assertThat(next.gasCoin().getVersion()).isEqualTo(2L);
+        assertThat(next.balance()).isEqualTo(BigInteger.valueOf(59_000_000L));
+        queryBuilder.verify(() -> QueryBuilder.getCoins(any(), eq(owner), eq(SuiSystem.SUI_COIN_TYPE)), times(1));
+    }
+
+    @Test
+    void testReleaseWithoutEffectsRequeries() {
+        GasLease lease = gasCoinPool.lease(BUDGET);
+        gasCoinPool.release(lease, null);
+        gasCoinPool.lease(BUDGET);
+
+        queryBuilder.verify(() -> QueryBuilder.getCoins(any(), eq(owner), eq(SuiSystem.SUI_COIN_TYPE)), times(2));
+    }
+
+    @Test
+    void testAbandonedCoinReturnsWithoutRequery() {
+        GasLease lease = gasCoinPool.lease(BUDGET);
+        gasCoinPool.abandon(lease);
+
+        GasLease next = gasCoinPool.lease(BUDGET);
+        assertThat(next.gasCoin()).isEqualTo(lease.gasCoin());
+        queryBuilder.verify(() -> QueryBuilder.getCoins(any(), eq(owner), eq(SuiSystem.SUI_COIN_TYPE)), times(1));
+    }
+
+    @Test
+    void testReleaseNotBlockedByCoinQuery() {
+        GasLease first = gasCoinPool.lease(BUDGET);
+        GasLease second = gasCoinPool.lease(BUDGET);
+        gasCoinPool.release(first, null);
+
+        SuiTransactionBlockResponse settled = response(second.gasCoin().getObjectId(), 2L, 1_000_000L);
+        AtomicBoolean releasedDuringQuery = new AtomicBoolean();
+        queryBuilder.when(() -> QueryBuilder.getCoins(any(), eq(owner), eq(SuiSystem.SUI_COIN_TYPE))).thenAnswer(invocation -> {
+            Thread release = Thread.ofVirtual().start(() -> gasCoinPool.release(second, settled));
+            release.join(1_000L);
+            releasedDuringQuery.set(!release.isAlive());
+            // the query still reports the version the coin had before its transaction
+            return List.of(coin("0xa", 1_000_000_000L), coin("0xb", 60_000_000L));
+        });
+
+        assertThat(gasCoinPool.lease(BUDGET).gasCoin().getObjectId()).isEqualTo("0xb");
+        assertThat(releasedDuringQuery).isTrue();
+        GasLease next = gasCoinPool.lease(BUDGET);
+        assertThat(next.gasCoin().getObjectId()).isEqualTo("0xa");
+        assertThat(next.gasCoin().getVersion()).isEqualTo(2L);
+    }
+
+    private static Coin coin(String objectId, long balance) {
+        Coin coin = mock(Coin.class);
+        when(coin.getCoinObjectId()).thenReturn(objectId);
+        when(coin.getVersion()).thenReturn(1L);
+        when(coin.getDigest()).thenReturn("digest");
+        when(coin.getBalance()).thenReturn(BigInteger.valueOf(balance));
+        return coin;
+    }
+
+    private static SuiTransactionBlockResponse response(String gasObjectId, long version, long gasUsed) {
+        SuiTransactionBlockResponse response = mock(SuiTransactionBlockResponse.class, RETURNS_DEEP_STUBS);
+        when(response.getEffects().getGasObject().getReference().getObjectId()).thenReturn(gasObjectId);
+        when(response.getEffects().getGasObject().getReference().getVersion()).thenReturn(version);
+        when(response.getEffects().getGasObject().getReference().getDigest()).thenReturn("digest" + version);
+        when(response.getEffects().getGasUsed().getComputationCost()).thenReturn(BigInteger.valueOf(gasUsed));
+        when(response.getEffects().getGasUsed().getStorageCost()).thenReturn(BigInteger.ZERO);
+        when(response.getEffects().getGasUsed().getStorageRebate()).thenReturn(BigInteger.ZERO);
+        return response;
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
+import io.dipcoin.sui.perp.enums.PerpFunction;
+import io.dipcoin.sui.protocol.SuiClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/13 11:20
+ * @Description : gas oracle test
+ */
+public class GasOracleTest {
+
+    private SuiClient suiClient;
+
+    private GasOracle gasOracle;
+
+    @BeforeEach
+    protected void setUp() {
+        this.suiClient = mock(SuiClient.class);
+        when(suiClient.getReferenceGasPrice()).thenReturn(750L, 1_000L);
+        this.gasOracle = new GasOracle(suiClient);
+    }
+
+    @Test
+    void testGasPriceCachedPerEpoch() {
+        assertThat(gasOracle.getReferenceGasPrice()).isEqualTo(750L);
+        assertThat(gasOracle.getReferenceGasPrice()).isEqualTo(750L);
+        verify(suiClient, times(1)).getReferenceGasPrice();
+
+        gasOracle.observe(PerpFunction.DEPOSIT, BigInteger.TEN, response("100", null, 1_000_000L, 2_000_000L));
+        assertThat(gasOracle.getReferenceGasPrice()).isEqualTo(1_000L);
+        assertThat(gasOracle.getReferenceGasPrice()).isEqualTo(1_000L);
+        verify(suiClient, times(2)).getReferenceGasPrice();
+    }
+
+    @Test
+    void testGasBudgetLearned() {
+        BigInteger initial = gasOracle.estimateGasBudget(PerpFunction.WITHDRAW);
+
+        gasOracle.observe(PerpFunction.WITHDRAW, initial, response("1", null, 3_000_000L, 7_000_000L));
+        assertThat(gasOracle.estimateGasBudget(PerpFunction.WITHDRAW)).isEqualTo(BigInteger.valueOf(13_000_000L));
+        assertThat(gasOracle.estimateGasBudget(PerpFunction.DEPOSIT)).isEqualTo(initial);
+
+        BigInteger budget = BigInteger.valueOf(4_000_000L);
+        gasOracle.observe(PerpFunction.ADD_MARGIN, budget, response("1", "InsufficientGas", 4_000_000L, 0L));
+        assertThat(gasOracle.estimateGasBudget(PerpFunction.ADD_MARGIN)).isGreaterThan(budget.shiftLeft(1));
+    }
+
+    private static SuiTransactionBlockResponse response(String epoch, String error, long computation, long storage) {
+        SuiTransactionBlockResponse response = mock(SuiTransactionBlockResponse.class, RETURNS_DEEP_STUBS);
+        when(response.getEffects().getExecutedEpoch()).thenReturn(epoch);
+        when(response.getEffects().getStatus().getError()).thenReturn(error);
+        when(response.getEffects().getGasUsed().getComputationCost()).thenReturn(BigInteger.valueOf(computation));
+        when(response.getEffects().getGasUsed().getStorageCost()).thenReturn(BigInteger.valueOf(storage));
+        return response;
+    }
+
+}
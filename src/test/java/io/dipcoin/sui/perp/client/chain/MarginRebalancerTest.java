@@ -0,0 +1,212 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.bcs.types.arg.call.CallArgObjectArg;
+import io.dipcoin.sui.bcs.types.transaction.ProgrammableTransaction;
+import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
+import io.dipcoin.sui.model.transaction.TransactionBlockEffects;
+import io.dipcoin.sui.perp.client.PerpMarketClient;
+import io.dipcoin.sui.perp.config.RebalanceConfig;
+import io.dipcoin.sui.perp.enums.PerpNetwork;
+import io.dipcoin.sui.perp.exception.PerpOnChainException;
+import io.dipcoin.sui.perp.model.response.PositionResponse;
+import io.dipcoin.sui.pyth.core.PythClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/19 15:00
+ * @Description : margin rebalancer test
+ */
+public class MarginRebalancerTest {
+
+    private static final String SUB_A = "0xa";
+
+    private static final String SUB_B = "0xb";
+
+    private static final String SUB_C = "0xc";
+
+    private static final String SIGNER = "0x5e";
+
+    private List<PerpTransactionComposer.ComposedTransaction> composed;
+
+    private List<CompletableFuture<SuiTransactionBlockResponse>> pending;
+
+    private List<PerpTransactionComposer> composers;
+
+    private ConfirmationTracker tracker;
+
+    private MarginRebalancer rebalancer;
+
+    @BeforeEach
+    protected void setUp() {
+        this.composed = new ArrayList<>();
+        this.pending = new ArrayList<>();
+        this.composers = new ArrayList<>();
+        this.tracker = mock(ConfirmationTracker.class);
+        AbstractOnChainClient client = mock(AbstractOnChainClient.class, CALLS_REAL_METHODS);
+        client.perpConfig = PerpNetwork.TESTNET.getConfig();
+        client.perpMarketClient = mock(PerpMarketClient.class);
+        when(client.perpMarketClient.getPythFeedId("BTC-PERP")).thenReturn("0xb7c0");
+        when(client.perpMarketClient.getPythFeedId("ETH-PERP")).thenReturn("0xe7c0");
+        client.pythClient = mock(PythClient.class);
+        when(client.pythClient.updatePrice(any(), any())).thenAnswer(invocation -> new ProgrammableTransaction());
+        // every feed is stale, each transaction has to push its own price update
+        PythUpdateCoordinator coordinator = new PythUpdateCoordinator();
+        coordinator.setFreshnessMillis(0L);
+        doReturn(coordinator).when(client).getPythUpdateCoordinator();
+        doReturn(mock(CallArgObjectArg.class)).when(client).getSharedInput(any());
+        doReturn(tracker).when(client).getConfirmationTracker();
+        doAnswer(invocation -> {
+            PerpTransactionComposer composer = spy((PerpTransactionComposer) invocation.callRealMethod());
+            composers.add(composer);
+            return composer;
+        }).when(client).compose();
+        RebalanceConfig config = new RebalanceConfig()
+                .setMaxCallsPerTransaction(2)
+                .setMaxConcurrency(2)
+                .setMinTransfer(BigInteger.TEN);
+        this.rebalancer = MarginRebalancer.of(client, config, composer -> {
+            composed.add(composer.build(SIGNER));
+            CompletableFuture<SuiTransactionBlockResponse> future = new CompletableFuture<>();
+            pending.add(future);
+            return future;
+        });
+    }
+
+    @Test
+    void testPlanTopsUpDeficitsOnly() {
+        MarginRebalancer.Plan plan = rebalancer.plan(List.of(
+                new MarginRebalancer.MarginTarget(SUB_A, "BTC-PERP", BigInteger.valueOf(1_000)),
+                new MarginRebalancer.MarginTarget(SUB_A, "ETH-PERP", BigInteger.valueOf(100)),
+                new MarginRebalancer.MarginTarget(SUB_B, "BTC-PERP", BigInteger.valueOf(505)),
+                new MarginRebalancer.MarginTarget(SUB_B, "ETH-PERP", BigInteger.valueOf(300)),
+                new MarginRebalancer.MarginTarget(SUB_B, "SUI-PERP", BigInteger.valueOf(300))
+        ), Map.of(
+                SUB_A, List.of(position("BTC-PERP", "400"), position("ETH-PERP", "250")),
+                SUB_B, List.of(position("BTC-PERP", "500"), position("ETH-PERP", "0"))
+        ), BigInteger.valueOf(10_000));
+
+        assertThat(plan.transfers()).extracting(MarginRebalancer.Transfer::amount)
+                .containsExactly(BigInteger.valueOf(600), BigInteger.valueOf(300));
+        assertThat(plan.total()).isEqualTo(BigInteger.valueOf(900));
+        assertThat(plan.surpluses()).singleElement().satisfies(surplus -> {
+            assertThat(surplus.symbol()).isEqualTo("ETH-PERP");
+            assertThat(surplus.amount()).isEqualTo(BigInteger.valueOf(150));
+        });
+        assertThat(plan.missing()).extracting(MarginRebalancer.MarginTarget::symbol).containsExactly("SUI-PERP");
+
+        assertThatThrownBy(() -> rebalancer.plan(List.of(new MarginRebalancer.MarginTarget(SUB_A, "BTC-PERP", BigInteger.valueOf(1_000))),
+                Map.of(SUB_A, List.of(position("BTC-PERP", "400"))), BigInteger.valueOf(599)))
+                .isInstanceOf(PerpOnChainException.class);
+    }
+
+    @Test
+    void testExecuteBatchesOneFeedPerTransaction() {
+        // largest first interleaves the two markets
+        MarginRebalancer.Plan plan = rebalancer.plan(List.of(
+                new MarginRebalancer.MarginTarget(SUB_A, "BTC-PERP", BigInteger.valueOf(600)),
+                new MarginRebalancer.MarginTarget(SUB_A, "ETH-PERP", BigInteger.valueOf(500)),
+                new MarginRebalancer.MarginTarget(SUB_B, "BTC-PERP", BigInteger.valueOf(400)),
+                new MarginRebalancer.MarginTarget(SUB_B, "ETH-PERP", BigInteger.valueOf(300)),
+                new MarginRebalancer.MarginTarget(SUB_C, "BTC-PERP", BigInteger.valueOf(200))
+        ), Map.of(
+                SUB_A, List.of(position("BTC-PERP", "0"), position("ETH-PERP", "0")),
+                SUB_B, List.of(position("BTC-PERP", "0"), position("ETH-PERP", "0")),
+                SUB_C, List.of(position("BTC-PERP", "0"))
+        ), null);
+
+        CompletableFuture<MarginRebalancer.Result> result = rebalancer.execute(plan);
+        assertThat(pending).hasSize(2);
+
+        pending.get(0).complete(response("success"));
+        assertThat(pending).hasSize(3);
+        pending.get(1).completeExceptionally(new IllegalStateException("boom"));
+        assertThat(result).isNotDone();
+        // submitted without effects, confirmed as aborted by the tracker
+        CompletableFuture<SuiTransactionBlockResponse> confirmation = new CompletableFuture<>();
+        when(tracker.track("0xd1")).thenReturn(confirmation);
+        SuiTransactionBlockResponse submitted = mock(SuiTransactionBlockResponse.class);
+        when(submitted.getDigest()).thenReturn("0xd1");
+        pending.get(2).complete(submitted);
+        assertThat(result).isNotDone();
+        confirmation.complete(response("failure"));
+
+        MarginRebalancer.Result done = result.join();
+        assertThat(done.batches()).hasSize(3).allSatisfy(batch -> assertThat(batch.transfers())
+                .extracting(MarginRebalancer.Transfer::symbol).containsOnly(batch.transfers().getFirst().symbol()));
+        assertThat(composed).allSatisfy(transaction -> assertThat(transaction.priceUpdate().feedIds()).hasSize(1));
+        assertThat(composed.getFirst().functions()).hasSize(2);
+        assertThat(done.batches()).extracting(MarginRebalancer.Batch::isSent).containsExactly(true, false, true);
+        assertThat(done.batches()).extracting(MarginRebalancer.Batch::isSucceeded).containsExactly(true, false, false);
+        assertThat(done.failed()).extracting(MarginRebalancer.Transfer::amount)
+                .containsExactly(BigInteger.valueOf(200), BigInteger.valueOf(500), BigInteger.valueOf(300));
+    }
+
+    @Test
+    void testAddMarginInCoinUnits() {
+        // 12.5 USDC and one wei short of the target
+        BigInteger target = new BigInteger("12500000000000000001");
+        MarginRebalancer.Plan plan = rebalancer.plan(List.of(new MarginRebalancer.MarginTarget(SUB_A, "BTC-PERP", target)),
+                Map.of(SUB_A, List.of(position("BTC-PERP", "0"))), null);
+        assertThat(plan.total()).isEqualTo(target);
+
+        rebalancer.execute(plan);
+        verify(composers.getFirst()).addMargin(SUB_A, "BTC-PERP", BigInteger.valueOf(12_500_001L));
+    }
+
+    @Test
+    void testEmptyPlanCompletesImmediately() {
+        MarginRebalancer.Plan plan = rebalancer.plan(List.of(), Map.of(), BigInteger.ZERO);
+        assertThat(plan.isEmpty()).isTrue();
+        assertThat(rebalancer.execute(plan).join().batches()).isEmpty();
+        assertThat(pending).isEmpty();
+    }
+
+    private static SuiTransactionBlockResponse response(String status) {
+        SuiTransactionBlockResponse response = mock(SuiTransactionBlockResponse.class);
+        TransactionBlockEffects effects = mock(TransactionBlockEffects.class, RETURNS_DEEP_STUBS);
+        when(effects.getStatus().getStatus()).thenReturn(status);
+        when(response.getEffects()).thenReturn(effects);
+        return response;
+    }
+
+    private static PositionResponse position(String symbol, String margin) {
+        PositionResponse position = new PositionResponse();
+        position.setSymbol(symbol);
+        position.setMargin(margin);
+        return position;
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.bcs.TypeTagSerializer;
+import io.dipcoin.sui.bcs.types.arg.call.CallArgObjectArg;
+import io.dipcoin.sui.bcs.types.arg.call.CallArgPure;
+import io.dipcoin.sui.bcs.types.transaction.Argument;
+import io.dipcoin.sui.bcs.types.transaction.ProgrammableTransaction;
+import io.dipcoin.sui.perp.enums.PerpFunction;
+import io.dipcoin.sui.perp.model.PerpConfig;
+import io.dipcoin.sui.pyth.model.PythNetwork;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/19 11:30
+ * @Description : move call template test
+ */
+public class MoveCallTemplateTest {
+
+    @Test
+    public void testTypeArgumentsParsedOncePerConfig() {
+        PerpConfig perpConfig = new PerpConfig("rpc", "endpoint", "0x11", "0x2", "0x3::usdc::USDC", "0x4", "0x5", "0x6", PythNetwork.TESTNET);
+        try (MockedStatic<TypeTagSerializer> typeTagSerializer = mockStatic(TypeTagSerializer.class, CALLS_REAL_METHODS)) {
+            MoveCallTemplate withdraw = MoveCallTemplate.of(perpConfig, PerpFunction.WITHDRAW);
+            for (int i = 0; i < 10; i++) {
+                ProgrammableTransaction programmableTx = new ProgrammableTransaction();
+                MoveCallTemplate.of(perpConfig, PerpFunction.WITHDRAW).append(inputs(programmableTx, new ArrayList<>()), "0x5e", BigInteger.TEN);
+            }
+
+            assertThat(MoveCallTemplate.of(perpConfig, PerpFunction.WITHDRAW)).isSameAs(withdraw);
+            // one parse per function with type arguments
+            typeTagSerializer.verify(() -> TypeTagSerializer.parseStructTypeArgs(anyString(), anyBoolean()), times(3));
+        }
+    }
+
+    @Test
+    public void testSharedInputsAndSenderAddedOnce() {
+        PerpConfig perpConfig = new PerpConfig("rpc", "endpoint", "0x1", "0x2", "0x3::usdc::USDC", "0x4", "0x5", "0x6", PythNetwork.TESTNET);
+        ProgrammableTransaction programmableTx = new ProgrammableTransaction();
+        List<String> resolved = new ArrayList<>();
+        MoveCallTemplate.Inputs inputs = inputs(programmableTx, resolved);
+
+        MoveCallTemplate.of(perpConfig, PerpFunction.WITHDRAW).append(inputs, "0x5e", BigInteger.ONE);
+        int command = MoveCallTemplate.of(perpConfig, PerpFunction.DEPOSIT).append(inputs, "0x5e", BigInteger.TWO, new Argument.Result(0));
+        MoveCallTemplate.of(perpConfig, PerpFunction.ADD_MARGIN).append(inputs, "0x5b", "BTC-PERP", BigInteger.TEN);
+
+        assertThat(command).isEqualTo(1);
+        assertThat(resolved).containsExactly(ChainSnapshot.PROTOCOL_CONFIG, ChainSnapshot.BANK, ChainSnapshot.TX_INDEXER,
+                ChainSnapshot.CLOCK, ChainSnapshot.perpetualKey("BTC-PERP"), ChainSnapshot.SUB_ACCOUNTS, ChainSnapshot.oracleKey("BTC-PERP"));
+        // 7 shared objects + sender + salt and amount of 2 transfers + sub address, amount and salt
+        int next = programmableTx.addInput(new CallArgPure(0L, null));
+        assertThat(next).isEqualTo(7 + 1 + 4 + 3);
+    }
+
+    private static MoveCallTemplate.Inputs inputs(ProgrammableTransaction programmableTx, List<String> resolved) {
+        return new MoveCallTemplate.Inputs(programmableTx, key -> {
+            resolved.add(key);
+            return mock(CallArgObjectArg.class);
+        });
+    }
+
+}
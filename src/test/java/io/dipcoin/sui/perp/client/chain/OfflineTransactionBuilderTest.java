@@ -0,0 +1,138 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.bcs.types.arg.call.CallArgObjectArg;
+import io.dipcoin.sui.bcs.types.gas.GasData;
+import io.dipcoin.sui.bcs.types.gas.SuiObjectRef;
+import io.dipcoin.sui.client.TransactionBuilder;
+import io.dipcoin.sui.perp.enums.PerpNetwork;
+import io.dipcoin.sui.perp.enums.StaleInputKind;
+import io.dipcoin.sui.perp.exception.PerpOnChainException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/14 17:10
+ * @Description : offline transaction builder test
+ */
+public class OfflineTransactionBuilderTest {
+
+    private static final String OWNER = "0x0f";
+
+    private static final BigInteger BUDGET = BigInteger.valueOf(50_000_000L);
+
+    private MockedStatic<TransactionBuilder> transactionBuilder;
+
+    @BeforeEach
+    protected void setUp() {
+        transactionBuilder = mockStatic(TransactionBuilder.class);
+        transactionBuilder.when(() -> TransactionBuilder.serializeTransactionBytes(any(), eq(OWNER), any())).thenReturn("dHg=");
+    }
+
+    @AfterEach
+    protected void tearDown() {
+        transactionBuilder.close();
+    }
+
+    @Test
+    public void testEachTransactionConsumesItsOwnCoins() {
+        OfflineTransactionBuilder builder = new OfflineTransactionBuilder(PerpNetwork.TESTNET.getConfig(),
+                this.snapshot(System.currentTimeMillis(), 2));
+
+        OfflineTransactionBuilder.OfflineTransaction deposit = builder.deposit(BigInteger.valueOf(80), BUDGET);
+        assertThat(deposit.txBytes()).isEqualTo("dHg=");
+        assertThat(deposit.mayBeStale()).isFalse();
+        OfflineTransactionBuilder.OfflineTransaction withdraw = builder.withdraw(BigInteger.TEN, BUDGET);
+        assertThat(withdraw.gasCoin()).isNotEqualTo(deposit.gasCoin());
+        assertThat(builder.remainingGasCoins()).isZero();
+
+        assertThatThrownBy(() -> builder.withdraw(BigInteger.TEN, BUDGET)).isInstanceOf(PerpOnChainException.class);
+        transactionBuilder.verify(() -> TransactionBuilder.serializeTransactionBytes(any(), eq(OWNER), any(GasData.class)), times(2));
+    }
+
+    @Test
+    public void testDepositFailsWhenSnapshotCoinsAreSpent() {
+        OfflineTransactionBuilder builder = new OfflineTransactionBuilder(PerpNetwork.TESTNET.getConfig(),
+                this.snapshot(System.currentTimeMillis(), 3));
+
+        builder.deposit(BigInteger.valueOf(100), BUDGET);
+        builder.deposit(BigInteger.valueOf(50), BUDGET);
+
+        assertThatThrownBy(() -> builder.deposit(BigInteger.ONE, BUDGET)).isInstanceOf(PerpOnChainException.class);
+        assertThat(builder.remainingGasCoins()).isEqualTo(1);
+    }
+
+    @Test
+    public void testReportsStaleInputs() {
+        OfflineTransactionBuilder builder = new OfflineTransactionBuilder(PerpNetwork.TESTNET.getConfig(),
+                this.snapshot(System.currentTimeMillis() - 120_000L, 2));
+
+        OfflineTransactionBuilder.OfflineTransaction deposit = builder.deposit(BigInteger.valueOf(100), BUDGET);
+        assertThat(deposit.staleInputs()).extracting(OfflineTransactionBuilder.StaleInput::kind)
+                .containsExactly(StaleInputKind.OWNED_COIN, StaleInputKind.GAS_COIN, StaleInputKind.GAS_PRICE);
+
+        OfflineTransactionBuilder.OfflineTransaction addMargin = builder.setMaxAgeMillis(Long.MAX_VALUE)
+                .addMargin("0x1a", "BTC-PERP", BigInteger.TEN, BUDGET);
+        assertThat(addMargin.staleInputs()).extracting(OfflineTransactionBuilder.StaleInput::kind)
+                .containsExactly(StaleInputKind.PRICE_FEED);
+    }
+
+    @Test
+    public void testMissingSharedObjectFailsWithoutConsumingGas() {
+        OfflineTransactionBuilder builder = new OfflineTransactionBuilder(PerpNetwork.TESTNET.getConfig(),
+                this.snapshot(System.currentTimeMillis(), 1));
+
+        assertThatThrownBy(() -> builder.addMargin("0x1a", "ETH-PERP", BigInteger.TEN, BUDGET))
+                .isInstanceOf(PerpOnChainException.class);
+        assertThat(builder.remainingGasCoins()).isEqualTo(1);
+        transactionBuilder.verify(() -> TransactionBuilder.serializeTransactionBytes(any(), any(), any()), never());
+    }
+
+    private ChainSnapshot snapshot(long takenAt, int gasCoins) {
+        Map<String, CallArgObjectArg> sharedObjects = new HashMap<>();
+        for (String key : List.of(ChainSnapshot.CLOCK, ChainSnapshot.PROTOCOL_CONFIG, ChainSnapshot.SUB_ACCOUNTS,
+                ChainSnapshot.BANK, ChainSnapshot.TX_INDEXER, ChainSnapshot.perpetualKey("BTC-PERP"), ChainSnapshot.oracleKey("BTC-PERP"))) {
+            sharedObjects.put(key, mock(CallArgObjectArg.class));
+        }
+        List<ChainSnapshot.Coin> gas = new ArrayList<>();
+        for (int i = 0; i < gasCoins; i++) {
+            gas.add(new ChainSnapshot.Coin(new SuiObjectRef("0xgas" + i, 1L, "digest"), BigInteger.valueOf(1_000_000_000L)));
+        }
+        List<ChainSnapshot.Coin> coins = List.of(
+                new ChainSnapshot.Coin(new SuiObjectRef("0xc1", 1L, "digest"), BigInteger.valueOf(100)),
+                new ChainSnapshot.Coin(new SuiObjectRef("0xc2", 1L, "digest"), BigInteger.valueOf(60)));
+        return new ChainSnapshot(OWNER, 1_000L, takenAt, sharedObjects, gas, coins);
+    }
+
+}
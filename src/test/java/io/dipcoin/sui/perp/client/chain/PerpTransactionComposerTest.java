@@ -0,0 +1,89 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.bcs.types.arg.call.CallArgObjectArg;
+import io.dipcoin.sui.bcs.types.arg.call.CallArgPure;
+import io.dipcoin.sui.bcs.types.gas.SuiObjectRef;
+import io.dipcoin.sui.perp.enums.PerpFunction;
+import io.dipcoin.sui.perp.enums.PerpNetwork;
+import io.dipcoin.sui.perp.exception.PerpOnChainException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/13 16:30
+ * @Description : perp transaction composer test
+ */
+public class PerpTransactionComposerTest {
+
+    private static final String SENDER = "0x5e";
+
+    private AbstractOnChainClient client;
+
+    @BeforeEach
+    protected void setUp() {
+        this.client = mock(AbstractOnChainClient.class, CALLS_REAL_METHODS);
+        client.perpConfig = PerpNetwork.TESTNET.getConfig();
+        doReturn(mock(CallArgObjectArg.class)).when(client).getProtocolConfig();
+        doReturn(mock(CallArgObjectArg.class)).when(client).getBank();
+        doReturn(mock(CallArgObjectArg.class)).when(client).getTxIndexer();
+        doReturn(mock(CallArgObjectArg.class)).when(client).getSubAccounts();
+        CoinSelection coinSelection = new CoinSelection(SENDER, client.perpConfig.coinType(),
+                List.of(new SuiObjectRef("0xa", 1L, "a"), new SuiObjectRef("0xb", 1L, "b")),
+                List.of(BigInteger.valueOf(40L), BigInteger.valueOf(40L)), BigInteger.valueOf(80L));
+        doReturn(coinSelection).when(client).selectCoins(eq(SENDER), any(), any());
+    }
+
+    @Test
+    void testSharedInputsAndSingleSplit() {
+        PerpTransactionComposer.ComposedTransaction composed = client.compose()
+                .deposit(BigInteger.valueOf(10L))
+                .deposit(BigInteger.valueOf(20L))
+                .withdraw(BigInteger.valueOf(5L))
+                .setSubAccount("0x5b")
+                .build(SENDER);
+
+        verify(client).selectCoins(eq(SENDER), any(), eq(BigInteger.valueOf(30L)));
+        assertThat(composed.spent()).isEqualTo(BigInteger.valueOf(30L));
+        assertThat(composed.functions()).containsExactly(PerpFunction.DEPOSIT, PerpFunction.DEPOSIT,
+                PerpFunction.WITHDRAW, PerpFunction.SET_SUB_ACCOUNT);
+        // merge + split + 4 move calls
+        assertThat(composed.programmableTx().getCommandsSize()).isEqualTo(6);
+        // 2 coins + 2 split amounts + protocolConfig, bank, txIndexer, sender, subAccounts
+        // + salt and amount of 3 transfers + sub address and flag
+        int inputs = composed.programmableTx().addInput(new CallArgPure(0L, null));
+        assertThat(inputs).isEqualTo(2 + 2 + 5 + 6 + 2);
+    }
+
+    @Test
+    void testNothingToCompose() {
+        assertThatThrownBy(() -> client.compose().build(SENDER)).isInstanceOf(PerpOnChainException.class);
+    }
+
+}
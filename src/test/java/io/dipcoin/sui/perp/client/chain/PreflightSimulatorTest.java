@@ -0,0 +1,154 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.client.TransactionBuilder;
+import io.dipcoin.sui.model.transaction.DryRunTransactionBlockResponse;
+import io.dipcoin.sui.model.transaction.TransactionBlockEffects;
+import io.dipcoin.sui.perp.config.PreflightConfig;
+import io.dipcoin.sui.perp.enums.PerpFunction;
+import io.dipcoin.sui.perp.exception.PerpOnChainException;
+import io.dipcoin.sui.protocol.SuiClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/18 15:00
+ * @Description : preflight simulator test
+ */
+public class PreflightSimulatorTest {
+
+    private static final BigInteger BUDGET = BigInteger.valueOf(50_000_000L);
+
+    private MockedStatic<TransactionBuilder> transactionBuilder;
+
+    private GasOracle gasOracle;
+
+    private AtomicInteger serialized;
+
+    @BeforeEach
+    protected void setUp() {
+        gasOracle = mock(GasOracle.class);
+        serialized = new AtomicInteger();
+        DryRunTransactionBlockResponse success = dryRun("success", null);
+        DryRunTransactionBlockResponse failure = dryRun("failure", "MoveAbort(bank, 3)");
+        transactionBuilder = mockStatic(TransactionBuilder.class);
+        transactionBuilder.when(() -> TransactionBuilder.dryRunTransaction(any(), eq("ok"))).thenReturn(success);
+        transactionBuilder.when(() -> TransactionBuilder.dryRunTransaction(any(), eq("abort"))).thenReturn(failure);
+    }
+
+    @AfterEach
+    protected void tearDown() {
+        transactionBuilder.close();
+    }
+
+    @Test
+    public void testReusesResultForSameInputs() {
+        PreflightSimulator simulator = new PreflightSimulator(mock(SuiClient.class), gasOracle, new PreflightConfig().setTtlMillis(60_000L));
+
+        PreflightSimulator.Simulation first = simulator.check(key(BigInteger.TEN), this.txBytes("ok"));
+        PreflightSimulator.Simulation second = simulator.check(key(BigInteger.TEN), this.txBytes("ok"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.gasUsed()).isEqualTo(BigInteger.valueOf(3_000_000L));
+        assertThat(serialized).hasValue(1);
+        verify(gasOracle).observe(PerpFunction.WITHDRAW, BigInteger.valueOf(3_000_000L));
+
+        simulator.check(key(BigInteger.TWO), this.txBytes("ok"));
+        assertThat(serialized).hasValue(2);
+    }
+
+    @Test
+    public void testFailedSimulationAbortsUntilExpired() {
+        PreflightSimulator simulator = new PreflightSimulator(mock(SuiClient.class), gasOracle, new PreflightConfig().setTtlMillis(60_000L));
+
+        assertThatThrownBy(() -> simulator.check(key(BigInteger.TEN), this.txBytes("abort")))
+                .isInstanceOf(PerpOnChainException.class)
+                .hasMessageContaining("MoveAbort");
+        assertThatThrownBy(() -> simulator.check(key(BigInteger.TEN), this.txBytes("abort")))
+                .isInstanceOf(PerpOnChainException.class);
+        assertThat(serialized).hasValue(1);
+        verify(gasOracle, never()).observe(any(), any(BigInteger.class));
+
+        simulator.invalidate();
+        assertThat(simulator.simulate(key(BigInteger.TEN), this.txBytes("ok")).success()).isTrue();
+    }
+
+    @Test
+    public void testSenderResultsDroppedOnInvalidate() {
+        PreflightSimulator simulator = new PreflightSimulator(mock(SuiClient.class), gasOracle, new PreflightConfig().setTtlMillis(60_000L));
+        PreflightSimulator.SimulationKey other = new PreflightSimulator.SimulationKey(PerpFunction.WITHDRAW.getFunction(), PerpFunction.WITHDRAW, "0x0e", List.of(BigInteger.TEN), BUDGET);
+
+        simulator.simulate(key(BigInteger.TEN), this.txBytes("ok"));
+        simulator.simulate(other, this.txBytes("ok"));
+        simulator.invalidate("0x0f");
+        simulator.simulate(key(BigInteger.TEN), this.txBytes("ok"));
+        simulator.simulate(other, this.txBytes("ok"));
+
+        assertThat(serialized).hasValue(3);
+    }
+
+    @Test
+    public void testExpiredResultIsSimulatedAgain() {
+        PreflightSimulator simulator = new PreflightSimulator(mock(SuiClient.class), gasOracle, new PreflightConfig().setTtlMillis(0L));
+
+        simulator.simulate(key(BigInteger.TEN), this.txBytes("ok"));
+        simulator.simulate(key(BigInteger.TEN), this.txBytes("ok"));
+
+        assertThat(serialized).hasValue(2);
+    }
+
+    private Supplier<String> txBytes(String txBytes) {
+        return () -> {
+            serialized.incrementAndGet();
+            return txBytes;
+        };
+    }
+
+    private static PreflightSimulator.SimulationKey key(BigInteger amount) {
+        return new PreflightSimulator.SimulationKey(PerpFunction.WITHDRAW.getFunction(), PerpFunction.WITHDRAW, "0x0f", List.of(amount), BUDGET);
+    }
+
+    private static DryRunTransactionBlockResponse dryRun(String status, String error) {
+        DryRunTransactionBlockResponse response = mock(DryRunTransactionBlockResponse.class);
+        TransactionBlockEffects effects = mock(TransactionBlockEffects.class, RETURNS_DEEP_STUBS);
+        when(effects.getStatus().getStatus()).thenReturn(status);
+        when(effects.getStatus().getError()).thenReturn(error);
+        when(effects.getGasUsed().getComputationCost()).thenReturn(BigInteger.valueOf(1_000_000L));
+        when(effects.getGasUsed().getStorageCost()).thenReturn(BigInteger.valueOf(2_000_000L));
+        when(response.getEffects()).thenReturn(effects);
+        return response;
+    }
+
+}
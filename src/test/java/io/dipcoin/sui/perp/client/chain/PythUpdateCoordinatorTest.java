@@ -0,0 +1,86 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.bcs.types.transaction.ProgrammableTransaction;
+import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
+import io.dipcoin.sui.perp.exception.PerpOnChainException;
+import io.dipcoin.sui.pyth.core.PythClient;
+import io.dipcoin.sui.pyth.model.PythNetwork;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/14 11:20
+ * @Description : pyth update coordinator test
+ */
+public class PythUpdateCoordinatorTest {
+
+    private static final String BTC_FEED = "0xb7c0";
+
+    private static final String ETH_FEED = "0xe7c0";
+
+    private PythClient pythClient;
+
+    private PythUpdateCoordinator coordinator;
+
+    @BeforeEach
+    protected void setUp() {
+        this.pythClient = mock(PythClient.class);
+        when(pythClient.updatePrice(any(), any())).thenAnswer(invocation -> new ProgrammableTransaction());
+        this.coordinator = new PythUpdateCoordinator();
+        coordinator.setFreshnessMillis(60_000L);
+    }
+
+    @Test
+    void testFeedUpdatedOnceAndReused() {
+        PythUpdateCoordinator.PriceUpdate first = coordinator.begin(pythClient, PythNetwork.TESTNET, List.of(BTC_FEED, BTC_FEED));
+        assertThat(first.updated()).containsExactly(BTC_FEED);
+        coordinator.settle(first, response("success"));
+
+        PythUpdateCoordinator.PriceUpdate second = coordinator.begin(pythClient, PythNetwork.TESTNET, List.of(BTC_FEED, ETH_FEED));
+        assertThat(second.updated()).containsExactly(ETH_FEED);
+        verify(pythClient, times(1)).updatePrice(BTC_FEED, PythNetwork.TESTNET);
+
+        // a failed transaction drops the feeds it read
+        coordinator.settle(second, response("failure"));
+        assertThat(coordinator.begin(pythClient, PythNetwork.TESTNET, List.of(BTC_FEED)).updated()).containsExactly(BTC_FEED);
+    }
+
+    @Test
+    void testOneStaleFeedPerTransaction() {
+        assertThatThrownBy(() -> coordinator.begin(pythClient, PythNetwork.TESTNET, List.of(BTC_FEED, ETH_FEED)))
+                .isInstanceOf(PerpOnChainException.class);
+    }
+
+    private static SuiTransactionBlockResponse response(String status) {
+        SuiTransactionBlockResponse response = mock(SuiTransactionBlockResponse.class, RETURNS_DEEP_STUBS);
+        when(response.getEffects().getStatus().getStatus()).thenReturn(status);
+        return response;
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.perp.model.PerpConfig;
+import io.dipcoin.sui.pyth.model.PythNetwork;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/10 14:40
+ * @Description : shared object resolver test
+ */
+public class SharedObjectResolverTest {
+
+    private SharedObjectResolver resolver;
+
+    @BeforeEach
+    protected void setUp() {
+        PerpConfig perpConfig = new PerpConfig("rpc", "endpoint-" + System.nanoTime(), "0x1", "0x2", "0x3::usdc::USDC", "0x4", "0x5", "0x6", PythNetwork.TESTNET);
+        this.resolver = SharedObjectResolver.of(perpConfig);
+    }
+
+    @Test
+    void testPreloadRunsOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<Void> first = resolver.preloadOnce(() -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        });
+        CompletableFuture<Void> second = resolver.preloadOnce(() -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        });
+
+        assertThat(second).isSameAs(first);
+        assertThat(first).isCompleted();
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void testThrowingPreloadCanBeRetried() {
+        CompletableFuture<Void> failed = resolver.preloadOnce(() -> {
+            throw new IllegalStateException("rpc down");
+        });
+        assertThat(failed).isCompletedExceptionally();
+
+        CompletableFuture<Void> retried = resolver.preloadOnce(() -> CompletableFuture.completedFuture(null));
+        assertThat(retried).isNotSameAs(failed);
+        assertThat(retried).isCompleted().isNotCompletedExceptionally();
+    }
+
+}
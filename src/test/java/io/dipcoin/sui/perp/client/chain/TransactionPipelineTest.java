@@ -0,0 +1,139 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.client.chain;
+
+import io.dipcoin.sui.model.transaction.SuiTransactionBlockResponse;
+import io.dipcoin.sui.perp.config.PipelineConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/17 11:30
+ * @Description : transaction pipeline test
+ */
+public class TransactionPipelineTest {
+
+    private TransactionPipeline pipeline;
+
+    private List<String> events;
+
+    @BeforeEach
+    protected void setUp() {
+        this.pipeline = new TransactionPipeline(new PipelineConfig().setMaxInFlight(8));
+        this.events = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @AfterEach
+    protected void tearDown() {
+        pipeline.close();
+    }
+
+    @Test
+    void testLaneOrdered() {
+        List<CompletableFuture<SuiTransactionBlockResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(pipeline.submit("0xa", new RecordingStages("tx" + i, null)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        assertThat(events).containsExactly(
+                "build tx0", "sign tx0", "submit tx0", "complete tx0",
+                "build tx1", "sign tx1", "submit tx1", "complete tx1",
+                "build tx2", "sign tx2", "submit tx2", "complete tx2");
+        assertThat(pipeline.inFlight()).isZero();
+    }
+
+    @Test
+    void testLanesOverlap() throws InterruptedException {
+        CountDownLatch submitted = new CountDownLatch(1);
+        CompletableFuture<SuiTransactionBlockResponse> blocked = pipeline.submit("0xa", new RecordingStages("tx0", submitted));
+        // a transaction of another lane completes while the first one is still executing
+        pipeline.submit("0xb", new RecordingStages("tx1", null)).join();
+        assertThat(blocked).isNotDone();
+
+        submitted.countDown();
+        assertThat(blocked.join()).isNotNull();
+        assertThat(events).containsSubsequence("complete tx1", "complete tx0");
+    }
+
+    @Test
+    void testSignFailureCompletes() {
+        CompletableFuture<SuiTransactionBlockResponse> future = pipeline.submit(null, new RecordingStages("tx0", null) {
+            @Override
+            public CompletableFuture<String> sign(String prepared) {
+                return CompletableFuture.failedFuture(new IllegalStateException("wallet unavailable"));
+            }
+        });
+
+        assertThat(future).failsWithin(5, TimeUnit.SECONDS);
+        assertThat(events).containsExactly("build tx0", "complete tx0 unsigned");
+    }
+
+    private class RecordingStages implements TransactionPipeline.Stages<String, String> {
+
+        private final String name;
+
+        private final CountDownLatch release;
+
+        private RecordingStages(String name, CountDownLatch release) {
+            this.name = name;
+            this.release = release;
+        }
+
+        @Override
+        public String build() {
+            events.add("build " + name);
+            return name;
+        }
+
+        @Override
+        public CompletableFuture<String> sign(String prepared) {
+            events.add("sign " + name);
+            return CompletableFuture.completedFuture(prepared);
+        }
+
+        @Override
+        public SuiTransactionBlockResponse submit(String prepared, String signed) {
+            events.add("submit " + name);
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return mock(SuiTransactionBlockResponse.class);
+        }
+
+        @Override
+        public void complete(String prepared, String signed, SuiTransactionBlockResponse response) {
+            events.add("complete " + name + (signed == null ? " unsigned" : ""));
+        }
+
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.history;
+
+import io.dipcoin.sui.perp.model.response.FundingSettlementsResponse;
+import io.dipcoin.sui.perp.model.response.HistoryOrdersResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/21 10:00
+ * @Description : columnar store test
+ */
+public class ColumnarStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRangeScanByTimeAndSymbol() {
+        try (ColumnarWriter<HistoryOrdersResponse> writer = new ColumnarWriter<>(tempDir, ColumnSchemas.HISTORY_ORDERS)) {
+            writer.appendAll(List.of(order(3L, "ETH-PERP", 300L), order(1L, "BTC-PERP", 100L), order(2L, "ETH-PERP", 200L)));
+        }
+        try (ColumnarWriter<HistoryOrdersResponse> writer = new ColumnarWriter<>(tempDir, ColumnSchemas.HISTORY_ORDERS)) {
+            assertThat(writer.rows()).isEqualTo(3);
+            writer.append(order(4L, "BTC-PERP", 400L));
+            writer.append(order(5L, "ETH-PERP", 400L));
+            assertThatThrownBy(() -> writer.append(order(6L, "ETH-PERP", 399L))).isInstanceOf(IllegalArgumentException.class);
+        }
+
+        ColumnarReader reader = new ColumnarReader(tempDir);
+        assertThat(reader.rows()).isEqualTo(5);
+        int id = reader.column("id");
+        int price = reader.column("price");
+        int side = reader.column("side");
+
+        List<Long> ids = new ArrayList<>();
+        reader.scan(200L, 401L, "ETH-PERP", row -> ids.add(reader.getLong(id, row)));
+        assertThat(ids).containsExactly(2L, 3L, 5L);
+
+        ids.clear();
+        reader.scan(100L, 400L, row -> ids.add(reader.getLong(id, row)));
+        assertThat(ids).containsExactly(1L, 2L, 3L);
+
+        assertThat(reader.getLong(price, 0)).isEqualTo(3_858_050_000_000L);
+        assertThat(reader.getString(side, 0)).isEqualTo("SELL");
+        assertThat(reader.getLong(reader.column("realizedPnl"), 0)).isEqualTo(ColumnSchema.NULL);
+        reader.scan(0L, Long.MAX_VALUE, "SOL-PERP", row -> ids.add(-1L));
+        assertThat(ids).doesNotContain(-1L);
+    }
+
+    @Test
+    void testUnflushedRowsInvisibleAndSchemaChecked() {
+        ColumnarWriter<HistoryOrdersResponse> writer = new ColumnarWriter<>(tempDir, ColumnSchemas.HISTORY_ORDERS);
+        writer.append(order(1L, "BTC-PERP", 100L));
+        writer.flush();
+        writer.append(order(2L, "BTC-PERP", 200L));
+        assertThat(new ColumnarReader(tempDir).rows()).isEqualTo(1);
+        writer.close();
+        assertThat(new ColumnarReader(tempDir).rows()).isEqualTo(2);
+
+        assertThatThrownBy(() -> new ColumnarWriter<FundingSettlementsResponse>(tempDir, ColumnSchemas.FUNDING_SETTLEMENTS))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static HistoryOrdersResponse order(long id, String symbol, long createdAt) {
+        HistoryOrdersResponse order = new HistoryOrdersResponse();
+        order.setId(id);
+        order.setSymbol(symbol);
+        order.setSide("SELL");
+        order.setOrderStatus("FILLED");
+        order.setOrderType("LIMIT");
+        order.setPrice("3858050000000000000000");
+        order.setQuantity("315000000000000000");
+        order.setCreatedAt(createdAt);
+        return order;
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.history;
+
+import io.dipcoin.sui.perp.config.HistoryConfig;
+import io.dipcoin.sui.perp.exception.PerpHttpException;
+import io.dipcoin.sui.perp.model.PageResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/20 10:00
+ * @Description : history pager test
+ */
+public class HistoryPagerTest {
+
+    private static final int RECORDS = 45;
+
+    private static final PageCheckpoint WINDOW = new PageCheckpoint(1, 10, 1_000L, 2_000L);
+
+    @TempDir
+    Path tempDir;
+
+    private List<Integer> fetched;
+
+    private List<Runnable> queued;
+
+    private int failPage;
+
+    @BeforeEach
+    protected void setUp() {
+        this.fetched = new ArrayList<>();
+        this.queued = new ArrayList<>();
+        this.failPage = 0;
+    }
+
+    @Test
+    void testPagesFetchedAheadAndEmittedInOrder() {
+        HistoryPager<Integer> pager = new HistoryPager<>(this::fetch, WINDOW, new HistoryConfig().setConcurrency(2), queued::add);
+
+        Iterator<Integer> iterator = pager.iterator();
+        assertThat(iterator.next()).isZero();
+        assertThat(fetched).containsExactly(1);
+        assertThat(queued).hasSize(2);
+
+        this.runQueued();
+        List<Integer> records = new ArrayList<>(List.of(0));
+        while (iterator.hasNext()) {
+            records.add(iterator.next());
+            this.runQueued();
+        }
+        assertThat(records).containsExactlyElementsOf(IntStream.range(0, RECORDS).boxed().toList());
+        assertThat(fetched).containsExactly(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    void testInterruptedExportResumes() {
+        FileCheckpointStore store = new FileCheckpointStore(tempDir.resolve("checkpoints.properties"));
+        HistoryPager<Integer> pager = new HistoryPager<>(this::fetch, WINDOW, new HistoryConfig().setConcurrency(3), Runnable::run)
+                .checkpoint(store, "0xa:balanceChanges");
+
+        this.failPage = 3;
+        List<Integer> records = new ArrayList<>();
+        assertThatThrownBy(() -> pager.stream().forEach(records::add)).isInstanceOf(PerpHttpException.class);
+        assertThat(records).hasSize(20);
+        assertThat(store.load("0xa:balanceChanges")).isEqualTo(WINDOW.withNextPage(3));
+
+        // resumed at page 3 and failing on page 4: asking again neither ends the export nor drops the checkpoint
+        this.failPage = 4;
+        Iterator<Integer> iterator = pager.iterator();
+        for (int i = 0; i < 10; i++) {
+            records.add(iterator.next());
+        }
+        assertThatThrownBy(iterator::hasNext).isInstanceOf(PerpHttpException.class);
+        assertThatThrownBy(iterator::hasNext).isInstanceOf(PerpHttpException.class);
+        assertThat(store.load("0xa:balanceChanges")).isEqualTo(WINDOW.withNextPage(4));
+
+        this.failPage = 0;
+        fetched.clear();
+        FileCheckpointStore reopened = new FileCheckpointStore(tempDir.resolve("checkpoints.properties"));
+        HistoryPager<Integer> resumed = new HistoryPager<>(this::fetch, new PageCheckpoint(1, 50, 0L, 0L),
+                new HistoryConfig().setConcurrency(3), Runnable::run)
+                .checkpoint(reopened, "0xa:balanceChanges");
+        try (Stream<Integer> stream = resumed.stream()) {
+            stream.forEach(records::add);
+        }
+        assertThat(fetched).containsExactly(4, 5);
+        assertThat(records).containsExactlyElementsOf(IntStream.range(0, RECORDS).boxed().toList());
+        assertThat(reopened.load("0xa:balanceChanges")).isNull();
+    }
+
+    private PageResponse<Integer> fetch(int pageNum, int pageSize, long beginTime, long endTime) {
+        assertThat(beginTime).isEqualTo(WINDOW.beginTime());
+        assertThat(endTime).isEqualTo(WINDOW.endTime());
+        fetched.add(pageNum);
+        if (pageNum == failPage) {
+            throw new PerpHttpException("Failed to balanceChanges, cause : timeout");
+        }
+        PageResponse<Integer> page = new PageResponse<>();
+        int from = (pageNum - 1) * pageSize;
+        page.setData(IntStream.range(from, Math.min(from + pageSize, RECORDS)).boxed().toList());
+        page.setPageNum(pageNum);
+        page.setPageSize(pageSize);
+        page.setTotal((long) RECORDS);
+        page.setTotalPages((RECORDS + pageSize - 1) / pageSize);
+        return page;
+    }
+
+    private void runQueued() {
+        List<Runnable> tasks = new ArrayList<>(queued);
+        queued.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+}
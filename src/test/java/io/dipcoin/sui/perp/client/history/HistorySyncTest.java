@@ -0,0 +1,207 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.client.history;
+
+import io.dipcoin.sui.perp.config.HistoryConfig;
+import io.dipcoin.sui.perp.model.PageResponse;
+import io.dipcoin.sui.perp.model.response.BalanceChangesResponse;
+import io.dipcoin.sui.perp.model.response.HistoryOrdersResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/20 15:00
+ * @Description : history sync test
+ */
+public class HistorySyncTest {
+
+    private static final String ACCOUNT = "0xa";
+
+    @TempDir
+    Path tempDir;
+
+    private List<BalanceChangesResponse> server;
+
+    private List<Long> beginTimes;
+
+    private HistoryEndpoint<BalanceChangesResponse> endpoint;
+
+    @BeforeEach
+    protected void setUp() {
+        this.server = new ArrayList<>();
+        this.beginTimes = new ArrayList<>();
+        HistoryEndpoint<BalanceChangesResponse> balanceChanges = HistoryEndpoint.balanceChanges(null);
+        this.endpoint = new HistoryEndpoint<>(balanceChanges.name(), balanceChanges.codec(), balanceChanges.time(), balanceChanges.key(),
+                balanceChanges.mutable(), beginTime -> new HistoryPager<>(this::fetch, new PageCheckpoint(1, 2, beginTime, 0L), new HistoryConfig(), Runnable::run));
+    }
+
+    @Test
+    void testSyncFetchesFromWatermarkAndDropsEdgeDuplicates() {
+        server.addAll(List.of(change("d3", 300L), change("d1", 100L), change("d2", 200L)));
+        try (HistorySync sync = new HistorySync(tempDir).setLookbackMillis(System.currentTimeMillis())) {
+            assertThat(sync.sync(ACCOUNT, endpoint)).isEqualTo(3);
+            assertThat(sync.log(ACCOUNT, endpoint).watermark()).isEqualTo(new Watermark(300L, Set.of("d3:0:1")));
+
+            server.addFirst(change("d5", 400L));
+            server.addFirst(change("d4", 300L));
+            assertThat(sync.sync(ACCOUNT, endpoint)).isEqualTo(2);
+            assertThat(beginTimes.getLast()).isEqualTo(300L);
+            assertThat(sync.sync(ACCOUNT, endpoint)).isZero();
+        }
+
+        try (HistorySync reopened = new HistorySync(tempDir)) {
+            List<String> digests = new ArrayList<>();
+            reopened.log(ACCOUNT, endpoint).replay(record -> digests.add(record.getTxDigest()));
+            assertThat(digests).containsExactly("d1", "d2", "d3", "d4", "d5");
+            assertThat(reopened.log(ACCOUNT, endpoint).watermark().time()).isEqualTo(400L);
+        }
+    }
+
+    @Test
+    void testOrderUpdatesAppendedAsNewFrames() {
+        List<HistoryOrdersResponse> orders = new ArrayList<>(List.of(order(1L, "PARTIALLY_FILLED", 100L, 150L)));
+        HistoryEndpoint<HistoryOrdersResponse> historyOrders = HistoryEndpoint.historyOrders(null, null);
+        HistoryEndpoint<HistoryOrdersResponse> ordersEndpoint = new HistoryEndpoint<>(historyOrders.name(), historyOrders.codec(),
+                historyOrders.time(), historyOrders.key(), historyOrders.mutable(), beginTime -> new HistoryPager<>((pageNum, pageSize, begin, end) -> {
+                    beginTimes.add(begin);
+                    // the server filters orders by creation time
+                    PageResponse<HistoryOrdersResponse> page = new PageResponse<>();
+                    page.setData(orders.stream().filter(order -> order.getCreatedAt() >= begin).toList());
+                    page.setTotalPages(1);
+                    return page;
+                }, new PageCheckpoint(1, 100, beginTime, 0L), new HistoryConfig(), Runnable::run));
+
+        try (HistorySync sync = new HistorySync(tempDir).setLookbackMillis(System.currentTimeMillis())) {
+            assertThat(sync.sync(ACCOUNT, ordersEndpoint)).isEqualTo(1);
+            assertThat(sync.sync(ACCOUNT, ordersEndpoint)).isZero();
+            assertThat(beginTimes.getLast()).isEqualTo(100L);
+
+            // a newer order moves the watermark past the creation of the open one
+            orders.add(order(2L, "FILLED", 200L, 200L));
+            assertThat(sync.sync(ACCOUNT, ordersEndpoint)).isEqualTo(1);
+            assertThat(sync.log(ACCOUNT, ordersEndpoint).watermark().time()).isEqualTo(200L);
+        }
+
+        try (HistorySync reopened = new HistorySync(tempDir)) {
+            orders.set(0, order(1L, "FILLED", 100L, 250L));
+            assertThat(reopened.sync(ACCOUNT, ordersEndpoint)).isEqualTo(1);
+            assertThat(beginTimes.getLast()).isEqualTo(100L);
+            assertThat(reopened.log(ACCOUNT, ordersEndpoint).watermark()).isEqualTo(new Watermark(250L, Set.of("1:250")));
+
+            // nothing open any more, the next sync asks from the watermark
+            assertThat(reopened.sync(ACCOUNT, ordersEndpoint)).isZero();
+            assertThat(beginTimes.getLast()).isEqualTo(250L);
+
+            List<String> statuses = new ArrayList<>();
+            reopened.log(ACCOUNT, ordersEndpoint).replay(order -> statuses.add(order.getId() + ":" + order.getOrderStatus()));
+            assertThat(statuses).containsExactly("1:PARTIALLY_FILLED", "2:FILLED", "1:FILLED");
+        }
+    }
+
+    @Test
+    void testTornFrameCutOffOnOpen() throws IOException {
+        Path file = tempDir.resolve("balanceChanges.log");
+        long length;
+        try (HistoryLog<BalanceChangesResponse> log = new HistoryLog<>(file, endpoint.codec(), endpoint.time(), endpoint.key())) {
+            log.append(List.of(change("d1", 100L), change("d2", 200L)));
+            length = log.length();
+        }
+        Files.write(file, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+        Files.delete(file.resolveSibling("balanceChanges.log.wm"));
+
+        try (HistoryLog<BalanceChangesResponse> log = new HistoryLog<>(file, endpoint.codec(), endpoint.time(), endpoint.key())) {
+            assertThat(log.length()).isEqualTo(length);
+            assertThat(Files.size(file)).isEqualTo(length);
+            assertThat(log.watermark()).isEqualTo(new Watermark(200L, Set.of("d2:0:1")));
+            log.append(List.of(change("d3", 300L)));
+            List<String> digests = new ArrayList<>();
+            log.replay(record -> digests.add(record.getTxDigest()));
+            assertThat(digests).containsExactly("d1", "d2", "d3");
+        }
+    }
+
+    @Test
+    void testCodecKeepsDecimalStrings() throws IOException {
+        HistoryOrdersResponse order = new HistoryOrdersResponse();
+        order.setId(7L);
+        order.setSymbol("BTC-PERP");
+        order.setPrice("50000000000000000000000");
+        order.setQuantity("0.10");
+        order.setRealizedPnl("-1.5E+3");
+        order.setReduceOnly(false);
+        order.setCreatedAt(1_761_897_600_000L);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        HistoryCodecs.HISTORY_ORDERS.write(new DataOutputStream(bytes), order);
+        HistoryOrdersResponse read = HistoryCodecs.HISTORY_ORDERS.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertThat(read).isEqualTo(order);
+        assertThat(bytes.size()).isLessThan(80);
+    }
+
+    private PageResponse<BalanceChangesResponse> fetch(int pageNum, int pageSize, long beginTime, long endTime) {
+        beginTimes.add(beginTime);
+        // newest first, as the api returns them
+        List<BalanceChangesResponse> matching = server.stream()
+                .filter(change -> change.getCreatedTime() >= beginTime)
+                .sorted((a, b) -> Long.compare(b.getCreatedTime(), a.getCreatedTime()))
+                .toList();
+        int from = Math.min((pageNum - 1) * pageSize, matching.size());
+        PageResponse<BalanceChangesResponse> page = new PageResponse<>();
+        page.setData(matching.subList(from, Math.min(from + pageSize, matching.size())));
+        page.setTotal((long) matching.size());
+        page.setTotalPages((matching.size() + pageSize - 1) / pageSize);
+        return page;
+    }
+
+    private static HistoryOrdersResponse order(long id, String status, long createdAt, long updatedAt) {
+        HistoryOrdersResponse order = new HistoryOrdersResponse();
+        order.setId(id);
+        order.setSymbol("BTC-PERP");
+        order.setOrderStatus(status);
+        order.setCreatedAt(createdAt);
+        order.setUpdatedAt(updatedAt);
+        return order;
+    }
+
+    private static BalanceChangesResponse change(String digest, long createdTime) {
+        BalanceChangesResponse change = new BalanceChangesResponse();
+        change.setAccount(ACCOUNT);
+        change.setTxDigest(digest);
+        change.setTxIndex(0L);
+        change.setBizType(1);
+        change.setBizTypeDesc("DEPOSIT");
+        change.setSettlementAmount(new BigDecimal("114.262515"));
+        change.setCreatedTime(createdTime);
+        return change;
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.metrics;
+
+import io.dipcoin.sui.perp.enums.LatencyPhase;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/03 11:20
+ * @Description : latency histogram test
+ */
+@Slf4j
+public class LatencyHistogramTest {
+
+    @Test
+    void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 100_000; i++) {
+            histogram.record(i * 1_000L);
+        }
+        LatencySnapshot snapshot = histogram.snapshot("test", LatencyPhase.NETWORK.getCode(), false);
+        log.info("Snapshot: {}", snapshot);
+        assertThat(snapshot.count()).isEqualTo(100_000L);
+        assertThat(snapshot.max()).isEqualTo(100_000_000L);
+        assertThat((double) snapshot.p50()).isCloseTo(50_000_000D, within(50_000_000D * 0.02D));
+        assertThat((double) snapshot.p99()).isCloseTo(99_000_000D, within(99_000_000D * 0.02D));
+        assertThat((double) snapshot.p999()).isCloseTo(99_900_000D, within(99_900_000D * 0.02D));
+    }
+
+    @Test
+    void testSnapshotAndReset() {
+        HistogramMetricsRecorder recorder = new HistogramMetricsRecorder();
+        recorder.record("GET /perp-market-api/ticker", LatencyPhase.NETWORK, 1_500_000L);
+        recorder.record("GET /perp-market-api/ticker", LatencyPhase.PARSE, 20_000L);
+
+        List<LatencySnapshot> snapshots = recorder.snapshotAndReset();
+        assertThat(snapshots).hasSize(2);
+        assertThat(recorder.snapshot())
+                .allMatch(snapshot -> snapshot.count() == 0L);
+    }
+
+    @Test
+    void testNoopByDefault() {
+        PerpMetrics.uninstall();
+        assertThat(PerpMetrics.start()).isZero();
+    }
+
+}
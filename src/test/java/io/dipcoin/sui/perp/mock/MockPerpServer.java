@@ -0,0 +1,438 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.dipcoin.sui.perp.config.PerpConfigs;
+import io.dipcoin.sui.perp.constant.PerpConstant;
+import io.dipcoin.sui.perp.constant.PerpPath;
+import io.dipcoin.sui.perp.enums.OrderScheme;
+import io.dipcoin.sui.perp.exception.ErrorCode;
+import io.dipcoin.sui.perp.model.ApiResponse;
+import io.dipcoin.sui.perp.model.PerpConfig;
+import io.dipcoin.sui.perp.model.request.AuthorizationRequest;
+import io.dipcoin.sui.perp.model.request.CancelOrderRequest;
+import io.dipcoin.sui.perp.model.request.PlaceOrderRequest;
+import io.dipcoin.sui.perp.model.response.AuthorizationResponse;
+import io.dipcoin.sui.perp.model.response.CancelOrderResponse;
+import io.dipcoin.sui.perp.util.OrderUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.crypto.digests.Blake2bDigest;
+import org.bouncycastle.crypto.ec.CustomNamedCurves;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.params.Ed25519PublicKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.bouncycastle.crypto.signers.Ed25519Signer;
+import org.bouncycastle.util.encoders.Base64;
+import org.bouncycastle.util.encoders.Hex;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/07 10:15
+ * @Description : in-process mock of the perp http api, serves recorded fixtures with configurable latency and error injection
+ */
+@Slf4j
+public class MockPerpServer implements AutoCloseable {
+
+    private static final String HEADER_AUTH = "Authorization";
+    private static final String HEADER_ADDR = "X-Wallet-Address";
+    private static final String HEADER_PREFIX = "Bearer ";
+
+    private static final byte FLAG_ED25519 = 0x00;
+    private static final byte FLAG_SECP256K1 = 0x01;
+    private static final int PUBLIC_KEY_BASE64_LENGTH = 44;
+
+    private static final ECDomainParameters SECP256K1;
+
+    static {
+        X9ECParameters params = CustomNamedCurves.getByName("secp256k1");
+        SECP256K1 = new ECDomainParameters(params.getCurve(), params.getG(), params.getN(), params.getH());
+        // headers and body go out in separate writes, without this nagle + delayed ack adds ~40ms per call
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * key - token
+     * value - wallet address
+     */
+    private final Map<String, String> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * key - path
+     * value - served request count
+     */
+    private final Map<String, LongAdder> requestCounts = new ConcurrentHashMap<>();
+
+    private final LongAdder injectedErrors = new LongAdder();
+
+    private final LongAdder rejectedRequests = new LongAdder();
+
+    private HttpServer server;
+
+    private ExecutorService executor;
+
+    private volatile long baseLatencyNanos;
+
+    private volatile long jitterNanos;
+
+    private volatile double errorRate;
+
+    /**
+     * fixed latency plus uniform jitter added to every response
+     * @param base
+     * @param jitter
+     * @return
+     */
+    public MockPerpServer latency(Duration base, Duration jitter) {
+        this.baseLatencyNanos = base.toNanos();
+        this.jitterNanos = jitter.toNanos();
+        return this;
+    }
+
+    /**
+     * share of requests answered with a {@link ErrorCode#SYSTEM_ERROR} api response
+     * @param errorRate 0.0 - 1.0
+     * @return
+     */
+    public MockPerpServer errorRate(double errorRate) {
+        if (errorRate < 0.0D || errorRate > 1.0D) {
+            throw new IllegalArgumentException("errorRate must be within [0, 1]: " + errorRate);
+        }
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * bind an ephemeral loopback port and start serving
+     * @return
+     */
+    public MockPerpServer start() {
+        try {
+            this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to bind mock perp server", e);
+        }
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+
+        fixture(PerpPath.TICKER, "ticker.json", false);
+        fixture(PerpPath.ORDER_BOOK, "order-book.json", false);
+        fixture(PerpPath.ORACLE, "oracle.json", false);
+        fixture(PerpPath.TRADING_PAIR, "trading-pair.json", false);
+        fixture(PerpPath.POSITIONS, "positions.json", true);
+        fixture(PerpPath.ORDERS, "orders.json", true);
+        fixture(PerpPath.ACCOUNT, "account.json", true);
+        fixture(PerpPath.HISTORY_ORDERS, "history-orders.json", true);
+        fixture(PerpPath.FUNDING_SETTLEMENTS, "funding-settlements.json", true);
+        fixture(PerpPath.BALANCE_CHANGES, "balance-changes.json", true);
+        route(PerpPath.AUTHORIZE, this::authorize);
+        route(PerpPath.PLACE_ORDER, this::placeOrder);
+        route(PerpPath.CANCEL_ORDER, this::cancelOrder);
+
+        server.start();
+        log.info("Mock perp server listening on {}", baseUrl());
+        return this;
+    }
+
+    /**
+     * base url of the running server
+     * @return
+     */
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * testnet configuration pointing the http endpoint at this server
+     * @return
+     */
+    public PerpConfig perpConfig() {
+        PerpConfig testnet = PerpConfigs.TESTNET_CONFIG;
+        return new PerpConfig(
+                testnet.suiRpc(),
+                baseUrl(),
+                testnet.packageId(),
+                testnet.protocolConfig(),
+                testnet.coinType(),
+                testnet.bank(),
+                testnet.subAccounts(),
+                testnet.txIndexer(),
+                testnet.pythNetwork()
+        );
+    }
+
+    /**
+     * requests served for a path, including injected failures
+     * @param path
+     * @return
+     */
+    public long requestCount(String path) {
+        LongAdder counter = requestCounts.get(path);
+        return counter == null ? 0L : counter.sum();
+    }
+
+    public long injectedErrors() {
+        return injectedErrors.sum();
+    }
+
+    public long rejectedRequests() {
+        return rejectedRequests.sum();
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.close();
+            executor = null;
+        }
+    }
+
+    private void fixture(String path, String name, boolean authenticated) {
+        byte[] body = load(name);
+        route(path, exchange -> {
+            if (authenticated && !isAuthenticated(exchange)) {
+                return reject("unauthorized");
+            }
+            return body;
+        });
+    }
+
+    private void route(String path, Handler handler) {
+        LongAdder counter = requestCounts.computeIfAbsent(path, k -> new LongAdder());
+        server.createContext(path, exchange -> {
+            try (exchange) {
+                counter.increment();
+                simulateLatency();
+                byte[] body;
+                if (errorRate > 0.0D && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                    injectedErrors.increment();
+                    body = objectMapper.writeValueAsBytes(ApiResponse.error("injected failure"));
+                } else {
+                    body = handler.handle(exchange);
+                }
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (Exception e) {
+                log.warn("Mock perp server failed to handle {}", path, e);
+            }
+        });
+    }
+
+    private byte[] authorize(HttpExchange exchange) throws IOException {
+        AuthorizationRequest request = objectMapper.readValue(exchange.getRequestBody(), AuthorizationRequest.class);
+        if (!Boolean.TRUE.equals(request.getIsTermAccepted())
+                || !isSignedBy(PerpConstant.ONBOARDING_MSG, request.getSignature(), request.getUserAddress())) {
+            return reject("invalid onboarding signature");
+        }
+        String token = UUID.randomUUID().toString();
+        sessions.put(token, request.getUserAddress());
+        AuthorizationResponse response = new AuthorizationResponse();
+        response.setWalletAddress(request.getUserAddress());
+        response.setToken(token);
+        return objectMapper.writeValueAsBytes(ApiResponse.success(response));
+    }
+
+    private byte[] placeOrder(HttpExchange exchange) throws IOException {
+        if (!isAuthenticated(exchange)) {
+            return reject("unauthorized");
+        }
+        PlaceOrderRequest request = objectMapper.readValue(exchange.getRequestBody(), PlaceOrderRequest.class);
+        String serializedOrder = OrderUtil.getSerializedOrder(request);
+        if (serializedOrder == null || serializedOrder.isEmpty()
+                || !isSignedBy(serializedOrder, request.getOrderSignature(), exchange.getRequestHeaders().getFirst(HEADER_ADDR))) {
+            return reject("invalid order signature");
+        }
+        String orderHash = Hex.toHexString(blake2b256(serializedOrder.getBytes(StandardCharsets.UTF_8)));
+        return objectMapper.writeValueAsBytes(ApiResponse.success(orderHash));
+    }
+
+    private byte[] cancelOrder(HttpExchange exchange) throws IOException {
+        if (!isAuthenticated(exchange)) {
+            return reject("unauthorized");
+        }
+        CancelOrderRequest request = objectMapper.readValue(exchange.getRequestBody(), CancelOrderRequest.class);
+        if (request.getOrderHashes() == null || request.getOrderHashes().isEmpty()
+                || !isSignedBy(OrderUtil.getSerializedCancelOrder(request.getOrderHashes()), request.getSignature(), exchange.getRequestHeaders().getFirst(HEADER_ADDR))) {
+            return reject("invalid cancel signature");
+        }
+        List<CancelOrderResponse.CancelResult> results = new ArrayList<>(request.getOrderHashes().size());
+        for (String orderHash : request.getOrderHashes()) {
+            CancelOrderResponse.CancelResult result = new CancelOrderResponse.CancelResult();
+            result.setOrderHash(orderHash);
+            result.setStatus("SUCCESS");
+            results.add(result);
+        }
+        CancelOrderResponse response = new CancelOrderResponse();
+        response.setResults(results);
+        return objectMapper.writeValueAsBytes(ApiResponse.success(response));
+    }
+
+    private boolean isAuthenticated(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst(HEADER_AUTH);
+        if (authorization == null || !authorization.startsWith(HEADER_PREFIX)) {
+            return false;
+        }
+        String address = sessions.get(authorization.substring(HEADER_PREFIX.length()));
+        return address != null && address.equals(exchange.getRequestHeaders().getFirst(HEADER_ADDR));
+    }
+
+    /**
+     * verify a message signature (hex signature + scheme flag + base64 public key) as the backend does,
+     * the public key must also derive to the expected sui address
+     * @param msg
+     * @param signature
+     * @param address
+     * @return
+     */
+    private boolean isSignedBy(String msg, String signature, String address) {
+        if (signature == null || address == null || signature.length() <= PUBLIC_KEY_BASE64_LENGTH + 1) {
+            return false;
+        }
+        int flagIndex = signature.length() - PUBLIC_KEY_BASE64_LENGTH - 1;
+        String scheme = signature.substring(flagIndex, flagIndex + 1);
+        try {
+            byte[] sig = Hex.decode(signature.substring(0, flagIndex));
+            byte[] publicKey = Base64.decode(signature.substring(flagIndex + 1));
+            byte[] digest = personalMessageDigest(msg.getBytes(StandardCharsets.UTF_8));
+            boolean verified;
+            byte flag;
+            if (OrderScheme.KP_ED25519.getType().equals(scheme)) {
+                flag = FLAG_ED25519;
+                Ed25519Signer signer = new Ed25519Signer();
+                signer.init(false, new Ed25519PublicKeyParameters(publicKey, 0));
+                signer.update(digest, 0, digest.length);
+                verified = signer.verifySignature(sig);
+            } else if (OrderScheme.KP_SECP256.getType().equals(scheme)) {
+                flag = FLAG_SECP256K1;
+                ECDSASigner signer = new ECDSASigner();
+                signer.init(false, new ECPublicKeyParameters(SECP256K1.getCurve().decodePoint(publicKey), SECP256K1));
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(digest);
+                verified = sig.length == 64 && signer.verifySignature(hash,
+                        new BigInteger(1, Arrays.copyOfRange(sig, 0, 32)),
+                        new BigInteger(1, Arrays.copyOfRange(sig, 32, 64)));
+            } else {
+                return false;
+            }
+            byte[] input = new byte[publicKey.length + 1];
+            input[0] = flag;
+            System.arraycopy(publicKey, 0, input, 1, publicKey.length);
+            return verified && address.equalsIgnoreCase("0x" + Hex.toHexString(blake2b256(input)));
+        } catch (RuntimeException | NoSuchAlgorithmException e) {
+            return false;
+        }
+    }
+
+    /**
+     * blake2b256 of the sui personal message intent [3, 0, 0] followed by the bcs encoded vector&lt;u8&gt;
+     * @param msg
+     * @return
+     */
+    private static byte[] personalMessageDigest(byte[] msg) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(msg.length + 8);
+        out.write(3);
+        out.write(0);
+        out.write(0);
+        int length = msg.length;
+        while (length >= 0x80) {
+            out.write((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        out.write(length);
+        out.write(msg, 0, msg.length);
+        return blake2b256(out.toByteArray());
+    }
+
+    private byte[] reject(String message) throws IOException {
+        rejectedRequests.increment();
+        return objectMapper.writeValueAsBytes(ApiResponse.error(ErrorCode.CLIENT_ERROR.getCode(), message));
+    }
+
+    private void simulateLatency() {
+        long delay = baseLatencyNanos;
+        if (jitterNanos > 0L) {
+            delay += ThreadLocalRandom.current().nextLong(jitterNanos);
+        }
+        if (delay > 0L) {
+            try {
+                Thread.sleep(Duration.ofNanos(delay));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static byte[] blake2b256(byte[] input) {
+        Blake2bDigest digest = new Blake2bDigest(256);
+        digest.update(input, 0, input.length);
+        byte[] out = new byte[32];
+        digest.doFinal(out, 0);
+        return out;
+    }
+
+    private static byte[] load(String name) {
+        try (InputStream in = MockPerpServer.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Unknown fixture: " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+
+        byte[] handle(HttpExchange exchange) throws IOException;
+
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.mock;
+
+import io.dipcoin.sui.crypto.SuiKeyPair;
+import io.dipcoin.sui.perp.client.PerpHttpClient;
+import io.dipcoin.sui.perp.client.core.AbstractHttpClient;
+import io.dipcoin.sui.perp.config.HttpLoggingConfig;
+import io.dipcoin.sui.perp.enums.LatencyPhase;
+import io.dipcoin.sui.perp.enums.OrderSide;
+import io.dipcoin.sui.perp.enums.OrderType;
+import io.dipcoin.sui.perp.exception.PerpHttpException;
+import io.dipcoin.sui.perp.metrics.HistogramMetricsRecorder;
+import io.dipcoin.sui.perp.metrics.LatencySnapshot;
+import io.dipcoin.sui.perp.metrics.PerpMetrics;
+import io.dipcoin.sui.perp.model.request.PlaceOrderRequest;
+import io.dipcoin.sui.perp.model.request.SymbolRequest;
+import io.dipcoin.sui.perp.util.DecimalUtil;
+import io.dipcoin.sui.perp.util.OrderUtil;
+import io.dipcoin.sui.perp.wallet.WalletKey;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/07 14:40
+ * @Description : offline load test against the mock perp server
+ */
+@Slf4j
+@Tag("load")
+public class PerpLoadTest {
+
+    private static final String SYMBOL = "ETH-PERP";
+
+    private static final int WORKERS = 16;
+
+    private static final int REQUESTS_PER_WORKER = 100;
+
+    private MockPerpServer server;
+
+    private HistogramMetricsRecorder recorder;
+
+    @BeforeEach
+    protected void setUp() {
+        this.server = new MockPerpServer()
+                .latency(Duration.ofMillis(1), Duration.ofMillis(2))
+                .start();
+        // keep the debug logger out of the measured path
+        AbstractHttpClient.setLoggingConfig(new HttpLoggingConfig().setSampleRate(0.0D));
+        this.recorder = new HistogramMetricsRecorder();
+        PerpMetrics.install(recorder);
+    }
+
+    @AfterEach
+    protected void tearDown() {
+        PerpMetrics.uninstall();
+        AbstractHttpClient.setLoggingConfig(new HttpLoggingConfig());
+        server.close();
+    }
+
+    @Test
+    void testMixedLoad() throws Exception {
+        PerpHttpClient client = new PerpHttpClient(server.perpConfig(), WalletKey.mainKeyPair, WalletKey.subKeyPair);
+        LongAdder failures = run(client, client.getMarketPerpId(SYMBOL));
+
+        List<LatencySnapshot> snapshots = networkSnapshots();
+        snapshots.forEach(snapshot -> log.info("{}", snapshot));
+        assertThat(failures.sum()).isZero();
+        assertThat(server.rejectedRequests()).isZero();
+        assertThat(snapshots)
+                .isNotEmpty()
+                .allMatch(snapshot -> snapshot.count() > 0L);
+    }
+
+    @Test
+    void testInjectedErrors() throws Exception {
+        PerpHttpClient client = new PerpHttpClient(server.perpConfig(), WalletKey.mainKeyPair, WalletKey.subKeyPair);
+        // resolved before errors are injected, only the measured requests may fail
+        String perpId = client.getMarketPerpId(SYMBOL);
+        server.errorRate(0.05D);
+        LongAdder failures = run(client, perpId);
+
+        log.info("Injected errors: {}, client failures: {}", server.injectedErrors(), failures.sum());
+        assertThat(failures.sum()).isEqualTo(server.injectedErrors());
+    }
+
+    private LongAdder run(PerpHttpClient client, String perpId) throws Exception {
+        SymbolRequest symbolRequest = new SymbolRequest();
+        symbolRequest.setSymbol(SYMBOL);
+        LongAdder failures = new LongAdder();
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(WORKERS)) {
+            List<Future<?>> futures = new ArrayList<>(WORKERS);
+            for (int worker = 0; worker < WORKERS; worker++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < REQUESTS_PER_WORKER; i++) {
+                        try {
+                            switch (i % 4) {
+                                case 0 -> client.ticker(symbolRequest);
+                                case 1 -> client.orderBook(symbolRequest);
+                                case 2 -> client.positions();
+                                default -> client.placeOrder(order(perpId, client.getSubAccount(), client.getMainAddress()));
+                            }
+                        } catch (PerpHttpException e) {
+                            failures.increment();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        int total = WORKERS * REQUESTS_PER_WORKER;
+        log.info("Requests: {}, elapsed: {} ms, throughput: {} req/s",
+                total, elapsedNanos / 1_000_000L, total * 1_000_000_000L / elapsedNanos);
+        return failures;
+    }
+
+    private List<LatencySnapshot> networkSnapshots() {
+        return recorder.snapshot().stream()
+                .filter(snapshot -> LatencyPhase.NETWORK.getCode().equals(snapshot.phase()))
+                .toList();
+    }
+
+    private static PlaceOrderRequest order(String perpId, SuiKeyPair subAccount, String mainAddress) {
+        PlaceOrderRequest request = new PlaceOrderRequest();
+        request.setSymbol(SYMBOL)
+                .setMarket(perpId)
+                .setPrice(DecimalUtil.toBaseUnit(new BigInteger("3940")))
+                .setQuantity(DecimalUtil.toBaseUnit(new BigDecimal("0.1")))
+                .setSide(OrderSide.BUY.getCode())
+                .setOrderType(OrderType.LIMIT.getCode())
+                .setLeverage(DecimalUtil.toBaseUnit(BigInteger.ONE))
+                .setSalt(OrderUtil.nextOrderSalt())
+                .setCreator(mainAddress)
+                .setOrderSignature(OrderUtil.getSignature(OrderUtil.getSerializedOrder(request), subAccount));
+        return request;
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.model.compact;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dipcoin.sui.perp.enums.MarginType;
+import io.dipcoin.sui.perp.enums.OrderSide;
+import io.dipcoin.sui.perp.model.ApiResponse;
+import io.dipcoin.sui.perp.model.PageResponse;
+import io.dipcoin.sui.perp.model.response.HistoryOrdersResponse;
+import io.dipcoin.sui.perp.model.response.OrdersResponse;
+import io.dipcoin.sui.perp.model.response.PositionResponse;
+import io.dipcoin.sui.perp.util.DecimalUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/21 15:00
+ * @Description : compact model test
+ */
+public class CompactModelTest {
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    protected void setUp() {
+        this.objectMapper = new ObjectMapper();
+    }
+
+    @Test
+    void testPositionsMatchStringModel() throws IOException {
+        List<PositionResponse> positions = this.read("positions.json", new TypeReference<ApiResponse<List<PositionResponse>>>() {}).getData();
+        List<CompactPosition> compact = this.read("positions.json", new TypeReference<ApiResponse<List<CompactPosition>>>() {}).getData();
+
+        assertThat(compact).hasSameSizeAs(positions);
+        for (int i = 0; i < positions.size(); i++) {
+            PositionResponse position = positions.get(i);
+            CompactPosition compactPosition = compact.get(i);
+            assertThat(compactPosition.getId()).isEqualTo(position.getId());
+            assertThat(compactPosition.getSymbol()).isEqualTo(position.getSymbol());
+            assertThat(compactPosition.getMargin()).isEqualTo(DecimalUtil.baseUnitToFixed(position.getMargin()));
+            assertThat(compactPosition.getUnrealizedProfit()).isEqualTo(DecimalUtil.baseUnitToFixed(position.getUnrealizedProfit()));
+            assertThat(compactPosition.getSide()).isEqualTo(OrderSide.fromCode(position.getSide()));
+            assertThat(compactPosition.getMarginType()).isEqualTo(MarginType.fromCode(position.getMarginType()));
+        }
+    }
+
+    @Test
+    void testOrdersMatchStringModel() throws IOException {
+        List<OrdersResponse> orders = this.read("orders.json", new TypeReference<ApiResponse<PageResponse<OrdersResponse>>>() {}).getData().getData();
+        PageResponse<CompactOrder> page = this.read("orders.json", new TypeReference<ApiResponse<PageResponse<CompactOrder>>>() {}).getData();
+
+        assertThat(page.getData()).hasSameSizeAs(orders);
+        CompactOrder order = page.getData().getFirst();
+        assertThat(order.getPrice()).isEqualTo(DecimalUtil.baseUnitToFixed(orders.getFirst().getPrice()));
+        assertThat(order.getOrderStatus().getCode()).isEqualTo(orders.getFirst().getOrderStatus());
+        assertThat(order.getOrderType().getCode()).isEqualTo(orders.getFirst().getOrderType());
+        assertThat(order.getSalt()).isEqualTo(orders.getFirst().getSalt());
+    }
+
+    @Test
+    void testHistoryOrdersMatchStringModel() throws IOException {
+        List<HistoryOrdersResponse> orders = this.read("history-orders.json", new TypeReference<ApiResponse<PageResponse<HistoryOrdersResponse>>>() {}).getData().getData();
+        List<CompactHistoryOrder> compact = this.read("history-orders.json", new TypeReference<ApiResponse<PageResponse<CompactHistoryOrder>>>() {}).getData().getData();
+
+        assertThat(compact).hasSameSizeAs(orders);
+        for (int i = 0; i < orders.size(); i++) {
+            assertThat(compact.get(i).getRealizedPnl()).isEqualTo(DecimalUtil.baseUnitToFixed(orders.get(i).getRealizedPnl()));
+            assertThat(compact.get(i).getOrderStatus().getCode()).isEqualTo(orders.get(i).getOrderStatus());
+            assertThat(compact.get(i).isReduceOnly()).isEqualTo(orders.get(i).getReduceOnly());
+        }
+    }
+
+    @Test
+    void testUnknownCodesAndEmptyAmounts() throws IOException {
+        CompactHistoryOrder order = objectMapper.readValue("""
+                {"id":1,"orderStatus":"EXPIRED","side":"BUY","triggerPrice":"","price":null,"extra":{"nested":[1,2]},"quantity":"2000000000"}
+                """, CompactHistoryOrder.class);
+
+        assertThat(order.getOrderStatus()).isNull();
+        assertThat(order.getSide()).isEqualTo(OrderSide.BUY);
+        assertThat(order.getTriggerPrice()).isEqualTo(DecimalUtil.NULL_FIXED);
+        assertThat(order.getPrice()).isEqualTo(DecimalUtil.NULL_FIXED);
+        assertThat(order.getQuantity()).isEqualTo(2L);
+    }
+
+    private <T> T read(String fixture, TypeReference<T> type) throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/fixtures/" + fixture)) {
+            return objectMapper.readValue(in, type);
+        }
+    }
+
+}
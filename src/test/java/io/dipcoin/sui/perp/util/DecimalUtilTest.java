@@ -0,0 +1,47 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.dipcoin.sui.perp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/21 10:00
+ * @Description : decimal util test
+ */
+public class DecimalUtilTest {
+
+    @Test
+    void testBaseUnitToFixed() {
+        assertThat(DecimalUtil.baseUnitToFixed("3858050000000000000000")).isEqualTo(3_858_050_000_000L);
+        assertThat(DecimalUtil.baseUnitToFixed("12000000000000")).isEqualTo(12_000L);
+        assertThat(DecimalUtil.baseUnitToFixed("-16367968999999999999")).isEqualTo(-16_367_968_999L);
+        assertThat(DecimalUtil.baseUnitToFixed("999999999")).isZero();
+        assertThat(DecimalUtil.baseUnitToFixed("1.5E+18")).isEqualTo(1_500_000_000L);
+        assertThatThrownBy(() -> DecimalUtil.baseUnitToFixed("99999999999999999999999999999")).isInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void testFixedRoundTrip() {
+        assertThat(DecimalUtil.toFixed(new BigDecimal("114.2625159"))).isEqualTo(114_262_515_900L);
+        assertThat(DecimalUtil.toFixed(new BigDecimal("-0.0000000019"))).isEqualTo(-1L);
+        assertThat(DecimalUtil.fromFixed(114_262_515_900L)).isEqualByComparingTo("114.2625159");
+    }
+
+}
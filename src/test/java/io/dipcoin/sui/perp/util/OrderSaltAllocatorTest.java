@@ -0,0 +1,89 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dipcoin.sui.perp.model.compact.CompactOrder;
+import io.dipcoin.sui.perp.model.response.OrdersResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/14 16:50
+ * @Description : order salt allocator test
+ */
+public class OrderSaltAllocatorTest {
+
+    @Test
+    void testSaltsUniqueAcrossThreadsAndNodes() throws InterruptedException {
+        OrderSaltAllocator first = new OrderSaltAllocator(1);
+        OrderSaltAllocator second = new OrderSaltAllocator(2);
+        Set<Long> salts = ConcurrentHashMap.newKeySet();
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int i = 0; i < 4; i++) {
+                executor.submit(() -> {
+                    for (int j = 0; j < 10_000; j++) {
+                        salts.add(first.next());
+                        salts.add(second.next());
+                    }
+                });
+            }
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(salts).hasSize(80_000);
+    }
+
+    @Test
+    void testSaltsStayUniqueBeyondSequencePerSecond() {
+        OrderSaltAllocator allocator = new OrderSaltAllocator(7);
+        Set<Long> salts = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 5_000; i++) {
+            salts.add(allocator.next());
+        }
+        assertThat(salts).hasSize(5_000);
+    }
+
+    @Test
+    void testSaltLayout() {
+        long before = System.currentTimeMillis() / 1000L;
+        long salt = new OrderSaltAllocator(0xABCD).next();
+
+        assertThat(salt).isPositive();
+        // counters start at the second after construction
+        assertThat((salt >>> 31) + 1_735_689_600L).isBetween(before + 1, System.currentTimeMillis() / 1000L + 1);
+        assertThat((salt >>> 15) & 0xFFFF).isEqualTo(0xABCD);
+        assertThat(Long.parseLong(OrderUtil.nextOrderSalt())).isPositive();
+    }
+
+    @Test
+    void testSaltRoundTripsThroughOrdersResponse() throws Exception {
+        String salt = OrderUtil.nextOrderSalt();
+        String json = "{\"id\":1,\"symbol\":\"BTC-PERP\",\"salt\":" + salt + "}";
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        assertThat(objectMapper.readValue(json, OrdersResponse.class).getSalt()).isEqualTo(Long.parseLong(salt));
+        assertThat(objectMapper.readValue(json, CompactOrder.class).getSalt()).isEqualTo(Long.parseLong(salt));
+    }
+
+}
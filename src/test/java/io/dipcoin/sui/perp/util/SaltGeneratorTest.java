@@ -0,0 +1,74 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.util;
+
+import io.dipcoin.sui.perp.config.SaltConfig;
+import io.dipcoin.sui.perp.enums.SaltMode;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/14 15:20
+ * @Description : salt generator test
+ */
+public class SaltGeneratorTest {
+
+    @AfterEach
+    protected void tearDown() {
+        SaltGenerator.setConfig(new SaltConfig());
+    }
+
+    @Test
+    void testCounterSaltsUnique() throws InterruptedException {
+        SaltGenerator.setConfig(new SaltConfig().setMode(SaltMode.COUNTER).setNodeId(0x1234));
+        Set<String> salts = ConcurrentHashMap.newKeySet();
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int i = 0; i < 4; i++) {
+                executor.submit(() -> {
+                    for (int j = 0; j < 10_000; j++) {
+                        salts.add(Hex.toHexString(SaltGenerator.nextSalt()));
+                    }
+                });
+            }
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        }
+        assertThat(salts).hasSize(40_000);
+
+        byte[] salt = SaltGenerator.nextSalt(Long.BYTES);
+        assertThat(salt).hasSize(Long.BYTES);
+        assertThat(salt[0]).isEqualTo((byte) 0x12);
+        assertThat(salt[1]).isEqualTo((byte) 0x34);
+    }
+
+    @Test
+    void testSaltLength() {
+        assertThat(SaltGenerator.nextSalt()).hasSize(SaltGenerator.SALT_LENGTH);
+        assertThat(OrderUtil.getSalt()).hasSize(Long.BYTES);
+        assertThatThrownBy(() -> SaltGenerator.nextSalt(4)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
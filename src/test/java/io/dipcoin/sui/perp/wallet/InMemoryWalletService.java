@@ -0,0 +1,106 @@
+/*
+ * Copyright 2025 Dipcoin LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");you may not use this file except in compliance with
+ * the License.You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,software distributed under the License is distributed on
+ * an "AS IS" BASIS,WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+
+package io.dipcoin.sui.perp.wallet;
+
+import io.dipcoin.sui.crypto.SuiKeyPair;
+import io.dipcoin.sui.perp.client.chain.SignRequest;
+import io.dipcoin.sui.perp.client.chain.WalletService;
+import org.bouncycastle.util.encoders.Base64;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author : Same
+ * @datetime : 2025/11/17 15:00
+ * @Description : in-memory wallet for tests, every sign or signBatch call waits the configured latency like a
+ * remote HSM / KMS would. signatures are the key pair's personal message signatures of the bytes, fine against
+ * mocked submission but not accepted by a node
+ */
+public class InMemoryWalletService implements WalletService {
+
+    private final Map<String, SuiKeyPair> keyPairs = new ConcurrentHashMap<>();
+
+    private final Duration latency;
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private final AtomicInteger signatures = new AtomicInteger();
+
+    public InMemoryWalletService(Duration latency, SuiKeyPair... keyPairs) {
+        this.latency = latency;
+        for (SuiKeyPair keyPair : keyPairs) {
+            this.keyPairs.put(keyPair.address(), keyPair);
+        }
+    }
+
+    @Override
+    public String sign(String address, byte[] txData) {
+        calls.incrementAndGet();
+        this.await();
+        return this.signature(address, txData);
+    }
+
+    @Override
+    public List<String> signBatch(List<SignRequest> requests) {
+        calls.incrementAndGet();
+        this.await();
+        return requests.stream().map(request -> this.signature(request.address(), request.txData())).toList();
+    }
+
+    /**
+     * sign / signBatch calls so far
+     * @return
+     */
+    public int calls() {
+        return calls.get();
+    }
+
+    /**
+     * signatures produced so far
+     * @return
+     */
+    public int signatures() {
+        return signatures.get();
+    }
+
+    private String signature(String address, byte[] txData) {
+        SuiKeyPair keyPair = keyPairs.get(address);
+        if (keyPair == null) {
+            throw new IllegalArgumentException("Unknown wallet address: " + address);
+        }
+        try {
+            String signature = Base64.toBase64String(keyPair.signSignaturePersonalMessage(txData));
+            signatures.incrementAndGet();
+            return signature;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to sign for " + address, e);
+        }
+    }
+
+    private void await() {
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while signing", e);
+        }
+    }
+
+}